@@ -0,0 +1,126 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.jobs;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.kie.kogito.jobs.service.model.JobDetails;
+import org.kie.kogito.jobs.service.model.JobStatus;
+import org.kie.kogito.jobs.service.repository.impl.InMemoryJobRepository;
+import org.kie.kogito.jobs.service.utils.DateUtil;
+import org.kie.kogito.timer.impl.PointInTimeTrigger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.vertx.core.Vertx;
+
+/**
+ * Reads the next page of due jobs from the in-memory repository, the query the scheduler runs on each loading period,
+ * with the jobs spread over a day and one in ten of them already executed. The linear scan baseline is the query of the
+ * repository before it was indexed by status and fire time, run on the same jobs and the same worker pool.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InMemoryJobRepositoryBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({ "10000", "100000" })
+    int storedJobs;
+
+    private Vertx vertx;
+
+    private InMemoryJobRepository repository;
+
+    private final Map<String, JobDetails> jobMap = new ConcurrentHashMap<>();
+
+    private ZonedDateTime from;
+
+    private ZonedDateTime to;
+
+    @Setup
+    public void setUp() {
+        vertx = Vertx.vertx();
+        repository = new InMemoryJobRepository(vertx, null);
+        long now = System.currentTimeMillis();
+        long step = TimeUnit.DAYS.toMillis(1) / storedJobs;
+        List<JobDetails> jobs = new ArrayList<>(storedJobs);
+        for (int i = 0; i < storedJobs; i++) {
+            jobs.add(JobDetails.builder()
+                    .id("job-" + i)
+                    .status(i % 10 == 0 ? JobStatus.EXECUTED : JobStatus.SCHEDULED)
+                    .priority(i % 5)
+                    .trigger(new PointInTimeTrigger(now + i * step, null, null))
+                    .build());
+        }
+        repository.doSaveAll(jobs).toCompletableFuture().join();
+        jobs.forEach(job -> jobMap.put(job.getId(), job));
+        from = DateUtil.now().plusHours(12);
+        to = from.plusMinutes(10);
+    }
+
+    @TearDown
+    public void tearDown() {
+        vertx.close();
+    }
+
+    @Benchmark
+    public List<JobDetails> findDueJobsPage() {
+        return repository.findPageByStatusBetweenDatesOrderByFireTime(from, null, to, PAGE_SIZE, JobStatus.SCHEDULED)
+                .toCompletableFuture().join();
+    }
+
+    @Benchmark
+    public List<JobDetails> findDueJobsPageLinearScan() {
+        final long after = from.toInstant().toEpochMilli();
+        final long until = to.toInstant().toEpochMilli();
+        return repository.runAsync(() -> jobMap.values()
+                .stream()
+                .filter(j -> JobStatus.SCHEDULED.equals(j.getStatus()))
+                .filter(j -> Objects.nonNull(j.getTrigger().hasNextFireTime()))
+                .filter(j -> fireTime(j) >= after && fireTime(j) <= until)
+                .sorted(Comparator.comparingLong(InMemoryJobRepositoryBenchmark::fireTime).thenComparing(JobDetails::getId))
+                .limit(PAGE_SIZE)
+                .collect(Collectors.toList()))
+                .toCompletableFuture().join();
+    }
+
+    private static long fireTime(JobDetails job) {
+        return job.getTrigger().hasNextFireTime().getTime();
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.jobs;
+
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.kogito.jobs.service.api.recipient.http.HttpRecipient;
+import org.kie.kogito.jobs.service.api.recipient.http.HttpRecipientStringPayloadData;
+import org.kie.kogito.jobs.service.model.Recipient;
+import org.kie.kogito.jobs.service.model.RecipientInstance;
+import org.kie.kogito.jobs.service.repository.marshaller.BinaryRecipientMarshaller;
+import org.kie.kogito.jobs.service.repository.marshaller.BinaryTriggerMarshaller;
+import org.kie.kogito.jobs.service.repository.marshaller.RecipientMarshaller;
+import org.kie.kogito.jobs.service.repository.marshaller.TriggerMarshaller;
+import org.kie.kogito.timer.Trigger;
+import org.kie.kogito.timer.impl.SimpleTimerTrigger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Writes a job trigger and recipient to the bytes stored in the database and reads them back, with the JSON and the
+ * binary marshallers. Run it with {@code -prof gc} to compare the allocations as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JobMarshallingBenchmark {
+
+    private final TriggerMarshaller triggerMarshaller = new TriggerMarshaller();
+
+    private final RecipientMarshaller recipientMarshaller = new RecipientMarshaller();
+
+    private final BinaryTriggerMarshaller binaryTriggerMarshaller = new BinaryTriggerMarshaller();
+
+    private final BinaryRecipientMarshaller binaryRecipientMarshaller = new BinaryRecipientMarshaller();
+
+    private final Trigger trigger = new SimpleTimerTrigger(new Date(), 4, ChronoUnit.HOURS, 3, null, "+02:00");
+
+    private final Recipient recipient = new RecipientInstance(HttpRecipient.builder().forStringPayload()
+            .url("http://localhost:8080/management/jobs/travels/instances/5c3a9fe1-8b35-4a0d-a0c1-8d6b7b3a2a17/timers/1")
+            .header("processId", "travels")
+            .header("processInstanceId", "5c3a9fe1-8b35-4a0d-a0c1-8d6b7b3a2a17")
+            .payload(HttpRecipientStringPayloadData.from("{\"processInstanceId\":\"5c3a9fe1-8b35-4a0d-a0c1-8d6b7b3a2a17\"}"))
+            .build());
+
+    @Benchmark
+    public Trigger jsonTrigger() {
+        byte[] bytes = triggerMarshaller.marshall(trigger).toBuffer().getBytes();
+        return triggerMarshaller.unmarshall(new JsonObject(Buffer.buffer(bytes)));
+    }
+
+    @Benchmark
+    public Trigger binaryTrigger() {
+        return binaryTriggerMarshaller.unmarshall(binaryTriggerMarshaller.marshall(trigger));
+    }
+
+    @Benchmark
+    public Recipient jsonRecipient() {
+        byte[] bytes = recipientMarshaller.marshall(recipient).toBuffer().getBytes();
+        return recipientMarshaller.unmarshall(new JsonObject(Buffer.buffer(bytes)));
+    }
+
+    @Benchmark
+    public Recipient binaryRecipient() {
+        return binaryRecipientMarshaller.unmarshall(binaryRecipientMarshaller.marshall(recipient));
+    }
+}
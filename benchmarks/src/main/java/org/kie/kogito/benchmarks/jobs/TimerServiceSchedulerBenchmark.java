@@ -0,0 +1,135 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks.jobs;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.kogito.jobs.service.model.JobDetails;
+import org.kie.kogito.jobs.service.model.JobDetailsContext;
+import org.kie.kogito.jobs.service.model.ManageableJobHandle;
+import org.kie.kogito.jobs.service.scheduler.impl.TimingWheelTimerServiceScheduler;
+import org.kie.kogito.jobs.service.scheduler.impl.VertxTimerServiceScheduler;
+import org.kie.kogito.timer.Job;
+import org.kie.kogito.timer.impl.PointInTimeTrigger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.vertx.mutiny.core.Vertx;
+
+/**
+ * Schedules, cancels and fires jobs while many others are pending, with one Vert.x timer per job and with the timing
+ * wheel. The heap retained by the pending jobs is printed at the start of each trial, the allocation rate of the
+ * operations is reported by running with {@code -prof gc}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TimerServiceSchedulerBenchmark {
+
+    private static final int FIRED_JOBS = 1000;
+
+    private static final Job<JobDetailsContext> JOB = ctx -> {
+    };
+
+    private static final JobDetailsContext CONTEXT = new JobDetailsContext(JobDetails.builder().build());
+
+    @Param({ "vertx", "timing-wheel" })
+    String timerService;
+
+    @Param({ "10000", "100000", "1000000" })
+    int pendingJobs;
+
+    private Vertx vertx;
+
+    private VertxTimerServiceScheduler scheduler;
+
+    private long fireTime;
+
+    private volatile CountDownLatch fired;
+
+    private final Job<JobDetailsContext> firedJob = ctx -> fired.countDown();
+
+    @Setup
+    public void setUp() {
+        vertx = Vertx.vertx();
+        scheduler = "timing-wheel".equals(timerService) ? new TimingWheelTimerServiceScheduler(vertx, 10, 512, 3) : new VertxTimerServiceScheduler(vertx);
+        long heapBefore = usedHeap();
+        //the jobs are due in an hour, so none of them fires during the run
+        fireTime = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+        for (int i = 0; i < pendingJobs; i++) {
+            schedule(JOB, fireTime + i);
+        }
+        System.out.printf("%nRetained heap of %d pending jobs (%s): %d bytes per job%n", pendingJobs, timerService,
+                (usedHeap() - heapBefore) / pendingJobs);
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.shutdown();
+        vertx.closeAndAwait();
+    }
+
+    @Benchmark
+    public boolean scheduleAndCancel() {
+        return scheduler.removeJob(schedule(JOB, fireTime + pendingJobs / 2));
+    }
+
+    /**
+     * Schedules a batch of jobs due right away and waits for all of them to fire, the time includes the resolution of
+     * the timer service.
+     */
+    @Benchmark
+    @OperationsPerInvocation(FIRED_JOBS)
+    public void fire() throws InterruptedException {
+        fired = new CountDownLatch(FIRED_JOBS);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < FIRED_JOBS; i++) {
+            schedule(firedJob, now);
+        }
+        if (!fired.await(1, TimeUnit.MINUTES)) {
+            throw new IllegalStateException(fired.getCount() + " jobs were not fired");
+        }
+    }
+
+    private ManageableJobHandle schedule(Job<JobDetailsContext> job, long time) {
+        return scheduler.scheduleJob(job, CONTEXT, new PointInTimeTrigger(time, null, null));
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
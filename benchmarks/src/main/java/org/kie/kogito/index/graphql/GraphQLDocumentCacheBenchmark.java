@@ -0,0 +1,120 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.index.graphql;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.scalars.ExtendedScalars;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+
+/**
+ * Executes the process instances query of the management console against the data index schema, with the parsed
+ * document cache and without it. The data fetchers return nothing, so the parsing and validation of the query are
+ * most of the measured time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GraphQLDocumentCacheBenchmark {
+
+    private static final String QUERY = "query getProcessInstances($where: ProcessInstanceArgument, $offset: Int, $limit: Int, " +
+            "$orderBy: ProcessInstanceOrderBy) {\n" +
+            "  ProcessInstances(where: $where, pagination: {offset: $offset, limit: $limit}, orderBy: $orderBy) {\n" +
+            "    id processId processName parentProcessInstanceId rootProcessInstanceId roles state start end lastUpdate\n" +
+            "    endpoint serviceUrl addons businessKey\n" +
+            "    error { nodeDefinitionId message }\n" +
+            "    nodes { id name type enter exit definitionId nodeId }\n" +
+            "    milestones { id name status }\n" +
+            "  }\n" +
+            "}";
+
+    private static final Map<String, Object> VARIABLES = Map.of(
+            "where", Map.of("state", Map.of("in", List.of("ACTIVE", "ERROR"))),
+            "offset", 0,
+            "limit", 10,
+            "orderBy", Map.of("lastUpdate", "DESC"));
+
+    @Param({ "500", "0" })
+    int documentCacheSize;
+
+    private GraphQLSchema schema;
+
+    private GraphQL graphQL;
+
+    @Setup
+    public void setUp() {
+        schema = schema();
+        GraphQLPreparsedDocumentCache documentCache = new GraphQLPreparsedDocumentCache();
+        documentCache.maxSize = documentCacheSize;
+        graphQL = GraphQL.newGraphQL(schema)
+                .preparsedDocumentProvider(documentCache)
+                .build();
+    }
+
+    @Benchmark
+    public ExecutionResult execute() {
+        ExecutionInput input = ExecutionInput.newExecutionInput(QUERY).variables(VARIABLES).build();
+        //set by the GraphQLInstrumentation when running in the data index
+        input.getGraphQLContext().put(GraphQLPreparsedDocumentCache.SCHEMA_CONTEXT_KEY, schema);
+        ExecutionResult result = graphQL.execute(input);
+        if (!result.getErrors().isEmpty()) {
+            throw new IllegalStateException("Invalid benchmark query: " + result.getErrors());
+        }
+        return result;
+    }
+
+    private static GraphQLSchema schema() {
+        try (InputStream stream = GraphQLDocumentCacheBenchmark.class.getClassLoader().getResourceAsStream("basic.schema.graphqls");
+                InputStreamReader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            RuntimeWiring runtimeWiring = RuntimeWiring.newRuntimeWiring()
+                    .scalar(ExtendedScalars.DateTime)
+                    .scalar(ExtendedScalars.GraphQLBigDecimal)
+                    .scalar(ExtendedScalars.GraphQLLong)
+                    .build();
+            return new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(reader), runtimeWiring);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
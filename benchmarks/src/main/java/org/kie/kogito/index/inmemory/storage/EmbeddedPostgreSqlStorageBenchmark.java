@@ -0,0 +1,183 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.index.inmemory.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.kogito.index.model.ProcessInstance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import static org.kie.kogito.index.inmemory.storage.InMemoryStorageBenchmark.processInstance;
+
+/**
+ * Baseline of the {@link InMemoryStorageBenchmark}, running the same queries on the same process instances stored in
+ * the schema of the data index on the embedded PostgreSQL of the embedded runtimes. The queries go through
+ * plain JDBC and only map the columns of the process instance, so it is a lower bound of the PostgreSQL storage, which
+ * adds the Hibernate mapping and the nodes on top. The schema of the data index has no index on the filtered columns,
+ * the indexed runs add them on the same attributes the heap storage indexes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmbeddedPostgreSqlStorageBenchmark {
+
+    static final String SCHEMA = "db/migration/V1.32.0__data_index_create.sql";
+
+    private static final ZonedDateTime BASE = ZonedDateTime.of(2023, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private static final String COLUMNS = "SELECT id, process_id, state, business_key, start_time, last_update_time FROM processes";
+
+    @Param({ "10000", "100000" })
+    int storedInstances;
+
+    @Param({ "true", "false" })
+    boolean indexed;
+
+    private EmbeddedPostgres postgres;
+
+    private Connection connection;
+
+    @Setup
+    public void setUp() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.start();
+        connection = postgres.getPostgresDatabase().getConnection();
+        createSchema(connection);
+        if (indexed) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE INDEX idx_processes_state ON processes (state)");
+                statement.execute("CREATE INDEX idx_processes_process_id ON processes (process_id)");
+                statement.execute("CREATE INDEX idx_processes_business_key ON processes (business_key)");
+                statement.execute("CREATE INDEX idx_processes_parent ON processes (parent_process_instance_id)");
+                statement.execute("CREATE INDEX idx_processes_last_update ON processes (last_update_time)");
+            }
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO processes (id, process_id, state, business_key, start_time, last_update_time) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < storedInstances; i++) {
+                ProcessInstance pi = processInstance(i);
+                insert.setString(1, pi.getId());
+                insert.setString(2, pi.getProcessId());
+                insert.setInt(3, pi.getState());
+                insert.setString(4, pi.getBusinessKey());
+                insert.setTimestamp(5, timestamp(pi.getStart()));
+                insert.setTimestamp(6, timestamp(pi.getLastUpdate()));
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE processes");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, SQLException {
+        connection.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public List<ProcessInstance> findActiveOfProcess() throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(COLUMNS + " WHERE process_id = ? AND state = ? ORDER BY last_update_time DESC LIMIT 10")) {
+            query.setString(1, "travels");
+            query.setInt(2, 1);
+            return execute(query);
+        }
+    }
+
+    @Benchmark
+    public List<ProcessInstance> findByBusinessKey() throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(COLUMNS + " WHERE business_key = ?")) {
+            query.setString(1, "bk-42");
+            return execute(query);
+        }
+    }
+
+    @Benchmark
+    public List<ProcessInstance> findRecentlyUpdated() throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(COLUMNS + " WHERE last_update_time >= ? LIMIT 10")) {
+            query.setTimestamp(1, timestamp(BASE.plusMinutes(storedInstances - 60)));
+            return execute(query);
+        }
+    }
+
+    /**
+     * Creates the tables of the data index with the script of its PostgreSQL storage.
+     */
+    static void createSchema(Connection connection) throws IOException, SQLException {
+        try (Statement statement = connection.createStatement();
+                InputStream schema = EmbeddedPostgreSqlStorageBenchmark.class.getClassLoader().getResourceAsStream(SCHEMA)) {
+            statement.execute(new String(schema.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static List<ProcessInstance> execute(PreparedStatement query) throws SQLException {
+        List<ProcessInstance> result = new ArrayList<>();
+        try (ResultSet resultSet = query.executeQuery()) {
+            while (resultSet.next()) {
+                ProcessInstance pi = new ProcessInstance();
+                pi.setId(resultSet.getString(1));
+                pi.setProcessId(resultSet.getString(2));
+                pi.setState(resultSet.getInt(3));
+                pi.setBusinessKey(resultSet.getString(4));
+                pi.setStart(zoned(resultSet.getTimestamp(5)));
+                pi.setLastUpdate(zoned(resultSet.getTimestamp(6)));
+                result.add(pi);
+            }
+        }
+        return result;
+    }
+
+    private static Timestamp timestamp(ZonedDateTime time) {
+        return Timestamp.valueOf(time.withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime());
+    }
+
+    private static ZonedDateTime zoned(Timestamp timestamp) {
+        return timestamp.toLocalDateTime().atZone(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.index.inmemory.storage;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.kogito.index.model.NodeInstance;
+import org.kie.kogito.index.model.ProcessInstance;
+import org.kie.kogito.persistence.api.query.SortDirection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.kie.kogito.index.storage.Constants.LAST_UPDATE;
+import static org.kie.kogito.index.storage.Constants.PROCESS_ID;
+import static org.kie.kogito.index.storage.Constants.PROCESS_INSTANCES_STORAGE;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.equalTo;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.greaterThanEqual;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.orderBy;
+
+/**
+ * Runs the queries of the management console against the heap backed storage of the process instances, with the
+ * indexes of the storage service and without any index.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InMemoryStorageBenchmark {
+
+    private static final ZonedDateTime BASE = ZonedDateTime.of(2023, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @Param({ "10000", "100000" })
+    int storedInstances;
+
+    @Param({ "true", "false" })
+    boolean indexed;
+
+    private InMemoryStorage<ProcessInstance> storage;
+
+    @Setup
+    public void setUp() {
+        storage = new InMemoryStorage<>(PROCESS_INSTANCES_STORAGE, ProcessInstance.class.getName(), new TypeEntryMapper<>(ProcessInstance.class));
+        if (indexed) {
+            storage.addHashIndex("state").addHashIndex(PROCESS_ID).addHashIndex("businessKey").addHashIndex("parentProcessInstanceId")
+                    .addSortedIndex(LAST_UPDATE);
+        }
+        for (int i = 0; i < storedInstances; i++) {
+            ProcessInstance pi = processInstance(i);
+            storage.put(pi.getId(), pi);
+        }
+    }
+
+    @Benchmark
+    public List<ProcessInstance> findActiveOfProcess() {
+        return storage.query()
+                .filter(asList(equalTo(PROCESS_ID, "travels"), equalTo("state", 1)))
+                .sort(singletonList(orderBy(LAST_UPDATE, SortDirection.DESC)))
+                .limit(10)
+                .execute();
+    }
+
+    @Benchmark
+    public List<ProcessInstance> findByBusinessKey() {
+        return storage.query()
+                .filter(singletonList(equalTo("businessKey", "bk-42")))
+                .execute();
+    }
+
+    @Benchmark
+    public List<ProcessInstance> findRecentlyUpdated() {
+        return storage.query()
+                .filter(singletonList(greaterThanEqual(LAST_UPDATE, BASE.plusMinutes(storedInstances - 60))))
+                .limit(10)
+                .execute();
+    }
+
+    static ProcessInstance processInstance(int i) {
+        NodeInstance node = new NodeInstance();
+        node.setId("pi-" + i + "-1");
+        node.setNodeId("1");
+        node.setEnter(BASE.plusMinutes(i));
+        List<NodeInstance> nodes = new ArrayList<>();
+        nodes.add(node);
+        ProcessInstance pi = new ProcessInstance();
+        pi.setId("pi-" + i);
+        pi.setProcessId(asList("travels", "hotels", "flights").get(i % 3));
+        pi.setState(i % 4);
+        pi.setBusinessKey("bk-" + i % 1000);
+        pi.setStart(BASE.plusMinutes(i));
+        pi.setLastUpdate(BASE.plusMinutes(i));
+        pi.setNodes(nodes);
+        return pi;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.index.inmemory.storage;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.kogito.index.model.Job;
+import org.kie.kogito.index.model.ProcessInstance;
+import org.kie.kogito.index.model.UserTaskInstance;
+import org.kie.kogito.persistence.api.listener.OverflowStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import static org.kie.kogito.index.storage.Constants.JOBS_STORAGE;
+import static org.kie.kogito.index.storage.Constants.PROCESS_INSTANCES_STORAGE;
+import static org.kie.kogito.index.storage.Constants.USER_TASK_INSTANCES_STORAGE;
+
+/**
+ * Measures the time until the storage of the data index is ready in a new JVM, with the heap storage and with the
+ * embedded PostgreSQL started and migrated to the schema of the data index.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+@State(Scope.Benchmark)
+public class StorageStartupBenchmark {
+
+    private EmbeddedPostgres postgres;
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+            postgres = null;
+        }
+    }
+
+    @Benchmark
+    public InMemoryStorageService heapStorage() {
+        InMemoryStorageService service = new InMemoryStorageService();
+        service.listenerBufferSize = 256;
+        service.listenerOverflowStrategy = OverflowStrategy.LATEST;
+        service.init();
+        service.getCache(PROCESS_INSTANCES_STORAGE, ProcessInstance.class);
+        service.getCache(USER_TASK_INSTANCES_STORAGE, UserTaskInstance.class);
+        service.getCache(JOBS_STORAGE, Job.class);
+        return service;
+    }
+
+    @Benchmark
+    public EmbeddedPostgres embeddedPostgreSql() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.start();
+        try (Connection connection = postgres.getPostgresDatabase().getConnection()) {
+            EmbeddedPostgreSqlStorageBenchmark.createSchema(connection);
+        }
+        return postgres;
+    }
+}
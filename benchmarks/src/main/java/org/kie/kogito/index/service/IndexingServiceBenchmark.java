@@ -0,0 +1,158 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.index.service;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.kogito.index.inmemory.storage.InMemoryStorage;
+import org.kie.kogito.index.inmemory.storage.TypeEntryMapper;
+import org.kie.kogito.index.model.Job;
+import org.kie.kogito.index.model.NodeInstance;
+import org.kie.kogito.index.model.ProcessInstance;
+import org.kie.kogito.index.model.UserTaskInstance;
+import org.kie.kogito.index.storage.DataIndexStorageService;
+import org.kie.kogito.persistence.api.Storage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import static org.kie.kogito.index.storage.Constants.LAST_UPDATE;
+import static org.kie.kogito.index.storage.Constants.PROCESS_ID;
+import static org.kie.kogito.index.storage.Constants.PROCESS_INSTANCES_STORAGE;
+
+/**
+ * Indexes a batch of process instance events, each process instance updated several times in the batch, one event at a
+ * time and with the bulk indexing of the batch ingestion, against the heap backed storage.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IndexingServiceBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final int BATCHES = 1000;
+
+    @Param({ "1", "10", "100" })
+    int updatesPerProcessInstance;
+
+    private IndexingService indexingService;
+
+    private int batch;
+
+    @Setup
+    public void setUp() {
+        Storage<String, ProcessInstance> processInstances = new InMemoryStorage<>(PROCESS_INSTANCES_STORAGE, ProcessInstance.class.getName(),
+                new TypeEntryMapper<>(ProcessInstance.class))
+                .addHashIndex("state").addHashIndex(PROCESS_ID).addHashIndex("businessKey").addHashIndex("parentProcessInstanceId")
+                .addSortedIndex(LAST_UPDATE);
+        indexingService = new IndexingService();
+        indexingService.manager = new ProcessInstancesStorageService(processInstances);
+    }
+
+    @Benchmark
+    public void indexOneByOne() {
+        events().forEach(indexingService::indexProcessInstance);
+    }
+
+    @Benchmark
+    public void indexBatch() {
+        indexingService.indexProcessInstances(events());
+    }
+
+    private List<ProcessInstance> events() {
+        //the batches rotate over a bounded set of process instances, so the storage and the node lists stop growing
+        String prefix = "pi-" + (batch++ % BATCHES) + "-";
+        List<ProcessInstance> events = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            events.add(processInstance(prefix + i / updatesPerProcessInstance, i % updatesPerProcessInstance));
+        }
+        return events;
+    }
+
+    private static ProcessInstance processInstance(String id, int update) {
+        ZonedDateTime now = ZonedDateTime.now();
+        NodeInstance node = new NodeInstance();
+        node.setId(id + "-node-" + update);
+        node.setNodeId(String.valueOf(update));
+        node.setEnter(now);
+        List<NodeInstance> nodes = new ArrayList<>();
+        nodes.add(node);
+        ProcessInstance pi = new ProcessInstance();
+        pi.setId(id);
+        pi.setProcessId("travels");
+        pi.setState(1);
+        pi.setStart(now);
+        pi.setLastUpdate(now);
+        pi.setNodes(nodes);
+        return pi;
+    }
+
+    private static final class ProcessInstancesStorageService implements DataIndexStorageService {
+
+        private final Storage<String, ProcessInstance> processInstances;
+
+        private ProcessInstancesStorageService(Storage<String, ProcessInstance> processInstances) {
+            this.processInstances = processInstances;
+        }
+
+        @Override
+        public Storage<String, ProcessInstance> getProcessInstancesCache() {
+            return processInstances;
+        }
+
+        @Override
+        public Storage<String, UserTaskInstance> getUserTaskInstancesCache() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Storage<String, Job> getJobsCache() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Storage<String, ObjectNode> getDomainModelCache(String processId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getDomainModelCacheName(String processId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Storage<String, String> getProcessIdModelCache() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
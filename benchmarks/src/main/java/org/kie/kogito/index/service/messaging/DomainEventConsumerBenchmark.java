@@ -0,0 +1,98 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.index.service.messaging;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.kogito.event.process.ProcessInstanceDataEvent;
+import org.kie.kogito.index.model.ProcessInstanceState;
+import org.kie.kogito.index.service.IndexingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import static org.kie.kogito.index.TestUtils.getProcessCloudEvent;
+
+/**
+ * Indexes the domain model of process instance events from several threads, all of them updating the same process
+ * instance, which is serialized as every event was before, or each one its own process instance. The storage write is
+ * simulated with a fixed amount of work.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class DomainEventConsumerBenchmark {
+
+    private static final long INDEXING_TOKENS = 10_000;
+
+    private DomainEventConsumer consumer;
+
+    private ProcessInstanceDataEvent sharedEvent;
+
+    @State(Scope.Thread)
+    public static class ThreadEvent {
+
+        ProcessInstanceDataEvent event;
+
+        @Setup
+        public void setUp() {
+            event = event();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        consumer = new DomainEventConsumer();
+        consumer.indexDomain = true;
+        consumer.indexingService = new IndexingService() {
+            @Override
+            public void indexModel(ObjectNode json) {
+                Blackhole.consumeCPU(INDEXING_TOKENS);
+            }
+        };
+        sharedEvent = event();
+    }
+
+    @Benchmark
+    public void sameProcessInstance() {
+        consumer.onDomainEvent(sharedEvent);
+    }
+
+    @Benchmark
+    public void distinctProcessInstances(ThreadEvent threadEvent) {
+        consumer.onDomainEvent(threadEvent.event);
+    }
+
+    private static ProcessInstanceDataEvent event() {
+        return getProcessCloudEvent("travels", UUID.randomUUID().toString(), ProcessInstanceState.ACTIVE, null, null, null);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.postgresql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.kogito.persistence.api.query.AttributeFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static java.util.Arrays.asList;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.equalTo;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.greaterThan;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.in;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.like;
+
+/**
+ * Generates the SQL of a query of the consoles with different values on each call, so the SQL of its shape is taken
+ * from the cache, and with a different shape on each call, so it is generated every time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PostgresQueryBenchmark {
+
+    //more shapes than the cached ones, so the cache never has the shape
+    private static final int SHAPES = 5000;
+
+    private int counter;
+
+    @Benchmark
+    public String sameShape() {
+        int value = counter++;
+        return queryString(filters("processId", value));
+    }
+
+    @Benchmark
+    public String distinctShapes() {
+        int value = counter++;
+        return queryString(filters("processId" + value % SHAPES, value));
+    }
+
+    private static List<AttributeFilter<?>> filters(String attribute, int value) {
+        return asList(equalTo(attribute, "travels-" + value),
+                in("state", asList(String.valueOf(value % 3), String.valueOf(value % 5))),
+                like("businessKey", "bk-" + value + "*"),
+                greaterThan("priority", value));
+    }
+
+    private static String queryString(List<AttributeFilter<?>> filters) {
+        PostgresQuery<Object> query = new PostgresQuery<>("processes", null, null, Object.class);
+        query.filter(filters);
+        return query.getQueryString(new ArrayList<>());
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.postgresql;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.query.NativeQuery;
+import org.kie.kogito.persistence.postgresql.model.CacheEntityRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Executes a query returning the given number of rows, decoding the JSON text of each row straight into the target
+ * type, and decodes the same rows through an intermediate tree, as the rows were read before. The rows are returned by
+ * a stub entity manager, so only the decoding is measured. Run it with {@code -prof gc} to compare the allocations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PostgresQueryDecodingBenchmark {
+
+    @Param({ "100", "10000" })
+    int rows;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<Object> results;
+
+    private PostgresQuery<Instance> query;
+
+    @Setup
+    public void setUp() {
+        results = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            results.add("{\"id\":\"" + i + "\",\"processId\":\"travels\",\"state\":1,\"roles\":[\"admin\",\"manager\"]," +
+                    "\"variables\":{\"traveller\":{\"firstName\":\"John\",\"lastName\":\"Doe\",\"nationality\":\"American\"}}}");
+        }
+        query = new PostgresQuery<>("processes", repository(), objectMapper, Instance.class);
+    }
+
+    @Benchmark
+    public List<Instance> execute() {
+        return query.execute();
+    }
+
+    @Benchmark
+    public List<Instance> decodeThroughTree() throws JsonProcessingException {
+        ObjectReader reader = objectMapper.readerFor(Instance.class);
+        List<Instance> instances = new ArrayList<>(results.size());
+        for (Object row : results) {
+            instances.add(reader.readValue(objectMapper.writeValueAsString(objectMapper.readTree((String) row))));
+        }
+        return instances;
+    }
+
+    private CacheEntityRepository repository() {
+        NativeQuery<?> nativeQuery = (NativeQuery<?>) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { NativeQuery.class },
+                (proxy, method, args) -> "getResultList".equals(method.getName()) ? results : proxy);
+        EntityManager entityManager = (EntityManager) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { EntityManager.class },
+                (proxy, method, args) -> nativeQuery);
+        return new CacheEntityRepository() {
+            @Override
+            public EntityManager getEntityManager() {
+                return entityManager;
+            }
+        };
+    }
+
+    public static class Instance {
+
+        public String id;
+        public String processId;
+        public int state;
+        public List<String> roles;
+        public Object variables;
+    }
+}
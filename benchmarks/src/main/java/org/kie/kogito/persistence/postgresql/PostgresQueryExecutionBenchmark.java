@@ -0,0 +1,182 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.postgresql;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.kie.kogito.persistence.api.query.AttributeFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import static java.util.Arrays.asList;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.equalTo;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.greaterThan;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.in;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.like;
+
+/**
+ * Executes a query of the consoles with different values on each call against an embedded PostgreSQL, the same binary
+ * the embedded runtimes start. With bound parameters the statement text does not change, so the driver reuses its
+ * server side prepared statement and plan; with the values inlined, as the queries were built before, each call is a
+ * new statement the server parses and plans.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PostgresQueryExecutionBenchmark {
+
+    private static final int STORED_ENTRIES = 10000;
+
+    private static final Pattern PARAMETER = Pattern.compile("\\?(\\d+)");
+
+    private EmbeddedPostgres postgres;
+
+    private Connection connection;
+
+    private int counter;
+
+    @Setup
+    public void setUp() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.start();
+        connection = postgres.getPostgresDatabase().getConnection();
+        try (Statement statement = connection.createStatement();
+                InputStream schema = PostgresQuery.class.getClassLoader().getResourceAsStream("cache_entity_create.sql")) {
+            statement.execute(new String(schema.readAllBytes(), StandardCharsets.UTF_8));
+            statement.execute("CREATE INDEX kogito_data_cache_json_value_idx ON kogito_data_cache USING gin (json_value)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO kogito_data_cache (key, name, json_value) VALUES (?, 'processes', cast(? as jsonb))")) {
+            for (int i = 0; i < STORED_ENTRIES; i++) {
+                insert.setString(1, String.valueOf(i));
+                insert.setString(2, String.format("{\"processId\":\"travels-%d\",\"state\":\"%d\",\"businessKey\":\"bk-%d\",\"priority\":%d}",
+                        i % 50, i % 5, i, i % 100));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE kogito_data_cache");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, SQLException {
+        connection.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public void boundParameters(Blackhole blackhole) throws SQLException {
+        List<Object> parameters = new ArrayList<>();
+        String sql = toJdbc(query(counter++).getQueryString(parameters), parameters);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            consume(statement.executeQuery(), blackhole);
+        }
+    }
+
+    @Benchmark
+    public void inlinedValues(Blackhole blackhole) throws SQLException {
+        List<Object> parameters = new ArrayList<>();
+        String sql = inline(query(counter++).getQueryString(parameters), parameters);
+        try (Statement statement = connection.createStatement()) {
+            consume(statement.executeQuery(sql), blackhole);
+        }
+    }
+
+    private static PostgresQuery<Object> query(int value) {
+        List<AttributeFilter<?>> filters = asList(equalTo("processId", "travels-" + value % 50),
+                in("state", asList(String.valueOf(value % 5), String.valueOf((value + 1) % 5))),
+                like("businessKey", "bk-" + value % 10 + "*"),
+                greaterThan("priority", value % 100));
+        PostgresQuery<Object> query = new PostgresQuery<>("processes", null, null, Object.class);
+        query.filter(filters);
+        return query;
+    }
+
+    private static void consume(ResultSet resultSet, Blackhole blackhole) throws SQLException {
+        try (resultSet) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getString("json_value"));
+            }
+        }
+    }
+
+    /**
+     * Turns the numbered parameters of the native query into JDBC ones, reordering the values to bind to match them.
+     */
+    private static String toJdbc(String sql, List<Object> parameters) {
+        List<Object> ordered = new ArrayList<>(parameters.size());
+        Matcher matcher = PARAMETER.matcher(unescape(sql));
+        StringBuilder jdbc = new StringBuilder();
+        while (matcher.find()) {
+            ordered.add(parameters.get(Integer.parseInt(matcher.group(1)) - 1));
+            matcher.appendReplacement(jdbc, "?");
+        }
+        matcher.appendTail(jdbc);
+        parameters.clear();
+        parameters.addAll(ordered);
+        return jdbc.toString();
+    }
+
+    /**
+     * Writes the values to bind as literals in the SQL.
+     */
+    private static String inline(String sql, List<Object> parameters) {
+        Matcher matcher = PARAMETER.matcher(unescape(sql));
+        StringBuilder inlined = new StringBuilder();
+        while (matcher.find()) {
+            Object value = parameters.get(Integer.parseInt(matcher.group(1)) - 1);
+            String literal = value instanceof Number ? value.toString() : "'" + value.toString().replace("'", "''") + "'";
+            matcher.appendReplacement(inlined, Matcher.quoteReplacement(literal));
+        }
+        matcher.appendTail(inlined);
+        return inlined.toString();
+    }
+
+    //the casts are escaped for Hibernate in the native queries
+    private static String unescape(String sql) {
+        return sql.replace("\\:\\:", "::");
+    }
+}
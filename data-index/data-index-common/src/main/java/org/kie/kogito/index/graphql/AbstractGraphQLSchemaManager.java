@@ -18,28 +18,45 @@ package org.kie.kogito.index.graphql;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Consumer;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderRegistry;
 import org.kie.kogito.index.api.KogitoRuntimeClient;
 import org.kie.kogito.index.graphql.query.GraphQLQueryOrderByParser;
 import org.kie.kogito.index.graphql.query.GraphQLQueryParserRegistry;
+import org.kie.kogito.index.json.JsonUtils;
 import org.kie.kogito.index.model.Node;
 import org.kie.kogito.index.model.ProcessInstance;
 import org.kie.kogito.index.model.UserTaskInstance;
 import org.kie.kogito.index.storage.DataIndexStorageService;
+import org.kie.kogito.index.storage.JsonFilterEvaluator;
 import org.kie.kogito.persistence.api.Storage;
+import org.kie.kogito.persistence.api.query.AttributeFilter;
 import org.kie.kogito.persistence.api.query.Query;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
 import graphql.schema.DataFetchingEnvironment;
 import graphql.schema.GraphQLInputObjectType;
 import graphql.schema.GraphQLNamedType;
@@ -47,14 +64,32 @@ import graphql.schema.GraphQLScalarType;
 import graphql.schema.GraphQLSchema;
 import graphql.schema.idl.SchemaParser;
 import graphql.schema.idl.TypeDefinitionRegistry;
+import io.smallrye.mutiny.Multi;
 
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 import static org.kie.kogito.persistence.api.query.QueryFilterFactory.equalTo;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.in;
 
 public abstract class AbstractGraphQLSchemaManager implements GraphQLSchemaManager {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractGraphQLSchemaManager.class);
 
+    public static final String PARENT_PROCESS_INSTANCE_LOADER = "parentProcessInstance";
+
+    public static final String CHILD_PROCESS_INSTANCES_LOADER = "childProcessInstances";
+
+    //the subscription filters use the attribute names of the model, not the renamed JSON properties, and compare the dates
+    //with their ISO representation, like the storages do
+    private static final ObjectMapper SUBSCRIPTION_MAPPER = JsonUtils.configure(JsonMapper.builder()
+            .disable(MapperFeature.USE_ANNOTATIONS)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build());
+
     @Inject
     DataIndexStorageService cacheService;
 
@@ -64,7 +99,7 @@ public abstract class AbstractGraphQLSchemaManager implements GraphQLSchemaManag
     @Inject
     KogitoRuntimeClient dataIndexApiExecutor;
 
-    private GraphQLSchema schema;
+    private volatile GraphQLSchema schema;
 
     @PostConstruct
     public void setup() {
@@ -129,55 +164,136 @@ public abstract class AbstractGraphQLSchemaManager implements GraphQLSchemaManag
         return processId.contains(".") ? processId.substring(processId.lastIndexOf('.') + 1) : processId;
     }
 
-    protected Collection<ProcessInstance> getChildProcessInstancesValues(DataFetchingEnvironment env) {
-        ProcessInstance source = env.getSource();
+    /**
+     * Creates the data loaders of the parent and child process instances. The keys requested by all the process
+     * instances of the same level of the execution are resolved with a single query and cached during the execution.
+     */
+    @Override
+    public DataLoaderRegistry createDataLoaderRegistry() {
+        DataLoaderRegistry registry = new DataLoaderRegistry();
+        registry.register(PARENT_PROCESS_INSTANCE_LOADER, DataLoaderFactory.newMappedDataLoader(this::loadProcessInstances));
+        registry.register(CHILD_PROCESS_INSTANCES_LOADER, DataLoaderFactory.newMappedDataLoader(this::loadChildProcessInstances));
+        return registry;
+    }
+
+    protected CompletionStage<Map<String, ProcessInstance>> loadProcessInstances(Set<String> ids) {
         Query<ProcessInstance> query = cacheService.getProcessInstancesCache().query();
-        query.filter(singletonList(equalTo("parentProcessInstanceId", source.getId())));
-        return query.execute();
+        query.filter(singletonList(in("id", new ArrayList<>(ids))));
+        return CompletableFuture.completedFuture(query.execute().stream().collect(toMap(ProcessInstance::getId, identity(), (pi1, pi2) -> pi1)));
+    }
+
+    protected CompletionStage<Map<String, List<ProcessInstance>>> loadChildProcessInstances(Set<String> parentIds) {
+        Query<ProcessInstance> query = cacheService.getProcessInstancesCache().query();
+        query.filter(singletonList(in("parentProcessInstanceId", new ArrayList<>(parentIds))));
+        return CompletableFuture.completedFuture(query.execute().stream().collect(groupingBy(ProcessInstance::getParentProcessInstanceId)));
     }
 
-    protected ProcessInstance getParentProcessInstanceValue(DataFetchingEnvironment env) {
+    protected CompletableFuture<List<ProcessInstance>> getChildProcessInstancesValues(DataFetchingEnvironment env) {
+        ProcessInstance source = env.getSource();
+        DataLoader<String, List<ProcessInstance>> loader = env.getDataLoader(CHILD_PROCESS_INSTANCES_LOADER);
+        if (loader == null) {
+            //executions without data loaders query the storage for each process instance
+            Query<ProcessInstance> query = cacheService.getProcessInstancesCache().query();
+            query.filter(singletonList(equalTo("parentProcessInstanceId", source.getId())));
+            return CompletableFuture.completedFuture(query.execute());
+        }
+        return loader.load(source.getId()).thenApply(children -> children == null ? emptyList() : children);
+    }
+
+    protected CompletableFuture<ProcessInstance> getParentProcessInstanceValue(DataFetchingEnvironment env) {
         ProcessInstance source = env.getSource();
         if (source.getParentProcessInstanceId() == null) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
-        Query<ProcessInstance> query = cacheService.getProcessInstancesCache().query();
-        query.filter(singletonList(equalTo("id", source.getParentProcessInstanceId())));
-        List<ProcessInstance> execute = query.execute();
-        return !execute.isEmpty() ? execute.get(0) : null;
+        DataLoader<String, ProcessInstance> loader = env.getDataLoader(PARENT_PROCESS_INSTANCE_LOADER);
+        if (loader == null) {
+            Query<ProcessInstance> query = cacheService.getProcessInstancesCache().query();
+            query.filter(singletonList(equalTo("id", source.getParentProcessInstanceId())));
+            List<ProcessInstance> execute = query.execute();
+            return CompletableFuture.completedFuture(!execute.isEmpty() ? execute.get(0) : null);
+        }
+        return loader.load(source.getParentProcessInstanceId());
     }
 
     protected Collection<ProcessInstance> getProcessInstancesValues(DataFetchingEnvironment env) {
         return executeAdvancedQueryForCache(cacheService.getProcessInstancesCache(), env);
     }
 
-    protected <T> List<T> executeAdvancedQueryForCache(Storage<String, T> cache, DataFetchingEnvironment env) {
-        Objects.requireNonNull(cache, "Cache not found");
+    protected long getProcessInstancesCount(DataFetchingEnvironment env) {
+        return createFilteredQuery(cacheService.getProcessInstancesCache(), env).count();
+    }
 
-        String inputTypeName = ((GraphQLNamedType) env.getFieldDefinition().getArgument("where").getType()).getName();
+    protected List<Map<String, Object>> getProcessInstancesAggregate(DataFetchingEnvironment env) {
+        List<String> groupBy = env.getArgument("groupBy");
+        Map<List<Object>, Long> counts = createFilteredQuery(cacheService.getProcessInstancesCache(), env).countBy(groupBy);
+        return counts.entrySet().stream().map(entry -> {
+            Map<String, Object> group = new HashMap<>();
+            for (int i = 0; i < groupBy.size(); i++) {
+                group.put(groupBy.get(i), getGroupValue(groupBy.get(i), entry.getKey().get(i)));
+            }
+            group.put("count", entry.getValue());
+            return group;
+        }).collect(toList());
+    }
 
-        Query<T> query = cache.query();
+    private static Object getGroupValue(String attribute, Object value) {
+        //the state enum is wired to the ordinal, some storages return the grouped numbers as text or decimals
+        if ("state".equals(attribute) && value != null && !(value instanceof Integer)) {
+            return new BigDecimal(value.toString()).intValue();
+        }
+        return value;
+    }
 
-        Map<String, Object> where = env.getArgument("where");
-        query.filter(GraphQLQueryParserRegistry.get().getParser(inputTypeName).apply(where));
+    protected <T> List<T> executeAdvancedQueryForCache(Storage<String, T> cache, DataFetchingEnvironment env) {
+        Query<T> query = createFilteredQuery(cache, env);
 
         query.sort(new GraphQLQueryOrderByParser().apply(env));
 
-        Map<String, Integer> pagination = env.getArgument("pagination");
+        Map<String, Object> pagination = env.getArgument("pagination");
         if (pagination != null) {
-            Integer limit = pagination.get("limit");
+            Integer limit = (Integer) pagination.get("limit");
             if (limit != null) {
                 query.limit(limit);
             }
-            Integer offset = pagination.get("offset");
+            Integer offset = (Integer) pagination.get("offset");
             if (offset != null) {
                 query.offset(offset);
             }
+            String after = (String) pagination.get("after");
+            if (after != null) {
+                query.after(after);
+            }
         }
 
         return query.execute();
     }
 
+    private <T> Query<T> createFilteredQuery(Storage<String, T> cache, DataFetchingEnvironment env) {
+        Objects.requireNonNull(cache, "Cache not found");
+
+        String inputTypeName = ((GraphQLNamedType) env.getFieldDefinition().getArgument("where").getType()).getName();
+
+        Query<T> query = cache.query();
+
+        Map<String, Object> where = env.getArgument("where");
+        query.filter(GraphQLQueryParserRegistry.get().getParser(inputTypeName).apply(where));
+        return query;
+    }
+
+    /**
+     * Applies the {@code where} argument of a subscription to the items of the shared storage listener, on the server
+     * side, so the subscribers only receive the entries they asked for.
+     */
+    protected <T> Multi<T> filterSubscription(Multi<T> listener, DataFetchingEnvironment env) {
+        Map<String, Object> where = env.getArgument("where");
+        if (where == null || where.isEmpty()) {
+            return listener;
+        }
+        String inputTypeName = ((GraphQLNamedType) env.getFieldDefinition().getArgument("where").getType()).getName();
+        List<AttributeFilter<?>> filters = GraphQLQueryParserRegistry.get().getParser(inputTypeName).apply(where);
+        return listener.select().where(item -> JsonFilterEvaluator.matches(item instanceof JsonNode ? (JsonNode) item : SUBSCRIPTION_MAPPER.valueToTree(item), filters));
+    }
+
     protected Collection<UserTaskInstance> getUserTaskInstancesValues(DataFetchingEnvironment env) {
         return executeAdvancedQueryForCache(cacheService.getUserTaskInstancesCache(), env);
     }
@@ -203,7 +319,7 @@ public abstract class AbstractGraphQLSchemaManager implements GraphQLSchemaManag
         return schema;
     }
 
-    public void transform(Consumer<GraphQLSchema.Builder> builder) {
+    public synchronized void transform(Consumer<GraphQLSchema.Builder> builder) {
         schema = schema.transform(builder);
     }
 
@@ -42,8 +42,14 @@ public class GraphQLInstrumentation extends SimpleInstrumentation {
         }
     }
 
+    /**
+     * Executes with the current schema, which is replaced when new domain models are registered. The schema is kept in
+     * the GraphQL context so the {@link GraphQLPreparsedDocumentCache} reuses the documents validated against it only.
+     */
     @Override
     public GraphQLSchema instrumentSchema(GraphQLSchema schema, InstrumentationExecutionParameters parameters) {
-        return manager.getGraphQLSchema();
+        GraphQLSchema current = manager.getGraphQLSchema();
+        parameters.getExecutionInput().getGraphQLContext().put(GraphQLPreparsedDocumentCache.SCHEMA_CONTEXT_KEY, current);
+        return current;
     }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.index.graphql;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.schema.GraphQLSchema;
+
+/**
+ * Cache of the parsed and validated query documents, keyed by the query text, so the queries issued repeatedly, like
+ * the polling ones of the consoles, are parsed and validated once. The documents are only valid for the schema they
+ * were validated against, so the cache is cleared when the schema is replaced by a new domain model.
+ * <p>
+ * The size is set with {@code kogito.data-index.graphql.document-cache-size}, 0 disables the cache.
+ */
+@ApplicationScoped
+public class GraphQLPreparsedDocumentCache implements PreparsedDocumentProvider {
+
+    /**
+     * Key of the GraphQL context entry holding the schema of the execution, set by the {@link GraphQLInstrumentation}.
+     */
+    public static final String SCHEMA_CONTEXT_KEY = GraphQLPreparsedDocumentCache.class.getName() + ".schema";
+
+    @Inject
+    GraphQLSchemaManager manager;
+
+    @ConfigProperty(name = "kogito.data-index.graphql.document-cache-size", defaultValue = "500")
+    int maxSize;
+
+    private final Map<String, PreparsedDocumentEntry> documents = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PreparsedDocumentEntry> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    //schema the cached documents were validated against, guarded by documents
+    private GraphQLSchema schema;
+
+    @Override
+    public PreparsedDocumentEntry getDocument(ExecutionInput executionInput, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        if (maxSize <= 0) {
+            return parseAndValidateFunction.apply(executionInput);
+        }
+        GraphQLSchema executionSchema = executionInput.getGraphQLContext().get(SCHEMA_CONTEXT_KEY);
+        if (executionSchema == null) {
+            executionSchema = manager.getGraphQLSchema();
+        }
+        String query = executionInput.getQuery();
+        PreparsedDocumentEntry entry = get(executionSchema, query);
+        if (entry == null) {
+            entry = parseAndValidateFunction.apply(executionInput);
+            //invalid queries are not cached, they are not expected to be repeated
+            if (!entry.hasErrors()) {
+                put(executionSchema, query, entry);
+            }
+        }
+        return entry;
+    }
+
+    private PreparsedDocumentEntry get(GraphQLSchema executionSchema, String query) {
+        synchronized (documents) {
+            return executionSchema == schema ? documents.get(query) : null;
+        }
+    }
+
+    private void put(GraphQLSchema executionSchema, String query, PreparsedDocumentEntry entry) {
+        synchronized (documents) {
+            if (executionSchema != schema) {
+                documents.clear();
+                schema = executionSchema;
+            }
+            documents.put(query, entry);
+        }
+    }
+
+    int size() {
+        synchronized (documents) {
+            return documents.size();
+        }
+    }
+}
@@ -30,10 +30,14 @@ public class GraphQLProducer {
     @Inject
     GraphQLSchemaManager manager;
 
+    @Inject
+    GraphQLPreparsedDocumentCache documentCache;
+
     @Produces
     public GraphQL createGraphQL() {
         return GraphQL.newGraphQL(manager.getGraphQLSchema())
                 .instrumentation(instrumentation)
+                .preparsedDocumentProvider(documentCache)
                 .build();
     }
 }
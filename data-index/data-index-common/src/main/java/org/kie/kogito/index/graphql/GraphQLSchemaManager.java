@@ -18,6 +18,8 @@ package org.kie.kogito.index.graphql;
 
 import java.util.function.Consumer;
 
+import org.dataloader.DataLoaderRegistry;
+
 import graphql.schema.GraphQLSchema;
 
 public interface GraphQLSchemaManager {
@@ -25,4 +27,11 @@ public interface GraphQLSchemaManager {
     GraphQLSchema getGraphQLSchema();
 
     void transform(Consumer<GraphQLSchema.Builder> builder);
+
+    /**
+     * Creates the data loaders available to the data fetchers of a single GraphQL execution.
+     */
+    default DataLoaderRegistry createDataLoaderRegistry() {
+        return new DataLoaderRegistry();
+    }
 }
@@ -15,7 +15,12 @@
  */
 package org.kie.kogito.index.service;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -25,6 +30,7 @@ import org.kie.kogito.index.model.NodeInstance;
 import org.kie.kogito.index.model.ProcessInstance;
 import org.kie.kogito.index.model.UserTaskInstance;
 import org.kie.kogito.index.storage.DataIndexStorageService;
+import org.kie.kogito.index.storage.ProcessInstanceStorage;
 import org.kie.kogito.persistence.api.Storage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,7 +39,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
-import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 import static org.kie.kogito.index.json.JsonUtils.getObjectMapper;
 import static org.kie.kogito.index.storage.Constants.ID;
 import static org.kie.kogito.index.storage.Constants.KOGITO_DOMAIN_ATTRIBUTE;
@@ -50,23 +56,82 @@ public class IndexingService {
     @Inject
     DataIndexStorageService manager;
 
+    /**
+     * Indexes the process instance, keeping the node instances already indexed that are not present in the update.
+     * The update is applied in place by the storages implementing {@link ProcessInstanceStorage}, otherwise it is
+     * merged with the stored process instance.
+     */
     public void indexProcessInstance(ProcessInstance pi) {
-        ProcessInstance previousPI = manager.getProcessInstancesCache().get(pi.getId());
+        Storage<String, ProcessInstance> cache = manager.getProcessInstancesCache();
+        if (cache instanceof ProcessInstanceStorage) {
+            ((ProcessInstanceStorage) cache).upsert(pi);
+        } else {
+            cache.merge(pi.getId(), pi, (previousPI, newPI) -> {
+                mergeNodes(newPI, previousPI);
+                return newPI;
+            });
+        }
+    }
+
+    /**
+     * Indexes the given process instances, in order. The consecutive updates of the same process instance are merged in
+     * memory first, so each process instance is written once. The storages implementing {@link ProcessInstanceStorage}
+     * apply each update in place, otherwise the process instances are read and written with the bulk operations of the
+     * storage.
+     */
+    public void indexProcessInstances(List<ProcessInstance> pis) {
+        Storage<String, ProcessInstance> cache = manager.getProcessInstancesCache();
+        if (cache instanceof ProcessInstanceStorage) {
+            merge(pis, Collections.emptyMap()).values().forEach(((ProcessInstanceStorage) cache)::upsert);
+        } else {
+            cache.putAll(merge(pis, cache.getAll(pis.stream().map(ProcessInstance::getId).collect(toSet()))));
+        }
+    }
+
+    private static Map<String, ProcessInstance> merge(List<ProcessInstance> pis, Map<String, ProcessInstance> previousPIs) {
+        Map<String, ProcessInstance> merged = new LinkedHashMap<>();
+        for (ProcessInstance pi : pis) {
+            ProcessInstance previousPI = merged.get(pi.getId());
+            mergeNodes(pi, previousPI != null ? previousPI : previousPIs.get(pi.getId()));
+            merged.put(pi.getId(), pi);
+        }
+        return merged;
+    }
+
+    private static void mergeNodes(ProcessInstance pi, ProcessInstance previousPI) {
         if (previousPI != null) {
-            List<NodeInstance> nodes = previousPI.getNodes().stream().filter(n -> !pi.getNodes().contains(n)).collect(toList());
-            pi.getNodes().addAll(nodes);
+            //node instances are identified by id
+            Set<NodeInstance> nodes = new HashSet<>(pi.getNodes());
+            previousPI.getNodes().stream().filter(n -> !nodes.contains(n)).forEach(pi.getNodes()::add);
         }
-        manager.getProcessInstancesCache().put(pi.getId(), pi);
     }
 
     public void indexJob(Job job) {
         manager.getJobsCache().put(job.getId(), job);
     }
 
+    /**
+     * Indexes the given jobs with a single bulk write, the last update of each job wins.
+     */
+    public void indexJobs(List<Job> jobs) {
+        Map<String, Job> latest = new LinkedHashMap<>();
+        jobs.forEach(job -> latest.put(job.getId(), job));
+        manager.getJobsCache().putAll(latest);
+    }
+
     public void indexUserTaskInstance(UserTaskInstance ut) {
         manager.getUserTaskInstancesCache().put(ut.getId(), ut);
     }
 
+    /**
+     * Indexes the given user task instances with a single bulk write, the last update of each task wins.
+     */
+    public void indexUserTaskInstances(List<UserTaskInstance> uts) {
+        Map<String, UserTaskInstance> latest = new LinkedHashMap<>();
+        uts.forEach(ut -> latest.put(ut.getId(), ut));
+        manager.getUserTaskInstancesCache().putAll(latest);
+    }
+
     public void indexModel(ObjectNode json) {
         String processId = json.remove(PROCESS_ID).asText();
         Storage<String, ObjectNode> cache = manager.getDomainModelCache(processId);
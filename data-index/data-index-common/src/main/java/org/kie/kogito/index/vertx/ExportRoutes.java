@@ -0,0 +1,61 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.index.vertx;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.kie.kogito.index.model.Job;
+import org.kie.kogito.index.model.ProcessInstance;
+import org.kie.kogito.index.model.UserTaskInstance;
+import org.kie.kogito.index.storage.DataIndexStorageService;
+import org.kie.kogito.persistence.api.Storage;
+
+import io.quarkus.vertx.web.ReactiveRoutes;
+import io.quarkus.vertx.web.Route;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+
+/**
+ * Exports the indexed data as newline delimited JSON. The entries are streamed from the storage as the response is
+ * written, so the memory used does not depend on the number of exported entries.
+ */
+@ApplicationScoped
+public class ExportRoutes {
+
+    @Inject
+    DataIndexStorageService cacheService;
+
+    @Route(path = "/export/processes", methods = Route.HttpMethod.GET, produces = ReactiveRoutes.ND_JSON)
+    public Multi<ProcessInstance> exportProcessInstances() {
+        return export(cacheService.getProcessInstancesCache());
+    }
+
+    @Route(path = "/export/tasks", methods = Route.HttpMethod.GET, produces = ReactiveRoutes.ND_JSON)
+    public Multi<UserTaskInstance> exportUserTaskInstances() {
+        return export(cacheService.getUserTaskInstancesCache());
+    }
+
+    @Route(path = "/export/jobs", methods = Route.HttpMethod.GET, produces = ReactiveRoutes.ND_JSON)
+    public Multi<Job> exportJobs() {
+        return export(cacheService.getJobsCache());
+    }
+
+    private static <T> Multi<T> export(Storage<String, T> storage) {
+        //reading from the storage is blocking, the storages stream the rows in a read-only transaction of their own
+        return storage.query().stream().runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+    }
+}
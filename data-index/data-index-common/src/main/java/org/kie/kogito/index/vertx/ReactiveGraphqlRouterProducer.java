@@ -19,6 +19,8 @@ import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
+import org.kie.kogito.index.graphql.GraphQLSchemaManager;
+
 import io.quarkus.arc.properties.UnlessBuildProperty;
 import io.quarkus.vertx.web.Route;
 import io.vertx.ext.web.RoutingContext;
@@ -35,14 +37,19 @@ public class ReactiveGraphqlRouterProducer {
     @Inject
     GraphQL graphQL;
 
+    @Inject
+    GraphQLSchemaManager manager;
+
     GraphQLHandler graphQLHandler;
 
     ApolloWSHandler apolloWSHandler;
 
     @PostConstruct
     public void init() {
-        graphQLHandler = GraphQLHandler.create(graphQL, new GraphQLHandlerOptions());
-        apolloWSHandler = ApolloWSHandler.create(graphQL);
+        graphQLHandler = GraphQLHandler.create(graphQL, new GraphQLHandlerOptions())
+                .dataLoaderRegistry(rc -> manager.createDataLoaderRegistry());
+        apolloWSHandler = ApolloWSHandler.create(graphQL)
+                .dataLoaderRegistry(message -> manager.createDataLoaderRegistry());
     }
 
     @Route(path = "/graphql", order = 1)
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.index.graphql;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.dataloader.DataLoaderRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.index.model.ProcessInstance;
+import org.kie.kogito.index.storage.DataIndexStorageService;
+import org.kie.kogito.persistence.api.Storage;
+import org.kie.kogito.persistence.api.query.Query;
+
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLSchema;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.kie.kogito.index.graphql.AbstractGraphQLSchemaManager.CHILD_PROCESS_INSTANCES_LOADER;
+import static org.kie.kogito.index.graphql.AbstractGraphQLSchemaManager.PARENT_PROCESS_INSTANCE_LOADER;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AbstractGraphQLSchemaManagerTest {
+
+    AbstractGraphQLSchemaManager schemaManager = new AbstractGraphQLSchemaManager() {
+        @Override
+        public GraphQLSchema createSchema() {
+            return null;
+        }
+    };
+
+    Query<ProcessInstance> query;
+
+    DataLoaderRegistry registry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        query = mock(Query.class);
+        Storage<String, ProcessInstance> storage = mock(Storage.class);
+        when(storage.query()).thenReturn(query);
+        schemaManager.cacheService = mock(DataIndexStorageService.class);
+        when(schemaManager.cacheService.getProcessInstancesCache()).thenReturn(storage);
+        registry = schemaManager.createDataLoaderRegistry();
+    }
+
+    @Test
+    void testParentProcessInstancesBatched() {
+        when(query.execute()).thenReturn(List.of(processInstance("parent1", null), processInstance("parent2", null)));
+
+        CompletableFuture<ProcessInstance> parent1 = schemaManager.getParentProcessInstanceValue(env(processInstance("child1", "parent1")));
+        CompletableFuture<ProcessInstance> parent2 = schemaManager.getParentProcessInstanceValue(env(processInstance("child2", "parent2")));
+        CompletableFuture<ProcessInstance> parent1Again = schemaManager.getParentProcessInstanceValue(env(processInstance("child3", "parent1")));
+        CompletableFuture<ProcessInstance> none = schemaManager.getParentProcessInstanceValue(env(processInstance("child4", null)));
+        registry.dispatchAll();
+
+        assertThat(parent1.join().getId()).isEqualTo("parent1");
+        assertThat(parent2.join().getId()).isEqualTo("parent2");
+        assertThat(parent1Again.join()).isSameAs(parent1.join());
+        assertThat(none.join()).isNull();
+        verify(query, times(1)).filter(any());
+        verify(query, times(1)).execute();
+    }
+
+    @Test
+    void testChildProcessInstancesBatched() {
+        when(query.execute()).thenReturn(List.of(processInstance("child1", "parent1"), processInstance("child2", "parent1"), processInstance("child3", "parent2")));
+
+        CompletableFuture<List<ProcessInstance>> children1 = schemaManager.getChildProcessInstancesValues(env(processInstance("parent1", null)));
+        CompletableFuture<List<ProcessInstance>> children2 = schemaManager.getChildProcessInstancesValues(env(processInstance("parent2", null)));
+        CompletableFuture<List<ProcessInstance>> children3 = schemaManager.getChildProcessInstancesValues(env(processInstance("parent3", null)));
+        registry.dispatchAll();
+
+        assertThat(children1.join()).extracting(ProcessInstance::getId).containsExactly("child1", "child2");
+        assertThat(children2.join()).extracting(ProcessInstance::getId).containsExactly("child3");
+        assertThat(children3.join()).isEmpty();
+        verify(query, times(1)).execute();
+    }
+
+    @Test
+    void testWithoutDataLoaders() {
+        when(query.execute()).thenReturn(List.of(processInstance("parent1", null)));
+        DataFetchingEnvironment env = mock(DataFetchingEnvironment.class);
+        when(env.getSource()).thenReturn(processInstance("child1", "parent1"));
+
+        assertThat(schemaManager.getParentProcessInstanceValue(env).join().getId()).isEqualTo("parent1");
+    }
+
+    private DataFetchingEnvironment env(ProcessInstance source) {
+        DataFetchingEnvironment env = mock(DataFetchingEnvironment.class);
+        when(env.getSource()).thenReturn(source);
+        when(env.getDataLoader(PARENT_PROCESS_INSTANCE_LOADER)).thenReturn(registry.getDataLoader(PARENT_PROCESS_INSTANCE_LOADER));
+        when(env.getDataLoader(CHILD_PROCESS_INSTANCES_LOADER)).thenReturn(registry.getDataLoader(CHILD_PROCESS_INSTANCES_LOADER));
+        return env;
+    }
+
+    private static ProcessInstance processInstance(String id, String parentId) {
+        ProcessInstance pi = new ProcessInstance();
+        pi.setId(id);
+        pi.setParentProcessInstanceId(parentId);
+        return pi;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.index.graphql;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GraphQLPreparsedDocumentCacheTest {
+
+    private static final String QUERY = "{ ProcessInstances { id } }";
+
+    GraphQLPreparsedDocumentCache cache;
+
+    GraphQLSchema schema = schema("type Query { ProcessInstances: [ProcessInstance] } type ProcessInstance { id: String }");
+
+    AtomicInteger parsed = new AtomicInteger();
+
+    Function<ExecutionInput, PreparsedDocumentEntry> parseFunction = input -> {
+        parsed.incrementAndGet();
+        return new PreparsedDocumentEntry(Parser.parse(input.getQuery()));
+    };
+
+    @BeforeEach
+    void setup() {
+        cache = new GraphQLPreparsedDocumentCache();
+        cache.manager = mock(GraphQLSchemaManager.class);
+        cache.maxSize = 10;
+        when(cache.manager.getGraphQLSchema()).thenReturn(schema);
+    }
+
+    @Test
+    void testRepeatedQueryIsParsedOnce() {
+        PreparsedDocumentEntry first = cache.getDocument(input(QUERY, schema), parseFunction);
+        PreparsedDocumentEntry second = cache.getDocument(input(QUERY, schema), parseFunction);
+        cache.getDocument(input("{ ProcessInstances { id } __typename }", schema), parseFunction);
+
+        assertThat(second).isSameAs(first);
+        assertThat(parsed).hasValue(2);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testSchemaChangeInvalidatesTheCache() {
+        GraphQLSchema newSchema = schema("type Query { ProcessInstances: [ProcessInstance] Travels: [String] } type ProcessInstance { id: String }");
+        cache.getDocument(input(QUERY, schema), parseFunction);
+        cache.getDocument(input("{ Travels }", schema), parseFunction);
+
+        cache.getDocument(input(QUERY, newSchema), parseFunction);
+
+        assertThat(parsed).hasValue(3);
+        assertThat(cache.size()).isEqualTo(1);
+        cache.getDocument(input(QUERY, newSchema), parseFunction);
+        assertThat(parsed).hasValue(3);
+    }
+
+    @Test
+    void testInvalidQueriesAreNotCached() {
+        Function<ExecutionInput, PreparsedDocumentEntry> invalid = input -> {
+            parsed.incrementAndGet();
+            return new PreparsedDocumentEntry(Collections.singletonList(GraphqlErrorBuilder.newError().message("invalid").build()));
+        };
+
+        cache.getDocument(input(QUERY, schema), invalid);
+        cache.getDocument(input(QUERY, schema), invalid);
+
+        assertThat(parsed).hasValue(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testLeastRecentlyUsedQueryIsEvicted() {
+        cache.maxSize = 2;
+        cache.getDocument(input("{ a: ProcessInstances { id } }", schema), parseFunction);
+        cache.getDocument(input("{ b: ProcessInstances { id } }", schema), parseFunction);
+        cache.getDocument(input("{ a: ProcessInstances { id } }", schema), parseFunction);
+        cache.getDocument(input("{ c: ProcessInstances { id } }", schema), parseFunction);
+        cache.getDocument(input("{ a: ProcessInstances { id } }", schema), parseFunction);
+        cache.getDocument(input("{ b: ProcessInstances { id } }", schema), parseFunction);
+
+        assertThat(parsed).hasValue(4);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testDisabledCache() {
+        cache.maxSize = 0;
+        cache.getDocument(input(QUERY, schema), parseFunction);
+        cache.getDocument(input(QUERY, schema), parseFunction);
+
+        assertThat(parsed).hasValue(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testRepeatedExecutionsWithInstrumentedSchema() {
+        GraphQLInstrumentation instrumentation = new GraphQLInstrumentation();
+        instrumentation.manager = cache.manager;
+        GraphQL graphQL = GraphQL.newGraphQL(schema)
+                .instrumentation(instrumentation)
+                .preparsedDocumentProvider(cache)
+                .build();
+
+        for (int i = 0; i < 5; i++) {
+            ExecutionResult result = graphQL.execute(QUERY);
+            assertThat(result.getErrors()).isEmpty();
+        }
+        assertThat(cache.size()).isEqualTo(1);
+
+        GraphQLSchema newSchema = schema("type Query { ProcessInstances: [ProcessInstance] } type ProcessInstance { id: String state: String }");
+        when(cache.manager.getGraphQLSchema()).thenReturn(newSchema);
+        assertThat(graphQL.execute("{ ProcessInstances { state } }").getErrors()).isEmpty();
+        assertThat(graphQL.execute(QUERY).getErrors()).isEmpty();
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    private static ExecutionInput input(String query, GraphQLSchema schema) {
+        ExecutionInput input = ExecutionInput.newExecutionInput(query).build();
+        input.getGraphQLContext().put(GraphQLPreparsedDocumentCache.SCHEMA_CONTEXT_KEY, schema);
+        return input;
+    }
+
+    private static GraphQLSchema schema(String sdl) {
+        return new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(sdl), RuntimeWiring.newRuntimeWiring().build());
+    }
+}
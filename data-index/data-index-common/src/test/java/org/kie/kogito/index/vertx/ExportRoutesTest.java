@@ -0,0 +1,62 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.index.vertx;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.index.model.Job;
+import org.kie.kogito.index.storage.DataIndexStorageService;
+import org.kie.kogito.persistence.api.Storage;
+import org.kie.kogito.persistence.api.query.Query;
+
+import io.smallrye.mutiny.Multi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExportRoutesTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExportStreamsTheStorage() {
+        Query<Job> query = mock(Query.class);
+        Storage<String, Job> storage = mock(Storage.class);
+        when(storage.query()).thenReturn(query);
+        when(query.stream()).thenReturn(Multi.createFrom().range(0, 1000).onItem().transform(ExportRoutesTest::job));
+        ExportRoutes routes = new ExportRoutes();
+        routes.cacheService = mock(DataIndexStorageService.class);
+        when(routes.cacheService.getJobsCache()).thenReturn(storage);
+
+        List<Job> jobs = routes.exportJobs().collect().asList().await().indefinitely();
+
+        assertThat(jobs).hasSize(1000);
+        assertThat(jobs.stream().map(Job::getId).collect(Collectors.toList()))
+                .isEqualTo(IntStream.range(0, 1000).mapToObj(String::valueOf).collect(Collectors.toList()));
+        verify(query, never()).execute();
+    }
+
+    private static Job job(int id) {
+        Job job = new Job();
+        job.setId(String.valueOf(id));
+        return job;
+    }
+}
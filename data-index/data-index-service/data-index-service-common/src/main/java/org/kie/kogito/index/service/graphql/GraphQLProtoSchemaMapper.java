@@ -18,8 +18,10 @@ package org.kie.kogito.index.service.graphql;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
@@ -29,6 +31,7 @@ import org.kie.kogito.index.graphql.GraphQLObjectTypeMapper;
 import org.kie.kogito.index.graphql.query.GraphQLInputObjectTypeMapper;
 import org.kie.kogito.index.graphql.query.GraphQLOrderByTypeMapper;
 import org.kie.kogito.index.graphql.query.GraphQLQueryParserRegistry;
+import org.kie.kogito.persistence.api.proto.AttributeDescriptor;
 import org.kie.kogito.persistence.api.proto.DomainDescriptor;
 import org.kie.kogito.persistence.api.proto.DomainModelRegisteredEvent;
 import org.slf4j.Logger;
@@ -61,8 +64,20 @@ public class GraphQLProtoSchemaMapper {
     @Inject
     GraphQLSchemaManagerImpl schemaManager;
 
-    public void onDomainModelRegisteredEvent(@Observes DomainModelRegisteredEvent event) {
+    //last model registered per process, the proto files are registered again when they are modified or found by the monitor
+    private final Map<String, DomainModelRegisteredEvent> registeredModels = new ConcurrentHashMap<>();
+
+    /**
+     * Extends the schema with the types, query and subscriptions of the registered domain model. Only the types of the
+     * new model are mapped, the types already in the schema are reused, and a model equal to the one already registered
+     * for the process leaves the schema untouched.
+     */
+    public synchronized void onDomainModelRegisteredEvent(@Observes DomainModelRegisteredEvent event) {
         LOGGER.debug("Received new domain event: {}", event);
+        if (isRegistered(event)) {
+            LOGGER.debug("Domain model of process {} is already registered, GraphQL schema not changed", event.getProcessId());
+            return;
+        }
         GraphQLSchema schema = schemaManager.getGraphQLSchema();
         schemaManager.transform(builder -> {
             builder.clearAdditionalTypes();
@@ -107,8 +122,12 @@ public class GraphQLProtoSchemaMapper {
 
             GraphQLObjectType subscription = schema.getSubscriptionType();
             subscription = subscription.transform(sBuilder -> {
-                sBuilder.field(newFieldDefinition().name(rootType.getName() + "Added").type(nonNull(rootType)).build());
-                sBuilder.field(newFieldDefinition().name(rootType.getName() + "Updated").type(nonNull(rootType)).build());
+                List<GraphQLArgument> arguments = new ArrayList<>();
+                if (!whereArgumentType.getFields().isEmpty()) {
+                    arguments.add(newArgument().name("where").type(whereArgumentType).build());
+                }
+                sBuilder.field(newFieldDefinition().name(rootType.getName() + "Added").type(nonNull(rootType)).arguments(arguments).build());
+                sBuilder.field(newFieldDefinition().name(rootType.getName() + "Updated").type(nonNull(rootType)).arguments(arguments).build());
             });
             builder.subscription(subscription);
 
@@ -120,5 +139,20 @@ public class GraphQLProtoSchemaMapper {
 
             builder.codeRegistry(registry);
         });
+        registeredModels.put(event.getProcessId(), event);
+    }
+
+    private boolean isRegistered(DomainModelRegisteredEvent event) {
+        DomainModelRegisteredEvent registered = registeredModels.get(event.getProcessId());
+        //the attribute descriptors are equal regardless of their label, which decides whether the field is a list
+        return event.equals(registered) && labels(event).equals(labels(registered));
+    }
+
+    private static List<String> labels(DomainModelRegisteredEvent event) {
+        return Stream.concat(Stream.of(event.getDomainDescriptor()), event.getAdditionalTypes().stream())
+                .filter(Objects::nonNull)
+                .flatMap(descriptor -> descriptor.getAttributes() == null ? Stream.<AttributeDescriptor> empty() : descriptor.getAttributes().stream())
+                .map(AttributeDescriptor::getLabel)
+                .collect(toList());
     }
 }
@@ -89,6 +89,8 @@ public class GraphQLSchemaManagerImpl extends AbstractGraphQLSchemaManager {
                 .type("Query", builder -> {
                     builder.dataFetcher("ProcessInstances", this::getProcessInstancesValues);
                     builder.dataFetcher("UserTaskInstances", this::getUserTaskInstancesValues);
+                    builder.dataFetcher("ProcessInstancesCount", this::getProcessInstancesCount);
+                    builder.dataFetcher("ProcessInstancesAggregate", this::getProcessInstancesAggregate);
                     builder.dataFetcher("Jobs", this::getJobsValues);
                     return builder;
                 })
@@ -323,11 +325,11 @@ public class GraphQLSchemaManagerImpl extends AbstractGraphQLSchemaManager {
     }
 
     private DataFetcher<Publisher<ObjectNode>> objectCreatedPublisher(Supplier<Storage> cache) {
-        return env -> cache.get().objectCreatedListener();
+        return env -> filterSubscription(cache.get().objectCreatedListener(), env);
     }
 
     private DataFetcher<Publisher<ObjectNode>> objectUpdatedPublisher(Supplier<Storage> cache) {
-        return env -> cache.get().objectUpdatedListener();
+        return env -> filterSubscription(cache.get().objectUpdatedListener(), env);
     }
 
     private Supplier<DataIndexServiceException> cacheNotFoundException(String processId) {
@@ -335,17 +337,21 @@ public class GraphQLSchemaManagerImpl extends AbstractGraphQLSchemaManager {
     }
 
     protected DataFetcher<Publisher<ObjectNode>> getDomainModelUpdatedDataFetcher(String processId) {
-        return env -> Optional.ofNullable(getCacheService().getDomainModelCache(processId)).orElseThrow(cacheNotFoundException(processId)).objectUpdatedListener();
+        return env -> filterSubscription(Optional.ofNullable(getCacheService().getDomainModelCache(processId)).orElseThrow(cacheNotFoundException(processId)).objectUpdatedListener(), env);
     }
 
     protected DataFetcher<Publisher<ObjectNode>> getDomainModelAddedDataFetcher(String processId) {
-        return env -> Optional.ofNullable(getCacheService().getDomainModelCache(processId)).orElseThrow(cacheNotFoundException(processId)).objectCreatedListener();
+        return env -> filterSubscription(Optional.ofNullable(getCacheService().getDomainModelCache(processId)).orElseThrow(cacheNotFoundException(processId)).objectCreatedListener(), env);
     }
 
     protected DataFetcher<Collection<ObjectNode>> getDomainModelDataFetcher(String processId) {
         return env -> {
             List result = executeAdvancedQueryForCache(Optional.ofNullable(getCacheService().getDomainModelCache(processId)).orElseThrow(cacheNotFoundException(processId)), env);
             return (Collection<ObjectNode>) result.stream().map(json -> {
+                if (json instanceof ObjectNode) {
+                    //the domain storages already return JSON trees, only other representations are parsed
+                    return json;
+                }
                 try {
                     return getObjectMapper().readTree(json.toString());
                 } catch (IOException e) {
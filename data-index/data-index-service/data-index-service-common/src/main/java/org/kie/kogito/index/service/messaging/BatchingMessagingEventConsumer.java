@@ -0,0 +1,141 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.index.service.messaging;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.kie.kogito.event.DataEvent;
+import org.kie.kogito.event.process.ProcessInstanceDataEvent;
+import org.kie.kogito.event.process.UserTaskInstanceDataEvent;
+import org.kie.kogito.index.event.KogitoJobCloudEvent;
+import org.kie.kogito.index.event.ProcessInstanceEventMapper;
+import org.kie.kogito.index.event.UserTaskInstanceEventMapper;
+import org.kie.kogito.index.model.Job;
+import org.kie.kogito.index.model.ProcessInstance;
+import org.kie.kogito.index.model.UserTaskInstance;
+import org.kie.kogito.index.service.IndexingService;
+import org.reactivestreams.Subscriber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+import static org.kie.kogito.index.service.messaging.ReactiveMessagingEventConsumer.KOGITO_JOBS_EVENTS;
+import static org.kie.kogito.index.service.messaging.ReactiveMessagingEventConsumer.KOGITO_PROCESSINSTANCES_EVENTS;
+import static org.kie.kogito.index.service.messaging.ReactiveMessagingEventConsumer.KOGITO_USERTASKINSTANCES_EVENTS;
+
+/**
+ * Consumer that indexes the events in batches instead of one at a time. The events of each batch are split in
+ * partitions by instance id, so the order of the events of a given instance is kept, and the partitions are indexed in
+ * parallel with the bulk operations of the storage.
+ * <p>
+ * Enabled with {@code kogito.data-index.ingestion=batch}.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "kogito.data-index.ingestion", stringValue = "batch")
+public class BatchingMessagingEventConsumer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingMessagingEventConsumer.class);
+
+    @Inject
+    IndexingService indexingService;
+
+    @Inject
+    Event<DataEvent> eventPublisher;
+
+    @ConfigProperty(name = "kogito.data-index.ingestion.batch-size", defaultValue = "100")
+    int batchSize;
+
+    @ConfigProperty(name = "kogito.data-index.ingestion.batch-window-in-millis", defaultValue = "100")
+    long batchWindowInMillis;
+
+    @ConfigProperty(name = "kogito.data-index.ingestion.partitions", defaultValue = "4")
+    int partitions;
+
+    @Incoming(KOGITO_PROCESSINSTANCES_EVENTS)
+    public Subscriber<Message<ProcessInstanceDataEvent>> onProcessInstanceEvents() {
+        return new BatchingSubscriber<>(KOGITO_PROCESSINSTANCES_EVENTS, batchSize, Duration.ofMillis(batchWindowInMillis),
+                this::indexProcessInstanceEvents);
+    }
+
+    @Incoming(KOGITO_USERTASKINSTANCES_EVENTS)
+    public Subscriber<Message<UserTaskInstanceDataEvent>> onUserTaskInstanceEvents() {
+        return new BatchingSubscriber<>(KOGITO_USERTASKINSTANCES_EVENTS, batchSize, Duration.ofMillis(batchWindowInMillis),
+                this::indexUserTaskInstanceEvents);
+    }
+
+    @Incoming(KOGITO_JOBS_EVENTS)
+    public Subscriber<Message<KogitoJobCloudEvent>> onJobEvents() {
+        return new BatchingSubscriber<>(KOGITO_JOBS_EVENTS, batchSize, Duration.ofMillis(batchWindowInMillis),
+                this::indexJobEvents);
+    }
+
+    Uni<Void> indexProcessInstanceEvents(List<ProcessInstanceDataEvent> events) {
+        LOGGER.debug("Process instance consumer received {} ProcessInstanceDataEvents", events.size());
+        ProcessInstanceEventMapper mapper = new ProcessInstanceEventMapper();
+        return indexInPartitions(events.stream().map(mapper).collect(toList()), ProcessInstance::getId, indexingService::indexProcessInstances)
+                .chain(() -> publish(events));
+    }
+
+    Uni<Void> indexUserTaskInstanceEvents(List<UserTaskInstanceDataEvent> events) {
+        LOGGER.debug("Task instance consumer received {} UserTaskInstanceDataEvents", events.size());
+        UserTaskInstanceEventMapper mapper = new UserTaskInstanceEventMapper();
+        return indexInPartitions(events.stream().map(mapper).collect(toList()), UserTaskInstance::getId, indexingService::indexUserTaskInstances)
+                .chain(() -> publish(events));
+    }
+
+    Uni<Void> indexJobEvents(List<KogitoJobCloudEvent> events) {
+        LOGGER.debug("Job consumer received {} KogitoJobCloudEvents", events.size());
+        return indexInPartitions(events.stream().map(KogitoJobCloudEvent::getData).collect(toList()), Job::getId, indexingService::indexJobs);
+    }
+
+    private <T> Uni<Void> indexInPartitions(List<T> items, Function<T, String> id, Consumer<List<T>> indexer) {
+        List<Uni<Void>> indexed = items.stream()
+                .collect(groupingBy(i -> Math.floorMod(Objects.hashCode(id.apply(i)), partitions), LinkedHashMap::new, toList()))
+                .values().stream()
+                .map(partition -> blocking(() -> indexer.accept(partition)))
+                .collect(toList());
+        return Uni.combine().all().unis(indexed).discardItems();
+    }
+
+    //the domain events are still fired one by one, in the order they were received
+    private Uni<Void> publish(List<? extends DataEvent<?>> events) {
+        return blocking(() -> events.forEach(eventPublisher::fire));
+    }
+
+    private static Uni<Void> blocking(Runnable runnable) {
+        return Uni.createFrom().<Void> item(() -> {
+            runnable.run();
+            return null;
+        }).runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+    }
+}
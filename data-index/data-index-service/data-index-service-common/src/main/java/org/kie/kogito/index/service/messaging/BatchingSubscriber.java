@@ -0,0 +1,164 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.index.service.messaging;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Subscriber that groups the incoming messages in batches, up to the batch size or whatever arrived within the batch
+ * window, and hands them to the given processor. The batches are processed one at a time and in order, and new messages
+ * are only requested once the current batch is processed, so the back pressure is kept towards the connector.
+ * The messages are acknowledged after their batch is processed. When a batch fails, its messages are processed again
+ * one at a time, and each message is acknowledged or negatively acknowledged according to its own outcome.
+ */
+class BatchingSubscriber<T> implements Subscriber<Message<T>> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingSubscriber.class);
+
+    private final String channel;
+
+    private final int batchSize;
+
+    private final Duration batchWindow;
+
+    private final Function<List<T>, Uni<Void>> processor;
+
+    private final List<Message<T>> buffer = new ArrayList<>();
+
+    private Subscription subscription;
+
+    private boolean processing;
+
+    private boolean timerScheduled;
+
+    BatchingSubscriber(String channel, int batchSize, Duration batchWindow, Function<List<T>, Uni<Void>> processor) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Invalid batch size " + batchSize + " for channel " + channel);
+        }
+        this.channel = channel;
+        this.batchSize = batchSize;
+        this.batchWindow = batchWindow;
+        this.processor = processor;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(batchSize);
+    }
+
+    @Override
+    public void onNext(Message<T> message) {
+        synchronized (this) {
+            buffer.add(message);
+        }
+        flush(false);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        //the upstream is terminated, but the events already received are still processed
+        LOGGER.error("Error receiving events from channel {}, processing the events already received", channel, throwable);
+        flush(true);
+    }
+
+    @Override
+    public void onComplete() {
+        flush(true);
+    }
+
+    private void flush(boolean force) {
+        final List<Message<T>> batch;
+        synchronized (this) {
+            if (processing || buffer.isEmpty()) {
+                return;
+            }
+            if (!force && buffer.size() < batchSize) {
+                scheduleTimer();
+                return;
+            }
+            batch = new ArrayList<>(buffer);
+            buffer.clear();
+            processing = true;
+        }
+        process(batch).subscribe().with(v -> {
+            synchronized (this) {
+                processing = false;
+            }
+            subscription.request(batch.size());
+            flush(false);
+        });
+    }
+
+    private Uni<Void> process(List<Message<T>> batch) {
+        return apply(batch)
+                .onItem().invoke(() -> batch.forEach(Message::ack))
+                .onFailure().recoverWithUni(t -> {
+                    if (batch.size() == 1) {
+                        return nack(batch.get(0), t);
+                    }
+                    LOGGER.warn("Error processing a batch of {} events from channel {}, processing them one at a time", batch.size(), channel, t);
+                    return Multi.createFrom().iterable(batch)
+                            .onItem().transformToUniAndConcatenate(this::processOne)
+                            .collect().asList().replaceWithVoid();
+                });
+    }
+
+    private Uni<Void> processOne(Message<T> message) {
+        return apply(Collections.singletonList(message))
+                .onItem().invoke(() -> message.ack())
+                .onFailure().recoverWithUni(t -> nack(message, t));
+    }
+
+    private Uni<Void> apply(List<Message<T>> messages) {
+        return Uni.createFrom().deferred(() -> processor.apply(messages.stream().map(Message::getPayload).collect(toList())));
+    }
+
+    private Uni<Void> nack(Message<T> message, Throwable t) {
+        LOGGER.error("Error processing an event from channel {}", channel, t);
+        message.nack(t);
+        return Uni.createFrom().voidItem();
+    }
+
+    private void scheduleTimer() {
+        if (timerScheduled) {
+            return;
+        }
+        timerScheduled = true;
+        Uni.createFrom().voidItem().onItem().delayIt().by(batchWindow)
+                .subscribe().with(v -> {
+                    synchronized (this) {
+                        timerScheduled = false;
+                    }
+                    flush(true);
+                });
+    }
+}
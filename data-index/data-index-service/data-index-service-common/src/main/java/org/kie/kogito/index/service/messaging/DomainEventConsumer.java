@@ -16,6 +16,12 @@
 
 package org.kie.kogito.index.service.messaging;
 
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
@@ -30,31 +36,84 @@ import org.kie.kogito.index.service.IndexingService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
-import io.quarkus.arc.Lock;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
 
 import static java.lang.String.format;
+import static org.kie.kogito.index.storage.Constants.ID;
 
+/**
+ * Indexes the domain model of the process and user task instance events. The events of the same process instance are
+ * indexed one at a time and in order, while the events of different instances are indexed concurrently.
+ * <p>
+ * By default the indexing runs in the thread firing the event, serialized with a lock striped by instance id. With
+ * {@code kogito.data-index.domain-indexing.async=true} it runs on the worker pool instead, chained after the previous
+ * pending indexing of the same instance.
+ */
 @ApplicationScoped
-@Lock
 public class DomainEventConsumer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DomainEventConsumer.class);
 
+    private static final int LOCK_STRIPES = 64;
+
     @ConfigProperty(name = "kogito.data-index.domain-indexing", defaultValue = "true")
     Boolean indexDomain;
 
+    @ConfigProperty(name = "kogito.data-index.domain-indexing.async", defaultValue = "false")
+    boolean async;
+
     @Inject
     IndexingService indexingService;
 
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    //last pending indexing of each instance in the asynchronous mode
+    private final Map<String, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+
+    public DomainEventConsumer() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
     public void onDomainEvent(@Observes DataEvent event) {
         if (!indexDomain) {
             return;
         }
 
         LOGGER.debug("Processing domain event: {}", event);
-        indexingService.indexModel(getDomainData(event));
+        ObjectNode domainData = getDomainData(event);
+        String instanceId = Optional.ofNullable(domainData.get(ID)).map(JsonNode::asText).orElse("");
+        if (async) {
+            indexAsync(instanceId, domainData);
+        } else {
+            index(instanceId, domainData);
+        }
+    }
+
+    private void index(String instanceId, ObjectNode domainData) {
+        ReentrantLock lock = locks[Math.floorMod(instanceId.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            indexingService.indexModel(domainData);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void indexAsync(String instanceId, ObjectNode domainData) {
+        CompletableFuture<Void> indexed = pending.compute(instanceId,
+                (id, previous) -> (previous == null ? CompletableFuture.<Void> completedFuture(null) : previous)
+                        .thenRunAsync(() -> indexingService.indexModel(domainData), Infrastructure.getDefaultWorkerPool())
+                        .exceptionally(t -> {
+                            LOGGER.error("Error indexing domain model of instance {}", id, t);
+                            return null;
+                        }));
+        //forget the instance once its last pending indexing is done
+        indexed.thenRun(() -> pending.remove(instanceId, indexed));
     }
 
     private ObjectNode getDomainData(DataEvent event) {
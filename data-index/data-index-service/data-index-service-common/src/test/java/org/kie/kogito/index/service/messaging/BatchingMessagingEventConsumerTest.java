@@ -0,0 +1,178 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.index.service.messaging;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.enterprise.event.Event;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kie.kogito.event.DataEvent;
+import org.kie.kogito.event.process.ProcessInstanceDataEvent;
+import org.kie.kogito.index.model.ProcessInstance;
+import org.kie.kogito.index.model.ProcessInstanceState;
+import org.kie.kogito.index.service.IndexingService;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.smallrye.mutiny.Multi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.kie.kogito.index.TestUtils.getProcessCloudEvent;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BatchingMessagingEventConsumerTest {
+
+    @Mock
+    IndexingService service;
+
+    @Mock
+    Event<DataEvent> eventPublisher;
+
+    BatchingMessagingEventConsumer consumer;
+
+    AtomicInteger acks;
+
+    AtomicInteger nacks;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new BatchingMessagingEventConsumer();
+        consumer.indexingService = service;
+        consumer.eventPublisher = eventPublisher;
+        consumer.batchSize = 4;
+        consumer.batchWindowInMillis = 50;
+        consumer.partitions = 1;
+        acks = new AtomicInteger();
+        nacks = new AtomicInteger();
+    }
+
+    @Test
+    void testOnProcessInstanceEventsInBatches() {
+        List<ProcessInstanceDataEvent> events = events(6);
+
+        Multi.createFrom().iterable(events).map(this::message).subscribe(consumer.onProcessInstanceEvents());
+
+        await().atMost(2, TimeUnit.SECONDS).until(() -> acks.get() == events.size());
+        ArgumentCaptor<List<ProcessInstance>> captor = ArgumentCaptor.forClass(List.class);
+        verify(service, times(2)).indexProcessInstances(captor.capture());
+        assertThat(captor.getAllValues()).extracting(List::size).containsExactly(4, 2);
+        InOrder inOrder = inOrder(eventPublisher);
+        events.forEach(e -> inOrder.verify(eventPublisher).fire(e));
+    }
+
+    @Test
+    void testOnProcessInstanceEventsKeepsInstanceOrderInPartitions() {
+        consumer.partitions = 3;
+        String processInstanceId = UUID.randomUUID().toString();
+        List<ProcessInstanceDataEvent> events = IntStream.range(0, 4)
+                .mapToObj(i -> getProcessCloudEvent("travels", processInstanceId, ProcessInstanceState.ACTIVE, null, null, null))
+                .collect(Collectors.toList());
+
+        Multi.createFrom().iterable(events).map(this::message).subscribe(consumer.onProcessInstanceEvents());
+
+        await().atMost(2, TimeUnit.SECONDS).until(() -> acks.get() == events.size());
+        ArgumentCaptor<List<ProcessInstance>> captor = ArgumentCaptor.forClass(List.class);
+        //all the events of the same instance go to the same partition
+        verify(service).indexProcessInstances(captor.capture());
+        assertThat(captor.getValue()).hasSize(4).extracting(ProcessInstance::getId).containsOnly(processInstanceId);
+    }
+
+    @Test
+    void testOnProcessInstanceEventsException() {
+        doThrow(new RuntimeException("")).when(service).indexProcessInstances(any());
+        List<ProcessInstanceDataEvent> events = events(2);
+
+        Multi.createFrom().iterable(events).map(this::message).subscribe(consumer.onProcessInstanceEvents());
+
+        //the failed batch is retried one event at a time and every event is negatively acknowledged
+        await().atMost(2, TimeUnit.SECONDS).until(() -> nacks.get() == events.size());
+        verify(service, times(3)).indexProcessInstances(any());
+        assertThat(acks.get()).isZero();
+        verify(eventPublisher, times(0)).fire(any());
+    }
+
+    @Test
+    void testOnProcessInstanceEventsFailedEventInBatch() {
+        List<ProcessInstanceDataEvent> events = events(4);
+        String failedId = events.get(1).getData().getId();
+        doAnswer(invocation -> {
+            List<ProcessInstance> pis = invocation.getArgument(0);
+            if (pis.stream().anyMatch(pi -> failedId.equals(pi.getId()))) {
+                throw new RuntimeException("");
+            }
+            return null;
+        }).when(service).indexProcessInstances(any());
+
+        Multi.createFrom().iterable(events).map(this::message).subscribe(consumer.onProcessInstanceEvents());
+
+        //only the failed event is negatively acknowledged, the rest are indexed and published
+        await().atMost(2, TimeUnit.SECONDS).until(() -> acks.get() + nacks.get() == events.size());
+        assertThat(acks.get()).isEqualTo(3);
+        assertThat(nacks.get()).isEqualTo(1);
+        verify(eventPublisher, times(0)).fire(events.get(1));
+        verify(eventPublisher).fire(events.get(0));
+        verify(eventPublisher).fire(events.get(2));
+        verify(eventPublisher).fire(events.get(3));
+    }
+
+    @Test
+    void testOnProcessInstanceEventsUpstreamFailure() {
+        List<ProcessInstanceDataEvent> events = events(2);
+
+        Multi.createFrom().iterable(events).map(this::message)
+                .onCompletion().failWith(new RuntimeException("connection lost"))
+                .subscribe(consumer.onProcessInstanceEvents());
+
+        //the events received before the failure are still indexed
+        await().atMost(2, TimeUnit.SECONDS).until(() -> acks.get() == events.size());
+        verify(service).indexProcessInstances(any());
+    }
+
+    private List<ProcessInstanceDataEvent> events(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> getProcessCloudEvent("travels", UUID.randomUUID().toString(), ProcessInstanceState.ACTIVE, null, null, null))
+                .collect(Collectors.toList());
+    }
+
+    private <T> Message<T> message(T payload) {
+        return Message.of(payload, () -> {
+            acks.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        }, reason -> {
+            nacks.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+}
@@ -17,6 +17,9 @@
 package org.kie.kogito.index.service.messaging;
 
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,13 +36,17 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.awaitility.Awaitility.await;
 import static org.kie.kogito.index.TestUtils.getProcessCloudEvent;
 import static org.kie.kogito.index.TestUtils.getUserTaskCloudEvent;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -120,4 +127,47 @@ public class DomainEventConsumerTest {
         assertThatExceptionOfType(RuntimeException.class).isThrownBy(() -> consumer.onDomainEvent(event));
         verify(service).indexModel(any());
     }
+
+    @Test
+    public void testAsyncIndexingKeepsInstanceOrder() {
+        consumer.async = true;
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        doAnswer(invocation -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            active.decrementAndGet();
+            return null;
+        }).when(service).indexModel(any());
+
+        String processInstanceId = UUID.randomUUID().toString();
+        for (int i = 0; i < 10; i++) {
+            consumer.onDomainEvent(getProcessCloudEvent("travels", processInstanceId, ProcessInstanceState.ACTIVE, null, null, null));
+        }
+
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> verify(service, times(10)).indexModel(any()));
+        assertThat(maxActive.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testAsyncIndexingRunsInstancesConcurrently() {
+        consumer.async = true;
+        int instances = 4;
+        CountDownLatch allStarted = new CountDownLatch(instances);
+        AtomicInteger completed = new AtomicInteger();
+        doAnswer(invocation -> {
+            allStarted.countDown();
+            //only completes if every instance is being indexed at the same time
+            if (allStarted.await(5, TimeUnit.SECONDS)) {
+                completed.incrementAndGet();
+            }
+            return null;
+        }).when(service).indexModel(any());
+
+        for (int i = 0; i < instances; i++) {
+            consumer.onDomainEvent(getProcessCloudEvent("travels", UUID.randomUUID().toString(), ProcessInstanceState.ACTIVE, null, null, null));
+        }
+
+        await().atMost(10, TimeUnit.SECONDS).until(() -> completed.get() == instances);
+    }
 }
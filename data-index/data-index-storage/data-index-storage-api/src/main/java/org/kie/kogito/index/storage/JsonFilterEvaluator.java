@@ -0,0 +1,202 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.index.storage;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.regex.Pattern;
+
+import org.kie.kogito.persistence.api.query.AttributeFilter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Evaluates {@link AttributeFilter}s against the JSON representation of an entry, with the semantics of the storage
+ * queries: the attributes are dot separated paths, an attribute matches when any of the values it reaches does, arrays
+ * being flattened along the path, and a missing or {@code null} attribute only matches the null checks. Numbers are
+ * compared by value, and the date-time text values are compared with temporal or epoch millisecond filter values.
+ */
+public final class JsonFilterEvaluator {
+
+    private JsonFilterEvaluator() {
+    }
+
+    public static boolean matches(JsonNode json, List<AttributeFilter<?>> filters) {
+        return filters == null || filters.stream().allMatch(filter -> matches(json, filter));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static boolean matches(JsonNode json, AttributeFilter<?> filter) {
+        Object value = filter.getValue();
+        switch (filter.getCondition()) {
+            case AND:
+                return ((List<AttributeFilter<?>>) value).stream().allMatch(f -> matches(json, f));
+            case OR:
+                return ((List<AttributeFilter<?>>) value).stream().anyMatch(f -> matches(json, f));
+            case NOT:
+                return !matches(json, (AttributeFilter<?>) value);
+            default:
+                break;
+        }
+        List<JsonNode> nodes = values(json, filter.getAttribute());
+        switch (filter.getCondition()) {
+            case IS_NULL:
+                return nodes.isEmpty();
+            case NOT_NULL:
+                return !nodes.isEmpty();
+            case EQUAL:
+            case CONTAINS:
+                return nodes.stream().anyMatch(node -> isEqual(node, value));
+            case IN:
+            case CONTAINS_ANY:
+                return nodes.stream().anyMatch(node -> ((List<?>) value).stream().anyMatch(v -> isEqual(node, v)));
+            case CONTAINS_ALL:
+                return ((List<?>) value).stream().allMatch(v -> nodes.stream().anyMatch(node -> isEqual(node, v)));
+            case LIKE:
+                Pattern pattern = likePattern(value.toString());
+                return nodes.stream().anyMatch(node -> node.isValueNode() && pattern.matcher(node.asText()).matches());
+            case GT:
+                return nodes.stream().anyMatch(node -> compares(node, value, c -> c > 0));
+            case GTE:
+                return nodes.stream().anyMatch(node -> compares(node, value, c -> c >= 0));
+            case LT:
+                return nodes.stream().anyMatch(node -> compares(node, value, c -> c < 0));
+            case LTE:
+                return nodes.stream().anyMatch(node -> compares(node, value, c -> c <= 0));
+            case BETWEEN:
+                List<?> range = (List<?>) value;
+                return nodes.stream().anyMatch(node -> compares(node, range.get(0), c -> c >= 0) && compares(node, range.get(1), c -> c <= 0));
+            default:
+                throw new UnsupportedOperationException("Unsupported filter condition: " + filter.getCondition());
+        }
+    }
+
+    /**
+     * Compares a JSON value with a filter value, returns {@code null} when they are not comparable.
+     */
+    public static Integer compare(JsonNode node, Object value) {
+        if (node == null || node.isNull() || value == null) {
+            return null;
+        }
+        if (value instanceof Boolean) {
+            return node.isBoolean() ? Boolean.compare(node.booleanValue(), (Boolean) value) : null;
+        }
+        if (value instanceof TemporalAccessor) {
+            Long millis = toEpochMillis(node);
+            return millis == null ? null : Long.compare(millis, Instant.from((TemporalAccessor) value).toEpochMilli());
+        }
+        if (value instanceof Number) {
+            BigDecimal number = toNumber(node);
+            if (number != null) {
+                return number.compareTo(new BigDecimal(value.toString()));
+            }
+            Long millis = toEpochMillis(node);
+            return millis == null ? null : Long.compare(millis, ((Number) value).longValue());
+        }
+        if (node.isNumber()) {
+            BigDecimal number = toNumber(value.toString());
+            return number == null ? null : node.decimalValue().compareTo(number);
+        }
+        return node.isValueNode() ? node.asText().compareTo(value.toString()) : null;
+    }
+
+    private static boolean isEqual(JsonNode node, Object value) {
+        return compares(node, value, c -> c == 0);
+    }
+
+    private static boolean compares(JsonNode node, Object value, IntPredicate predicate) {
+        Integer comparison = compare(node, value);
+        return comparison != null && predicate.test(comparison);
+    }
+
+    /**
+     * Gets the non null values reached by a dot separated attribute path, arrays being flattened along the path.
+     */
+    public static List<JsonNode> values(JsonNode json, String attribute) {
+        List<JsonNode> nodes = Collections.singletonList(json);
+        for (String name : attribute.split("\\.")) {
+            List<JsonNode> children = new ArrayList<>();
+            for (JsonNode node : nodes) {
+                Iterable<JsonNode> elements = node.isArray() ? node : Collections.singletonList(node);
+                for (JsonNode element : elements) {
+                    JsonNode child = element.get(name);
+                    if (child != null && !child.isNull()) {
+                        children.add(child);
+                    }
+                }
+            }
+            nodes = children;
+        }
+        List<JsonNode> values = new ArrayList<>();
+        for (JsonNode node : nodes) {
+            if (node.isArray()) {
+                node.forEach(element -> {
+                    if (!element.isNull()) {
+                        values.add(element);
+                    }
+                });
+            } else {
+                values.add(node);
+            }
+        }
+        return values;
+    }
+
+    private static Pattern likePattern(String like) {
+        return Pattern.compile(Arrays.stream(like.split("\\*", -1)).map(part -> part.isEmpty() ? "" : Pattern.quote(part)).collect(joining(".*")));
+    }
+
+    private static BigDecimal toNumber(JsonNode node) {
+        if (node.isNumber()) {
+            return node.decimalValue();
+        }
+        return node.isTextual() ? toNumber(node.textValue()) : null;
+    }
+
+    private static BigDecimal toNumber(String text) {
+        try {
+            return new BigDecimal(text);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the epoch milliseconds of a date-time text value, {@code null} if the value is not a date-time.
+     */
+    public static Long toEpochMillis(JsonNode node) {
+        //cheap check of the yyyy-MM-dd prefix to skip the parsing of the texts that cannot be date-times
+        if (!node.isTextual() || node.textValue().length() < 10 || node.textValue().charAt(4) != '-' || node.textValue().charAt(7) != '-') {
+            return null;
+        }
+        try {
+            return ZonedDateTime.parse(node.textValue()).toInstant().toEpochMilli();
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.index.storage;
+
+import org.kie.kogito.index.model.ProcessInstance;
+import org.kie.kogito.persistence.api.Storage;
+
+/**
+ * {@link Storage} of process instances able to apply an update of a process instance in place, without reading the
+ * stored process instance first.
+ */
+public interface ProcessInstanceStorage extends Storage<String, ProcessInstance> {
+
+    /**
+     * Stores the process instance, creating it if it does not exist. The attributes and child elements of the stored
+     * process instance are replaced, except the node instances, which are added to the stored ones, replacing the
+     * stored node instances with the same id.
+     *
+     * @param pi The process instance.
+     */
+    void upsert(ProcessInstance pi);
+}
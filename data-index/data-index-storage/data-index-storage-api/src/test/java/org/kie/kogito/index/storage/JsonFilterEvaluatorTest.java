@@ -0,0 +1,109 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.index.storage;
+
+import java.time.ZonedDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.kie.kogito.index.storage.JsonFilterEvaluator.matches;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.and;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.between;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.contains;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.containsAll;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.containsAny;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.equalTo;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.greaterThan;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.greaterThanEqual;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.in;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.isNull;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.lessThan;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.like;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.not;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.notNull;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.or;
+
+class JsonFilterEvaluatorTest {
+
+    private static final String PROCESS_INSTANCE = "{\"id\":\"pi1\",\"processId\":\"travels\",\"state\":1,\"businessKey\":null," +
+            "\"roles\":[\"admin\",\"manager\"],\"start\":\"2023-01-10T10:00:00.000Z\"," +
+            "\"nodes\":[{\"name\":\"Start\",\"type\":\"StartNode\"},{\"name\":\"Book Flight\",\"type\":\"WorkItemNode\"}]," +
+            "\"variables\":{\"traveller\":{\"firstName\":\"Maria\",\"age\":34}}}";
+
+    private final JsonNode json = read(PROCESS_INSTANCE);
+
+    @Test
+    void testValueConditions() {
+        assertThat(matches(json, equalTo("processId", "travels"))).isTrue();
+        assertThat(matches(json, equalTo("processId", "hotels"))).isFalse();
+        assertThat(matches(json, equalTo("state", 1))).isTrue();
+        assertThat(matches(json, in("state", asList(2, 3)))).isFalse();
+        assertThat(matches(json, in("processId", asList("hotels", "travels")))).isTrue();
+        assertThat(matches(json, like("variables.traveller.firstName", "Ma*"))).isTrue();
+        assertThat(matches(json, like("processId", "*vel"))).isFalse();
+        assertThat(matches(json, greaterThan("variables.traveller.age", 30))).isTrue();
+        assertThat(matches(json, lessThan("variables.traveller.age", 30))).isFalse();
+        assertThat(matches(json, between("variables.traveller.age", 30, 34))).isTrue();
+    }
+
+    @Test
+    void testNullConditions() {
+        assertThat(matches(json, isNull("businessKey"))).isTrue();
+        assertThat(matches(json, isNull("parentProcessInstanceId"))).isTrue();
+        assertThat(matches(json, notNull("processId"))).isTrue();
+        assertThat(matches(json, equalTo("businessKey", "key"))).isFalse();
+    }
+
+    @Test
+    void testArrayConditions() {
+        assertThat(matches(json, contains("roles", "admin"))).isTrue();
+        assertThat(matches(json, containsAll("roles", asList("admin", "manager")))).isTrue();
+        assertThat(matches(json, containsAll("roles", asList("admin", "user")))).isFalse();
+        assertThat(matches(json, containsAny("roles", asList("admin", "user")))).isTrue();
+        assertThat(matches(json, equalTo("nodes.name", "Book Flight"))).isTrue();
+        assertThat(matches(json, equalTo("nodes.name", "End"))).isFalse();
+    }
+
+    @Test
+    void testDateConditions() {
+        long start = ZonedDateTime.parse("2023-01-10T10:00:00Z").toInstant().toEpochMilli();
+        assertThat(matches(json, equalTo("start", start))).isTrue();
+        assertThat(matches(json, greaterThan("start", start - 1))).isTrue();
+        assertThat(matches(json, greaterThanEqual("start", ZonedDateTime.parse("2023-01-11T00:00:00+01:00")))).isFalse();
+    }
+
+    @Test
+    void testLogicalConditions() {
+        assertThat(matches(json, and(asList(equalTo("processId", "travels"), equalTo("state", 1))))).isTrue();
+        assertThat(matches(json, or(asList(equalTo("processId", "hotels"), equalTo("state", 1))))).isTrue();
+        assertThat(matches(json, not(equalTo("processId", "travels")))).isFalse();
+        assertThat(matches(json, asList(equalTo("processId", "travels"), equalTo("state", 2)))).isFalse();
+    }
+
+    private static JsonNode read(String json) {
+        try {
+            return new ObjectMapper().readTree(json);
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
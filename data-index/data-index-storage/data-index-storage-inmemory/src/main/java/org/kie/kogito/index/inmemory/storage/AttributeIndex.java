@@ -0,0 +1,90 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.index.inmemory.storage;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.kie.kogito.index.storage.JsonFilterEvaluator;
+import org.kie.kogito.persistence.api.query.AttributeFilter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Secondary index of an {@link InMemoryStorage} attribute, mapping the values of the attribute to the keys of the
+ * elements holding them. An index only narrows the candidates of a query, the filters are still evaluated on every
+ * candidate, so a lookup may return more keys than the matching ones but never less.
+ * <p>
+ * The indexes are not thread safe, the storage guards them with its lock.
+ */
+abstract class AttributeIndex<I> {
+
+    private final String attribute;
+
+    protected AttributeIndex(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    protected abstract Map<I, Set<String>> keys();
+
+    /**
+     * Gets the index value of an attribute value, {@code null} if the value is not indexed.
+     */
+    protected abstract I indexValue(JsonNode node);
+
+    /**
+     * Gets the keys of the elements that may match the filter, {@code null} if the index cannot narrow the filter.
+     */
+    public abstract Set<String> lookup(AttributeFilter<?> filter);
+
+    public void add(String key, JsonNode json) {
+        for (JsonNode node : JsonFilterEvaluator.values(json, attribute)) {
+            I value = indexValue(node);
+            if (value != null) {
+                keys().computeIfAbsent(value, v -> new HashSet<>()).add(key);
+            }
+        }
+    }
+
+    public void remove(String key, JsonNode json) {
+        for (JsonNode node : JsonFilterEvaluator.values(json, attribute)) {
+            I value = indexValue(node);
+            if (value != null) {
+                keys().computeIfPresent(value, (v, indexed) -> {
+                    indexed.remove(key);
+                    return indexed.isEmpty() ? null : indexed;
+                });
+            }
+        }
+    }
+
+    public void clear() {
+        keys().clear();
+    }
+
+    protected static Set<String> union(Collection<Set<String>> indexed) {
+        Set<String> union = new HashSet<>();
+        indexed.forEach(union::addAll);
+        return union;
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.index.inmemory.storage;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Converts the elements of an {@link InMemoryStorage} from and to the JSON trees the storage keeps. The trees use the
+ * attribute names of the queries, and a tree is never modified once stored, the storage hands out copies.
+ */
+public interface EntryMapper<V> {
+
+    JsonNode toJson(String key, V value);
+
+    V fromJson(JsonNode json);
+}
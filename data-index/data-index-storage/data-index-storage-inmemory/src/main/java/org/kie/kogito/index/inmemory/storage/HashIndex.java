@@ -0,0 +1,108 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.index.inmemory.storage;
+
+import java.math.BigDecimal;
+import java.time.temporal.TemporalAccessor;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.kie.kogito.persistence.api.query.AttributeFilter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * {@link AttributeIndex} answering the equality filters. The numbers, and the texts holding numbers, are indexed by
+ * their numeric value, so that the index agrees with the filters comparing them by value. Meant for the attributes
+ * that are not date-times, these are compared as instants, see {@link SortedIndex}.
+ */
+class HashIndex extends AttributeIndex<Object> {
+
+    private final Map<Object, Set<String>> keys = new HashMap<>();
+
+    HashIndex(String attribute) {
+        super(attribute);
+    }
+
+    @Override
+    protected Map<Object, Set<String>> keys() {
+        return keys;
+    }
+
+    @Override
+    protected Object indexValue(JsonNode node) {
+        if (node.isNumber()) {
+            return node.decimalValue().stripTrailingZeros();
+        }
+        return node.isValueNode() ? textValue(node.asText()) : null;
+    }
+
+    @Override
+    public Set<String> lookup(AttributeFilter<?> filter) {
+        switch (filter.getCondition()) {
+            case EQUAL:
+            case CONTAINS:
+                return lookup(Collections.singletonList(filter.getValue()));
+            case IN:
+            case CONTAINS_ANY:
+                return lookup((List<?>) filter.getValue());
+            default:
+                return null;
+        }
+    }
+
+    private Set<String> lookup(List<?> values) {
+        List<Object> indexValues = values.stream().map(HashIndex::filterValue).collect(toList());
+        if (indexValues.contains(null)) {
+            return null;
+        }
+        return union(indexValues.stream().map(keys::get).filter(Objects::nonNull).collect(toList()));
+    }
+
+    private static Object filterValue(Object value) {
+        if (value == null || value instanceof TemporalAccessor || value instanceof Collection || value instanceof Map) {
+            return null;
+        }
+        if (value instanceof Number) {
+            return numberValue(value.toString());
+        }
+        return textValue(value.toString());
+    }
+
+    private static Object textValue(String text) {
+        if (!text.isEmpty() && (Character.isDigit(text.charAt(0)) || "+-.".indexOf(text.charAt(0)) >= 0)) {
+            BigDecimal number = numberValue(text);
+            return number == null ? text : number;
+        }
+        return text;
+    }
+
+    private static BigDecimal numberValue(String text) {
+        try {
+            return new BigDecimal(text).stripTrailingZeros();
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
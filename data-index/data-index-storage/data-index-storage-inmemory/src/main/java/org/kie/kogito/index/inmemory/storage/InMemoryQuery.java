@@ -0,0 +1,213 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.index.inmemory.storage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.kie.kogito.index.inmemory.storage.InMemoryStorage.Entry;
+import org.kie.kogito.index.storage.JsonFilterEvaluator;
+import org.kie.kogito.persistence.api.query.AttributeFilter;
+import org.kie.kogito.persistence.api.query.AttributeSort;
+import org.kie.kogito.persistence.api.query.Query;
+import org.kie.kogito.persistence.api.query.SortDirection;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.smallrye.mutiny.Multi;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * {@link Query} of an {@link InMemoryStorage}. The sort values are the first value of each sort attribute, numbers
+ * being compared by value and date-times as instants, and the null values come after the rest in ascending order, as
+ * in PostgreSQL. The keyset pagination breaks the ties by key.
+ */
+public class InMemoryQuery<V> implements Query<V> {
+
+    private final InMemoryStorage<V> storage;
+
+    private Integer limit;
+    private Integer offset;
+    private String after;
+    private List<AttributeFilter<?>> filters;
+    private List<AttributeSort> sortBy;
+
+    InMemoryQuery(InMemoryStorage<V> storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public Query<V> limit(Integer limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    @Override
+    public Query<V> offset(Integer offset) {
+        this.offset = offset;
+        return this;
+    }
+
+    @Override
+    public Query<V> after(String cursor) {
+        this.after = cursor;
+        return this;
+    }
+
+    @Override
+    public Query<V> filter(List<AttributeFilter<?>> filters) {
+        this.filters = filters;
+        return this;
+    }
+
+    @Override
+    public Query<V> sort(List<AttributeSort> sortBy) {
+        this.sortBy = sortBy;
+        return this;
+    }
+
+    @Override
+    public List<V> execute() {
+        return page().stream().map(storage::toValue).collect(toList());
+    }
+
+    @Override
+    public Multi<V> stream() {
+        //the page only references the stored trees, the elements are converted as they are requested
+        return Multi.createFrom().deferred(() -> Multi.createFrom().iterable(page()))
+                .onItem().transform(storage::toValue);
+    }
+
+    @Override
+    public long count() {
+        return storage.select(filters).size();
+    }
+
+    @Override
+    public Map<List<Object>, Long> countBy(List<String> attributes) {
+        Map<List<Object>, Long> counts = new LinkedHashMap<>();
+        for (Entry entry : storage.select(filters)) {
+            List<Object> values = attributes.stream().map(attribute -> groupValue(entry.json, attribute)).collect(toList());
+            counts.merge(values, 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    private List<Entry> page() {
+        List<Entry> entries = storage.select(filters);
+        List<AttributeSort> sort = sortBy == null ? Collections.emptyList() : sortBy;
+        if (!sort.isEmpty() || after != null) {
+            entries = sort(entries, sort);
+        }
+        int from = offset == null ? 0 : Math.min(offset, entries.size());
+        int to = limit == null ? entries.size() : Math.min(from + limit, entries.size());
+        return entries.subList(from, to);
+    }
+
+    private List<Entry> sort(List<Entry> entries, List<AttributeSort> sort) {
+        Comparator<SortKey> comparator = comparator(sort);
+        SortKey cursor = null;
+        if (after != null) {
+            Entry cursorEntry = storage.entry(after);
+            if (cursorEntry == null) {
+                return Collections.emptyList();
+            }
+            cursor = new SortKey(cursorEntry, sort);
+            //the key breaks the ties so that the order is total
+            comparator = comparator.thenComparing(key -> key.entry.key);
+        }
+        List<SortKey> keys = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            SortKey key = new SortKey(entry, sort);
+            if (cursor == null || comparator.compare(key, cursor) > 0) {
+                keys.add(key);
+            }
+        }
+        //stable sort, the ties keep the insertion order
+        keys.sort(comparator);
+        return keys.stream().map(key -> key.entry).collect(toList());
+    }
+
+    private static Comparator<SortKey> comparator(List<AttributeSort> sort) {
+        Comparator<SortKey> comparator = (first, second) -> 0;
+        for (int i = 0; i < sort.size(); i++) {
+            int index = i;
+            Comparator<SortKey> attributeComparator = (first, second) -> compareValues(first.values[index], second.values[index]);
+            comparator = comparator.thenComparing(sort.get(i).getSort() == SortDirection.DESC ? attributeComparator.reversed() : attributeComparator);
+        }
+        return comparator;
+    }
+
+    // Ascending order with the nulls last
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static int compareValues(Object first, Object second) {
+        if (first == null || second == null) {
+            return first == null ? (second == null ? 0 : 1) : -1;
+        }
+        if (first.getClass() == second.getClass()) {
+            return ((Comparable) first).compareTo(second);
+        }
+        return first.toString().compareTo(second.toString());
+    }
+
+    private static Object sortValue(JsonNode json, String attribute) {
+        List<JsonNode> values = JsonFilterEvaluator.values(json, attribute);
+        if (values.isEmpty()) {
+            return null;
+        }
+        JsonNode node = values.get(0);
+        if (node.isNumber()) {
+            return node.decimalValue();
+        }
+        if (node.isBoolean()) {
+            return node.booleanValue();
+        }
+        Long millis = JsonFilterEvaluator.toEpochMillis(node);
+        return millis == null ? node.asText() : millis;
+    }
+
+    private static Object groupValue(JsonNode json, String attribute) {
+        List<JsonNode> values = JsonFilterEvaluator.values(json, attribute);
+        if (values.isEmpty()) {
+            return null;
+        }
+        JsonNode node = values.get(0);
+        if (node.isNumber()) {
+            return node.numberValue();
+        }
+        if (node.isBoolean()) {
+            return node.booleanValue();
+        }
+        return node.isTextual() ? node.textValue() : node.toString();
+    }
+
+    private static final class SortKey {
+
+        private final Entry entry;
+        private final Object[] values;
+
+        private SortKey(Entry entry, List<AttributeSort> sort) {
+            this.entry = entry;
+            this.values = sort.stream().map(attributeSort -> sortValue(entry.json, attributeSort.getAttribute())).toArray();
+        }
+    }
+}
@@ -0,0 +1,390 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.index.inmemory.storage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BinaryOperator;
+
+import org.kie.kogito.index.storage.JsonFilterEvaluator;
+import org.kie.kogito.persistence.api.Storage;
+import org.kie.kogito.persistence.api.listener.ListenerBroadcaster;
+import org.kie.kogito.persistence.api.query.AttributeFilter;
+import org.kie.kogito.persistence.api.query.Query;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.operators.multi.processors.BroadcastProcessor;
+import io.smallrye.mutiny.operators.multi.processors.SerializedProcessor;
+
+import static org.kie.kogito.index.storage.Constants.ID;
+
+/**
+ * Heap backed {@link Storage}. The elements are kept as JSON trees, converted by an {@link EntryMapper}, and queried
+ * with the {@link JsonFilterEvaluator}. The elements are stored by their id, so the id filters are answered by key, and
+ * the attributes registered with {@link #addHashIndex(String)} or {@link #addSortedIndex(String)} get a secondary
+ * index narrowing the elements a query has to evaluate.
+ * <p>
+ * Reads and queries share a read lock and the writes take the write lock, a stored tree is never modified so the
+ * queries evaluate their filters outside the lock. The queries without sort return the elements in insertion order.
+ */
+public class InMemoryStorage<V> implements Storage<String, V> {
+
+    private final String name;
+    private final String rootType;
+    private final EntryMapper<V> mapper;
+    private final ListenerBroadcaster broadcaster;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final Map<String, AttributeIndex<?>> indexes = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long sequence;
+
+    private final SerializedProcessor<V, V> created = BroadcastProcessor.<V> create().serialized();
+    private final SerializedProcessor<V, V> updated = BroadcastProcessor.<V> create().serialized();
+    private final SerializedProcessor<String, String> removed = BroadcastProcessor.<String> create().serialized();
+
+    public InMemoryStorage(String name, String rootType, EntryMapper<V> mapper) {
+        this(name, rootType, mapper, new ListenerBroadcaster());
+    }
+
+    public InMemoryStorage(String name, String rootType, EntryMapper<V> mapper, ListenerBroadcaster broadcaster) {
+        this.name = name;
+        this.rootType = rootType;
+        this.mapper = mapper;
+        this.broadcaster = broadcaster;
+    }
+
+    /**
+     * Indexes the values of the attribute for the equality filters.
+     */
+    public InMemoryStorage<V> addHashIndex(String attribute) {
+        return addIndex(new HashIndex(attribute));
+    }
+
+    /**
+     * Indexes the values of a date-time attribute for the equality and the range filters.
+     */
+    public InMemoryStorage<V> addSortedIndex(String attribute) {
+        return addIndex(new SortedIndex(attribute));
+    }
+
+    private InMemoryStorage<V> addIndex(AttributeIndex<?> index) {
+        lock.writeLock().lock();
+        try {
+            entries.values().forEach(entry -> index.add(entry.key, entry.json));
+            indexes.put(index.getAttribute(), index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return this;
+    }
+
+    @Override
+    public Multi<V> objectCreatedListener() {
+        return broadcaster.listen(listenerKey("created"), () -> created);
+    }
+
+    @Override
+    public Multi<V> objectUpdatedListener() {
+        return broadcaster.listen(listenerKey("updated"), () -> updated);
+    }
+
+    @Override
+    public Multi<String> objectRemovedListener() {
+        return broadcaster.listen(listenerKey("removed"), () -> removed);
+    }
+
+    private String listenerKey(String event) {
+        return name + ":" + event;
+    }
+
+    @Override
+    public Query<V> query() {
+        return new InMemoryQuery<>(this);
+    }
+
+    @Override
+    public V get(String key) {
+        Entry entry = entry(key);
+        return entry == null ? null : toValue(entry);
+    }
+
+    @Override
+    public Map<String, V> getAll(Collection<String> keys) {
+        List<Entry> found = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            keys.stream().map(entries::get).filter(Objects::nonNull).forEach(found::add);
+        } finally {
+            lock.readLock().unlock();
+        }
+        Map<String, V> result = new LinkedHashMap<>();
+        found.forEach(entry -> result.put(entry.key, toValue(entry)));
+        return result;
+    }
+
+    @Override
+    public V put(String key, V value) {
+        JsonNode json = mapper.toJson(key, value);
+        boolean existed;
+        lock.writeLock().lock();
+        try {
+            existed = store(key, json) != null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        (existed ? updated : created).onNext(value);
+        return value;
+    }
+
+    @Override
+    public void putAll(Map<String, V> values) {
+        Map<String, JsonNode> jsons = new LinkedHashMap<>();
+        values.forEach((key, value) -> jsons.put(key, mapper.toJson(key, value)));
+        Set<String> existing = new HashSet<>();
+        lock.writeLock().lock();
+        try {
+            jsons.forEach((key, json) -> {
+                if (store(key, json) != null) {
+                    existing.add(key);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        values.forEach((key, value) -> (existing.contains(key) ? updated : created).onNext(value));
+    }
+
+    /**
+     * Combines the element under the write lock, so concurrent merges of the same key are applied one after another.
+     */
+    @Override
+    public V merge(String key, V value, BinaryOperator<V> remappingFunction) {
+        V merged;
+        boolean existed;
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.get(key);
+            existed = previous != null;
+            merged = existed ? remappingFunction.apply(toValue(previous), value) : value;
+            store(key, mapper.toJson(key, merged));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        (existed ? updated : created).onNext(merged);
+        return merged;
+    }
+
+    @Override
+    public V remove(String key) {
+        Entry previous;
+        lock.writeLock().lock();
+        try {
+            previous = entries.remove(key);
+            if (previous != null) {
+                indexes.values().forEach(index -> index.remove(key, previous.json));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (previous == null) {
+            return null;
+        }
+        removed.onNext(key);
+        return toValue(previous);
+    }
+
+    @Override
+    public boolean containsKey(String key) {
+        return entry(key) != null;
+    }
+
+    @Override
+    public Map<String, V> entries() {
+        Map<String, V> result = new LinkedHashMap<>();
+        snapshot().forEach(entry -> result.put(entry.key, toValue(entry)));
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            indexes.values().forEach(AttributeIndex::clear);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public String getRootType() {
+        return rootType;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    //called under the write lock, the updated element keeps its insertion order
+    private Entry store(String key, JsonNode json) {
+        Entry previous = entries.get(key);
+        if (previous != null) {
+            indexes.values().forEach(index -> index.remove(key, previous.json));
+        }
+        entries.put(key, new Entry(key, previous == null ? sequence++ : previous.sequence, json));
+        indexes.values().forEach(index -> index.add(key, json));
+        return previous;
+    }
+
+    Entry entry(String key) {
+        lock.readLock().lock();
+        try {
+            return entries.get(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    V toValue(Entry entry) {
+        return mapper.fromJson(entry.json);
+    }
+
+    /**
+     * Gets the elements matching the filters in insertion order. The indexes select the candidates under the read lock,
+     * then the filters are evaluated on them.
+     */
+    List<Entry> select(List<AttributeFilter<?>> filters) {
+        List<Entry> candidates;
+        lock.readLock().lock();
+        try {
+            Set<String> keys = filters == null ? null : lookup(filters);
+            if (keys == null) {
+                candidates = new ArrayList<>(entries.values());
+            } else {
+                candidates = new ArrayList<>(keys.size());
+                keys.stream().map(entries::get).filter(Objects::nonNull).forEach(candidates::add);
+                candidates.sort(Comparator.comparingLong(entry -> entry.sequence));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (filters == null || filters.isEmpty()) {
+            return candidates;
+        }
+        List<Entry> matching = new ArrayList<>();
+        for (Entry entry : candidates) {
+            if (JsonFilterEvaluator.matches(entry.json, filters)) {
+                matching.add(entry);
+            }
+        }
+        return matching;
+    }
+
+    private List<Entry> snapshot() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(entries.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The keys of the elements that may match all the filters, null when no filter can be narrowed
+    private Set<String> lookup(List<AttributeFilter<?>> filters) {
+        Set<String> candidates = null;
+        for (AttributeFilter<?> filter : filters) {
+            Set<String> keys = lookup(filter);
+            if (keys != null) {
+                candidates = candidates == null ? keys : intersection(candidates, keys);
+            }
+        }
+        return candidates;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> lookup(AttributeFilter<?> filter) {
+        switch (filter.getCondition()) {
+            case AND:
+                return lookup((List<AttributeFilter<?>>) filter.getValue());
+            case OR:
+                Set<String> union = new HashSet<>();
+                for (AttributeFilter<?> alternative : (List<AttributeFilter<?>>) filter.getValue()) {
+                    Set<String> keys = lookup(alternative);
+                    if (keys == null) {
+                        return null;
+                    }
+                    union.addAll(keys);
+                }
+                return union;
+            case EQUAL:
+                if (ID.equals(filter.getAttribute())) {
+                    return existingKeys(Collections.singletonList(filter.getValue()));
+                }
+                break;
+            case IN:
+                if (ID.equals(filter.getAttribute())) {
+                    return existingKeys((List<?>) filter.getValue());
+                }
+                break;
+            default:
+                break;
+        }
+        AttributeIndex<?> index = indexes.get(filter.getAttribute());
+        return index == null ? null : index.lookup(filter);
+    }
+
+    private Set<String> existingKeys(List<?> keys) {
+        Set<String> existing = new HashSet<>();
+        keys.stream().filter(Objects::nonNull).map(Object::toString).filter(entries::containsKey).forEach(existing::add);
+        return existing;
+    }
+
+    private static Set<String> intersection(Set<String> first, Set<String> second) {
+        Set<String> smaller = first.size() <= second.size() ? first : second;
+        Set<String> larger = smaller == first ? second : first;
+        Set<String> intersection = new HashSet<>();
+        smaller.stream().filter(larger::contains).forEach(intersection::add);
+        return intersection;
+    }
+
+    static final class Entry {
+
+        final String key;
+        final long sequence;
+        final JsonNode json;
+
+        Entry(String key, long sequence, JsonNode json) {
+            this.key = key;
+            this.sequence = sequence;
+            this.json = json;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.index.inmemory.storage;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.kie.kogito.persistence.api.Storage;
+import org.kie.kogito.persistence.api.StorageService;
+import org.kie.kogito.persistence.api.listener.ListenerBroadcaster;
+import org.kie.kogito.persistence.api.listener.OverflowStrategy;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+
+import static org.kie.kogito.index.inmemory.Constants.INMEMORY_STORAGE;
+import static org.kie.kogito.index.storage.Constants.JOBS_STORAGE;
+import static org.kie.kogito.index.storage.Constants.LAST_UPDATE;
+import static org.kie.kogito.index.storage.Constants.PROCESS_ID;
+import static org.kie.kogito.index.storage.Constants.PROCESS_INSTANCES_STORAGE;
+import static org.kie.kogito.index.storage.Constants.USER_TASK_INSTANCES_STORAGE;
+import static org.kie.kogito.persistence.api.factory.Constants.PERSISTENCE_TYPE_PROPERTY;
+
+/**
+ * {@link StorageService} keeping the data index in the heap, meant for the development and test runtimes embedding the
+ * data index, the data is lost on restart. There is one {@link InMemoryStorage} per cache name, and the process
+ * instances, user task instances and jobs are indexed by the attributes they are commonly filtered by.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = PERSISTENCE_TYPE_PROPERTY, stringValue = INMEMORY_STORAGE)
+public class InMemoryStorageService implements StorageService {
+
+    @ConfigProperty(name = "kogito.apps.persistence.listener.buffer-size", defaultValue = "256")
+    int listenerBufferSize;
+
+    @ConfigProperty(name = "kogito.apps.persistence.listener.overflow-strategy", defaultValue = "LATEST")
+    OverflowStrategy listenerOverflowStrategy;
+
+    private final Map<String, InMemoryStorage<?>> storages = new ConcurrentHashMap<>();
+
+    private ListenerBroadcaster broadcaster;
+
+    @PostConstruct
+    void init() {
+        broadcaster = new ListenerBroadcaster(listenerBufferSize, listenerOverflowStrategy);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Storage<String, String> getCache(String name) {
+        return (Storage<String, String>) storages.computeIfAbsent(name,
+                n -> new InMemoryStorage<>(n, String.class.getName(), new ProcessIdEntryMapper(), broadcaster));
+    }
+
+    @Override
+    public <T> Storage<String, T> getCache(String name, Class<T> type) {
+        return getCache(name, type, type.getName());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Storage<String, T> getCache(String name, Class<T> type, String rootType) {
+        return (Storage<String, T>) storages.computeIfAbsent(name,
+                n -> indexed(new InMemoryStorage<>(n, rootType, new TypeEntryMapper<>(type), broadcaster)));
+    }
+
+    private static <T> InMemoryStorage<T> indexed(InMemoryStorage<T> storage) {
+        switch (storage.getName()) {
+            case PROCESS_INSTANCES_STORAGE:
+                return storage.addHashIndex("state").addHashIndex(PROCESS_ID).addHashIndex("businessKey")
+                        .addHashIndex("parentProcessInstanceId").addSortedIndex(LAST_UPDATE);
+            case USER_TASK_INSTANCES_STORAGE:
+                return storage.addHashIndex("state").addHashIndex(PROCESS_ID).addHashIndex("processInstanceId")
+                        .addSortedIndex(LAST_UPDATE);
+            case JOBS_STORAGE:
+                return storage.addHashIndex("status").addHashIndex(PROCESS_ID).addHashIndex("processInstanceId")
+                        .addSortedIndex(LAST_UPDATE);
+            default:
+                return storage;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.index.inmemory.storage;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * {@link EntryMapper} of the process id model storage, each element is the full type name of the domain model of the
+ * process whose id is the key.
+ */
+public class ProcessIdEntryMapper implements EntryMapper<String> {
+
+    static final String PROCESS_ID_ATTRIBUTE = "processId";
+    static final String FULL_TYPE_NAME_ATTRIBUTE = "fullTypeName";
+
+    @Override
+    public JsonNode toJson(String key, String value) {
+        ObjectNode json = JsonNodeFactory.instance.objectNode();
+        json.put(PROCESS_ID_ATTRIBUTE, key);
+        json.put(FULL_TYPE_NAME_ATTRIBUTE, value);
+        return json;
+    }
+
+    @Override
+    public String fromJson(JsonNode json) {
+        return json.get(FULL_TYPE_NAME_ATTRIBUTE).textValue();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.index.inmemory.storage;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.temporal.TemporalAccessor;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+
+import org.kie.kogito.index.storage.JsonFilterEvaluator;
+import org.kie.kogito.persistence.api.query.AttributeFilter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * {@link AttributeIndex} of a date-time attribute ordered by instant, answering the equality and the range filters
+ * with temporal or epoch millisecond values.
+ */
+class SortedIndex extends AttributeIndex<Long> {
+
+    private final NavigableMap<Long, Set<String>> keys = new TreeMap<>();
+
+    SortedIndex(String attribute) {
+        super(attribute);
+    }
+
+    @Override
+    protected Map<Long, Set<String>> keys() {
+        return keys;
+    }
+
+    @Override
+    protected Long indexValue(JsonNode node) {
+        return JsonFilterEvaluator.toEpochMillis(node);
+    }
+
+    @Override
+    public Set<String> lookup(AttributeFilter<?> filter) {
+        switch (filter.getCondition()) {
+            case EQUAL:
+                return lookup(Collections.singletonList(filter.getValue()));
+            case IN:
+                return lookup((List<?>) filter.getValue());
+            case GT:
+                return range(filter.getValue(), (millis, index) -> index.tailMap(millis, false));
+            case GTE:
+                return range(filter.getValue(), (millis, index) -> index.tailMap(millis, true));
+            case LT:
+                return range(filter.getValue(), (millis, index) -> index.headMap(millis, false));
+            case LTE:
+                return range(filter.getValue(), (millis, index) -> index.headMap(millis, true));
+            case BETWEEN:
+                List<?> range = (List<?>) filter.getValue();
+                Long from = filterValue(range.get(0));
+                Long to = filterValue(range.get(1));
+                if (from == null || to == null) {
+                    return null;
+                }
+                return union(from > to ? Collections.<Set<String>> emptyList() : keys.subMap(from, true, to, true).values());
+            default:
+                return null;
+        }
+    }
+
+    private Set<String> lookup(List<?> values) {
+        List<Long> indexValues = values.stream().map(SortedIndex::filterValue).collect(toList());
+        if (indexValues.contains(null)) {
+            return null;
+        }
+        return union(indexValues.stream().map(keys::get).filter(Objects::nonNull).collect(toList()));
+    }
+
+    private Set<String> range(Object value, BiFunction<Long, NavigableMap<Long, Set<String>>, Map<Long, Set<String>>> range) {
+        Long millis = filterValue(value);
+        return millis == null ? null : union(range.apply(millis, keys).values());
+    }
+
+    private static Long filterValue(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof TemporalAccessor) {
+            try {
+                return Instant.from((TemporalAccessor) value).toEpochMilli();
+            } catch (DateTimeException ex) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
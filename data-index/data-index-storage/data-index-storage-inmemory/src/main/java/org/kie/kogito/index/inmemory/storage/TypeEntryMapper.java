@@ -0,0 +1,66 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.index.inmemory.storage;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import static java.lang.String.format;
+
+/**
+ * {@link EntryMapper} of the model classes and the JSON elements. The model is converted without its Jackson
+ * annotations, so the JSON attributes are named after the model properties, as the query attributes are, and the
+ * dates are kept as ISO-8601 texts.
+ */
+public class TypeEntryMapper<V> implements EntryMapper<V> {
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(MapperFeature.USE_ANNOTATIONS)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final Class<V> type;
+
+    public TypeEntryMapper(Class<V> type) {
+        this.type = type;
+    }
+
+    @Override
+    public JsonNode toJson(String key, V value) {
+        return value instanceof JsonNode ? ((JsonNode) value).deepCopy() : MAPPER.valueToTree(value);
+    }
+
+    @Override
+    public V fromJson(JsonNode json) {
+        if (JsonNode.class.isAssignableFrom(type)) {
+            return type.cast(json.deepCopy());
+        }
+        try {
+            return MAPPER.treeToValue(json, type);
+        } catch (JsonProcessingException ex) {
+            throw new RuntimeException(format("Failed to convert JSON into type %s", type.getName()), ex);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.index.inmemory.query;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.kie.kogito.index.inmemory.storage.InMemoryStorageService;
+import org.kie.kogito.index.model.Job;
+import org.kie.kogito.index.test.query.AbstractJobQueryIT;
+import org.kie.kogito.persistence.api.Storage;
+
+import static org.kie.kogito.index.storage.Constants.JOBS_STORAGE;
+
+class JobQueryTest extends AbstractJobQueryIT {
+
+    Storage<String, Job> storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new InMemoryStorageService().getCache(JOBS_STORAGE, Job.class);
+    }
+
+    @Override
+    public Storage<String, Job> getStorage() {
+        return storage;
+    }
+}
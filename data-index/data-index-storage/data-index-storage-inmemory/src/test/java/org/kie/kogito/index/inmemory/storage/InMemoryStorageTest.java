@@ -0,0 +1,187 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.index.inmemory.storage;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.index.model.ProcessInstance;
+import org.kie.kogito.index.test.TestUtils;
+import org.kie.kogito.persistence.api.Storage;
+import org.kie.kogito.persistence.api.query.AttributeFilter;
+import org.kie.kogito.persistence.api.query.AttributeSort;
+import org.kie.kogito.persistence.api.query.SortDirection;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.kie.kogito.index.storage.Constants.PROCESS_INSTANCES_STORAGE;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.and;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.between;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.equalTo;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.greaterThanEqual;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.in;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.lessThan;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.not;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.or;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.orderBy;
+
+class InMemoryStorageTest {
+
+    private static final ZonedDateTime BASE = ZonedDateTime.of(2023, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private InMemoryStorage<ProcessInstance> indexed;
+
+    private InMemoryStorage<ProcessInstance> scanned;
+
+    @BeforeEach
+    void setUp() {
+        indexed = new InMemoryStorage<>(PROCESS_INSTANCES_STORAGE, ProcessInstance.class.getName(), new TypeEntryMapper<>(ProcessInstance.class))
+                .addHashIndex("state").addHashIndex("processId").addHashIndex("businessKey").addSortedIndex("lastUpdate");
+        scanned = new InMemoryStorage<>(PROCESS_INSTANCES_STORAGE, ProcessInstance.class.getName(), new TypeEntryMapper<>(ProcessInstance.class));
+        for (int i = 0; i < 200; i++) {
+            ProcessInstance pi = processInstance(i);
+            indexed.put(pi.getId(), pi);
+            scanned.put(pi.getId(), pi);
+        }
+    }
+
+    @Test
+    void testIndexedQueriesMatchFullScan() {
+        List<List<AttributeFilter<?>>> queries = asList(
+                singletonList(equalTo("state", 1)),
+                singletonList(equalTo("state", "1")),
+                singletonList(in("processId", asList("travels", "hotels"))),
+                asList(equalTo("processId", "travels"), in("state", asList(0, 2))),
+                singletonList(equalTo("businessKey", "bk-7")),
+                singletonList(greaterThanEqual("lastUpdate", BASE.plusMinutes(150))),
+                singletonList(lessThan("lastUpdate", BASE.plusMinutes(20).toInstant().toEpochMilli())),
+                singletonList(between("lastUpdate", BASE.plusMinutes(10), BASE.plusMinutes(30))),
+                singletonList(or(asList(equalTo("state", 3), equalTo("businessKey", "bk-1")))),
+                singletonList(and(asList(equalTo("processId", "flights"), not(equalTo("state", 1))))),
+                singletonList(in("id", asList("pi-5", "pi-6", "unknown"))));
+        for (List<AttributeFilter<?>> filters : queries) {
+            assertThat(ids(indexed.query().filter(filters).execute()))
+                    .as("filters %s", filters)
+                    .isNotEmpty()
+                    .containsExactlyElementsOf(ids(scanned.query().filter(filters).execute()));
+        }
+    }
+
+    @Test
+    void testIndexesFollowUpdatesAndRemovals() {
+        ProcessInstance pi = indexed.get("pi-0");
+        pi.setState(4);
+        pi.setLastUpdate(BASE.minusDays(1));
+        indexed.put(pi.getId(), pi);
+        indexed.remove("pi-1");
+
+        assertThat(ids(indexed.query().filter(singletonList(equalTo("state", 4))).execute())).containsExactly("pi-0");
+        assertThat(ids(indexed.query().filter(singletonList(lessThan("lastUpdate", BASE))).execute())).containsExactly("pi-0");
+        assertThat(ids(indexed.query().filter(singletonList(equalTo("state", 0))).execute())).doesNotContain("pi-0");
+        assertThat(ids(indexed.query().filter(singletonList(in("id", asList("pi-0", "pi-1")))).execute())).containsExactly("pi-0");
+        //the updated element keeps its insertion order
+        assertThat(ids(indexed.query().limit(2).execute())).containsExactly("pi-0", "pi-2");
+    }
+
+    @Test
+    void testKeysetPagination() {
+        List<AttributeSort> sort = asList(orderBy("state", SortDirection.DESC), orderBy("id", SortDirection.ASC));
+        List<String> expected = ids(indexed.query().sort(sort).execute());
+        List<String> pages = new ArrayList<>();
+        String cursor = null;
+        List<ProcessInstance> page;
+        do {
+            page = indexed.query().sort(sort).after(cursor).limit(30).execute();
+            pages.addAll(ids(page));
+            cursor = page.isEmpty() ? null : page.get(page.size() - 1).getId();
+        } while (page.size() == 30);
+
+        assertThat(pages).containsExactlyElementsOf(expected);
+        assertThat(indexed.query().after("unknown").execute()).isEmpty();
+    }
+
+    @Test
+    void testSortNullsLast() {
+        ProcessInstance pi = processInstance(200);
+        pi.setBusinessKey(null);
+        indexed.put(pi.getId(), pi);
+
+        List<String> ascending = ids(indexed.query().sort(singletonList(orderBy("businessKey", SortDirection.ASC))).execute());
+        List<String> descending = ids(indexed.query().sort(singletonList(orderBy("businessKey", SortDirection.DESC))).execute());
+        assertThat(ascending).endsWith("pi-200");
+        assertThat(descending).startsWith("pi-200");
+    }
+
+    @Test
+    void testCount() {
+        assertThat(indexed.query().filter(singletonList(equalTo("processId", "travels"))).count()).isEqualTo(67);
+        Map<List<Object>, Long> counts = indexed.query().countBy(singletonList("state"));
+        assertThat(counts).hasSize(4).containsEntry(singletonList(0), 50L);
+        assertThat(indexed.query().stream().collect().asList().await().indefinitely()).hasSize(200);
+    }
+
+    @Test
+    void testListeners() {
+        AssertSubscriber<ProcessInstance> created = indexed.objectCreatedListener().subscribe().withSubscriber(AssertSubscriber.create(10));
+        AssertSubscriber<ProcessInstance> updated = indexed.objectUpdatedListener().subscribe().withSubscriber(AssertSubscriber.create(10));
+        AssertSubscriber<String> removed = indexed.objectRemovedListener().subscribe().withSubscriber(AssertSubscriber.create(10));
+
+        indexed.put("pi-0", processInstance(0));
+        indexed.put("pi-200", processInstance(200));
+        indexed.remove("pi-1");
+        indexed.remove("unknown");
+
+        assertThat(ids(created.getItems())).containsExactly("pi-200");
+        assertThat(ids(updated.getItems())).containsExactly("pi-0");
+        assertThat(removed.getItems()).containsExactly("pi-1");
+    }
+
+    @Test
+    void testElementsAreCopied() {
+        Storage<String, ObjectNode> domain = new InMemoryStorage<>("travels_domain", "org.acme.Travels", new TypeEntryMapper<>(ObjectNode.class));
+        ObjectNode data = TestUtils.createDomainData("domain-1", "John", "Doe");
+        domain.put("domain-1", data);
+        data.put("id", "changed");
+        domain.get("domain-1").put("id", "changed");
+
+        assertThat(domain.get("domain-1").get("id").asText()).isEqualTo("domain-1");
+        assertThat(domain.query().filter(singletonList(equalTo("id", "domain-1"))).execute()).hasSize(1);
+    }
+
+    private static ProcessInstance processInstance(int i) {
+        ProcessInstance pi = TestUtils.createProcessInstance("pi-" + i, asList("travels", "hotels", "flights").get(i % 3), null, null, i % 4, 0L);
+        pi.setBusinessKey("bk-" + (i % 10));
+        pi.setLastUpdate(BASE.plusMinutes(i));
+        return pi;
+    }
+
+    private static List<String> ids(List<ProcessInstance> instances) {
+        List<String> ids = new ArrayList<>();
+        instances.forEach(pi -> ids.add(pi.getId()));
+        return ids;
+    }
+}
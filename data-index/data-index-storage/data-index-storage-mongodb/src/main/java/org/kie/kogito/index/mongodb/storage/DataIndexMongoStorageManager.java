@@ -0,0 +1,54 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.index.mongodb.storage;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.kie.kogito.index.mongodb.model.ProcessInstanceEntity;
+import org.kie.kogito.index.mongodb.model.ProcessInstanceEntityMapper;
+import org.kie.kogito.persistence.api.Storage;
+import org.kie.kogito.persistence.mongodb.client.MongoClientManager;
+import org.kie.kogito.persistence.mongodb.storage.MongoStorageManager;
+
+import io.quarkus.arc.AlternativePriority;
+import io.quarkus.arc.properties.IfBuildProperty;
+
+import static org.kie.kogito.index.storage.Constants.PROCESS_INSTANCES_STORAGE;
+import static org.kie.kogito.persistence.api.factory.Constants.PERSISTENCE_TYPE_PROPERTY;
+import static org.kie.kogito.persistence.mongodb.Constants.MONGODB_STORAGE;
+
+/**
+ * {@link MongoStorageManager} providing the {@link ProcessInstanceMongoStorage} for the process instances collection.
+ */
+@AlternativePriority(1)
+@ApplicationScoped
+@IfBuildProperty(name = PERSISTENCE_TYPE_PROPERTY, stringValue = MONGODB_STORAGE)
+public class DataIndexMongoStorageManager extends MongoStorageManager {
+
+    @Inject
+    MongoClientManager clientManager;
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Storage<String, T> getCache(String name, Class<T> type) {
+        if (PROCESS_INSTANCES_STORAGE.equals(name)) {
+            return (Storage<String, T>) new ProcessInstanceMongoStorage(clientManager.getCollection(name, ProcessInstanceEntity.class),
+                    new ProcessInstanceEntityMapper(), getBroadcaster());
+        }
+        return super.getCache(name, type);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.index.mongodb.storage;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentWrapper;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.kie.kogito.index.model.ProcessInstance;
+import org.kie.kogito.index.mongodb.model.ProcessInstanceEntity;
+import org.kie.kogito.index.mongodb.model.ProcessInstanceEntityMapper;
+import org.kie.kogito.index.storage.ProcessInstanceStorage;
+import org.kie.kogito.persistence.api.listener.ListenerBroadcaster;
+import org.kie.kogito.persistence.mongodb.storage.MongoStorage;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.UpdateOptions;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toCollection;
+import static org.kie.kogito.persistence.mongodb.model.ModelUtils.MONGO_ID;
+
+/**
+ * {@link MongoStorage} of process instances that applies the updates in place with a single update pipeline.
+ */
+public class ProcessInstanceMongoStorage extends MongoStorage<ProcessInstance, ProcessInstanceEntity> implements ProcessInstanceStorage {
+
+    static final String NODES = "nodes";
+
+    private final MongoCollection<ProcessInstanceEntity> collection;
+
+    private final ProcessInstanceEntityMapper processInstanceMapper;
+
+    public ProcessInstanceMongoStorage(MongoCollection<ProcessInstanceEntity> collection, ProcessInstanceEntityMapper mapper) {
+        this(collection, mapper, new ListenerBroadcaster());
+    }
+
+    public ProcessInstanceMongoStorage(MongoCollection<ProcessInstanceEntity> collection, ProcessInstanceEntityMapper mapper, ListenerBroadcaster broadcaster) {
+        super(collection, ProcessInstance.class.getName(), mapper, broadcaster);
+        this.collection = collection;
+        this.processInstanceMapper = mapper;
+    }
+
+    @Override
+    public void upsert(ProcessInstance pi) {
+        BsonDocument document = BsonDocumentWrapper.asBsonDocument(processInstanceMapper.mapToEntity(pi.getId(), pi), collection.getCodecRegistry()).clone();
+        BsonValue value = document.remove(NODES);
+        BsonArray nodes = value != null && value.isArray() ? value.asArray() : new BsonArray();
+        BsonArray nodeIds = nodes.stream().map(n -> n.asDocument().get(MONGO_ID)).collect(toCollection(BsonArray::new));
+
+        //the stored node instances that are not part of the update are kept, the rest of the document is replaced,
+        //the values are wrapped in $literal so strings starting with $ are not evaluated as field paths
+        Bson storedNodes = new Document("$ifNull", asList("$" + NODES, new BsonArray()));
+        Bson keptNodes = new Document("$filter", new Document("input", storedNodes)
+                .append("cond", new Document("$not", singletonList(new Document("$in", asList("$$this." + MONGO_ID, new Document("$literal", nodeIds)))))));
+        Bson mergedNodes = new Document("$concatArrays", asList(keptNodes, new Document("$literal", nodes)));
+        Bson replacement = new Document("$replaceWith", new Document("$mergeObjects", asList(new Document("$literal", document), new Document(NODES, mergedNodes))));
+
+        collection.updateOne(new Document(MONGO_ID, pi.getId()), singletonList(replacement), new UpdateOptions().upsert(true));
+    }
+}
@@ -37,6 +37,7 @@ import org.kie.kogito.testcontainers.quarkus.MongoDBQuarkusTestResource;
 import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.kie.kogito.index.storage.Constants.PROCESS_INSTANCES_STORAGE;
 
 @QuarkusTest
@@ -68,4 +69,23 @@ class ProcessInstanceStorageIT extends StorageTestBase<String, ProcessInstance>
                 RandomStringUtils.randomAlphabetic(10), ProcessInstanceState.COMPLETED.ordinal(), 1000L);
         testStorage(storage, processInstanceId, processInstance1, processInstance2);
     }
+    @Test
+    void testUpsert() {
+        String processInstanceId = UUID.randomUUID().toString();
+        ProcessInstance processInstance1 = TestUtils.createProcessInstance(processInstanceId, RandomStringUtils.randomAlphabetic(5), UUID.randomUUID().toString(),
+                RandomStringUtils.randomAlphabetic(10), ProcessInstanceState.ACTIVE.ordinal(), 0L);
+        ProcessInstance processInstance2 = TestUtils.createProcessInstance(processInstanceId, RandomStringUtils.randomAlphabetic(5), UUID.randomUUID().toString(),
+                RandomStringUtils.randomAlphabetic(10), ProcessInstanceState.COMPLETED.ordinal(), 1000L);
+        ProcessInstanceMongoStorage processInstanceStorage = new ProcessInstanceMongoStorage(
+                mongoClientManager.getCollection(PROCESS_INSTANCES_STORAGE, ProcessInstanceEntity.class), new ProcessInstanceEntityMapper());
+
+        processInstanceStorage.upsert(processInstance1);
+        assertThat(processInstanceStorage.get(processInstanceId).getNodes()).containsExactlyInAnyOrderElementsOf(processInstance1.getNodes());
+
+        processInstanceStorage.upsert(processInstance2);
+        ProcessInstance stored = processInstanceStorage.get(processInstanceId);
+        assertThat(stored.getState()).isEqualTo(ProcessInstanceState.COMPLETED.ordinal());
+        assertThat(stored.getProcessName()).isEqualTo(processInstance2.getProcessName());
+        assertThat(stored.getNodes()).hasSize(4).containsAll(processInstance1.getNodes()).containsAll(processInstance2.getNodes());
+    }
 }
@@ -16,6 +16,8 @@
 
 package org.kie.kogito.index.oracle.storage;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -86,6 +88,25 @@ public abstract class AbstractStorage<E extends AbstractEntity, V> implements St
         return value;
     }
 
+    @Override
+    @Transactional
+    public Map<String, V> getAll(Collection<String> keys) {
+        return repository.list("id in ?1", new ArrayList<>(keys)).stream().collect(toMap(AbstractEntity::getId, mapToModel));
+    }
+
+    @Override
+    @Transactional
+    public void putAll(Map<String, V> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        //persisting an entity with the id of a removed one flushes the session, so the existing entities are loaded with
+        //one query and all removed in a single flush, the new ones are then inserted in JDBC batches at commit time
+        repository.list("id in ?1", new ArrayList<>(entries.keySet())).forEach(repository::delete);
+        repository.flush();
+        entries.values().forEach(value -> repository.persist(mapToEntity.apply(value)));
+    }
+
     @Override
     @Transactional
     public V remove(String key) {
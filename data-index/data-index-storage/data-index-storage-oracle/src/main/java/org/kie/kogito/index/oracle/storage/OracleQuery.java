@@ -15,39 +15,63 @@
  */
 package org.kie.kogito.index.oracle.storage;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.Join;
 import javax.persistence.criteria.Order;
 import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import javax.transaction.TransactionManager;
 
 import org.hibernate.query.criteria.internal.path.PluralAttributePath;
 import org.kie.kogito.index.oracle.model.AbstractEntity;
 import org.kie.kogito.persistence.api.query.AttributeFilter;
 import org.kie.kogito.persistence.api.query.AttributeSort;
+import org.kie.kogito.persistence.api.query.KeysetPagination;
 import org.kie.kogito.persistence.api.query.Query;
 import org.kie.kogito.persistence.api.query.SortDirection;
+import org.kie.kogito.persistence.oracle.ReadOnlyTransaction;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.smallrye.mutiny.Multi;
 
+import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+import static org.kie.kogito.persistence.api.query.KeysetPagination.ID;
+import static org.kie.kogito.persistence.api.query.KeysetPagination.sortWithTieBreaker;
 
 public class OracleQuery<E extends AbstractEntity, T> implements Query<T> {
 
+    private static final int FETCH_SIZE = 500;
+
     private PanacheRepositoryBase<E, String> repository;
     private Integer limit;
     private Integer offset;
+    private String after;
     private List<AttributeFilter<?>> filters;
     private List<AttributeSort> sortBy;
     private Class<E> entityClass;
     private Function<E, T> mapper;
 
+    TransactionManager transactionManager = ReadOnlyTransaction.transactionManager();
+
     public OracleQuery(PanacheRepositoryBase<E, String> repository, Function<E, T> mapper, Class<E> entityClass) {
         this.repository = repository;
         this.mapper = mapper;
@@ -66,6 +90,12 @@ public class OracleQuery<E extends AbstractEntity, T> implements Query<T> {
         return this;
     }
 
+    @Override
+    public Query<T> after(String cursor) {
+        this.after = cursor;
+        return this;
+    }
+
     @Override
     public Query<T> filter(List<AttributeFilter<?>> filters) {
         this.filters = filters;
@@ -80,22 +110,93 @@ public class OracleQuery<E extends AbstractEntity, T> implements Query<T> {
 
     @Override
     public List<T> execute() {
+        return createQuery().map(query -> query.getResultList().stream().map(mapper).collect(toList())).orElse(emptyList());
+    }
+
+    @Override
+    public Multi<T> stream() {
+        //the entities are read through a forward only cursor and detached once mapped to keep the session small
+        return Multi.createFrom().deferred(() -> ReadOnlyTransaction.stream(transactionManager, repository.getEntityManager(),
+                session -> createQuery()
+                        .map(query -> query.setHint(HINT_FETCH_SIZE, FETCH_SIZE).setHint(HINT_READONLY, true).getResultStream()
+                                .map(entity -> mapAndDetach(session, entity)))
+                        .orElseGet(Stream::empty)));
+    }
+
+    @Override
+    public long count() {
         CriteriaBuilder builder = repository.getEntityManager().getCriteriaBuilder();
-        CriteriaQuery<E> criteriaQuery = builder.createQuery(entityClass);
+        CriteriaQuery<Long> criteriaQuery = builder.createQuery(Long.class);
+        Root<E> root = criteriaQuery.from(entityClass);
+        criteriaQuery.select(builder.count(root));
+        if (filters != null && !filters.isEmpty()) {
+            criteriaQuery.where(getPredicates(builder, root, filters).toArray(new Predicate[] {}));
+        }
+        return repository.getEntityManager().createQuery(criteriaQuery).getSingleResult();
+    }
+
+    @Override
+    public Map<List<Object>, Long> countBy(List<String> attributes) {
+        CriteriaBuilder builder = repository.getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = builder.createTupleQuery();
         Root<E> root = criteriaQuery.from(entityClass);
+        List<Expression<?>> groups = attributes.stream().<Expression<?>> map(attribute -> getAttributePath(root, attribute)).collect(toList());
+        List<Selection<?>> selections = new ArrayList<>(groups);
+        selections.add(builder.count(root));
+        criteriaQuery.multiselect(selections).groupBy(groups);
         if (filters != null && !filters.isEmpty()) {
-            List<Predicate> predicates = getPredicates(builder, root);
+            criteriaQuery.where(getPredicates(builder, root, filters).toArray(new Predicate[] {}));
+        }
+
+        Map<List<Object>, Long> counts = new HashMap<>();
+        for (Tuple tuple : repository.getEntityManager().createQuery(criteriaQuery).getResultList()) {
+            List<Object> values = new ArrayList<>(attributes.size());
+            for (int i = 0; i < attributes.size(); i++) {
+                values.add(tuple.get(i));
+            }
+            counts.put(values, tuple.get(attributes.size(), Long.class));
+        }
+        return counts;
+    }
+
+    private T mapAndDetach(EntityManager session, E entity) {
+        T value = mapper.apply(entity);
+        session.detach(entity);
+        return value;
+    }
+
+    /**
+     * Builds the criteria query, empty if the result is known to be empty.
+     */
+    private Optional<TypedQuery<E>> createQuery() {
+        List<AttributeFilter<?>> queryFilters = filters;
+        List<AttributeSort> querySort = sortBy;
+        if (after != null) {
+            querySort = sortWithTieBreaker(sortBy, ID);
+            Optional<Map<String, Object>> cursor = getCursorValues(querySort);
+            if (cursor.isEmpty()) {
+                return Optional.empty();
+            }
+            queryFilters = filters == null ? new ArrayList<>() : new ArrayList<>(filters);
+            queryFilters.add(KeysetPagination.after(querySort, cursor.get(), true));
+        }
+
+        CriteriaBuilder builder = repository.getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<E> criteriaQuery = builder.createQuery(entityClass);
+        Root<E> root = criteriaQuery.from(entityClass);
+        if (queryFilters != null && !queryFilters.isEmpty()) {
+            List<Predicate> predicates = getPredicates(builder, root, queryFilters);
             criteriaQuery.where(predicates.toArray(new Predicate[] {}));
         }
-        if (sortBy != null && !sortBy.isEmpty()) {
-            List<Order> orderBy = sortBy.stream().map(f -> {
+        if (querySort != null && !querySort.isEmpty()) {
+            List<Order> orderBy = querySort.stream().map(f -> {
                 Path attributePath = getAttributePath(root, f.getAttribute());
                 return f.getSort() == SortDirection.ASC ? builder.asc(attributePath) : builder.desc(attributePath);
             }).collect(toList());
             criteriaQuery.orderBy(orderBy);
         }
 
-        javax.persistence.Query query = repository.getEntityManager().createQuery(criteriaQuery);
+        TypedQuery<E> query = repository.getEntityManager().createQuery(criteriaQuery);
 
         if (limit != null) {
             query.setMaxResults(limit);
@@ -103,11 +204,31 @@ public class OracleQuery<E extends AbstractEntity, T> implements Query<T> {
         if (offset != null) {
             query.setFirstResult(offset);
         }
-        return (List<T>) query.getResultList().stream().map(mapper).collect(toList());
+        return Optional.of(query);
+    }
+
+    /**
+     * Gets the values of the sort attributes of the entry the keyset pagination starts after, empty if it does not exist.
+     */
+    private Optional<Map<String, Object>> getCursorValues(List<AttributeSort> querySort) {
+        CriteriaBuilder builder = repository.getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = builder.createTupleQuery();
+        Root<E> root = criteriaQuery.from(entityClass);
+        criteriaQuery.multiselect(querySort.stream().map(f -> getAttributePath(root, f.getAttribute())).collect(toList()));
+        criteriaQuery.where(builder.equal(root.get(ID), after));
+
+        return repository.getEntityManager().createQuery(criteriaQuery).setMaxResults(1).getResultList().stream().findFirst()
+                .map(tuple -> {
+                    Map<String, Object> values = new HashMap<>();
+                    for (int i = 0; i < querySort.size(); i++) {
+                        values.put(querySort.get(i).getAttribute(), tuple.get(i));
+                    }
+                    return values;
+                });
     }
 
-    protected List<Predicate> getPredicates(CriteriaBuilder builder, Root<E> root) {
-        return filters.stream().map(filterPredicateFunction(root, builder)).collect(toList());
+    protected List<Predicate> getPredicates(CriteriaBuilder builder, Root<E> root, List<AttributeFilter<?>> queryFilters) {
+        return queryFilters.stream().map(filterPredicateFunction(root, builder)).collect(toList());
     }
 
     private Function<AttributeFilter<?>, Predicate> filterPredicateFunction(Root<E> root, CriteriaBuilder builder) {
@@ -16,14 +16,20 @@
 
 package org.kie.kogito.index.postgresql.storage;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.Function;
 
+import javax.inject.Inject;
 import javax.transaction.Transactional;
 
 import org.kie.kogito.index.postgresql.model.AbstractEntity;
 import org.kie.kogito.persistence.api.Storage;
 import org.kie.kogito.persistence.api.query.Query;
+import org.kie.kogito.persistence.postgresql.listener.ChangeEvent;
+import org.kie.kogito.persistence.postgresql.listener.PostgresChangeFeed;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import io.smallrye.mutiny.Multi;
@@ -32,14 +38,15 @@ import static java.util.stream.Collectors.toMap;
 
 public abstract class AbstractStorage<E extends AbstractEntity, V> implements Storage<String, V> {
 
-    private static final String LISTENER_NOT_AVAILABLE_IN_POSTGRES_SQL = "Listener not available in PostgresSQL";
-
     private PanacheRepositoryBase<E, String> repository;
     private Class<V> modelClass;
     private Class<E> entityClass;
     private Function<E, V> mapToModel;
     private Function<V, E> mapToEntity;
 
+    @Inject
+    PostgresChangeFeed changeFeed;
+
     protected AbstractStorage() {
     }
 
@@ -54,17 +61,21 @@ public abstract class AbstractStorage<E extends AbstractEntity, V> implements St
 
     @Override
     public Multi<V> objectCreatedListener() {
-        throw new UnsupportedOperationException(LISTENER_NOT_AVAILABLE_IN_POSTGRES_SQL);
+        return changeFeed.changes(getRootType(), ChangeEvent.Type.CREATED, this::get);
     }
 
     @Override
     public Multi<V> objectUpdatedListener() {
-        throw new UnsupportedOperationException(LISTENER_NOT_AVAILABLE_IN_POSTGRES_SQL);
+        return changeFeed.changes(getRootType(), ChangeEvent.Type.UPDATED, this::get);
     }
 
     @Override
     public Multi<String> objectRemovedListener() {
-        throw new UnsupportedOperationException(LISTENER_NOT_AVAILABLE_IN_POSTGRES_SQL);
+        return changeFeed.changes(getRootType(), ChangeEvent.Type.REMOVED, Function.identity());
+    }
+
+    protected void publish(String key, ChangeEvent.Type type) {
+        changeFeed.publish(repository.getEntityManager(), getRootType(), key, type);
     }
 
     @Override
@@ -81,17 +92,44 @@ public abstract class AbstractStorage<E extends AbstractEntity, V> implements St
     @Override
     @Transactional
     public V put(String key, V value) {
-        repository.deleteById(key);
+        boolean updated = repository.deleteById(key);
         repository.persist(mapToEntity.apply(value));
+        publish(key, updated ? ChangeEvent.Type.UPDATED : ChangeEvent.Type.CREATED);
         return value;
     }
 
+    @Override
+    @Transactional
+    public Map<String, V> getAll(Collection<String> keys) {
+        return repository.list("id in ?1", new ArrayList<>(keys)).stream().collect(toMap(AbstractEntity::getId, mapToModel));
+    }
+
+    @Override
+    @Transactional
+    public void putAll(Map<String, V> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        //persisting an entity with the id of a removed one flushes the session, so the existing entities are loaded with
+        //one query and all removed in a single flush, the new ones are then inserted in JDBC batches at commit time
+        Map<String, ChangeEvent.Type> changes = new LinkedHashMap<>();
+        entries.keySet().forEach(key -> changes.put(key, ChangeEvent.Type.CREATED));
+        repository.list("id in ?1", new ArrayList<>(entries.keySet())).forEach(entity -> {
+            changes.put(entity.getId(), ChangeEvent.Type.UPDATED);
+            repository.delete(entity);
+        });
+        repository.flush();
+        entries.values().forEach(value -> repository.persist(mapToEntity.apply(value)));
+        changeFeed.publishAll(repository.getEntityManager(), getRootType(), changes);
+    }
+
     @Override
     @Transactional
     public V remove(String key) {
         V value = get(key);
         if (value != null) {
             repository.deleteById(key);
+            publish(key, ChangeEvent.Type.REMOVED);
         }
         return value;
     }
@@ -16,16 +16,62 @@
 
 package org.kie.kogito.index.postgresql.storage;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.TimeZone;
+
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
 
+import org.hibernate.Session;
 import org.kie.kogito.index.model.ProcessInstance;
 import org.kie.kogito.index.postgresql.mapper.ProcessInstanceEntityMapper;
+import org.kie.kogito.index.postgresql.model.MilestoneEntity;
+import org.kie.kogito.index.postgresql.model.NodeInstanceEntity;
 import org.kie.kogito.index.postgresql.model.ProcessInstanceEntity;
 import org.kie.kogito.index.postgresql.model.ProcessInstanceEntityRepository;
+import org.kie.kogito.index.postgresql.model.ProcessInstanceErrorEntity;
+import org.kie.kogito.index.storage.ProcessInstanceStorage;
+import org.kie.kogito.persistence.postgresql.listener.ChangeEvent;
 
 @ApplicationScoped
-public class ProcessInstanceEntityStorage extends AbstractStorage<ProcessInstanceEntity, ProcessInstance> {
+public class ProcessInstanceEntityStorage extends AbstractStorage<ProcessInstanceEntity, ProcessInstance> implements ProcessInstanceStorage {
+
+    static final String UPSERT_PROCESS = "INSERT INTO processes (id, business_key, end_time, endpoint, message, node_definition_id, " +
+            "last_update_time, parent_process_instance_id, process_id, process_name, root_process_id, root_process_instance_id, " +
+            "start_time, state, variables) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, cast(? as jsonb)) " +
+            "ON CONFLICT (id) DO UPDATE SET business_key = excluded.business_key, end_time = excluded.end_time, " +
+            "endpoint = excluded.endpoint, message = excluded.message, node_definition_id = excluded.node_definition_id, " +
+            "last_update_time = excluded.last_update_time, parent_process_instance_id = excluded.parent_process_instance_id, " +
+            "process_id = excluded.process_id, process_name = excluded.process_name, root_process_id = excluded.root_process_id, " +
+            "root_process_instance_id = excluded.root_process_instance_id, start_time = excluded.start_time, " +
+            "state = excluded.state, variables = excluded.variables RETURNING (xmax = 0) AS inserted";
+
+    static final String UPSERT_NODE = "INSERT INTO nodes (id, definition_id, enter, exit, name, node_id, type, process_instance_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (id) DO UPDATE SET definition_id = excluded.definition_id, " +
+            "enter = excluded.enter, exit = excluded.exit, name = excluded.name, node_id = excluded.node_id, type = excluded.type, " +
+            "process_instance_id = excluded.process_instance_id";
+
+    static final String DELETE_MILESTONES = "DELETE FROM milestones WHERE process_instance_id = ?";
+    static final String INSERT_MILESTONE = "INSERT INTO milestones (id, process_instance_id, name, status) VALUES (?, ?, ?, ?)";
+    static final String DELETE_ROLES = "DELETE FROM processes_roles WHERE process_id = ?";
+    static final String INSERT_ROLE = "INSERT INTO processes_roles (process_id, role) VALUES (?, ?)";
+    static final String DELETE_ADDONS = "DELETE FROM processes_addons WHERE process_id = ?";
+    static final String INSERT_ADDON = "INSERT INTO processes_addons (process_id, addon) VALUES (?, ?)";
+
+    private ProcessInstanceEntityRepository repository;
+    private ProcessInstanceEntityMapper mapper;
 
     public ProcessInstanceEntityStorage() {
     }
@@ -33,5 +79,119 @@ public class ProcessInstanceEntityStorage extends AbstractStorage<ProcessInstanc
     @Inject
     public ProcessInstanceEntityStorage(ProcessInstanceEntityRepository repository, ProcessInstanceEntityMapper mapper) {
         super(repository, ProcessInstance.class, ProcessInstanceEntity.class, e -> mapper.mapToModel(e), m -> mapper.mapToEntity(m));
+        this.repository = repository;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Writes the process instance with plain SQL upserts instead of deleting and persisting the whole entity graph:
+     * the process instance row and the node instances are inserted or updated in place, the remaining child rows are
+     * replaced.
+     */
+    @Override
+    @Transactional
+    public void upsert(ProcessInstance pi) {
+        ProcessInstanceEntity entity = mapper.mapToEntity(pi);
+        EntityManager em = repository.getEntityManager();
+        //the statements bypass the persistence context, so it must not hold pending changes or stale entities
+        em.flush();
+        boolean created = em.unwrap(Session.class).doReturningWork(connection -> upsert(connection, entity));
+        em.clear();
+        publish(pi.getId(), created ? ChangeEvent.Type.CREATED : ChangeEvent.Type.UPDATED);
+    }
+
+    private static boolean upsert(Connection connection, ProcessInstanceEntity entity) throws SQLException {
+        String id = entity.getId();
+        ProcessInstanceErrorEntity error = entity.getError();
+        boolean created;
+        try (PreparedStatement statement = connection.prepareStatement(UPSERT_PROCESS)) {
+            statement.setString(1, id);
+            statement.setString(2, entity.getBusinessKey());
+            setTimestamp(statement, 3, entity.getEnd());
+            statement.setString(4, entity.getEndpoint());
+            statement.setString(5, error == null ? null : error.getMessage());
+            statement.setString(6, error == null ? null : error.getNodeDefinitionId());
+            setTimestamp(statement, 7, entity.getLastUpdate());
+            statement.setString(8, entity.getParentProcessInstanceId());
+            statement.setString(9, entity.getProcessId());
+            statement.setString(10, entity.getProcessName());
+            statement.setString(11, entity.getRootProcessId());
+            statement.setString(12, entity.getRootProcessInstanceId());
+            setTimestamp(statement, 13, entity.getStart());
+            if (entity.getState() == null) {
+                statement.setNull(14, Types.INTEGER);
+            } else {
+                statement.setInt(14, entity.getState());
+            }
+            statement.setString(15, entity.getVariables() == null ? null : entity.getVariables().toString());
+            //xmax is only set on the row versions written by an update
+            try (ResultSet result = statement.executeQuery()) {
+                created = result.next() && result.getBoolean(1);
+            }
+        }
+        if (entity.getNodes() != null && !entity.getNodes().isEmpty()) {
+            try (PreparedStatement statement = connection.prepareStatement(UPSERT_NODE)) {
+                for (NodeInstanceEntity node : entity.getNodes()) {
+                    statement.setString(1, node.getId());
+                    statement.setString(2, node.getDefinitionId());
+                    setTimestamp(statement, 3, node.getEnter());
+                    setTimestamp(statement, 4, node.getExit());
+                    statement.setString(5, node.getName());
+                    statement.setString(6, node.getNodeId());
+                    statement.setString(7, node.getType());
+                    statement.setString(8, id);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+        replace(connection, DELETE_MILESTONES, INSERT_MILESTONE, id, entity.getMilestones(), (statement, milestone) -> {
+            statement.setString(1, milestone.getId());
+            statement.setString(2, id);
+            statement.setString(3, milestone.getName());
+            statement.setString(4, milestone.getStatus());
+        });
+        replace(connection, DELETE_ROLES, INSERT_ROLE, id, entity.getRoles(), (statement, role) -> {
+            statement.setString(1, id);
+            statement.setString(2, role);
+        });
+        replace(connection, DELETE_ADDONS, INSERT_ADDON, id, entity.getAddons(), (statement, addon) -> {
+            statement.setString(1, id);
+            statement.setString(2, addon);
+        });
+        return created;
+    }
+
+    private static <T> void replace(Connection connection, String delete, String insert, String id, Collection<T> rows,
+            StatementBinder<T> binder) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(delete)) {
+            statement.setString(1, id);
+            statement.executeUpdate();
+        }
+        if (rows == null || rows.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(insert)) {
+            for (T row : rows) {
+                binder.bind(statement, row);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    //the timestamp columns hold UTC (quarkus.hibernate-orm.jdbc.timezone), whatever the default time zone of the JVM is
+    private static void setTimestamp(PreparedStatement statement, int index, ZonedDateTime time) throws SQLException {
+        if (Objects.isNull(time)) {
+            statement.setNull(index, Types.TIMESTAMP);
+        } else {
+            statement.setTimestamp(index, Timestamp.from(time.toInstant()), Calendar.getInstance(TimeZone.getTimeZone(ZoneOffset.UTC)));
+        }
+    }
+
+    @FunctionalInterface
+    private interface StatementBinder<T> {
+
+        void bind(PreparedStatement statement, T row) throws SQLException;
     }
 }
@@ -16,6 +16,8 @@
 
 package org.kie.kogito.index.postgresql.storage;
 
+import java.util.Map;
+
 import org.kie.kogito.index.postgresql.model.AbstractEntity;
 import org.kie.kogito.persistence.api.Storage;
 import org.kie.kogito.persistence.api.StorageService;
@@ -56,6 +58,17 @@ public abstract class AbstractStorageIT<E extends AbstractEntity, T> {
         assertThat(cache.get(key)).isNull();
         assertThat(cache.containsKey(key)).isFalse();
         assertThat(getRepository().count()).isZero();
+
+        cache.putAll(Map.of(key, value1));
+        assertThat(cache.get(key)).isEqualTo(value1);
+        assertThat(getRepository().count()).isOne();
+
+        cache.putAll(Map.of(key, value2));
+        assertThat(cache.get(key)).isEqualTo(value2);
+        assertThat(getRepository().count()).isOne();
+
+        cache.remove(key);
+        assertThat(getRepository().count()).isZero();
     }
 
 }
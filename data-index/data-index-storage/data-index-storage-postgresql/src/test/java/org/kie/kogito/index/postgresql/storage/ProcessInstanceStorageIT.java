@@ -16,6 +16,7 @@
 
 package org.kie.kogito.index.postgresql.storage;
 
+import java.util.TimeZone;
 import java.util.UUID;
 
 import javax.inject.Inject;
@@ -27,6 +28,7 @@ import org.kie.kogito.index.model.ProcessInstance;
 import org.kie.kogito.index.model.ProcessInstanceState;
 import org.kie.kogito.index.postgresql.model.ProcessInstanceEntity;
 import org.kie.kogito.index.postgresql.model.ProcessInstanceEntityRepository;
+import org.kie.kogito.index.storage.ProcessInstanceStorage;
 import org.kie.kogito.index.test.TestUtils;
 import org.kie.kogito.persistence.api.StorageService;
 import org.kie.kogito.testcontainers.quarkus.PostgreSqlQuarkusTestResource;
@@ -34,6 +36,9 @@ import org.kie.kogito.testcontainers.quarkus.PostgreSqlQuarkusTestResource;
 import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
 
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
 @QuarkusTest
 @QuarkusTestResource(PostgreSqlQuarkusTestResource.class)
 public class ProcessInstanceStorageIT extends AbstractStorageIT<ProcessInstanceEntity, ProcessInstance> {
@@ -71,4 +76,53 @@ public class ProcessInstanceStorageIT extends AbstractStorageIT<ProcessInstanceE
         testStorage(processInstanceId, processInstance1, processInstance2);
     }
 
+    @Test
+    public void testUpsert() {
+        String processInstanceId = UUID.randomUUID().toString();
+        ProcessInstance processInstance1 = TestUtils
+                .createProcessInstance(processInstanceId, RandomStringUtils.randomAlphabetic(5), UUID.randomUUID().toString(),
+                        RandomStringUtils.randomAlphabetic(10), ProcessInstanceState.ACTIVE.ordinal(), 0L);
+        ProcessInstance processInstance2 = TestUtils
+                .createProcessInstance(processInstanceId, RandomStringUtils.randomAlphabetic(5), UUID.randomUUID().toString(),
+                        RandomStringUtils.randomAlphabetic(10), ProcessInstanceState.COMPLETED.ordinal(), 1000L);
+        ProcessInstanceStorage cache = (ProcessInstanceStorage) storage.getCache("cache", ProcessInstance.class);
+
+        cache.upsert(processInstance1);
+        assertThat(cache.get(processInstanceId)).isEqualTo(processInstance1);
+
+        cache.upsert(processInstance2);
+        ProcessInstance stored = cache.get(processInstanceId);
+        assertThat(stored.getState()).isEqualTo(ProcessInstanceState.COMPLETED.ordinal());
+        assertThat(stored.getProcessName()).isEqualTo(processInstance2.getProcessName());
+        assertThat(stored.getNodes()).hasSize(4).containsAll(processInstance1.getNodes()).containsAll(processInstance2.getNodes());
+        assertThat(repository.count()).isOne();
+
+        cache.remove(processInstanceId);
+        assertThat(repository.count()).isZero();
+    }
+
+    @Test
+    public void testUpsertWithNonUtcDefaultTimeZone() {
+        TimeZone defaultTimeZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        try {
+            String processInstanceId = UUID.randomUUID().toString();
+            ProcessInstance processInstance = TestUtils
+                    .createProcessInstance(processInstanceId, RandomStringUtils.randomAlphabetic(5), UUID.randomUUID().toString(),
+                            RandomStringUtils.randomAlphabetic(10), ProcessInstanceState.ACTIVE.ordinal(), 0L);
+            ProcessInstanceStorage cache = (ProcessInstanceStorage) storage.getCache("cache", ProcessInstance.class);
+
+            cache.upsert(processInstance);
+
+            //read back by Hibernate, which binds the timestamps in UTC
+            ProcessInstance stored = cache.get(processInstanceId);
+            assertThat(stored.getStart().toInstant()).isEqualTo(processInstance.getStart().toInstant());
+            assertThat(stored.getNodes()).extracting(n -> n.getEnter().toInstant())
+                    .containsExactlyInAnyOrderElementsOf(processInstance.getNodes().stream().map(n -> n.getEnter().toInstant()).collect(toList()));
+
+            cache.remove(processInstanceId);
+        } finally {
+            TimeZone.setDefault(defaultTimeZone);
+        }
+    }
 }
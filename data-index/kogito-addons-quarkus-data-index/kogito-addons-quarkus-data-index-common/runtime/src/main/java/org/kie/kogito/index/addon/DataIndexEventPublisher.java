@@ -16,37 +16,143 @@
 
 package org.kie.kogito.index.addon;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.kie.kogito.event.DataEvent;
 import org.kie.kogito.event.EventPublisher;
 import org.kie.kogito.event.process.ProcessInstanceDataEvent;
 import org.kie.kogito.event.process.UserTaskInstanceDataEvent;
 import org.kie.kogito.index.event.ProcessInstanceEventMapper;
 import org.kie.kogito.index.event.UserTaskInstanceEventMapper;
+import org.kie.kogito.index.model.ProcessInstance;
+import org.kie.kogito.index.model.UserTaskInstance;
 import org.kie.kogito.index.service.IndexingService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.ShutdownEvent;
+
+/**
+ * Publishes the runtime events to the embedded data index. By default the events are indexed on the publishing thread,
+ * with {@code kogito.data-index.publisher.async=true} they are handed to a {@link DataIndexEventQueue} and indexed in
+ * batches by its workers instead, so the indexing latency is no longer paid by the runtime transaction.
+ */
 @ApplicationScoped
 public class DataIndexEventPublisher implements EventPublisher {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DataIndexEventPublisher.class);
 
+    static final String PROCESS_INSTANCE_EVENT = "ProcessInstanceEvent";
+    static final String USER_TASK_INSTANCE_EVENT = "UserTaskInstanceEvent";
+
+    static final String METRICS_PREFIX = "kogito.data-index.publisher.";
+    static final String QUEUE_SIZE = METRICS_PREFIX + "queue.size";
+    static final String QUEUE_SPILLED = METRICS_PREFIX + "queue.spilled";
+    static final String QUEUE_DROPPED = METRICS_PREFIX + "queue.dropped";
+    static final String INDEXING_FAILED = METRICS_PREFIX + "indexing.failed";
+    static final String INDEXING_LAG = METRICS_PREFIX + "indexing.lag";
+
     @Inject
     IndexingService indexingService;
 
+    @Inject
+    Instance<MeterRegistry> meterRegistry;
+
+    @ConfigProperty(name = "kogito.data-index.publisher.async", defaultValue = "false")
+    boolean async;
+
+    @ConfigProperty(name = "kogito.data-index.publisher.queue-size", defaultValue = "10000")
+    int queueSize;
+
+    @ConfigProperty(name = "kogito.data-index.publisher.partitions", defaultValue = "2")
+    int partitions;
+
+    @ConfigProperty(name = "kogito.data-index.publisher.batch-size", defaultValue = "100")
+    int batchSize;
+
+    @ConfigProperty(name = "kogito.data-index.publisher.overflow-strategy", defaultValue = "BLOCK")
+    DataIndexEventQueue.OverflowStrategy overflowStrategy;
+
+    @ConfigProperty(name = "kogito.data-index.publisher.spill-size", defaultValue = "100000")
+    int spillSize;
+
+    private DataIndexEventQueue queue;
+
+    @PostConstruct
+    void init() {
+        if (async) {
+            Timer lag = meterRegistry.isResolvable() ? bindMetrics(meterRegistry.get()) : null;
+            queue = new DataIndexEventQueue(partitions, queueSize, batchSize, overflowStrategy, spillSize, this::index,
+                    nanos -> {
+                        if (lag != null) {
+                            lag.record(nanos, TimeUnit.NANOSECONDS);
+                        }
+                    });
+            LOGGER.info("Embedded data index events are indexed asynchronously by {} workers, queue size {} and overflow strategy {}",
+                    partitions, queueSize, overflowStrategy);
+        }
+    }
+
+    // use the observer instead of the @PreDestroy alternative, so the pending events are indexed while the storage is
+    // still available. https://github.com/quarkusio/quarkus/issues/15026
+    void onShutdownEvent(@Observes ShutdownEvent event) {
+        close();
+    }
+
+    void close() {
+        if (queue != null) {
+            queue.close();
+        }
+    }
+
+    private Timer bindMetrics(MeterRegistry registry) {
+        Gauge.builder(QUEUE_SIZE, this, p -> p.queue.size())
+                .description("Number of events waiting to be indexed in the embedded data index")
+                .register(registry);
+        Gauge.builder(QUEUE_SPILLED, this, p -> p.queue.spilled())
+                .description("Number of events waiting in the overflow lists of the embedded data index queue")
+                .register(registry);
+        FunctionCounter.builder(QUEUE_DROPPED, this, p -> p.queue.dropped())
+                .description("Number of events discarded because the embedded data index queue was full or closed")
+                .register(registry);
+        FunctionCounter.builder(INDEXING_FAILED, this, p -> p.queue.failed())
+                .description("Number of events that could not be indexed in the embedded data index")
+                .register(registry);
+        return Timer.builder(INDEXING_LAG)
+                .description("Time between the publishing of the events and the end of their indexing in the embedded data index")
+                .register(registry);
+    }
+
     @Override
     public void publish(DataEvent<?> event) {
         LOGGER.debug("Sending event to embedded data index: {}", event);
+        if (queue != null) {
+            if (isIndexed(event)) {
+                queue.offer(event);
+            } else {
+                LOGGER.debug("Unknown type of event '{}', ignoring for this publisher", event.getType());
+            }
+            return;
+        }
         switch (event.getType()) {
-            case "ProcessInstanceEvent":
+            case PROCESS_INSTANCE_EVENT:
                 indexingService.indexProcessInstance(new ProcessInstanceEventMapper().apply((ProcessInstanceDataEvent) event));
                 break;
-            case "UserTaskInstanceEvent":
+            case USER_TASK_INSTANCE_EVENT:
                 indexingService.indexUserTaskInstance(new UserTaskInstanceEventMapper().apply((UserTaskInstanceDataEvent) event));
                 break;
             default:
@@ -59,4 +165,31 @@ public class DataIndexEventPublisher implements EventPublisher {
         events.forEach(this::publish);
     }
 
+    private static boolean isIndexed(DataEvent<?> event) {
+        return PROCESS_INSTANCE_EVENT.equals(event.getType()) || USER_TASK_INSTANCE_EVENT.equals(event.getType());
+    }
+
+    /**
+     * Indexes a batch of queued events with the bulk operations of the indexing service, which coalesce the updates of
+     * the same instance into a single write.
+     */
+    void index(List<DataEvent<?>> events) {
+        ProcessInstanceEventMapper processInstanceMapper = new ProcessInstanceEventMapper();
+        UserTaskInstanceEventMapper userTaskInstanceMapper = new UserTaskInstanceEventMapper();
+        List<ProcessInstance> processInstances = new ArrayList<>();
+        List<UserTaskInstance> userTaskInstances = new ArrayList<>();
+        for (DataEvent<?> event : events) {
+            if (PROCESS_INSTANCE_EVENT.equals(event.getType())) {
+                processInstances.add(processInstanceMapper.apply((ProcessInstanceDataEvent) event));
+            } else {
+                userTaskInstances.add(userTaskInstanceMapper.apply((UserTaskInstanceDataEvent) event));
+            }
+        }
+        if (!processInstances.isEmpty()) {
+            indexingService.indexProcessInstances(processInstances);
+        }
+        if (!userTaskInstances.isEmpty()) {
+            indexingService.indexUserTaskInstances(userTaskInstances);
+        }
+    }
 }
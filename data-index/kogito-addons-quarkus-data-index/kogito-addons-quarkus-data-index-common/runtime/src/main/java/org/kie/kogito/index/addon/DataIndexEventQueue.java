@@ -0,0 +1,293 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.index.addon;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+import org.kie.kogito.event.DataEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded queue that decouples the publishing of the events from their indexing. The events are split in partitions by
+ * process instance id, each partition is drained by its own worker thread, so the events of a given process instance
+ * are indexed in the order they were published. The workers take up to {@code batchSize} events at once and hand them
+ * to the indexer as a single batch. When a batch fails, its events are indexed one at a time, so a single bad event only
+ * loses itself.
+ * <p>
+ * When the queue of a partition is full, the event is handled according to the {@link OverflowStrategy}.
+ */
+public class DataIndexEventQueue implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataIndexEventQueue.class);
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    public enum OverflowStrategy {
+        /**
+         * The publisher waits until there is room in the queue.
+         */
+        BLOCK,
+        /**
+         * The event is discarded.
+         */
+        DROP,
+        /**
+         * The event is moved to an overflow list of the partition, indexed once the queue is drained. The list is bounded
+         * by the spill size, beyond it the events are discarded.
+         */
+        SPILL
+    }
+
+    private final Partition[] partitions;
+    private final int batchSize;
+    private final OverflowStrategy overflowStrategy;
+    private final int spillSize;
+    private final Consumer<List<DataEvent<?>>> indexer;
+    private final LongConsumer lagRecorder;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * @param partitions number of partitions, and worker threads
+     * @param queueSize capacity of the queue of each partition
+     * @param batchSize maximum number of events passed to the indexer at once
+     * @param overflowStrategy what to do with an event when the queue of its partition is full
+     * @param spillSize capacity of the overflow list of each partition, only used with {@link OverflowStrategy#SPILL}
+     * @param indexer indexes a batch of events, the events of a process instance are in publishing order
+     * @param lagRecorder receives the time in nanoseconds between the publishing of the oldest event of each batch and
+     *        the end of its indexing, or of each event indexed on its own after its batch failed; failed events are not
+     *        recorded
+     */
+    public DataIndexEventQueue(int partitions, int queueSize, int batchSize, OverflowStrategy overflowStrategy, int spillSize,
+            Consumer<List<DataEvent<?>>> indexer, LongConsumer lagRecorder) {
+        this.batchSize = batchSize;
+        this.overflowStrategy = overflowStrategy;
+        this.spillSize = spillSize;
+        this.indexer = indexer;
+        this.lagRecorder = lagRecorder;
+        this.partitions = new Partition[partitions];
+        for (int i = 0; i < partitions; i++) {
+            this.partitions[i] = new Partition(i, queueSize);
+        }
+    }
+
+    public void offer(DataEvent<?> event) {
+        if (closed) {
+            dropped.incrementAndGet();
+            LOGGER.warn("Data index event queue is closed, dropping event {} of process instance {}", event.getId(),
+                    event.getKogitoProcessInstanceId());
+            return;
+        }
+        partitions[Math.floorMod(Objects.hashCode(event.getKogitoProcessInstanceId()), partitions.length)].offer(event);
+    }
+
+    /**
+     * Number of events waiting to be indexed, spilled events included.
+     */
+    public int size() {
+        int size = 0;
+        for (Partition partition : partitions) {
+            size += partition.queue.size() + partition.spilled.get();
+        }
+        return size;
+    }
+
+    /**
+     * Number of events waiting in the overflow lists of the partitions.
+     */
+    public int spilled() {
+        int spilled = 0;
+        for (Partition partition : partitions) {
+            spilled += partition.spilled.get();
+        }
+        return spilled;
+    }
+
+    /**
+     * Number of events discarded because the queue, or the overflow list, was full or the queue was closed.
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Number of events that could not be indexed.
+     */
+    public long failed() {
+        return failed.get();
+    }
+
+    /**
+     * Stops accepting events and waits for the workers to index the pending ones.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Partition partition : partitions) {
+            try {
+                partition.worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.warn("Interrupted while waiting for the data index events to be indexed, {} events were not indexed", size());
+                return;
+            }
+        }
+    }
+
+    private static final class PendingEvent {
+
+        private final DataEvent<?> event;
+        private final long publishedNanos;
+
+        private PendingEvent(DataEvent<?> event) {
+            this.event = event;
+            this.publishedNanos = System.nanoTime();
+        }
+    }
+
+    private final class Partition implements Runnable {
+
+        private final BlockingQueue<PendingEvent> queue;
+        //once an event is spilled, the following events of the partition are spilled too until it is drained, to keep the order
+        private final Queue<PendingEvent> spill = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger spilled = new AtomicInteger();
+        private final Thread worker;
+
+        private Partition(int index, int queueSize) {
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+            this.worker = new Thread(this, "data-index-indexer-" + index);
+            this.worker.setDaemon(true);
+            this.worker.start();
+        }
+
+        private void offer(DataEvent<?> event) {
+            PendingEvent pending = new PendingEvent(event);
+            switch (overflowStrategy) {
+                case BLOCK:
+                    try {
+                        queue.put(pending);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while waiting to publish the event to the data index", e);
+                    }
+                    break;
+                case DROP:
+                    if (!queue.offer(pending)) {
+                        dropped.incrementAndGet();
+                        LOGGER.warn("Data index event queue is full, dropping event {} of process instance {}", event.getId(),
+                                event.getKogitoProcessInstanceId());
+                    }
+                    break;
+                case SPILL:
+                    if (spilled.get() > 0 || !queue.offer(pending)) {
+                        spill(pending);
+                    }
+                    break;
+            }
+        }
+
+        private void spill(PendingEvent pending) {
+            if (spilled.get() >= spillSize) {
+                dropped.incrementAndGet();
+                LOGGER.warn("Data index event overflow list of {} is full, dropping event {} of process instance {}", worker.getName(),
+                        pending.event.getId(), pending.event.getKogitoProcessInstanceId());
+                return;
+            }
+            if (spilled.incrementAndGet() == 1) {
+                LOGGER.warn("Data index event queue of {} is full, spilling the events to its overflow list", worker.getName());
+            }
+            spill.add(pending);
+        }
+
+        @Override
+        public void run() {
+            List<PendingEvent> batch = new ArrayList<>(batchSize);
+            while (!closed || !queue.isEmpty() || spilled.get() > 0) {
+                try {
+                    PendingEvent first = spilled.get() > 0 ? queue.poll() : queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                    if (first != null) {
+                        batch.add(first);
+                        queue.drainTo(batch, batchSize - 1);
+                    }
+                    drainSpill(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    LOGGER.warn("Data index indexer {} interrupted, {} events were not indexed", worker.getName(), queue.size() + spilled.get());
+                    return;
+                }
+                if (!batch.isEmpty()) {
+                    index(batch);
+                    batch.clear();
+                }
+            }
+        }
+
+        private void drainSpill(List<PendingEvent> batch) {
+            //spilled events are newer than the ones in the queue, so they are only taken once the queue is empty
+            PendingEvent pending;
+            while (batch.size() < batchSize && queue.isEmpty() && (pending = spill.poll()) != null) {
+                spilled.decrementAndGet();
+                batch.add(pending);
+            }
+        }
+
+        private void index(List<PendingEvent> batch) {
+            List<DataEvent<?>> events = new ArrayList<>(batch.size());
+            batch.forEach(pending -> events.add(pending.event));
+            try {
+                indexer.accept(events);
+                lagRecorder.accept(System.nanoTime() - batch.get(0).publishedNanos);
+            } catch (Exception e) {
+                if (batch.size() == 1) {
+                    fail(batch.get(0), e);
+                    return;
+                }
+                LOGGER.warn("Error indexing {} events in the data index, indexing them one at a time", events.size(), e);
+                batch.forEach(this::indexOne);
+            }
+        }
+
+        private void indexOne(PendingEvent pending) {
+            try {
+                indexer.accept(Collections.singletonList(pending.event));
+                lagRecorder.accept(System.nanoTime() - pending.publishedNanos);
+            } catch (Exception e) {
+                fail(pending, e);
+            }
+        }
+
+        private void fail(PendingEvent pending, Exception e) {
+            failed.incrementAndGet();
+            LOGGER.error("Error indexing event {} of process instance {} in the data index", pending.event.getId(),
+                    pending.event.getKogitoProcessInstanceId(), e);
+        }
+    }
+}
@@ -37,6 +37,8 @@ public class GraphQLAddonSchemaManagerImpl extends AbstractGraphQLSchemaManager
                 .type("Query", builder -> {
                     builder.dataFetcher("ProcessInstances", this::getProcessInstancesValues);
                     builder.dataFetcher("UserTaskInstances", this::getUserTaskInstancesValues);
+                    builder.dataFetcher("ProcessInstancesCount", this::getProcessInstancesCount);
+                    builder.dataFetcher("ProcessInstancesAggregate", this::getProcessInstancesAggregate);
                     return builder;
                 })
                 .type("ProcessInstance", builder -> {
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.index.addon;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.event.DataEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+class DataIndexEventQueueTest {
+
+    private final List<List<DataEvent<?>>> batches = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void testEventsOfAProcessInstanceAreIndexedInOrder() {
+        AtomicLong lag = new AtomicLong();
+        List<DataEvent<?>> published = new ArrayList<>();
+        try (DataIndexEventQueue queue = new DataIndexEventQueue(3, 1000, 10, DataIndexEventQueue.OverflowStrategy.BLOCK, 100, batches::add, lag::addAndGet)) {
+            for (int i = 0; i < 200; i++) {
+                DataEvent<?> event = event("pi" + (i % 7), "event" + i);
+                published.add(event);
+                queue.offer(event);
+            }
+        }
+
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(10));
+        List<DataEvent<?>> indexed = indexed();
+        assertThat(indexed).containsExactlyInAnyOrderElementsOf(published);
+        for (int i = 0; i < 7; i++) {
+            String processInstanceId = "pi" + i;
+            assertThat(ofProcessInstance(indexed, processInstanceId)).containsExactlyElementsOf(ofProcessInstance(published, processInstanceId));
+        }
+        assertThat(lag.get()).isPositive();
+    }
+
+    @Test
+    void testDropWhenFull() throws Exception {
+        CountDownLatch indexing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (DataIndexEventQueue queue = new DataIndexEventQueue(1, 2, 1, DataIndexEventQueue.OverflowStrategy.DROP, 100,
+                blockingIndexer(indexing, release), nanos -> {
+                })) {
+            queue.offer(event("pi", "event0"));
+            assertThat(indexing.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 1; i < 5; i++) {
+                queue.offer(event("pi", "event" + i));
+            }
+
+            assertThat(queue.size()).isEqualTo(2);
+            assertThat(queue.dropped()).isEqualTo(2);
+            release.countDown();
+        }
+
+        assertThat(indexed()).extracting(DataEvent::getId).containsExactly("event0", "event1", "event2");
+    }
+
+    @Test
+    void testSpillWhenFull() throws Exception {
+        CountDownLatch indexing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (DataIndexEventQueue queue = new DataIndexEventQueue(1, 2, 2, DataIndexEventQueue.OverflowStrategy.SPILL, 100,
+                blockingIndexer(indexing, release), nanos -> {
+                })) {
+            queue.offer(event("pi", "event0"));
+            assertThat(indexing.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 1; i < 6; i++) {
+                queue.offer(event("pi", "event" + i));
+            }
+
+            assertThat(queue.size()).isEqualTo(5);
+            assertThat(queue.spilled()).isEqualTo(3);
+            assertThat(queue.dropped()).isZero();
+            release.countDown();
+        }
+
+        assertThat(indexed()).extracting(DataEvent::getId).containsExactly("event0", "event1", "event2", "event3", "event4", "event5");
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(2));
+    }
+
+    @Test
+    void testDropWhenSpillIsFull() throws Exception {
+        CountDownLatch indexing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (DataIndexEventQueue queue = new DataIndexEventQueue(1, 2, 2, DataIndexEventQueue.OverflowStrategy.SPILL, 2,
+                blockingIndexer(indexing, release), nanos -> {
+                })) {
+            queue.offer(event("pi", "event0"));
+            assertThat(indexing.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 1; i < 7; i++) {
+                queue.offer(event("pi", "event" + i));
+            }
+
+            assertThat(queue.size()).isEqualTo(4);
+            assertThat(queue.spilled()).isEqualTo(2);
+            assertThat(queue.dropped()).isEqualTo(2);
+            release.countDown();
+        }
+
+        assertThat(indexed()).extracting(DataEvent::getId).containsExactly("event0", "event1", "event2", "event3", "event4");
+    }
+
+    @Test
+    void testIndexingErrorDoesNotStopTheWorker() {
+        try (DataIndexEventQueue queue = new DataIndexEventQueue(1, 10, 1, DataIndexEventQueue.OverflowStrategy.BLOCK, 100, events -> {
+            if ("event0".equals(events.get(0).getId())) {
+                throw new IllegalStateException("storage down");
+            }
+            batches.add(events);
+        }, nanos -> {
+        })) {
+            queue.offer(event("pi", "event0"));
+            queue.offer(event("pi", "event1"));
+        }
+
+        assertThat(indexed()).extracting(DataEvent::getId).containsExactly("event1");
+    }
+
+    @Test
+    void testFailedBatchIsIndexedOneEventAtATime() throws Exception {
+        CountDownLatch indexing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Consumer<List<DataEvent<?>>> blocking = blockingIndexer(indexing, release);
+        List<Long> lags = Collections.synchronizedList(new ArrayList<>());
+        DataIndexEventQueue queue = new DataIndexEventQueue(1, 10, 10, DataIndexEventQueue.OverflowStrategy.BLOCK, 100, events -> {
+            if (events.stream().anyMatch(e -> "event2".equals(e.getId()))) {
+                throw new IllegalStateException("bad event");
+            }
+            if ("event0".equals(events.get(0).getId())) {
+                blocking.accept(events);
+            } else {
+                batches.add(events);
+            }
+        }, lags::add);
+        try (queue) {
+            queue.offer(event("pi", "event0"));
+            assertThat(indexing.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 1; i < 5; i++) {
+                queue.offer(event("pi", "event" + i));
+            }
+            release.countDown();
+        }
+
+        assertThat(indexed()).extracting(DataEvent::getId).containsExactly("event0", "event1", "event3", "event4");
+        assertThat(batches).skip(1).allSatisfy(batch -> assertThat(batch).hasSize(1));
+        assertThat(queue.failed()).isEqualTo(1);
+        assertThat(lags).hasSize(4);
+    }
+
+    @Test
+    void testOfferAfterCloseDropsTheEvent() {
+        DataIndexEventQueue queue = new DataIndexEventQueue(1, 10, 1, DataIndexEventQueue.OverflowStrategy.BLOCK, 100, batches::add, nanos -> {
+        });
+        queue.close();
+
+        queue.offer(event("pi", "event0"));
+
+        assertThat(queue.size()).isZero();
+        assertThat(queue.dropped()).isEqualTo(1);
+        assertThat(indexed()).isEmpty();
+    }
+
+    private Consumer<List<DataEvent<?>>> blockingIndexer(CountDownLatch indexing, CountDownLatch release) {
+        return events -> {
+            indexing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            batches.add(events);
+        };
+    }
+
+    private List<DataEvent<?>> indexed() {
+        synchronized (batches) {
+            return batches.stream().flatMap(List::stream).collect(Collectors.toList());
+        }
+    }
+
+    private static List<DataEvent<?>> ofProcessInstance(List<DataEvent<?>> events, String processInstanceId) {
+        return events.stream().filter(e -> processInstanceId.equals(e.getKogitoProcessInstanceId())).collect(Collectors.toList());
+    }
+
+    private static DataEvent<?> event(String processInstanceId, String id) {
+        DataEvent<?> event = mock(DataEvent.class);
+        doReturn(processInstanceId).when(event).getKogitoProcessInstanceId();
+        doReturn(id).when(event).getId();
+        return event;
+    }
+}
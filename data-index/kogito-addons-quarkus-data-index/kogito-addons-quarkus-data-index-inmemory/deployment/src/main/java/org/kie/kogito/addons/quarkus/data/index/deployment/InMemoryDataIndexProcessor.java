@@ -16,10 +16,12 @@
 
 package org.kie.kogito.addons.quarkus.data.index.deployment;
 
+import org.kie.kogito.index.model.Job;
+
 import io.quarkus.deployment.annotations.BuildProducer;
 import io.quarkus.deployment.annotations.BuildStep;
 import io.quarkus.deployment.builditem.FeatureBuildItem;
-import io.quarkus.deployment.builditem.nativeimage.NativeImageResourcePatternsBuildItem;
+import io.quarkus.deployment.builditem.nativeimage.ReflectiveHierarchyBuildItem;
 import io.quarkus.deployment.pkg.steps.NativeOrNativeSourcesBuild;
 
 public class InMemoryDataIndexProcessor extends AbstractKogitoAddonsQuarkusDataIndexProcessor {
@@ -32,8 +34,9 @@ public class InMemoryDataIndexProcessor extends AbstractKogitoAddonsQuarkusDataI
     }
 
     @BuildStep(onlyIf = NativeOrNativeSourcesBuild.class)
-    public void inMemoryNativeResources(BuildProducer<NativeImageResourcePatternsBuildItem> resource) {
-        resource.produce(NativeImageResourcePatternsBuildItem.builder().includeGlob("postgres-*.txz").build());
+    public void inMemoryNativeResources(BuildProducer<ReflectiveHierarchyBuildItem> reflectiveHierarchyClass) {
+        //the in-memory storage converts the jobs from and to JSON too
+        reflectiveHierarchy(Job.class, reflectiveHierarchyClass);
     }
 
 }
@@ -22,6 +22,7 @@ import javax.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.kie.kogito.job.recipient.common.http.HTTPRequest;
 import org.kie.kogito.job.recipient.common.http.HTTPRequestExecutor;
+import org.kie.kogito.job.recipient.common.http.HTTPRequestExecutorConfig;
 import org.kie.kogito.jobs.service.api.recipient.http.HttpRecipient;
 import org.kie.kogito.jobs.service.executor.JobExecutor;
 import org.kie.kogito.jobs.service.model.JobDetails;
@@ -36,7 +37,26 @@ public class HttpJobExecutor extends HTTPRequestExecutor<HttpRecipient<?>> imple
     @Inject
     public HttpJobExecutor(@ConfigProperty(name = "kogito.job.recipient.http.timeout-in-millis") long timeout,
             Vertx vertx,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            @ConfigProperty(name = "kogito.job.recipient.http.pool-size", defaultValue = "20") int poolSize,
+            @ConfigProperty(name = "kogito.job.recipient.http.http2", defaultValue = "false") boolean http2,
+            @ConfigProperty(name = "kogito.job.recipient.http.max-concurrent-requests-per-host", defaultValue = "100") int maxConcurrentRequestsPerHost,
+            @ConfigProperty(name = "kogito.job.recipient.http.max-queued-requests-per-host", defaultValue = "10000") int maxQueuedRequestsPerHost,
+            @ConfigProperty(name = "kogito.job.recipient.http.circuit-breaker.failure-threshold", defaultValue = "10") int circuitBreakerFailureThreshold,
+            @ConfigProperty(name = "kogito.job.recipient.http.circuit-breaker.reset-timeout-in-millis", defaultValue = "5000") long circuitBreakerResetTimeoutInMillis,
+            @ConfigProperty(name = "kogito.job.recipient.http.max-queue-wait-in-millis", defaultValue = "60000") long maxQueueWaitInMillis) {
+        super(timeout, vertx, objectMapper, HTTPRequestExecutorConfig.builder()
+                .poolSize(poolSize)
+                .http2(http2)
+                .maxConcurrentRequestsPerHost(maxConcurrentRequestsPerHost)
+                .maxQueuedRequestsPerHost(maxQueuedRequestsPerHost)
+                .circuitBreakerFailureThreshold(circuitBreakerFailureThreshold)
+                .circuitBreakerResetTimeoutInMillis(circuitBreakerResetTimeoutInMillis)
+                .maxQueueWaitInMillis(maxQueueWaitInMillis)
+                .build());
+    }
+
+    public HttpJobExecutor(long timeout, Vertx vertx, ObjectMapper objectMapper) {
         super(timeout, vertx, objectMapper);
     }
 
@@ -19,7 +19,11 @@ package org.kie.kogito.job.recipient.common.http;
 import java.net.URI;
 import java.time.temporal.ChronoUnit;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import javax.ws.rs.core.Response;
@@ -39,6 +43,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.smallrye.mutiny.Uni;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.ext.web.client.WebClientOptions;
 import io.vertx.mutiny.core.Vertx;
 import io.vertx.mutiny.core.buffer.Buffer;
 import io.vertx.mutiny.ext.web.client.HttpRequest;
@@ -56,16 +62,28 @@ public abstract class HTTPRequestExecutor<R extends Recipient<?>> {
 
     protected ObjectMapper objectMapper;
 
+    protected HTTPRequestExecutorConfig config = HTTPRequestExecutorConfig.builder().build();
+
+    private final Map<String, HostRequestLimiter> limiters = new ConcurrentHashMap<>();
+
+    private final List<Consumer<HostRequestLimiter>> hostListeners = new CopyOnWriteArrayList<>();
+
     protected HTTPRequestExecutor() {
     }
 
     protected HTTPRequestExecutor(long timeout, Vertx vertx, ObjectMapper objectMapper) {
+        this(timeout, vertx, objectMapper, HTTPRequestExecutorConfig.builder().build());
+    }
+
+    protected HTTPRequestExecutor(long timeout, Vertx vertx, ObjectMapper objectMapper, HTTPRequestExecutorConfig config) {
         this.timeout = timeout;
         this.vertx = vertx;
         this.objectMapper = objectMapper;
+        this.config = config;
     }
 
     protected void initialize() {
+        LOGGER.info("Initializing HTTP request executor with {}", config);
         this.client = createClient();
     }
 
@@ -73,7 +91,34 @@ public abstract class HTTPRequestExecutor<R extends Recipient<?>> {
      * facilitates tests.
      */
     public WebClient createClient() {
-        return WebClient.create(vertx);
+        final WebClientOptions options = new WebClientOptions()
+                .setMaxPoolSize(config.getPoolSize());
+        if (config.isHttp2()) {
+            //negotiated with ALPN on TLS or with the h2c upgrade on clear text, falls back to HTTP/1.1 otherwise
+            options.setProtocolVersion(HttpVersion.HTTP_2)
+                    .setUseAlpn(true)
+                    .setHttp2ClearTextUpgrade(true)
+                    .setHttp2MaxPoolSize(config.getPoolSize());
+        }
+        return WebClient.create(vertx, options);
+    }
+
+    /**
+     * Snapshot of the in-flight, queued and rejected requests per recipient host.
+     */
+    public Map<String, HostRequestLimiter.Metrics> getMetrics() {
+        return limiters.entrySet()
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getMetrics()));
+    }
+
+    /**
+     * Registers a listener notified with the limiter of every host the requests are sent to, e.g. to bind its metrics.
+     * The already known hosts are notified right away.
+     */
+    public void addHostListener(Consumer<HostRequestLimiter> listener) {
+        hostListeners.add(listener);
+        limiters.values().forEach(listener);
     }
 
     public Uni<JobExecutionResponse> execute(JobDetails jobDetails) {
@@ -103,6 +148,29 @@ public abstract class HTTPRequestExecutor<R extends Recipient<?>> {
     protected Uni<HttpResponse<Buffer>> executeRequest(HTTPRequest request, long timeout) {
         LOGGER.debug("Executing request {}", request);
         final URI uri = URIBuilder.toURI(request.getUrl());
+        return limiters.computeIfAbsent(hostKey(uri), this::createLimiter)
+                .submit(() -> sendRequest(request, uri, timeout),
+                        response -> Response.Status.Family.SERVER_ERROR.equals(Response.Status.Family.familyOf(response.statusCode())));
+    }
+
+    //http://host and http://host:80 share the same limiter
+    static String hostKey(URI uri) {
+        final int port;
+        if (uri.getPort() != -1) {
+            port = uri.getPort();
+        } else {
+            port = "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        }
+        return uri.getHost() + ":" + port;
+    }
+
+    private HostRequestLimiter createLimiter(String host) {
+        final HostRequestLimiter limiter = new HostRequestLimiter(host, vertx, config);
+        hostListeners.forEach(listener -> listener.accept(limiter));
+        return limiter;
+    }
+
+    private Uni<HttpResponse<Buffer>> sendRequest(HTTPRequest request, URI uri, long timeout) {
         final HttpRequest<Buffer> clientRequest = client.request(HttpConverters.convertHttpMethod(request.getMethod()),
                 uri.getPort(),
                 uri.getHost(),
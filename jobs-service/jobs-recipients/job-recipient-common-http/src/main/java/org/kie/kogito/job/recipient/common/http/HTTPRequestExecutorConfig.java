@@ -0,0 +1,166 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.job.recipient.common.http;
+
+import java.util.StringJoiner;
+
+/**
+ * Connection and concurrency settings of the {@link HTTPRequestExecutor}, the limits are applied per recipient host.
+ */
+public class HTTPRequestExecutorConfig {
+
+    public static final int DEFAULT_POOL_SIZE = 20;
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS_PER_HOST = 100;
+    public static final int DEFAULT_MAX_QUEUED_REQUESTS_PER_HOST = 10000;
+    public static final int DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD = 10;
+    public static final long DEFAULT_CIRCUIT_BREAKER_RESET_TIMEOUT_IN_MILLIS = 5000;
+    public static final long DEFAULT_MAX_QUEUE_WAIT_IN_MILLIS = 60000;
+
+    private final int poolSize;
+    private final boolean http2;
+    private final int maxConcurrentRequestsPerHost;
+    private final int maxQueuedRequestsPerHost;
+    private final int circuitBreakerFailureThreshold;
+    private final long circuitBreakerResetTimeoutInMillis;
+    private final long maxQueueWaitInMillis;
+
+    private HTTPRequestExecutorConfig(int poolSize, boolean http2, int maxConcurrentRequestsPerHost, int maxQueuedRequestsPerHost,
+            int circuitBreakerFailureThreshold, long circuitBreakerResetTimeoutInMillis, long maxQueueWaitInMillis) {
+        this.poolSize = poolSize;
+        this.http2 = http2;
+        this.maxConcurrentRequestsPerHost = maxConcurrentRequestsPerHost;
+        this.maxQueuedRequestsPerHost = maxQueuedRequestsPerHost;
+        this.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+        this.circuitBreakerResetTimeoutInMillis = circuitBreakerResetTimeoutInMillis;
+        this.maxQueueWaitInMillis = maxQueueWaitInMillis;
+    }
+
+    /**
+     * Max number of connections per host, with HTTP/2 it is the number of multiplexed connections.
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Whether HTTP/2 is negotiated with the recipients, falling back to HTTP/1.1 when the target does not support it.
+     */
+    public boolean isHttp2() {
+        return http2;
+    }
+
+    public int getMaxConcurrentRequestsPerHost() {
+        return maxConcurrentRequestsPerHost;
+    }
+
+    /**
+     * Max number of requests waiting for a free slot or parked by an open circuit, beyond it the requests are rejected.
+     */
+    public int getMaxQueuedRequestsPerHost() {
+        return maxQueuedRequestsPerHost;
+    }
+
+    /**
+     * Consecutive failures that open the circuit of a host, 0 disables the circuit breaker.
+     */
+    public int getCircuitBreakerFailureThreshold() {
+        return circuitBreakerFailureThreshold;
+    }
+
+    public long getCircuitBreakerResetTimeoutInMillis() {
+        return circuitBreakerResetTimeoutInMillis;
+    }
+
+    /**
+     * Max time a request waits in the queue of a host, including the time parked by an open circuit, before it fails.
+     */
+    public long getMaxQueueWaitInMillis() {
+        return maxQueueWaitInMillis;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", HTTPRequestExecutorConfig.class.getSimpleName() + "[", "]")
+                .add("poolSize=" + poolSize)
+                .add("http2=" + http2)
+                .add("maxConcurrentRequestsPerHost=" + maxConcurrentRequestsPerHost)
+                .add("maxQueuedRequestsPerHost=" + maxQueuedRequestsPerHost)
+                .add("circuitBreakerFailureThreshold=" + circuitBreakerFailureThreshold)
+                .add("circuitBreakerResetTimeoutInMillis=" + circuitBreakerResetTimeoutInMillis)
+                .add("maxQueueWaitInMillis=" + maxQueueWaitInMillis)
+                .toString();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private int poolSize = DEFAULT_POOL_SIZE;
+        private boolean http2;
+        private int maxConcurrentRequestsPerHost = DEFAULT_MAX_CONCURRENT_REQUESTS_PER_HOST;
+        private int maxQueuedRequestsPerHost = DEFAULT_MAX_QUEUED_REQUESTS_PER_HOST;
+        private int circuitBreakerFailureThreshold = DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD;
+        private long circuitBreakerResetTimeoutInMillis = DEFAULT_CIRCUIT_BREAKER_RESET_TIMEOUT_IN_MILLIS;
+        private long maxQueueWaitInMillis = DEFAULT_MAX_QUEUE_WAIT_IN_MILLIS;
+
+        public Builder poolSize(int poolSize) {
+            this.poolSize = poolSize;
+            return this;
+        }
+
+        public Builder http2(boolean http2) {
+            this.http2 = http2;
+            return this;
+        }
+
+        public Builder maxConcurrentRequestsPerHost(int maxConcurrentRequestsPerHost) {
+            this.maxConcurrentRequestsPerHost = maxConcurrentRequestsPerHost;
+            return this;
+        }
+
+        public Builder maxQueuedRequestsPerHost(int maxQueuedRequestsPerHost) {
+            this.maxQueuedRequestsPerHost = maxQueuedRequestsPerHost;
+            return this;
+        }
+
+        public Builder circuitBreakerFailureThreshold(int circuitBreakerFailureThreshold) {
+            this.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+            return this;
+        }
+
+        public Builder circuitBreakerResetTimeoutInMillis(long circuitBreakerResetTimeoutInMillis) {
+            this.circuitBreakerResetTimeoutInMillis = circuitBreakerResetTimeoutInMillis;
+            return this;
+        }
+
+        public Builder maxQueueWaitInMillis(long maxQueueWaitInMillis) {
+            this.maxQueueWaitInMillis = maxQueueWaitInMillis;
+            return this;
+        }
+
+        public HTTPRequestExecutorConfig build() {
+            if (poolSize <= 0 || maxConcurrentRequestsPerHost <= 0 || maxQueuedRequestsPerHost < 0 || circuitBreakerFailureThreshold < 0
+                    || circuitBreakerResetTimeoutInMillis <= 0 || maxQueueWaitInMillis <= 0) {
+                throw new IllegalArgumentException("Invalid HTTP request executor configuration: " + new HTTPRequestExecutorConfig(poolSize, http2,
+                        maxConcurrentRequestsPerHost, maxQueuedRequestsPerHost, circuitBreakerFailureThreshold, circuitBreakerResetTimeoutInMillis, maxQueueWaitInMillis));
+            }
+            return new HTTPRequestExecutorConfig(poolSize, http2, maxConcurrentRequestsPerHost, maxQueuedRequestsPerHost,
+                    circuitBreakerFailureThreshold, circuitBreakerResetTimeoutInMillis, maxQueueWaitInMillis);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.job.recipient.common.http;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import io.vertx.mutiny.core.Vertx;
+
+/**
+ * Limits the concurrent requests sent to a recipient host. The requests beyond the limit wait in a bounded queue and
+ * the ones that do not fit in it are rejected. A request waiting longer than the max queue wait fails with a
+ * {@link TimeoutException}, and a request whose subscriber cancels is removed from the queue.
+ * <p>
+ * It also works as a circuit breaker: after a number of consecutive failures the circuit opens and the requests are
+ * parked in the queue, instead of failing and burning the job retries, until the reset timeout elapses. Then a single
+ * trial request is sent, closing the circuit and draining the queue if it succeeds or opening it again otherwise.
+ */
+public class HostRequestLimiter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HostRequestLimiter.class);
+
+    private final String host;
+
+    private final Vertx vertx;
+
+    private final int maxConcurrentRequests;
+
+    private final int maxQueuedRequests;
+
+    private final int failureThreshold;
+
+    private final long resetTimeoutInMillis;
+
+    private final long maxQueueWaitInMillis;
+
+    private final Deque<QueuedRequest> queue = new ArrayDeque<>();
+
+    private int inFlight;
+
+    private int consecutiveFailures;
+
+    private long openedAt;
+
+    private boolean open;
+
+    private boolean trialInFlight;
+
+    private boolean resetTimerScheduled;
+
+    private long rejected;
+
+    public HostRequestLimiter(String host, Vertx vertx, HTTPRequestExecutorConfig config) {
+        this.host = host;
+        this.vertx = vertx;
+        this.maxConcurrentRequests = config.getMaxConcurrentRequestsPerHost();
+        this.maxQueuedRequests = config.getMaxQueuedRequestsPerHost();
+        this.failureThreshold = config.getCircuitBreakerFailureThreshold();
+        this.resetTimeoutInMillis = config.getCircuitBreakerResetTimeoutInMillis();
+        this.maxQueueWaitInMillis = config.getMaxQueueWaitInMillis();
+    }
+
+    /**
+     * Sends the request as soon as the host accepts it.
+     *
+     * @param request supplier of the request, it is only invoked once there is a free slot.
+     * @param isFailure tells whether a response counts as a failure for the circuit breaker, e.g. a 5xx status.
+     */
+    public <T> Uni<T> submit(Supplier<Uni<T>> request, Predicate<T> isFailure) {
+        return Uni.createFrom().emitter(emitter -> {
+            final QueuedRequest queued = new QueuedRequest(() -> run(request, isFailure, emitter));
+            emitter.onTermination(() -> remove(queued));
+            final boolean accepted;
+            final List<QueuedRequest> ready;
+            synchronized (this) {
+                accepted = queue.size() < maxQueuedRequests || (!open && inFlight < maxConcurrentRequests);
+                if (accepted) {
+                    queue.add(queued);
+                } else {
+                    rejected++;
+                }
+                ready = pollReady();
+                if (accepted && !queued.polled) {
+                    queued.timerId = vertx.setTimer(maxQueueWaitInMillis, id -> expire(queued, emitter));
+                }
+            }
+            if (!accepted) {
+                emitter.fail(new RejectedExecutionException("Too many requests queued for host " + host));
+                return;
+            }
+            ready.forEach(QueuedRequest::run);
+        });
+    }
+
+    private void expire(QueuedRequest queued, UniEmitter<?> emitter) {
+        final boolean expired;
+        synchronized (this) {
+            expired = queue.remove(queued);
+            if (expired) {
+                rejected++;
+            }
+        }
+        if (expired) {
+            emitter.fail(new TimeoutException("Request to host " + host + " waited more than " + maxQueueWaitInMillis + " ms in the queue"));
+        }
+    }
+
+    //the subscriber cancelled or the request finished, a cancelled request must not stay in the queue
+    private synchronized void remove(QueuedRequest queued) {
+        if (!queued.polled && queue.remove(queued)) {
+            cancelTimer(queued);
+        }
+    }
+
+    private <T> void run(Supplier<Uni<T>> request, Predicate<T> isFailure, UniEmitter<? super T> emitter) {
+        final Uni<T> uni;
+        try {
+            uni = request.get();
+        } catch (Exception e) {
+            release(false);
+            emitter.fail(e);
+            return;
+        }
+        uni.subscribe().with(item -> {
+            release(!isFailure.test(item));
+            emitter.complete(item);
+        }, failure -> {
+            release(false);
+            emitter.fail(failure);
+        });
+    }
+
+    private void release(boolean success) {
+        final List<Runnable> ready;
+        synchronized (this) {
+            inFlight--;
+            if (success) {
+                consecutiveFailures = 0;
+                if (trialInFlight) {
+                    LOGGER.info("Circuit closed for host {}", host);
+                    open = false;
+                }
+            } else {
+                consecutiveFailures++;
+                if (trialInFlight || (!open && failureThreshold > 0 && consecutiveFailures >= failureThreshold)) {
+                    LOGGER.warn("Circuit opened for host {} after {} consecutive failures, parking {} requests", host, consecutiveFailures, queue.size());
+                    open = true;
+                    openedAt = now();
+                }
+            }
+            trialInFlight = false;
+            ready = pollReady();
+        }
+        ready.forEach(QueuedRequest::run);
+    }
+
+    //must be called holding the lock, the returned requests must be run after releasing it
+    private List<QueuedRequest> pollReady() {
+        final List<QueuedRequest> ready = new ArrayList<>();
+        if (open) {
+            if (!trialInFlight && !queue.isEmpty()) {
+                final long elapsed = now() - openedAt;
+                if (elapsed >= resetTimeoutInMillis) {
+                    //half open, a single trial request decides whether the circuit closes
+                    trialInFlight = true;
+                    inFlight++;
+                    ready.add(poll());
+                } else {
+                    scheduleReset(resetTimeoutInMillis - elapsed);
+                }
+            }
+            return ready;
+        }
+        while (inFlight < maxConcurrentRequests && !queue.isEmpty()) {
+            inFlight++;
+            ready.add(poll());
+        }
+        return ready;
+    }
+
+    //must be called holding the lock
+    private QueuedRequest poll() {
+        final QueuedRequest queued = queue.poll();
+        queued.polled = true;
+        cancelTimer(queued);
+        return queued;
+    }
+
+    private void cancelTimer(QueuedRequest queued) {
+        if (queued.timerId >= 0) {
+            vertx.cancelTimer(queued.timerId);
+            queued.timerId = -1;
+        }
+    }
+
+    private void scheduleReset(long delay) {
+        if (!resetTimerScheduled) {
+            resetTimerScheduled = true;
+            vertx.setTimer(Math.max(1, delay), id -> {
+                final List<QueuedRequest> ready;
+                synchronized (this) {
+                    resetTimerScheduled = false;
+                    ready = pollReady();
+                }
+                ready.forEach(QueuedRequest::run);
+            });
+        }
+    }
+
+    protected long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public synchronized Metrics getMetrics() {
+        return new Metrics(host, inFlight, queue.size(), rejected, open);
+    }
+
+    private static class QueuedRequest {
+
+        private final Runnable task;
+
+        //guarded by the limiter lock, -1 when no queue wait timer is set
+        private long timerId = -1;
+
+        //guarded by the limiter lock, whether it left the queue to be sent
+        private boolean polled;
+
+        private QueuedRequest(Runnable task) {
+            this.task = task;
+        }
+
+        private void run() {
+            task.run();
+        }
+    }
+
+    /**
+     * Snapshot of the requests to a host, the rejected ones include the requests that waited too long in the queue.
+     */
+    public static class Metrics {
+
+        private final String host;
+        private final int inFlight;
+        private final int queued;
+        private final long rejected;
+        private final boolean circuitOpen;
+
+        public Metrics(String host, int inFlight, int queued, long rejected, boolean circuitOpen) {
+            this.host = host;
+            this.inFlight = inFlight;
+            this.queued = queued;
+            this.rejected = rejected;
+            this.circuitOpen = circuitOpen;
+        }
+
+        public String getHost() {
+            return host;
+        }
+
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        public int getQueued() {
+            return queued;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public boolean isCircuitOpen() {
+            return circuitOpen;
+        }
+
+        @Override
+        public String toString() {
+            return new StringJoiner(", ", Metrics.class.getSimpleName() + "[", "]")
+                    .add("host='" + host + "'")
+                    .add("inFlight=" + inFlight)
+                    .add("queued=" + queued)
+                    .add("rejected=" + rejected)
+                    .add("circuitOpen=" + circuitOpen)
+                    .toString();
+        }
+    }
+}
@@ -16,6 +16,7 @@
 
 package org.kie.kogito.job.recipient.common.http;
 
+import java.net.URI;
 import java.time.temporal.ChronoUnit;
 import java.util.Map;
 
@@ -172,6 +173,14 @@ public abstract class HTTPRequestExecutorTest<R extends Recipient<?>, E extends
         return new Map[] { headersCaptor.getValue(), queryParamsCaptor.getValue() };
     }
 
+    @Test
+    void testHostKeyResolvesTheDefaultPort() {
+        assertThat(HTTPRequestExecutor.hostKey(URI.create("http://localhost/path"))).isEqualTo("localhost:80");
+        assertThat(HTTPRequestExecutor.hostKey(URI.create("http://localhost:80/path"))).isEqualTo("localhost:80");
+        assertThat(HTTPRequestExecutor.hostKey(URI.create("https://localhost/path"))).isEqualTo("localhost:443");
+        assertThat(HTTPRequestExecutor.hostKey(URI.create("http://localhost:8080/path"))).isEqualTo("localhost:8080");
+    }
+
     private void assertTimeout(long expectedTimeout) {
         verify(request).timeout(expectedTimeout);
     }
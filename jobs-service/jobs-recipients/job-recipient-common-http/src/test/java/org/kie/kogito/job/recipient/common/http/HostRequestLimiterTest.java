@@ -0,0 +1,216 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.job.recipient.common.http;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.Cancellable;
+import io.vertx.mutiny.core.Vertx;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HostRequestLimiterTest {
+
+    private static final String HOST = "localhost:8080";
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private Vertx vertx;
+
+    private final List<CompletableFuture<Integer>> pending = new ArrayList<>();
+
+    private final AtomicInteger sent = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterEach
+    void tearDown() {
+        vertx.closeAndAwait();
+    }
+
+    @Test
+    void testConcurrencyLimit() {
+        HostRequestLimiter tested = new HostRequestLimiter(HOST, vertx, config(2, 10, 0, 1000));
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(submit(tested));
+        }
+        assertThat(sent).hasValue(2);
+        assertMetrics(tested.getMetrics(), 2, 3, 0, false);
+
+        complete(0, 200);
+        assertThat(sent).hasValue(3);
+        assertThat(results.get(0).join()).isEqualTo(200);
+
+        for (int i = 1; i < 5; i++) {
+            complete(i, 200);
+        }
+        assertThat(results).allMatch(r -> r.join() == 200);
+        assertMetrics(tested.getMetrics(), 0, 0, 0, false);
+    }
+
+    @Test
+    void testRejectWhenQueueIsFull() {
+        HostRequestLimiter tested = new HostRequestLimiter(HOST, vertx, config(1, 1, 0, 1000));
+        submit(tested);
+        submit(tested);
+        CompletableFuture<Integer> rejected = submit(tested);
+        assertThatThrownBy(rejected::join).hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(sent).hasValue(1);
+        assertMetrics(tested.getMetrics(), 1, 1, 1, false);
+    }
+
+    @Test
+    void testCircuitBreaker() throws InterruptedException {
+        HostRequestLimiter tested = new HostRequestLimiter(HOST, vertx, config(1, 10, 2, 200));
+        CompletableFuture<Integer> first = submit(tested);
+        CompletableFuture<Integer> second = submit(tested);
+        CompletableFuture<Integer> parked = submit(tested);
+
+        complete(0, 500);
+        assertThat(first.join()).isEqualTo(500);
+        pending.get(1).completeExceptionally(new RuntimeException("connection refused"));
+        assertThatThrownBy(second::join).hasCauseInstanceOf(RuntimeException.class);
+
+        //the circuit is open, the request is parked instead of failing
+        assertThat(sent).hasValue(2);
+        assertMetrics(tested.getMetrics(), 0, 1, 0, true);
+
+        //after the reset timeout a trial request is sent and closes the circuit on success
+        awaitSent(3);
+        complete(2, 200);
+        assertThat(parked.join()).isEqualTo(200);
+        assertMetrics(tested.getMetrics(), 0, 0, 0, false);
+    }
+
+    @Test
+    void testFailedTrialReopensCircuit() throws InterruptedException {
+        HostRequestLimiter tested = new HostRequestLimiter(HOST, vertx, config(1, 10, 1, 100));
+        submit(tested);
+        submit(tested);
+        CompletableFuture<Integer> last = submit(tested);
+        complete(0, 503);
+        assertMetrics(tested.getMetrics(), 0, 2, 0, true);
+
+        awaitSent(2);
+        complete(1, 503);
+        assertMetrics(tested.getMetrics(), 0, 1, 0, true);
+
+        awaitSent(3);
+        complete(2, 200);
+        assertThat(last.join()).isEqualTo(200);
+        assertMetrics(tested.getMetrics(), 0, 0, 0, false);
+    }
+
+    @Test
+    void testQueueWaitTimeout() {
+        HostRequestLimiter tested = new HostRequestLimiter(HOST, vertx, config(1, 10, 0, 1000, 100));
+        submit(tested);
+        CompletableFuture<Integer> waiting = submit(tested);
+
+        assertThatThrownBy(() -> waiting.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS))
+                .hasCauseInstanceOf(TimeoutException.class);
+        assertMetrics(tested.getMetrics(), 1, 0, 1, false);
+
+        //the slot released by the first request is not taken by the expired one
+        complete(0, 200);
+        assertThat(sent).hasValue(1);
+        assertMetrics(tested.getMetrics(), 0, 0, 1, false);
+    }
+
+    @Test
+    void testCancelledRequestLeavesTheQueue() {
+        HostRequestLimiter tested = new HostRequestLimiter(HOST, vertx, config(1, 10, 0, 1000));
+        submit(tested);
+        Cancellable cancellable = tested.submit(() -> {
+            sent.incrementAndGet();
+            return Uni.createFrom().item(200);
+        }, status -> status >= 500).subscribe().with(status -> {
+        });
+        assertMetrics(tested.getMetrics(), 1, 1, 0, false);
+
+        cancellable.cancel();
+        assertMetrics(tested.getMetrics(), 1, 0, 0, false);
+
+        complete(0, 200);
+        assertThat(sent).hasValue(1);
+        assertMetrics(tested.getMetrics(), 0, 0, 0, false);
+    }
+
+    private void awaitSent(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT.toMillis();
+        while (sent.get() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(sent).hasValue(expected);
+    }
+
+    private CompletableFuture<Integer> submit(HostRequestLimiter limiter) {
+        return limiter.submit(() -> {
+            CompletableFuture<Integer> response = new CompletableFuture<>();
+            synchronized (pending) {
+                pending.add(response);
+            }
+            sent.incrementAndGet();
+            return Uni.createFrom().completionStage(response);
+        }, status -> status >= 500).subscribeAsCompletionStage();
+    }
+
+    private void complete(int index, int status) {
+        CompletableFuture<Integer> response;
+        synchronized (pending) {
+            response = pending.get(index);
+        }
+        response.complete(status);
+    }
+
+    private static void assertMetrics(HostRequestLimiter.Metrics metrics, int inFlight, int queued, long rejected, boolean circuitOpen) {
+        assertThat(metrics.getHost()).isEqualTo(HOST);
+        assertThat(metrics.getInFlight()).isEqualTo(inFlight);
+        assertThat(metrics.getQueued()).isEqualTo(queued);
+        assertThat(metrics.getRejected()).isEqualTo(rejected);
+        assertThat(metrics.isCircuitOpen()).isEqualTo(circuitOpen);
+    }
+
+    private static HTTPRequestExecutorConfig config(int maxConcurrent, int maxQueued, int failureThreshold, long resetTimeout) {
+        return config(maxConcurrent, maxQueued, failureThreshold, resetTimeout, HTTPRequestExecutorConfig.DEFAULT_MAX_QUEUE_WAIT_IN_MILLIS);
+    }
+
+    private static HTTPRequestExecutorConfig config(int maxConcurrent, int maxQueued, int failureThreshold, long resetTimeout, long maxQueueWait) {
+        return HTTPRequestExecutorConfig.builder()
+                .maxConcurrentRequestsPerHost(maxConcurrent)
+                .maxQueuedRequestsPerHost(maxQueued)
+                .circuitBreakerFailureThreshold(failureThreshold)
+                .circuitBreakerResetTimeoutInMillis(resetTimeout)
+                .maxQueueWaitInMillis(maxQueueWait)
+                .build();
+    }
+}
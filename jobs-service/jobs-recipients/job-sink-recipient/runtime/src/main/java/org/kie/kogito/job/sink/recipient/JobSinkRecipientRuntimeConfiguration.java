@@ -35,4 +35,49 @@ public class JobSinkRecipientRuntimeConfiguration {
      */
     @ConfigItem(name = "max-timeout-in-millis", defaultValue = "60000")
     long maxTimeoutInMillis;
+
+    /**
+     * Max number of pooled connections of the HTTP client used to execute the SinkRecipient requests.
+     */
+    @ConfigItem(name = "pool-size", defaultValue = "20")
+    int poolSize;
+
+    /**
+     * Whether HTTP/2 is used for the SinkRecipient requests when the target supports it. It is negotiated with ALPN on
+     * TLS connections and with the h2c upgrade on clear text ones, falling back to HTTP/1.1 otherwise.
+     */
+    @ConfigItem(name = "http2", defaultValue = "false")
+    boolean http2;
+
+    /**
+     * Max number of concurrent SinkRecipient requests sent to a host, the exceeding requests wait in the host queue.
+     */
+    @ConfigItem(name = "max-concurrent-requests-per-host", defaultValue = "100")
+    int maxConcurrentRequestsPerHost;
+
+    /**
+     * Max number of SinkRecipient requests waiting in the queue of a host, the exceeding requests are rejected.
+     */
+    @ConfigItem(name = "max-queued-requests-per-host", defaultValue = "10000")
+    int maxQueuedRequestsPerHost;
+
+    /**
+     * Number of consecutive failed SinkRecipient requests (errors or 5xx responses) to a host that opens its circuit,
+     * parking the requests to that host until the reset timeout elapses. Zero disables the circuit breaker.
+     */
+    @ConfigItem(name = "circuit-breaker.failure-threshold", defaultValue = "10")
+    int circuitBreakerFailureThreshold;
+
+    /**
+     * Time a host circuit stays open before a trial request is sent to check whether the host recovered.
+     */
+    @ConfigItem(name = "circuit-breaker.reset-timeout-in-millis", defaultValue = "5000")
+    long circuitBreakerResetTimeoutInMillis;
+
+    /**
+     * Max time a SinkRecipient request waits in the queue of a host, including the time parked by an open circuit,
+     * before the job execution fails.
+     */
+    @ConfigItem(name = "max-queue-wait-in-millis", defaultValue = "60000")
+    long maxQueueWaitInMillis;
 }
@@ -26,6 +26,7 @@ import javax.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.kie.kogito.job.recipient.common.http.HTTPRequest;
 import org.kie.kogito.job.recipient.common.http.HTTPRequestExecutor;
+import org.kie.kogito.job.recipient.common.http.HTTPRequestExecutorConfig;
 import org.kie.kogito.jobs.service.api.recipient.sink.SinkRecipient;
 import org.kie.kogito.jobs.service.executor.JobExecutor;
 import org.kie.kogito.jobs.service.model.JobDetails;
@@ -57,7 +58,26 @@ public class SinkJobExecutor extends HTTPRequestExecutor<SinkRecipient<?>> imple
     @Inject
     public SinkJobExecutor(@ConfigProperty(name = "kogito.job.recipient.sink.timeout-in-millis") long timeout,
             Vertx vertx,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            @ConfigProperty(name = "kogito.job.recipient.sink.pool-size", defaultValue = "20") int poolSize,
+            @ConfigProperty(name = "kogito.job.recipient.sink.http2", defaultValue = "false") boolean http2,
+            @ConfigProperty(name = "kogito.job.recipient.sink.max-concurrent-requests-per-host", defaultValue = "100") int maxConcurrentRequestsPerHost,
+            @ConfigProperty(name = "kogito.job.recipient.sink.max-queued-requests-per-host", defaultValue = "10000") int maxQueuedRequestsPerHost,
+            @ConfigProperty(name = "kogito.job.recipient.sink.circuit-breaker.failure-threshold", defaultValue = "10") int circuitBreakerFailureThreshold,
+            @ConfigProperty(name = "kogito.job.recipient.sink.circuit-breaker.reset-timeout-in-millis", defaultValue = "5000") long circuitBreakerResetTimeoutInMillis,
+            @ConfigProperty(name = "kogito.job.recipient.sink.max-queue-wait-in-millis", defaultValue = "60000") long maxQueueWaitInMillis) {
+        super(timeout, vertx, objectMapper, HTTPRequestExecutorConfig.builder()
+                .poolSize(poolSize)
+                .http2(http2)
+                .maxConcurrentRequestsPerHost(maxConcurrentRequestsPerHost)
+                .maxQueuedRequestsPerHost(maxQueuedRequestsPerHost)
+                .circuitBreakerFailureThreshold(circuitBreakerFailureThreshold)
+                .circuitBreakerResetTimeoutInMillis(circuitBreakerResetTimeoutInMillis)
+                .maxQueueWaitInMillis(maxQueueWaitInMillis)
+                .build());
+    }
+
+    public SinkJobExecutor(long timeout, Vertx vertx, ObjectMapper objectMapper) {
         super(timeout, vertx, objectMapper);
     }
 
@@ -0,0 +1,27 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs.service.exception;
+
+/**
+ * Thrown when updating a job that was claimed to be fired from the repository, the update would put it back to be
+ * claimed and fired again.
+ */
+public class JobClaimedException extends RuntimeException {
+
+    public JobClaimedException(String jobId) {
+        super("The job " + jobId + " is being fired and cannot be updated");
+    }
+}
@@ -15,17 +15,25 @@
  */
 package org.kie.kogito.jobs.service.job;
 
+import java.time.Duration;
+import java.util.Date;
+import java.util.Objects;
 import java.util.Optional;
 
 import org.kie.kogito.jobs.service.exception.JobExecutionException;
+import org.kie.kogito.jobs.service.executor.JobExecutor;
 import org.kie.kogito.jobs.service.executor.JobExecutorResolver;
+import org.kie.kogito.jobs.service.metrics.JobServiceMetrics;
+import org.kie.kogito.jobs.service.model.JobDetails;
 import org.kie.kogito.jobs.service.model.JobDetailsContext;
 import org.kie.kogito.jobs.service.model.JobExecutionResponse;
 import org.kie.kogito.jobs.service.stream.JobStreams;
+import org.kie.kogito.jobs.service.utils.DateUtil;
 import org.kie.kogito.timer.Job;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.smallrye.mutiny.Uni;
 import io.smallrye.mutiny.infrastructure.Infrastructure;
 
 /**
@@ -39,9 +47,23 @@ public class DelegateJob implements Job<JobDetailsContext> {
 
     private final JobStreams jobStreams;
 
+    private final JobServiceMetrics metrics;
+
+    /**
+     * The time the job is expected to fire, used to measure the fire lag, if null the next fire time of the job
+     * trigger is used.
+     */
+    private final Date expectedFireTime;
+
     public DelegateJob(JobExecutorResolver executorResolver, JobStreams jobStreams) {
+        this(executorResolver, jobStreams, JobServiceMetrics.noop(), null);
+    }
+
+    public DelegateJob(JobExecutorResolver executorResolver, JobStreams jobStreams, JobServiceMetrics metrics, Date expectedFireTime) {
         this.jobExecutorResolver = executorResolver;
         this.jobStreams = jobStreams;
+        this.metrics = metrics;
+        this.expectedFireTime = expectedFireTime;
     }
 
     @Override
@@ -50,7 +72,7 @@ public class DelegateJob implements Job<JobDetailsContext> {
         Optional.ofNullable(ctx)
                 .map(JobDetailsContext::getJobDetails)
                 .map(jobExecutorResolver::get)
-                .map(executor -> executor.execute(ctx.getJobDetails()))
+                .map(executor -> execute(executor, ctx.getJobDetails()))
                 .orElseThrow(() -> new IllegalStateException("JobDetails cannot be null from context " + ctx))
                 .onItem().invoke(jobStreams::publishJobSuccess)
                 .onFailure(JobExecutionException.class).invoke(ex -> {
@@ -68,4 +90,23 @@ public class DelegateJob implements Job<JobDetailsContext> {
                 .subscribe().with(response -> LOGGER.info("Executed successfully with response {}", response));
 
     }
+
+    private Uni<JobExecutionResponse> execute(JobExecutor executor, JobDetails job) {
+        recordFireLag(job);
+        final String recipient = executor.type().getSimpleName();
+        final long start = System.nanoTime();
+        return executor.execute(job)
+                .onItem().invoke(r -> metrics.recordExecution(recipient, start, true))
+                .onFailure().invoke(ex -> metrics.recordExecution(recipient, start, false));
+    }
+
+    private void recordFireLag(JobDetails job) {
+        Date fireTime = expectedFireTime;
+        if (Objects.isNull(fireTime) && Objects.nonNull(job.getTrigger())) {
+            fireTime = job.getTrigger().hasNextFireTime();
+        }
+        if (Objects.nonNull(fireTime)) {
+            metrics.recordFireLag(Duration.between(fireTime.toInstant(), DateUtil.now().toInstant()));
+        }
+    }
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs.service.job;
+
+import java.util.function.Consumer;
+
+import org.kie.kogito.jobs.service.management.JobServiceShardManager;
+import org.kie.kogito.jobs.service.model.JobDetailsContext;
+import org.kie.kogito.jobs.service.repository.ReactiveJobRepository;
+import org.kie.kogito.timer.Job;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Job used in the partitioned mode, it only delegates the execution if the job still belongs to a shard owned by the
+ * current instance and it was not removed from the repository in the meantime, i.e. cancelled through another instance.
+ */
+public class ShardAwareJob implements Job<JobDetailsContext> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardAwareJob.class);
+
+    private final Job<JobDetailsContext> delegate;
+
+    private final JobServiceShardManager shardManager;
+
+    private final ReactiveJobRepository jobRepository;
+
+    private final Consumer<String> onSkip;
+
+    public ShardAwareJob(Job<JobDetailsContext> delegate, JobServiceShardManager shardManager, ReactiveJobRepository jobRepository,
+            Consumer<String> onSkip) {
+        this.delegate = delegate;
+        this.shardManager = shardManager;
+        this.jobRepository = jobRepository;
+        this.onSkip = onSkip;
+    }
+
+    @Override
+    public void execute(JobDetailsContext ctx) {
+        final String jobId = ctx.getJobDetails().getId();
+        if (!shardManager.isOwned(jobId)) {
+            LOGGER.info("Skipping job {}, its shard is not owned by this instance anymore", jobId);
+            onSkip.accept(jobId);
+            return;
+        }
+        jobRepository.exists(jobId).whenComplete((exists, ex) -> {
+            if (ex != null) {
+                //keep the at least once semantics when the repository is not reachable
+                LOGGER.warn("Error checking job {} before the execution", jobId, ex);
+                delegate.execute(ctx);
+            } else if (Boolean.TRUE.equals(exists)) {
+                delegate.execute(ctx);
+            } else {
+                LOGGER.info("Skipping job {}, it was removed from the repository", jobId);
+                onSkip.accept(jobId);
+            }
+        });
+    }
+}
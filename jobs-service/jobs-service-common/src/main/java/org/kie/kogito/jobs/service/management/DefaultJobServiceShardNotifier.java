@@ -0,0 +1,41 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs.service.management;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.quarkus.arc.DefaultBean;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Used by the storages without a notification channel, the owner of the shard schedules the job on its next periodic
+ * load (kogito.jobs-service.loadJobIntervalInMinutes).
+ */
+@DefaultBean
+@ApplicationScoped
+public class DefaultJobServiceShardNotifier implements JobServiceShardNotifier {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DefaultJobServiceShardNotifier.class);
+
+    @Override
+    public Uni<Void> notifyScheduled(String jobId) {
+        LOGGER.debug("Job {} is left to be loaded by the owner of its shard", jobId);
+        return Uni.createFrom().voidItem();
+    }
+}
@@ -59,6 +59,9 @@ public class JobServiceInstanceManager {
     @ConfigProperty(name = "kogito.jobs-service.management.heartbeat.management-id", defaultValue = "kogito-jobs-service-leader")
     String leaderManagementId;
 
+    @ConfigProperty(name = "kogito.jobs-service.management.sharding.enabled", defaultValue = "false")
+    boolean shardingEnabled;
+
     @Inject
     @Connector(value = "smallrye-kafka")
     KafkaConnector kafkaConnector;
@@ -81,6 +84,11 @@ public class JobServiceInstanceManager {
     private final AtomicBoolean leader = new AtomicBoolean(false);
 
     void startup(@Observes StartupEvent startupEvent) {
+        if (shardingEnabled) {
+            //all the instances are active in the partitioned mode, see JobServiceShardManager
+            LOGGER.info("Leader election disabled, running in partitioned mode");
+            return;
+        }
         buildAndSetInstanceInfo();
 
         //background task for leader check, it will be started after the first tryBecomeLeader() execution
@@ -132,6 +140,9 @@ public class JobServiceInstanceManager {
     }
 
     private void shutdown() {
+        if (Objects.isNull(currentInfo.get())) {
+            return;
+        }
         release(currentInfo.get())
                 .onItem().invoke(i -> checkLeader.cancel())
                 .onItem().invoke(i -> heartbeat.cancel())
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs.service.management;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.kie.kogito.jobs.service.model.JobServiceManagementInfo;
+import org.kie.kogito.jobs.service.repository.JobServiceManagementRepository;
+import org.kie.kogito.jobs.service.utils.DateUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.TimeoutStream;
+import io.vertx.mutiny.core.Vertx;
+
+/**
+ * Partitioned (active-active) mode of the Job Service. Instead of electing a single leader, the jobs are spread across
+ * a fixed number of shards ({@code hash(jobId) mod shards}) and every instance leases a fair share of them using the
+ * {@link JobServiceManagementRepository}. Each instance only loads and fires the jobs of the shards it currently owns,
+ * leases are renewed with the heartbeat and the shards of an instance that stops heartbeating are taken over by the
+ * remaining ones once they expire.
+ * <p>
+ * Enabled with {@code kogito.jobs-service.management.sharding.enabled=true}, in this case the leader election done by
+ * {@link JobServiceInstanceManager} is skipped.
+ */
+@ApplicationScoped
+public class JobServiceShardManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JobServiceShardManager.class);
+
+    private static final String SHARD = "-shard-";
+
+    private static final String MEMBER = "-member-";
+
+    //members that are not heartbeating for this number of expiration periods are removed from the repository
+    private static final int DEAD_MEMBER_EXPIRATIONS = 10;
+
+    @ConfigProperty(name = "kogito.jobs-service.management.sharding.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "kogito.jobs-service.management.sharding.shards", defaultValue = "16")
+    int shards;
+
+    @ConfigProperty(name = "kogito.jobs-service.management.heartbeat.interval-in-seconds", defaultValue = "1")
+    long heartBeatIntervalInSeconds;
+
+    @ConfigProperty(name = "kogito.jobs-service.management.heartbeat.expiration-in-seconds", defaultValue = "10")
+    long heartbeatExpirationInSeconds;
+
+    @ConfigProperty(name = "kogito.jobs-service.management.heartbeat.management-id", defaultValue = "kogito-jobs-service-leader")
+    String managementId;
+
+    @Inject
+    Event<MessagingChangeEvent> messagingChangeEvent;
+
+    @Inject
+    Event<ShardAssignmentChangeEvent> shardAssignmentChangeEvent;
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    JobServiceManagementRepository repository;
+
+    private final String token = UUID.randomUUID().toString();
+
+    private final Set<Integer> ownedShards = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean rebalancing = new AtomicBoolean(false);
+
+    private TimeoutStream rebalanceStream;
+
+    void startup(@Observes StartupEvent startupEvent) {
+        if (!enabled) {
+            return;
+        }
+        LOGGER.info("Starting Job Service instance {} in partitioned mode with {} shards", token, shards);
+        //every instance produces events in the partitioned mode
+        messagingChangeEvent.fire(new MessagingChangeEvent(true));
+
+        rebalanceStream = vertx.periodicStream(TimeUnit.SECONDS.toMillis(heartBeatIntervalInSeconds))
+                .handler(id -> rebalance()
+                        .subscribe().with(i -> LOGGER.debug("Shards owned by {}: {}", token, ownedShards),
+                                ex -> LOGGER.error("Error rebalancing shards", ex)));
+
+        rebalance().subscribe().with(i -> LOGGER.info("Initial shards owned by {}: {}", token, ownedShards),
+                ex -> LOGGER.error("Error on initial shards assignment", ex));
+    }
+
+    void onShutdown(@Observes ShutdownEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (Objects.nonNull(rebalanceStream)) {
+            rebalanceStream.cancel();
+        }
+        release().subscribe().with(i -> LOGGER.info("Shards released by {}", token),
+                ex -> LOGGER.error("Error releasing shards", ex));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether the job belongs to a shard owned by the current instance, always true if the partitioned mode is disabled.
+     */
+    public boolean isOwned(String jobId) {
+        return !enabled || ownedShards.contains(shardOf(jobId, shards));
+    }
+
+    public Set<Integer> getOwnedShards() {
+        return Collections.unmodifiableSet(ownedShards);
+    }
+
+    public static int shardOf(String jobId, int shards) {
+        return Math.floorMod(Objects.hashCode(jobId), shards);
+    }
+
+    /**
+     * Executes one round of the shards assignment: refreshes the membership of the current instance, renews the owned
+     * leases and then releases or acquires shards until the instance owns its fair share, {@code ceil(shards / members)}.
+     */
+    protected Uni<Void> rebalance() {
+        if (!rebalancing.compareAndSet(false, true)) {
+            return Uni.createFrom().voidItem();
+        }
+        final Set<Integer> acquired = new HashSet<>();
+        final Set<Integer> lost = new HashSet<>();
+        return repository.set(new JobServiceManagementInfo(memberId(), token, now()))
+                .chain(m -> renewLeases(lost))
+                .chain(v -> repository.findByIdPrefix(managementId + "-"))
+                .chain(entries -> balance(entries, acquired, lost))
+                .onItem().invoke(v -> {
+                    if (!acquired.isEmpty() || !lost.isEmpty()) {
+                        LOGGER.info("Shards assignment changed for {}, acquired: {}, lost: {}", token, acquired, lost);
+                        shardAssignmentChangeEvent.fire(new ShardAssignmentChangeEvent(acquired, lost));
+                    }
+                })
+                .onTermination().invoke(() -> rebalancing.set(false));
+    }
+
+    protected Uni<Void> release() {
+        final List<Integer> owned = new ArrayList<>(ownedShards);
+        ownedShards.clear();
+        return Multi.createFrom().iterable(owned)
+                .onItem().transformToUniAndConcatenate(s -> repository.set(new JobServiceManagementInfo(shardId(s), null, null)))
+                .collect().asList()
+                .chain(l -> repository.delete(memberId()));
+    }
+
+    private Uni<Void> renewLeases(Set<Integer> lost) {
+        return Multi.createFrom().iterable(new ArrayList<>(ownedShards))
+                .onItem().transformToUniAndConcatenate(s -> repository.heartbeat(new JobServiceManagementInfo(shardId(s), token, null))
+                        .onItem().transform(i -> Objects.isNull(i) ? s : null))
+                .collect().asList()
+                .onItem().invoke(expired -> {
+                    //the lease was taken by another instance
+                    ownedShards.removeAll(expired);
+                    lost.addAll(expired);
+                })
+                .replaceWithVoid();
+    }
+
+    private Uni<Void> balance(List<JobServiceManagementInfo> entries, Set<Integer> acquired, Set<Integer> lost) {
+        final OffsetDateTime expiration = now().minusSeconds(heartbeatExpirationInSeconds);
+        final String memberPrefix = managementId + MEMBER;
+        final String shardPrefix = managementId + SHARD;
+
+        final List<JobServiceManagementInfo> members = entries.stream()
+                .filter(e -> e.getId().startsWith(memberPrefix))
+                .collect(Collectors.toList());
+        final long liveMembers = members.stream().filter(m -> isAlive(m, expiration)).count();
+        final int fairShare = (int) Math.ceil((double) shards / Math.max(1, liveMembers));
+
+        final Map<Integer, JobServiceManagementInfo> leases = new HashMap<>();
+        entries.stream()
+                .filter(e -> e.getId().startsWith(shardPrefix))
+                .forEach(e -> leases.put(Integer.valueOf(e.getId().substring(shardPrefix.length())), e));
+
+        final OffsetDateTime deadMemberExpiration = now().minusSeconds(heartbeatExpirationInSeconds * DEAD_MEMBER_EXPIRATIONS);
+        final List<String> deadMembers = members.stream()
+                .filter(m -> Objects.isNull(m.getLastHeartbeat()) || m.getLastHeartbeat().isBefore(deadMemberExpiration))
+                .map(JobServiceManagementInfo::getId)
+                .collect(Collectors.toList());
+        final Uni<Void> cleanup = Multi.createFrom().iterable(deadMembers)
+                .onItem().transformToUniAndConcatenate(repository::delete)
+                .collect().asList()
+                .replaceWithVoid();
+
+        if (ownedShards.size() > fairShare) {
+            final List<Integer> extra = ownedShards.stream()
+                    .sorted(Comparator.reverseOrder())
+                    .limit((long) ownedShards.size() - fairShare)
+                    .collect(Collectors.toList());
+            ownedShards.removeAll(extra);
+            lost.addAll(extra);
+            return Multi.createFrom().iterable(extra)
+                    .onItem().transformToUniAndConcatenate(s -> repository.set(new JobServiceManagementInfo(shardId(s), null, null)))
+                    .collect().asList()
+                    .chain(l -> cleanup);
+        }
+
+        //start looking for free shards at an instance dependent offset to reduce the contention among the instances
+        final int offset = Math.floorMod(token.hashCode(), shards);
+        final List<Integer> candidates = IntStream.range(0, shards)
+                .map(i -> (i + offset) % shards)
+                .filter(s -> !ownedShards.contains(s))
+                .filter(s -> isFree(leases.get(s), expiration))
+                .boxed()
+                .collect(Collectors.toList());
+        return Multi.createFrom().iterable(candidates)
+                .onItem().transformToUniAndConcatenate(s -> acquire(s, fairShare, expiration, acquired))
+                .collect().asList()
+                .chain(l -> cleanup);
+    }
+
+    private Uni<JobServiceManagementInfo> acquire(Integer shard, int fairShare, OffsetDateTime expiration, Set<Integer> acquired) {
+        if (ownedShards.size() >= fairShare) {
+            return Uni.createFrom().nullItem();
+        }
+        //the lease is taken atomically, the shard may have been acquired by another instance since it was found free
+        return repository.tryAcquire(shardId(shard), token, expiration)
+                .onItem().invoke(i -> {
+                    if (Objects.nonNull(i)) {
+                        ownedShards.add(shard);
+                        acquired.add(shard);
+                    }
+                });
+    }
+
+    private static boolean isAlive(JobServiceManagementInfo info, OffsetDateTime expiration) {
+        return Objects.nonNull(info.getToken()) && Objects.nonNull(info.getLastHeartbeat()) && info.getLastHeartbeat().isAfter(expiration);
+    }
+
+    private static boolean isFree(JobServiceManagementInfo lease, OffsetDateTime expiration) {
+        return Objects.isNull(lease) || !isAlive(lease, expiration);
+    }
+
+    private String shardId(int shard) {
+        return managementId + SHARD + shard;
+    }
+
+    private String memberId() {
+        return managementId + MEMBER + token;
+    }
+
+    private static OffsetDateTime now() {
+        return DateUtil.now().toOffsetDateTime();
+    }
+
+    protected String getToken() {
+        return token;
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs.service.management;
+
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Notifies the instances of the partitioned mode that a job of the current chunk was scheduled through an instance that
+ * does not own its shard. The receiving instances fire a {@link ShardJobScheduledEvent}, the one owning the shard
+ * schedules the job right away instead of waiting for its next periodic load.
+ */
+public interface JobServiceShardNotifier {
+
+    Uni<Void> notifyScheduled(String jobId);
+}
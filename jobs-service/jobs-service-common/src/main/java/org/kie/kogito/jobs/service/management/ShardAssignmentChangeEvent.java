@@ -0,0 +1,41 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs.service.management;
+
+import java.util.Set;
+
+/**
+ * Fired when the shards owned by the current instance change in the partitioned mode.
+ */
+public class ShardAssignmentChangeEvent {
+
+    private final Set<Integer> acquired;
+
+    private final Set<Integer> lost;
+
+    public ShardAssignmentChangeEvent(Set<Integer> acquired, Set<Integer> lost) {
+        this.acquired = acquired;
+        this.lost = lost;
+    }
+
+    public Set<Integer> getAcquired() {
+        return acquired;
+    }
+
+    public Set<Integer> getLost() {
+        return lost;
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs.service.metrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
+import org.kie.kogito.job.recipient.common.http.HTTPRequestExecutor;
+import org.kie.kogito.job.recipient.common.http.HostRequestLimiter;
+import org.kie.kogito.jobs.service.executor.JobExecutor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+
+/**
+ * Micrometer instrumentation of the Job Service, the meters are exposed on the Quarkus metrics endpoint.
+ */
+@ApplicationScoped
+public class JobServiceMetrics {
+
+    public static final String PREFIX = "kogito.jobs.service.";
+    public static final String FIRE_LAG = PREFIX + "fire.lag";
+    public static final String EXECUTION = PREFIX + "execution";
+    public static final String RETRIES = PREFIX + "retries";
+    public static final String ERRORS = PREFIX + "errors";
+    public static final String CHUNK_LOAD = PREFIX + "chunk.load";
+    public static final String CHUNK_LOAD_JOBS = PREFIX + "chunk.load.jobs";
+    public static final String SCHEDULED_JOBS = PREFIX + "scheduled.jobs";
+    public static final String REPOSITORY = PREFIX + "repository";
+    public static final String HTTP_IN_FLIGHT = PREFIX + "http.requests.inflight";
+    public static final String HTTP_QUEUED = PREFIX + "http.requests.queued";
+    public static final String HTTP_REJECTED = PREFIX + "http.requests.rejected";
+    public static final String HTTP_CIRCUIT_OPEN = PREFIX + "http.circuit.open";
+
+    public static final String RECIPIENT_TAG = "recipient";
+    public static final String OUTCOME_TAG = "outcome";
+    public static final String METHOD_TAG = "method";
+    public static final String HOST_TAG = "host";
+    public static final String SUCCESS = "success";
+    public static final String FAILURE = "failure";
+
+    //an empty composite registry discards every measure, it is shared so the meters are only created once
+    private static final JobServiceMetrics NOOP = new JobServiceMetrics(new CompositeMeterRegistry());
+
+    private MeterRegistry registry;
+
+    private Counter retries;
+
+    private Counter errors;
+
+    private Timer fireLag;
+
+    private Timer chunkLoad;
+
+    private Counter chunkLoadJobs;
+
+    protected JobServiceMetrics() {
+    }
+
+    @Inject
+    public JobServiceMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.fireLag = Timer.builder(FIRE_LAG)
+                .description("Time between the expected and the actual fire time of the jobs")
+                .register(registry);
+        this.retries = Counter.builder(RETRIES)
+                .description("Number of job executions scheduled to be retried")
+                .register(registry);
+        this.errors = Counter.builder(ERRORS)
+                .description("Number of jobs moved to ERROR after exceeding the retry limit")
+                .register(registry);
+        this.chunkLoad = Timer.builder(CHUNK_LOAD)
+                .description("Duration of the loading of the jobs in the current scheduler chunk")
+                .register(registry);
+        this.chunkLoadJobs = Counter.builder(CHUNK_LOAD_JOBS)
+                .description("Number of jobs loaded in the current scheduler chunk")
+                .register(registry);
+    }
+
+    /**
+     * Metrics not bound to any registry, used when the Job Service components are created outside of the container.
+     */
+    public static JobServiceMetrics noop() {
+        return NOOP;
+    }
+
+    void onStartup(@Observes StartupEvent event, Instance<JobExecutor> executors) {
+        executors.stream()
+                .filter(HTTPRequestExecutor.class::isInstance)
+                .forEach(executor -> bindHttpRequestExecutor(executor.type().getSimpleName(), (HTTPRequestExecutor<?>) executor));
+    }
+
+    public void bindHttpRequestExecutor(String recipient, HTTPRequestExecutor<?> executor) {
+        executor.addHostListener(limiter -> {
+            final Tags tags = Tags.of(RECIPIENT_TAG, recipient, HOST_TAG, limiter.getHost());
+            Gauge.builder(HTTP_IN_FLIGHT, limiter, l -> l.getMetrics().getInFlight())
+                    .description("Number of HTTP requests in flight per host")
+                    .tags(tags)
+                    .register(registry);
+            Gauge.builder(HTTP_QUEUED, limiter, l -> l.getMetrics().getQueued())
+                    .description("Number of HTTP requests waiting in the queue of a host")
+                    .tags(tags)
+                    .register(registry);
+            Gauge.builder(HTTP_CIRCUIT_OPEN, limiter, l -> l.getMetrics().isCircuitOpen() ? 1 : 0)
+                    .description("Whether the circuit of a host is open (1) or closed (0)")
+                    .tags(tags)
+                    .register(registry);
+            FunctionCounter.builder(HTTP_REJECTED, limiter, l -> l.getMetrics().getRejected())
+                    .description("Number of HTTP requests rejected because the queue of the host was full")
+                    .tags(tags)
+                    .register(registry);
+        });
+    }
+
+    public void recordFireLag(Duration lag) {
+        fireLag.record(lag.isNegative() ? Duration.ZERO : lag);
+    }
+
+    public void recordExecution(String recipient, long startNanos, boolean success) {
+        Timer.builder(EXECUTION)
+                .description("Duration of the job executions per recipient type")
+                .tags(RECIPIENT_TAG, recipient, OUTCOME_TAG, success ? SUCCESS : FAILURE)
+                .register(registry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void incrementRetries() {
+        retries.increment();
+    }
+
+    public void incrementErrors() {
+        errors.increment();
+    }
+
+    public void recordChunkLoad(long startNanos, long count) {
+        chunkLoad.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        chunkLoadJobs.increment(count);
+    }
+
+    public void registerScheduledJobs(Map<?, ?> schedulerControl) {
+        Gauge.builder(SCHEDULED_JOBS, schedulerControl, Map::size)
+                .description("Number of jobs currently scheduled in the in-memory scheduler")
+                .register(registry);
+    }
+
+    public <T> CompletionStage<T> timeRepository(String method, Supplier<CompletionStage<T>> call) {
+        final Timer.Sample sample = Timer.start(registry);
+        return call.get().whenComplete((r, ex) -> sample.stop(repositoryTimer(method, ex == null)));
+    }
+
+    public <T> PublisherBuilder<T> timeRepositoryStream(String method, Supplier<PublisherBuilder<T>> call) {
+        final Timer.Sample sample = Timer.start(registry);
+        return call.get()
+                .onComplete(() -> sample.stop(repositoryTimer(method, true)))
+                .onError(ex -> sample.stop(repositoryTimer(method, false)));
+    }
+
+    private Timer repositoryTimer(String method, boolean success) {
+        return Timer.builder(REPOSITORY)
+                .description("Latency of the calls to the job repository per method")
+                .tags(METHOD_TAG, method, OUTCOME_TAG, success ? SUCCESS : FAILURE)
+                .register(registry);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs.service.metrics;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import javax.annotation.Priority;
+import javax.decorator.Decorator;
+import javax.decorator.Delegate;
+import javax.enterprise.inject.Any;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
+import org.kie.kogito.jobs.service.model.JobDetails;
+import org.kie.kogito.jobs.service.model.JobStatus;
+import org.kie.kogito.jobs.service.repository.ReactiveJobRepository;
+
+/**
+ * Decorates the {@link ReactiveJobRepository} in use, whatever the storage, recording the latency of every call.
+ */
+@Decorator
+@Priority(1)
+public class MeteredJobRepository implements ReactiveJobRepository {
+
+    @Inject
+    @Delegate
+    @Any
+    ReactiveJobRepository delegate;
+
+    @Inject
+    JobServiceMetrics metrics;
+
+    @Override
+    public CompletionStage<JobDetails> save(JobDetails job) {
+        return metrics.timeRepository("save", () -> delegate.save(job));
+    }
+
+    @Override
+    public CompletionStage<List<JobDetails>> saveAll(List<JobDetails> jobs) {
+        return metrics.timeRepository("saveAll", () -> delegate.saveAll(jobs));
+    }
+
+    @Override
+    public CompletionStage<JobDetails> merge(String id, JobDetails job) {
+        return metrics.timeRepository("merge", () -> delegate.merge(id, job));
+    }
+
+    @Override
+    public CompletionStage<JobDetails> get(String id) {
+        return metrics.timeRepository("get", () -> delegate.get(id));
+    }
+
+    @Override
+    public CompletionStage<Boolean> exists(String id) {
+        return metrics.timeRepository("exists", () -> delegate.exists(id));
+    }
+
+    @Override
+    public CompletionStage<JobDetails> delete(String id) {
+        return metrics.timeRepository("delete", () -> delegate.delete(id));
+    }
+
+    @Override
+    public CompletionStage<JobDetails> delete(JobDetails job) {
+        return metrics.timeRepository("delete", () -> delegate.delete(job));
+    }
+
+    @Override
+    public CompletionStage<List<JobDetails>> deleteAll(List<JobDetails> jobs) {
+        return metrics.timeRepository("deleteAll", () -> delegate.deleteAll(jobs));
+    }
+
+    @Override
+    public PublisherBuilder<JobDetails> findByStatus(JobStatus... status) {
+        return metrics.timeRepositoryStream("findByStatus", () -> delegate.findByStatus(status));
+    }
+
+    @Override
+    public PublisherBuilder<JobDetails> findAll() {
+        return metrics.timeRepositoryStream("findAll", delegate::findAll);
+    }
+
+    @Override
+    public PublisherBuilder<JobDetails> findByStatusBetweenDatesOrderByPriority(ZonedDateTime from, ZonedDateTime to, JobStatus... status) {
+        return metrics.timeRepositoryStream("findByStatusBetweenDatesOrderByPriority",
+                () -> delegate.findByStatusBetweenDatesOrderByPriority(from, to, status));
+    }
+
+    @Override
+    public PublisherBuilder<JobDetails> findByStatusBetweenDatesOrderByFireTime(ZonedDateTime from, ZonedDateTime to, int pageSize, JobStatus... status) {
+        return metrics.timeRepositoryStream("findByStatusBetweenDatesOrderByFireTime",
+                () -> delegate.findByStatusBetweenDatesOrderByFireTime(from, to, pageSize, status));
+    }
+
+    @Override
+    public CompletionStage<List<JobDetails>> claim(ZonedDateTime from, ZonedDateTime to, int limit) {
+        return metrics.timeRepository("claim", () -> delegate.claim(from, to, limit));
+    }
+
+    @Override
+    public CompletionStage<Long> releaseExpiredClaims(ZonedDateTime claimedBefore) {
+        return metrics.timeRepository("releaseExpiredClaims", () -> delegate.releaseExpiredClaims(claimedBefore));
+    }
+
+    @Override
+    public CompletionStage<Long> refreshClaims(List<String> ids) {
+        return metrics.timeRepository("refreshClaims", () -> delegate.refreshClaims(ids));
+    }
+
+    @Override
+    public CompletionStage<JobDetails> saveIfNotClaimed(JobDetails job) {
+        return metrics.timeRepository("saveIfNotClaimed", () -> delegate.saveIfNotClaimed(job));
+    }
+}
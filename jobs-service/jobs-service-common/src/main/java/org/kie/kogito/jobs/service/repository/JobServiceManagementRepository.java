@@ -15,6 +15,8 @@
  */
 package org.kie.kogito.jobs.service.repository;
 
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.function.Function;
 
 import org.kie.kogito.jobs.service.model.JobServiceManagementInfo;
@@ -29,4 +31,21 @@ public interface JobServiceManagementRepository {
 
     Uni<JobServiceManagementInfo> heartbeat(JobServiceManagementInfo info);
 
+    /**
+     * Atomically leases the entry with the given id to the token, creating it if it does not exist. The entry is only
+     * taken when it is free (no token), already held by the token or its last heartbeat is before
+     * {@code expiredBefore}, it is used in the partitioned mode to acquire the shards.
+     *
+     * @return the acquired lease, or null if the entry is held by another live instance.
+     */
+    Uni<JobServiceManagementInfo> tryAcquire(String id, String token, OffsetDateTime expiredBefore);
+
+    /**
+     * Returns all the entries whose id starts with the given prefix, it is used in the partitioned mode to discover
+     * the shard leases and the live instances.
+     */
+    Uni<List<JobServiceManagementInfo>> findByIdPrefix(String prefix);
+
+    Uni<Void> delete(String id);
+
 }
@@ -16,6 +16,7 @@
 package org.kie.kogito.jobs.service.repository;
 
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.concurrent.CompletionStage;
 
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
@@ -26,6 +27,12 @@ public interface ReactiveJobRepository {
 
     CompletionStage<JobDetails> save(JobDetails job);
 
+    /**
+     * Saves all the given jobs using as few round trips to the storage as possible. In case the same job id is
+     * present more than once, the last occurrence wins.
+     */
+    CompletionStage<List<JobDetails>> saveAll(List<JobDetails> jobs);
+
     CompletionStage<JobDetails> merge(String id, JobDetails job);
 
     CompletionStage<JobDetails> get(String id);
@@ -36,9 +43,52 @@ public interface ReactiveJobRepository {
 
     CompletionStage<JobDetails> delete(JobDetails job);
 
+    /**
+     * Deletes all the given jobs using as few round trips to the storage as possible.
+     */
+    CompletionStage<List<JobDetails>> deleteAll(List<JobDetails> jobs);
+
     PublisherBuilder<JobDetails> findByStatus(JobStatus... status);
 
     PublisherBuilder<JobDetails> findAll();
 
     PublisherBuilder<JobDetails> findByStatusBetweenDatesOrderByPriority(ZonedDateTime from, ZonedDateTime to, JobStatus... status);
+
+    /**
+     * Streams the jobs with the given status and fire time between the given dates ordered by fire time and id.
+     * The jobs are fetched in pages of {@code pageSize} using keyset pagination, the next page is only fetched when
+     * the previous one was consumed, so there is no limit in the number of jobs and only one page is kept in memory.
+     */
+    PublisherBuilder<JobDetails> findByStatusBetweenDatesOrderByFireTime(ZonedDateTime from, ZonedDateTime to, int pageSize, JobStatus... status);
+
+    /**
+     * Atomically moves up to {@code limit} {@link JobStatus#SCHEDULED} jobs with fire time between the given dates to
+     * {@link JobStatus#CLAIMED} and returns them ordered by fire time. A job is only returned to one of the callers,
+     * even when several instances are claiming concurrently, so the claimed jobs can be fired right away.
+     */
+    CompletionStage<List<JobDetails>> claim(ZonedDateTime from, ZonedDateTime to, int limit);
+
+    /**
+     * Moves the {@link JobStatus#CLAIMED} jobs whose claim was not refreshed, see {@link #refreshClaims(List)}, since
+     * the given date back to {@link JobStatus#SCHEDULED}, e.g. the jobs claimed by an instance that went down before
+     * firing them.
+     *
+     * @return the number of released jobs.
+     */
+    CompletionStage<Long> releaseExpiredClaims(ZonedDateTime claimedBefore);
+
+    /**
+     * Refreshes the last update of the given {@link JobStatus#CLAIMED} jobs, the instance firing them keeps doing it
+     * while the executions are in progress so their claims are not released.
+     *
+     * @return the number of refreshed claims.
+     */
+    CompletionStage<Long> refreshClaims(List<String> ids);
+
+    /**
+     * Saves the job unless it is {@link JobStatus#CLAIMED}, i.e. it is being fired from the repository.
+     *
+     * @return the saved job or null if the job is claimed.
+     */
+    CompletionStage<JobDetails> saveIfNotClaimed(JobDetails job);
 }
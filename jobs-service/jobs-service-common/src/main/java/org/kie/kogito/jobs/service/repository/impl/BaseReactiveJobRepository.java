@@ -15,33 +15,74 @@
  */
 package org.kie.kogito.jobs.service.repository.impl;
 
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
 
 import org.apache.commons.lang3.StringUtils;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
+import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
 import org.kie.kogito.jobs.service.model.JobDetails;
 import org.kie.kogito.jobs.service.model.JobStatus;
 import org.kie.kogito.jobs.service.repository.ReactiveJobRepository;
 import org.kie.kogito.jobs.service.stream.JobStreams;
+import org.kie.kogito.jobs.service.utils.DateUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import io.smallrye.mutiny.Multi;
 import io.vertx.core.Vertx;
 
 public abstract class BaseReactiveJobRepository implements ReactiveJobRepository {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(BaseReactiveJobRepository.class);
+
     private Vertx vertx;
 
     private JobStreams jobStreams;
 
+    /**
+     * Max number of {@link #save(JobDetails)} calls coalesced into a single {@link #doSaveAll(List)}, 1 disables the
+     * coalescing and every save goes straight to the storage.
+     */
+    private int saveBatchSize = 1;
+
+    /**
+     * Max time in millis a save waits for other saves to be coalesced with before the batch is flushed.
+     */
+    private long saveBatchWindowMillis;
+
+    private final Object saveBatchLock = new Object();
+
+    private List<PendingSave> pendingSaves = new ArrayList<>();
+
+    private boolean saveBatchFlushScheduled;
+
     protected BaseReactiveJobRepository(Vertx vertx, JobStreams jobStreams) {
         this.vertx = vertx;
         this.jobStreams = jobStreams;
     }
 
+    @Inject
+    public void configureSaveBatching(@ConfigProperty(name = "kogito.jobs-service.repository.saveBatchSize", defaultValue = "1") int saveBatchSize,
+            @ConfigProperty(name = "kogito.jobs-service.repository.saveBatchWindowMillis", defaultValue = "5") long saveBatchWindowMillis) {
+        this.saveBatchSize = Math.max(1, saveBatchSize);
+        this.saveBatchWindowMillis = Math.max(1, saveBatchWindowMillis);
+    }
+
     public <T> CompletionStage<T> runAsync(Supplier<T> function) {
         final CompletableFuture<T> future = new CompletableFuture<>();
         vertx.executeBlocking(v -> future.complete(function.get()), r -> {
@@ -56,20 +97,208 @@ public abstract class BaseReactiveJobRepository implements ReactiveJobRepository
                 .filter(job -> Arrays.stream(status).anyMatch(job.getStatus()::equals));
     }
 
+    @Override
+    public PublisherBuilder<JobDetails> findByStatusBetweenDatesOrderByFireTime(ZonedDateTime from, ZonedDateTime to, int pageSize,
+            JobStatus... status) {
+        return ReactiveStreams.fromPublisher(Multi.createBy().repeating()
+                .completionStage(() -> new KeysetCursor(from),
+                        cursor -> findPageByStatusBetweenDatesOrderByFireTime(cursor.fireTime, cursor.id, to, pageSize, status)
+                                .thenApply(cursor::advance))
+                //a page shorter than the page size is the last one
+                .whilst(page -> page.size() == pageSize)
+                .onItem().<JobDetails> disjoint());
+    }
+
+    /**
+     * Fetches one page of jobs for {@link #findByStatusBetweenDatesOrderByFireTime(ZonedDateTime, ZonedDateTime, int, JobStatus...)}.
+     *
+     * @param afterFireTime the fire time of the last job of the previous page, or the lower bound of the interval
+     *        (inclusive) when fetching the first page.
+     * @param afterId the id of the last job of the previous page, null when fetching the first page.
+     * @param to the upper bound of the interval (inclusive).
+     * @return the jobs after the (afterFireTime, afterId) key ordered by fire time and id.
+     */
+    public abstract CompletionStage<List<JobDetails>> findPageByStatusBetweenDatesOrderByFireTime(ZonedDateTime afterFireTime, String afterId,
+            ZonedDateTime to, int pageSize, JobStatus... status);
+
     @Override
     public CompletionStage<JobDetails> save(JobDetails job) {
-        return doSave(job)
+        return (saveBatchSize > 1 ? enqueueSave(job) : doSave(job))
                 .thenApply(jobStreams::publishJobStatusChange);
     }
 
     public abstract CompletionStage<JobDetails> doSave(JobDetails job);
 
+    @Override
+    public CompletionStage<List<JobDetails>> saveAll(List<JobDetails> jobs) {
+        return doSaveAll(lastById(jobs))
+                .thenApply(saved -> saved.stream()
+                        .map(jobStreams::publishJobStatusChange)
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * Saves the given jobs, which are guaranteed to have unique ids. The default implementation falls back to one
+     * {@link #doSave(JobDetails)} after the other, storages supporting bulk writes should override it.
+     */
+    public CompletionStage<List<JobDetails>> doSaveAll(List<JobDetails> jobs) {
+        CompletionStage<List<JobDetails>> result = CompletableFuture.completedFuture(new ArrayList<>());
+        for (JobDetails job : jobs) {
+            result = result.thenCompose(saved -> doSave(job).thenApply(j -> {
+                saved.add(j);
+                return saved;
+            }));
+        }
+        return result;
+    }
+
     @Override
     public CompletionStage<JobDetails> delete(JobDetails job) {
         return delete(job.getId())
                 .thenApply(j -> jobStreams.publishJobStatusChange(job));
     }
 
+    @Override
+    public CompletionStage<List<JobDetails>> deleteAll(List<JobDetails> jobs) {
+        return doDeleteAll(jobs.stream().map(JobDetails::getId).distinct().collect(Collectors.toList()))
+                .thenApply(deleted -> jobs.stream()
+                        .map(jobStreams::publishJobStatusChange)
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * Deletes the jobs with the given ids returning the number of deleted jobs. The default implementation falls
+     * back to one {@link #delete(String)} after the other, storages supporting bulk deletes should override it.
+     */
+    public CompletionStage<Long> doDeleteAll(List<String> ids) {
+        CompletionStage<Long> result = CompletableFuture.completedFuture(0L);
+        for (String id : ids) {
+            result = result.thenCompose(count -> delete(id).thenApply(j -> Objects.nonNull(j) ? count + 1 : count));
+        }
+        return result;
+    }
+
+    /**
+     * Default claim, it is not atomic across instances: the due jobs are read and then saved as
+     * {@link JobStatus#CLAIMED}. Storages supporting conditional updates should override it.
+     */
+    @Override
+    public CompletionStage<List<JobDetails>> claim(ZonedDateTime from, ZonedDateTime to, int limit) {
+        return findPageByStatusBetweenDatesOrderByFireTime(from, null, to, limit, JobStatus.SCHEDULED)
+                .thenCompose(jobs -> jobs.isEmpty()
+                        ? CompletableFuture.completedFuture(jobs)
+                        : doSaveAll(jobs.stream().map(j -> withStatus(j, JobStatus.CLAIMED)).collect(Collectors.toList())));
+    }
+
+    @Override
+    public CompletionStage<Long> releaseExpiredClaims(ZonedDateTime claimedBefore) {
+        return findByStatus(JobStatus.CLAIMED)
+                .filter(j -> Objects.isNull(j.getLastUpdate()) || j.getLastUpdate().isBefore(claimedBefore))
+                .map(j -> withStatus(j, JobStatus.SCHEDULED))
+                .toList()
+                .run()
+                .thenCompose(jobs -> jobs.isEmpty()
+                        ? CompletableFuture.completedFuture(0L)
+                        : doSaveAll(jobs).thenApply(saved -> (long) saved.size()));
+    }
+
+    /**
+     * Default claims refresh, it is not atomic: each job is read and saved again if it is still claimed. Storages
+     * supporting conditional updates should override it.
+     */
+    @Override
+    public CompletionStage<Long> refreshClaims(List<String> ids) {
+        CompletionStage<Long> result = CompletableFuture.completedFuture(0L);
+        for (String id : ids) {
+            result = result.thenCompose(count -> get(id)
+                    .thenCompose(job -> isClaimed(job)
+                            ? doSave(withStatus(job, JobStatus.CLAIMED)).thenApply(j -> count + 1)
+                            : CompletableFuture.completedFuture(count)));
+        }
+        return result;
+    }
+
+    @Override
+    public CompletionStage<JobDetails> saveIfNotClaimed(JobDetails job) {
+        return doSaveIfNotClaimed(job)
+                .thenApply(saved -> Objects.isNull(saved) ? null : jobStreams.publishJobStatusChange(saved));
+    }
+
+    /**
+     * Default conditional save, it is not atomic: the job is read and then saved if it is not claimed. Storages
+     * supporting conditional updates should override it.
+     */
+    public CompletionStage<JobDetails> doSaveIfNotClaimed(JobDetails job) {
+        return get(job.getId())
+                .thenCompose(current -> isClaimed(current) ? CompletableFuture.completedFuture(null) : doSave(job));
+    }
+
+    protected static boolean isClaimed(JobDetails job) {
+        return Objects.nonNull(job) && JobStatus.CLAIMED.equals(job.getStatus());
+    }
+
+    protected static JobDetails withStatus(JobDetails job, JobStatus status) {
+        return JobDetails.builder().of(job).status(status).lastUpdate(DateUtil.now()).build();
+    }
+
+    /**
+     * Keeps only the last of the given jobs with the same id, in the order of their first occurrence.
+     */
+    protected static List<JobDetails> lastById(List<JobDetails> jobs) {
+        return new ArrayList<>(jobs.stream()
+                .collect(Collectors.toMap(JobDetails::getId, Function.identity(), (first, last) -> last, LinkedHashMap::new))
+                .values());
+    }
+
+    private CompletionStage<JobDetails> enqueueSave(JobDetails job) {
+        final PendingSave pending = new PendingSave(job);
+        List<PendingSave> toFlush = null;
+        synchronized (saveBatchLock) {
+            pendingSaves.add(pending);
+            if (pendingSaves.size() >= saveBatchSize) {
+                toFlush = pendingSaves;
+                pendingSaves = new ArrayList<>();
+            } else if (!saveBatchFlushScheduled) {
+                saveBatchFlushScheduled = true;
+                vertx.setTimer(saveBatchWindowMillis, id -> flushPendingSaves());
+            }
+        }
+        if (toFlush != null) {
+            flushSaves(toFlush);
+        }
+        return pending.future;
+    }
+
+    private void flushPendingSaves() {
+        final List<PendingSave> toFlush;
+        synchronized (saveBatchLock) {
+            saveBatchFlushScheduled = false;
+            toFlush = pendingSaves;
+            pendingSaves = new ArrayList<>();
+        }
+        if (!toFlush.isEmpty()) {
+            flushSaves(toFlush);
+        }
+    }
+
+    private void flushSaves(List<PendingSave> batch) {
+        //only the last save of each job is written, a single multi-row write must not touch the same job twice
+        final Map<String, JobDetails> lastSaves = new LinkedHashMap<>();
+        batch.forEach(p -> lastSaves.put(p.job.getId(), p.job));
+        LOGGER.debug("Saving a batch of {} jobs coalesced from {} saves", lastSaves.size(), batch.size());
+        doSaveAll(new ArrayList<>(lastSaves.values()))
+                .whenComplete((saved, error) -> {
+                    if (error != null) {
+                        batch.forEach(p -> p.future.completeExceptionally(error));
+                        return;
+                    }
+                    final Map<String, JobDetails> savedById = saved.stream()
+                            .collect(Collectors.toMap(JobDetails::getId, Function.identity(), (first, last) -> last));
+                    //the superseded saves complete with the job as it was finally stored
+                    batch.forEach(p -> p.future.complete(savedById.getOrDefault(p.job.getId(), lastSaves.get(p.job.getId()))));
+                });
+    }
+
     @Override
     public CompletionStage<JobDetails> merge(String id, JobDetails jobToMerge) {
         return Optional.ofNullable(id)
@@ -90,4 +319,33 @@ public abstract class BaseReactiveJobRepository implements ReactiveJobRepository
                 .merge(toMerge)
                 .build();
     }
+
+    private static class KeysetCursor {
+
+        private ZonedDateTime fireTime;
+        private String id;
+
+        KeysetCursor(ZonedDateTime from) {
+            this.fireTime = from;
+        }
+
+        List<JobDetails> advance(List<JobDetails> page) {
+            if (!page.isEmpty()) {
+                final JobDetails last = page.get(page.size() - 1);
+                fireTime = DateUtil.fromDate(last.getTrigger().hasNextFireTime());
+                id = last.getId();
+            }
+            return page;
+        }
+    }
+
+    private static class PendingSave {
+
+        private final JobDetails job;
+        private final CompletableFuture<JobDetails> future = new CompletableFuture<>();
+
+        PendingSave(JobDetails job) {
+            this.job = job;
+        }
+    }
 }
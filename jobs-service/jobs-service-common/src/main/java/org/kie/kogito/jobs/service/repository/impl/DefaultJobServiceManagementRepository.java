@@ -15,8 +15,13 @@
  */
 package org.kie.kogito.jobs.service.repository.impl;
 
-import java.util.concurrent.atomic.AtomicReference;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.enterprise.context.ApplicationScoped;
 
@@ -31,22 +36,58 @@ import io.smallrye.mutiny.Uni;
 @ApplicationScoped
 public class DefaultJobServiceManagementRepository implements JobServiceManagementRepository {
 
-    private AtomicReference<JobServiceManagementInfo> instance = new AtomicReference<>(new JobServiceManagementInfo(null, null, null));
+    private final Map<String, JobServiceManagementInfo> instances = new HashMap<>();
 
     @Override
-    public Uni<JobServiceManagementInfo> getAndUpdate(String id, Function<JobServiceManagementInfo, JobServiceManagementInfo> computeUpdate) {
-        return set(computeUpdate.apply(instance.get()));
+    public synchronized Uni<JobServiceManagementInfo> getAndUpdate(String id, Function<JobServiceManagementInfo, JobServiceManagementInfo> computeUpdate) {
+        final JobServiceManagementInfo updated = computeUpdate.apply(instances.get(id));
+        if (Objects.isNull(updated)) {
+            return Uni.createFrom().nullItem();
+        }
+        return set(updated);
     }
 
     @Override
-    public Uni<JobServiceManagementInfo> set(JobServiceManagementInfo info) {
-        instance.set(info);
-        return Uni.createFrom().item(instance.get());
+    public synchronized Uni<JobServiceManagementInfo> set(JobServiceManagementInfo info) {
+        instances.put(info.getId(), copy(info));
+        return Uni.createFrom().item(info);
     }
 
     @Override
-    public Uni<JobServiceManagementInfo> heartbeat(JobServiceManagementInfo info) {
+    public synchronized Uni<JobServiceManagementInfo> heartbeat(JobServiceManagementInfo info) {
+        final JobServiceManagementInfo current = instances.get(info.getId());
+        if (Objects.isNull(current) || !Objects.equals(current.getToken(), info.getToken())) {
+            return Uni.createFrom().nullItem();
+        }
         info.setLastHeartbeat(DateUtil.now().toOffsetDateTime());
         return set(info);
     }
+
+    @Override
+    public synchronized Uni<JobServiceManagementInfo> tryAcquire(String id, String token, OffsetDateTime expiredBefore) {
+        final JobServiceManagementInfo current = instances.get(id);
+        if (Objects.nonNull(current) && Objects.nonNull(current.getToken()) && !Objects.equals(current.getToken(), token)
+                && Objects.nonNull(current.getLastHeartbeat()) && !current.getLastHeartbeat().isBefore(expiredBefore)) {
+            return Uni.createFrom().nullItem();
+        }
+        return set(new JobServiceManagementInfo(id, token, DateUtil.now().toOffsetDateTime()));
+    }
+
+    @Override
+    public synchronized Uni<List<JobServiceManagementInfo>> findByIdPrefix(String prefix) {
+        return Uni.createFrom().item(instances.values().stream()
+                .filter(i -> Objects.nonNull(i.getId()) && i.getId().startsWith(prefix))
+                .map(DefaultJobServiceManagementRepository::copy)
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public synchronized Uni<Void> delete(String id) {
+        instances.remove(id);
+        return Uni.createFrom().voidItem();
+    }
+
+    private static JobServiceManagementInfo copy(JobServiceManagementInfo info) {
+        return new JobServiceManagementInfo(info.getId(), info.getToken(), info.getLastHeartbeat());
+    }
 }
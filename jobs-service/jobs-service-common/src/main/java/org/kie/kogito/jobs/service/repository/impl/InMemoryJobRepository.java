@@ -15,13 +15,22 @@
  */
 package org.kie.kogito.jobs.service.repository.impl;
 
+import java.time.Instant;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -34,31 +43,50 @@ import org.kie.kogito.jobs.service.model.JobDetails;
 import org.kie.kogito.jobs.service.model.JobStatus;
 import org.kie.kogito.jobs.service.repository.ReactiveJobRepository;
 import org.kie.kogito.jobs.service.stream.JobStreams;
-import org.kie.kogito.jobs.service.utils.DateUtil;
 
 import io.quarkus.arc.DefaultBean;
 import io.vertx.core.Vertx;
 
+/**
+ * In-memory repository, the default one, used for instance by the embedded Job Service.
+ * <p>
+ * Besides the jobs by id, the jobs are indexed by status and fire time, ordered by {@code (fireTime, id)}, so the
+ * periodic loading of the due jobs only touches the requested time window instead of filtering and sorting all the
+ * stored jobs. As in the database based repositories, the fire time is indexed when the job is saved.
+ */
 @DefaultBean
 @ApplicationScoped
 public class InMemoryJobRepository extends BaseReactiveJobRepository implements ReactiveJobRepository {
 
     private final Map<String, JobDetails> jobMap = new ConcurrentHashMap<>();
 
+    //index entry of each job with a fire time, kept to unindex the job even if its trigger was changed in place
+    private final Map<String, IndexKey> indexKeys = new ConcurrentHashMap<>();
+
+    private final Map<JobStatus, NavigableMap<IndexKey, JobDetails>> statusIndex = new EnumMap<>(JobStatus.class);
+
+    private final NavigableMap<IndexKey, JobDetails> noStatusIndex = new ConcurrentSkipListMap<>();
+
     public InMemoryJobRepository() {
-        super(null, null);
+        this(null, null);
     }
 
     @Inject
     public InMemoryJobRepository(Vertx vertx, JobStreams jobStreams) {
         super(vertx, jobStreams);
+        Stream.of(JobStatus.values()).forEach(s -> statusIndex.put(s, new ConcurrentSkipListMap<>()));
     }
 
     @Override
     public CompletionStage<JobDetails> doSave(JobDetails job) {
+        return runAsync(() -> put(job));
+    }
+
+    @Override
+    public CompletionStage<List<JobDetails>> doSaveAll(List<JobDetails> jobs) {
         return runAsync(() -> {
-            jobMap.put(job.getId(), job);
-            return job;
+            jobs.forEach(this::put);
+            return jobs;
         });
     }
 
@@ -74,7 +102,12 @@ public class InMemoryJobRepository extends BaseReactiveJobRepository implements
 
     @Override
     public CompletionStage<JobDetails> delete(String key) {
-        return runAsync(() -> jobMap.remove(key));
+        return runAsync(() -> remove(key));
+    }
+
+    @Override
+    public CompletionStage<Long> doDeleteAll(List<String> keys) {
+        return runAsync(() -> keys.stream().map(this::remove).filter(Objects::nonNull).count());
     }
 
     @Override
@@ -84,14 +117,187 @@ public class InMemoryJobRepository extends BaseReactiveJobRepository implements
 
     @Override
     public PublisherBuilder<JobDetails> findByStatusBetweenDatesOrderByPriority(ZonedDateTime from, ZonedDateTime to, JobStatus... status) {
+        //jobs without status match any status, and no status filter matches any job
+        final Stream<NavigableMap<IndexKey, JobDetails>> indexes = Stream.concat(Stream.of(noStatusIndex),
+                Stream.of(Optional.ofNullable(status).orElse(JobStatus.values())).distinct().map(statusIndex::get));
+        //the fire time must be strictly between the dates
+        final IndexKey lower = new IndexKey(from.toInstant().toEpochMilli() + 1, "");
+        final IndexKey upper = new IndexKey(ceilMillis(to.toInstant()), "");
         return ReactiveStreams.fromIterable(
-                jobMap.values()
-                        .stream()
-                        .filter(j -> Optional.ofNullable(j.getStatus())
-                                .filter(s -> Objects.nonNull(status))
-                                .map(s -> Stream.of(status).anyMatch(s::equals)).orElse(true))
-                        .filter(j -> DateUtil.fromDate(j.getTrigger().hasNextFireTime()).isAfter(from) && DateUtil.fromDate(j.getTrigger().hasNextFireTime()).isBefore(to))
+                indexes.flatMap(index -> index.subMap(lower, true, upper, false).values().stream())
                         .sorted(Comparator.comparing(JobDetails::getPriority).reversed())
                         .collect(Collectors.toList()));
     }
+
+    @Override
+    public CompletionStage<List<JobDetails>> findPageByStatusBetweenDatesOrderByFireTime(ZonedDateTime afterFireTime, String afterId,
+            ZonedDateTime to, int pageSize, JobStatus... status) {
+        final IndexKey after = new IndexKey(afterFireTime.toInstant().toEpochMilli(), Optional.ofNullable(afterId).orElse(""));
+        final IndexKey until = new IndexKey(to.toInstant().toEpochMilli() + 1, "");
+        return runAsync(() -> {
+            //every index is ordered, so at most one page is taken from each one before merging them
+            final List<IndexKey> page = new ArrayList<>();
+            Stream.of(status).distinct().map(statusIndex::get)
+                    .forEach(index -> index.subMap(after, afterId == null, until, false).keySet().stream()
+                            .limit(pageSize)
+                            .forEach(page::add));
+            return page.stream()
+                    .sorted()
+                    .limit(pageSize)
+                    .map(k -> statusIndex.get(k.status).get(k))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    @Override
+    public CompletionStage<List<JobDetails>> claim(ZonedDateTime from, ZonedDateTime to, int limit) {
+        return findPageByStatusBetweenDatesOrderByFireTime(from, null, to, limit, JobStatus.SCHEDULED)
+                //compare and set, a job concurrently claimed or updated in the meantime is skipped
+                .thenApply(jobs -> jobs.stream()
+                        .map(job -> {
+                            JobDetails claimed = withStatus(job, JobStatus.CLAIMED);
+                            return replace(job, claimed) ? claimed : null;
+                        })
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()));
+    }
+
+    @Override
+    public CompletionStage<Long> releaseExpiredClaims(ZonedDateTime claimedBefore) {
+        //claimed jobs always have a fire time, so they are all in the status index
+        return runAsync(() -> new ArrayList<>(statusIndex.get(JobStatus.CLAIMED).values())
+                .stream()
+                .filter(j -> Objects.isNull(j.getLastUpdate()) || j.getLastUpdate().isBefore(claimedBefore))
+                .filter(j -> replace(j, withStatus(j, JobStatus.SCHEDULED)))
+                .count());
+    }
+
+    @Override
+    public CompletionStage<Long> refreshClaims(List<String> ids) {
+        return runAsync(() -> ids.stream()
+                .map(jobMap::get)
+                .filter(BaseReactiveJobRepository::isClaimed)
+                .filter(j -> replace(j, withStatus(j, JobStatus.CLAIMED)))
+                .count());
+    }
+
+    @Override
+    public CompletionStage<JobDetails> doSaveIfNotClaimed(JobDetails job) {
+        return runAsync(() -> {
+            final AtomicBoolean saved = new AtomicBoolean(false);
+            jobMap.compute(job.getId(), (id, current) -> {
+                if (isClaimed(current)) {
+                    return current;
+                }
+                unindex(id);
+                index(job);
+                saved.set(true);
+                return job;
+            });
+            return saved.get() ? job : null;
+        });
+    }
+
+    private JobDetails put(JobDetails job) {
+        jobMap.compute(job.getId(), (id, current) -> {
+            unindex(id);
+            index(job);
+            return job;
+        });
+        return job;
+    }
+
+    private JobDetails remove(String id) {
+        final AtomicReference<JobDetails> removed = new AtomicReference<>();
+        jobMap.computeIfPresent(id, (k, current) -> {
+            unindex(k);
+            removed.set(current);
+            return null;
+        });
+        return removed.get();
+    }
+
+    private boolean replace(JobDetails expected, JobDetails update) {
+        final AtomicBoolean replaced = new AtomicBoolean(false);
+        jobMap.computeIfPresent(expected.getId(), (id, current) -> {
+            if (!current.equals(expected)) {
+                return current;
+            }
+            unindex(id);
+            index(update);
+            replaced.set(true);
+            return update;
+        });
+        return replaced.get();
+    }
+
+    //called within the jobMap compute of the job id, so the index changes of a given job are serialized
+    private void index(JobDetails job) {
+        if (Objects.isNull(job.getTrigger()) || Objects.isNull(job.getTrigger().hasNextFireTime())) {
+            return;
+        }
+        final IndexKey key = new IndexKey(job.getTrigger().hasNextFireTime().getTime(), job.getId(), job.getStatus());
+        indexKeys.put(job.getId(), key);
+        index(key.status).put(key, job);
+    }
+
+    private void unindex(String id) {
+        final IndexKey key = indexKeys.remove(id);
+        if (Objects.nonNull(key)) {
+            index(key.status).remove(key);
+        }
+    }
+
+    private NavigableMap<IndexKey, JobDetails> index(JobStatus status) {
+        return Objects.isNull(status) ? noStatusIndex : statusIndex.get(status);
+    }
+
+    private static long ceilMillis(Instant instant) {
+        final long millis = instant.toEpochMilli();
+        return instant.getNano() % TimeUnit.MILLISECONDS.toNanos(1) == 0 ? millis : millis + 1;
+    }
+
+    /**
+     * Position of a job in the fire time indexes, the status is not part of the ordering.
+     */
+    private static class IndexKey implements Comparable<IndexKey> {
+
+        private final long fireTime;
+        private final String id;
+        private final JobStatus status;
+
+        IndexKey(long fireTime, String id) {
+            this(fireTime, id, null);
+        }
+
+        IndexKey(long fireTime, String id, JobStatus status) {
+            this.fireTime = fireTime;
+            this.id = id;
+            this.status = status;
+        }
+
+        @Override
+        public int compareTo(IndexKey other) {
+            final int compare = Long.compare(fireTime, other.fireTime);
+            return compare != 0 ? compare : id.compareTo(other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof IndexKey)) {
+                return false;
+            }
+            IndexKey that = (IndexKey) o;
+            return fireTime == that.fireTime && id.equals(that.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fireTime, id);
+        }
+    }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs.service.repository.marshaller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.kie.kogito.jobs.service.model.Recipient;
+import org.kie.kogito.jobs.service.model.RecipientInstance;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.vertx.core.json.jackson.DatabindCodec;
+
+/**
+ * Binary alternative to the {@link RecipientMarshaller}. The recipients are user defined types, so they are still
+ * written with Jackson, but straight to bytes and back, skipping the intermediate {@code JsonObject} tree and the class
+ * type entry mixed in the recipient properties.
+ * <p>
+ * Format (version 1): {@code version:byte, classTypeLength:short, classType:UTF-8, recipient:JSON}.
+ * <p>
+ * The class type comes from the stored data, so it is only resolved to subtypes of
+ * {@link org.kie.kogito.jobs.service.api.Recipient}, without initializing the class, any other type is rejected.
+ */
+@ApplicationScoped
+public class BinaryRecipientMarshaller implements Marshaller<Recipient, byte[]> {
+
+    static final byte VERSION = 1;
+
+    //recipient types already resolved, by class name
+    private final Map<String, Class<? extends org.kie.kogito.jobs.service.api.Recipient>> recipientTypes = new ConcurrentHashMap<>();
+
+    @Override
+    public byte[] marshall(Recipient recipient) {
+        if (Objects.isNull(recipient) || Objects.isNull(recipient.getRecipient())) {
+            return null;
+        }
+        try {
+            final byte[] classType = recipient.getRecipient().getClass().getName().getBytes(StandardCharsets.UTF_8);
+            final byte[] json = mapper().writeValueAsBytes(recipient.getRecipient());
+            return ByteBuffer.allocate(1 + Short.BYTES + classType.length + json.length)
+                    .put(VERSION)
+                    .putShort((short) classType.length)
+                    .put(classType)
+                    .put(json)
+                    .array();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Recipient unmarshall(byte[] value) {
+        if (Objects.isNull(value) || value.length == 0) {
+            return null;
+        }
+        final ByteBuffer in = ByteBuffer.wrap(value);
+        final byte version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported recipient binary format version " + version);
+        }
+        final int classTypeLength = in.getShort();
+        final String classType = new String(value, in.position(), classTypeLength, StandardCharsets.UTF_8);
+        final int offset = in.position() + classTypeLength;
+        final Class<? extends org.kie.kogito.jobs.service.api.Recipient> recipientType =
+                recipientTypes.computeIfAbsent(classType, BinaryRecipientMarshaller::recipientType);
+        try {
+            return new RecipientInstance(mapper().readValue(value, offset, value.length - offset, recipientType));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Class<? extends org.kie.kogito.jobs.service.api.Recipient> recipientType(String classType) {
+        try {
+            return Class.forName(classType, false, BinaryRecipientMarshaller.class.getClassLoader())
+                    .asSubclass(org.kie.kogito.jobs.service.api.Recipient.class);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IllegalArgumentException("Unsupported recipient type " + classType, e);
+        }
+    }
+
+    private static ObjectMapper mapper() {
+        //the same mapper used by JsonObject.mapFrom/mapTo in the RecipientMarshaller
+        return DatabindCodec.mapper();
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs.service.repository.marshaller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Objects;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.kie.kogito.timer.Trigger;
+import org.kie.kogito.timer.impl.IntervalTrigger;
+import org.kie.kogito.timer.impl.PointInTimeTrigger;
+import org.kie.kogito.timer.impl.SimpleTimerTrigger;
+
+/**
+ * Compact binary alternative to the {@link TriggerMarshaller}, the triggers are written field by field without any
+ * intermediate JSON tree.
+ * <p>
+ * Format (version 1): {@code version:byte, type:byte} followed by the fields of the trigger type in a fixed order,
+ * nullable values are prefixed with a presence flag and strings are written as length prefixed UTF-8.
+ */
+@ApplicationScoped
+public class BinaryTriggerMarshaller implements Marshaller<Trigger, byte[]> {
+
+    static final byte VERSION = 1;
+
+    static final byte POINT_IN_TIME = 1;
+    static final byte INTERVAL = 2;
+    static final byte SIMPLE_TIMER = 3;
+
+    @Override
+    public byte[] marshall(Trigger trigger) {
+        if (Objects.isNull(trigger)) {
+            return null;
+        }
+        try (ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+                DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            if (trigger instanceof SimpleTimerTrigger) {
+                writeSimpleTimerTrigger(out, (SimpleTimerTrigger) trigger);
+            } else if (trigger instanceof IntervalTrigger) {
+                writeIntervalTrigger(out, (IntervalTrigger) trigger);
+            } else if (trigger instanceof PointInTimeTrigger) {
+                out.writeByte(POINT_IN_TIME);
+                writeDate(out, trigger.hasNextFireTime());
+            } else {
+                return null;
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Trigger unmarshall(byte[] value) {
+        if (Objects.isNull(value) || value.length == 0) {
+            return null;
+        }
+        final ByteBuffer in = ByteBuffer.wrap(value);
+        final byte version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported trigger binary format version " + version);
+        }
+        final byte type = in.get();
+        switch (type) {
+            case POINT_IN_TIME:
+                final Date nextFireTime = readDate(in);
+                return Objects.nonNull(nextFireTime) ? new PointInTimeTrigger(nextFireTime.getTime(), null, null) : null;
+            case INTERVAL:
+                return readIntervalTrigger(in);
+            case SIMPLE_TIMER:
+                return readSimpleTimerTrigger(in);
+            default:
+                return null;
+        }
+    }
+
+    private static void writeIntervalTrigger(DataOutputStream out, IntervalTrigger trigger) throws IOException {
+        out.writeByte(INTERVAL);
+        writeDate(out, trigger.getStartTime());
+        writeDate(out, trigger.getEndTime());
+        out.writeInt(trigger.getRepeatLimit());
+        out.writeInt(trigger.getRepeatCount());
+        writeDate(out, trigger.getNextFireTime());
+        out.writeLong(trigger.getPeriod());
+    }
+
+    private static IntervalTrigger readIntervalTrigger(ByteBuffer in) {
+        IntervalTrigger trigger = new IntervalTrigger();
+        trigger.setStartTime(readDate(in));
+        trigger.setEndTime(readDate(in));
+        trigger.setRepeatLimit(in.getInt());
+        trigger.setRepeatCount(in.getInt());
+        trigger.setNextFireTime(readDate(in));
+        trigger.setPeriod(in.getLong());
+        return trigger;
+    }
+
+    private static void writeSimpleTimerTrigger(DataOutputStream out, SimpleTimerTrigger trigger) throws IOException {
+        out.writeByte(SIMPLE_TIMER);
+        writeDate(out, trigger.getStartTime());
+        out.writeLong(trigger.getPeriod());
+        writeString(out, Objects.nonNull(trigger.getPeriodUnit()) ? trigger.getPeriodUnit().name() : null);
+        out.writeInt(trigger.getRepeatCount());
+        writeDate(out, trigger.getEndTime());
+        writeString(out, trigger.getZoneId());
+        writeDate(out, trigger.getNextFireTime());
+        out.writeInt(trigger.getCurrentRepeatCount());
+        out.writeBoolean(trigger.isEndTimeReached());
+    }
+
+    private static SimpleTimerTrigger readSimpleTimerTrigger(ByteBuffer in) {
+        SimpleTimerTrigger trigger = new SimpleTimerTrigger();
+        trigger.setStartTime(readDate(in));
+        trigger.setPeriod(in.getLong());
+        final String periodUnit = readString(in);
+        trigger.setPeriodUnit(Objects.nonNull(periodUnit) ? ChronoUnit.valueOf(periodUnit) : null);
+        trigger.setRepeatCount(in.getInt());
+        trigger.setEndTime(readDate(in));
+        trigger.setZoneId(readString(in));
+        trigger.setNextFireTime(readDate(in));
+        trigger.setCurrentRepeatCount(in.getInt());
+        trigger.setEndTimeReached(in.get() != 0);
+        return trigger;
+    }
+
+    private static void writeDate(DataOutputStream out, Date date) throws IOException {
+        out.writeBoolean(Objects.nonNull(date));
+        if (Objects.nonNull(date)) {
+            out.writeLong(date.getTime());
+        }
+    }
+
+    private static Date readDate(ByteBuffer in) {
+        return in.get() != 0 ? new Date(in.getLong()) : null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(Objects.nonNull(value));
+        if (Objects.nonNull(value)) {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        if (in.get() == 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
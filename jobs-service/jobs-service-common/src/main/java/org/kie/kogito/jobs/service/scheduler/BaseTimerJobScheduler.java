@@ -30,6 +30,8 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
 import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
 import org.kie.kogito.jobs.service.exception.InvalidScheduleTimeException;
+import org.kie.kogito.jobs.service.exception.JobClaimedException;
+import org.kie.kogito.jobs.service.metrics.JobServiceMetrics;
 import org.kie.kogito.jobs.service.model.JobDetails;
 import org.kie.kogito.jobs.service.model.JobExecutionResponse;
 import org.kie.kogito.jobs.service.model.JobStatus;
@@ -69,10 +71,18 @@ public abstract class BaseTimerJobScheduler implements ReactiveJobScheduler {
      */
     long schedulerChunkInMinutes;
 
+    /**
+     * Flag to fire the due jobs straight from the repository, claiming them in batches, instead of keeping them in the
+     * in-memory scheduler. In this case scheduling a job is just persisting it.
+     */
+    boolean fireFromStore;
+
     private ReactiveJobRepository jobRepository;
 
     private final Map<String, ZonedDateTime> schedulerControl;
 
+    private JobServiceMetrics metrics = JobServiceMetrics.noop();
+
     protected BaseTimerJobScheduler() {
         this(null, 0, 0, 0, null);
     }
@@ -93,23 +103,48 @@ public abstract class BaseTimerJobScheduler implements ReactiveJobScheduler {
     @Override
     public Publisher<JobDetails> schedule(JobDetails job) {
         LOGGER.debug("Scheduling {}", job);
+        if (fireFromStore) {
+            //the job is claimed and fired from the repository once it is due, a claimed job is being fired and it is
+            //not put back to be claimed again
+            return ReactiveStreams.of(job)
+                    .peek(this::validateExpirationTime)
+                    .flatMapCompletionStage(j -> jobRepository.saveIfNotClaimed(jobWithStatus(j, JobStatus.SCHEDULED))
+                            .thenApply(Optional::ofNullable))
+                    .map(saved -> saved.orElseThrow(() -> new JobClaimedException(job.getId())))
+                    .buildRs();
+        }
         return ReactiveStreams
                 //check if the job is already scheduled and persisted
                 .fromCompletionStage(jobRepository.exists(job.getId()))
                 .flatMap(exists -> Boolean.TRUE.equals(exists)
                         ? handleExistingJob(job).map(existingJob -> Pair.of(exists, existingJob))
                         : ReactiveStreams.of(Pair.of(exists, job)))
-                .flatMap(pair -> isOnCurrentSchedulerChunk(job)
-                        //in case the job is on the current bulk, proceed with scheduling process
-                        ? doJobScheduling(job, pair.getLeft())
+                .flatMap(pair -> {
+                    if (!isOnCurrentSchedulerChunk(job)) {
                         //in case the job is not on the current bulk, just save it to be scheduled later
-                        : ReactiveStreams.fromCompletionStage(jobRepository.save(jobWithStatus(job, JobStatus.SCHEDULED))))
+                        return ReactiveStreams.fromCompletionStage(jobRepository.save(jobWithStatus(job, JobStatus.SCHEDULED)));
+                    }
+                    if (!isOwned(job)) {
+                        //the job belongs to a shard owned by another instance, save it and let the owner schedule it
+                        return ReactiveStreams.fromCompletionStage(jobRepository.save(jobWithStatus(job, JobStatus.SCHEDULED)))
+                                .flatMapCompletionStage(this::notifyOwner);
+                    }
+                    //in case the job is on the current bulk, proceed with scheduling process
+                    return doJobScheduling(job, pair.getLeft());
+                })
                 .buildRs();
     }
 
     @Override
     public PublisherBuilder<JobDetails> reschedule(String id, Trigger trigger) {
-        return ReactiveStreams.fromCompletionStageNullable(jobRepository.merge(id, JobDetails.builder().trigger(trigger).build()))
+        return ReactiveStreams.fromCompletionStageNullable(jobRepository.get(id))
+                //a claimed job is being fired from the repository, it cannot be updated until its execution is handled
+                .peek(existing -> {
+                    if (JobStatus.CLAIMED.equals(existing.getStatus())) {
+                        throw new JobClaimedException(id);
+                    }
+                })
+                .flatMap(existing -> ReactiveStreams.fromCompletionStageNullable(jobRepository.merge(id, JobDetails.builder().trigger(trigger).build())))
                 .peek(this::doCancel)
                 .map(this::schedule)
                 .flatMapRsPublisher(j -> j);
@@ -132,18 +167,25 @@ public abstract class BaseTimerJobScheduler implements ReactiveJobScheduler {
     private PublisherBuilder<JobDetails> doJobScheduling(JobDetails job, boolean exists) {
         return ReactiveStreams.of(job)
                 //calculate the delay (when the job should be executed)
-                .map(current -> job.getTrigger().hasNextFireTime())
-                .map(DateUtil::fromDate)
-                .map(this::calculateDelay)
-                .peek(delay -> Optional
-                        .of(delay.isNegative())
-                        .filter(Boolean.FALSE::equals)
-                        .orElseThrow(() -> new InvalidScheduleTimeException("The expirationTime should be greater than current " +
-                                "time")))
+                .peek(this::validateExpirationTime)
+                .flatMap(current -> fireFromStore
+                        //the next execution of a periodic job is claimed from the repository as well
+                        ? ReactiveStreams.fromCompletionStage(jobRepository.save(jobWithStatus(job, JobStatus.SCHEDULED)))
+                        : doTimerScheduling(job, exists));
+    }
+
+    private void validateExpirationTime(JobDetails job) {
+        Optional.of(calculateDelay(DateUtil.fromDate(job.getTrigger().hasNextFireTime())).isNegative())
+                .filter(Boolean.FALSE::equals)
+                .orElseThrow(() -> new InvalidScheduleTimeException("The expirationTime should be greater than current time"));
+    }
+
+    private PublisherBuilder<JobDetails> doTimerScheduling(JobDetails job, boolean exists) {
+        return ReactiveStreams.of(job)
                 // new jobs in current bulk must be stored in the repository before we proceed to schedule, the same as
                 // way as we do with new jobs that aren't. In this way we provide the same pattern for both cases.
                 // https://issues.redhat.com/browse/KOGITO-8513
-                .flatMap(delay -> !exists
+                .flatMap(current -> !exists
                         ? ReactiveStreams.fromCompletionStage(jobRepository.save(jobWithStatus(job, JobStatus.SCHEDULED)))
                         : ReactiveStreams.fromCompletionStage(CompletableFuture.completedFuture(job)))
                 //schedule the job on the scheduler
@@ -162,6 +204,22 @@ public abstract class BaseTimerJobScheduler implements ReactiveJobScheduler {
         return DateUtil.fromDate(job.getTrigger().hasNextFireTime()).isBefore(DateUtil.now().plusMinutes(schedulerChunkInMinutes));
     }
 
+    /**
+     * Check if the job should be scheduled by the current instance, in the partitioned mode only the jobs of the owned
+     * shards are scheduled in memory.
+     */
+    protected boolean isOwned(JobDetails job) {
+        return true;
+    }
+
+    /**
+     * Called once a job of the current chunk that is not owned by the current instance was persisted, so the owner of
+     * its shard can schedule it before its next periodic load.
+     */
+    protected CompletionStage<JobDetails> notifyOwner(JobDetails job) {
+        return CompletableFuture.completedFuture(job);
+    }
+
     private PublisherBuilder<JobDetails> handleExistingJob(JobDetails job) {
         //always returns true, canceling in case the job is already schedule
         return ReactiveStreams.fromCompletionStage(jobRepository.get(job.getId()))
@@ -266,6 +324,7 @@ public abstract class BaseTimerJobScheduler implements ReactiveJobScheduler {
                                 .build())
                         .map(jobRepository::save)
                         .flatMapCompletionStage(p -> p))
+                .peek(job -> metrics.incrementRetries())
                 .peek(job -> LOGGER.debug("Retry executed {}", job));
     }
 
@@ -281,6 +340,7 @@ public abstract class BaseTimerJobScheduler implements ReactiveJobScheduler {
                         .delete(j)
                         .thenApply(deleted -> {
                             unregisterScheduledJob(j);
+                            metrics.incrementErrors();
                             LOGGER.warn("Retry limit exceeded for job{}", j);
                             return j;
                         }))
@@ -299,7 +359,11 @@ public abstract class BaseTimerJobScheduler implements ReactiveJobScheduler {
     public abstract PublisherBuilder<ManageableJobHandle> doSchedule(JobDetails job, Optional<Trigger> trigger);
 
     private ZonedDateTime unregisterScheduledJob(JobDetails job) {
-        return schedulerControl.remove(job.getId());
+        return unregisterScheduledJob(job.getId());
+    }
+
+    protected ZonedDateTime unregisterScheduledJob(String jobId) {
+        return schedulerControl.remove(jobId);
     }
 
     public CompletionStage<JobDetails> cancel(CompletionStage<JobDetails> futureJob) {
@@ -335,4 +399,21 @@ public abstract class BaseTimerJobScheduler implements ReactiveJobScheduler {
     public void setForceExecuteExpiredJobs(boolean forceExecuteExpiredJobs) {
         this.forceExecuteExpiredJobs = Optional.of(forceExecuteExpiredJobs);
     }
+
+    public void setFireFromStore(boolean fireFromStore) {
+        this.fireFromStore = fireFromStore;
+    }
+
+    public boolean isFireFromStore() {
+        return fireFromStore;
+    }
+
+    public void setMetrics(JobServiceMetrics metrics) {
+        this.metrics = metrics;
+        metrics.registerScheduledJobs(schedulerControl);
+    }
+
+    protected JobServiceMetrics getMetrics() {
+        return metrics;
+    }
 }
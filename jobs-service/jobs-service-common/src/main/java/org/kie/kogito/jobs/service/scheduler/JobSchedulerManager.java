@@ -15,9 +15,13 @@
  */
 package org.kie.kogito.jobs.service.scheduler;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.Priority;
 import javax.enterprise.context.ApplicationScoped;
@@ -27,7 +31,12 @@ import javax.interceptor.Interceptor;
 
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
+import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
+import org.kie.kogito.jobs.service.management.JobServiceShardManager;
 import org.kie.kogito.jobs.service.management.MessagingChangeEvent;
+import org.kie.kogito.jobs.service.management.ShardAssignmentChangeEvent;
+import org.kie.kogito.jobs.service.management.ShardJobScheduledEvent;
+import org.kie.kogito.jobs.service.metrics.JobServiceMetrics;
 import org.kie.kogito.jobs.service.model.JobDetails;
 import org.kie.kogito.jobs.service.model.JobStatus;
 import org.kie.kogito.jobs.service.repository.ReactiveJobRepository;
@@ -65,16 +74,58 @@ public class JobSchedulerManager {
     @ConfigProperty(name = "kogito.jobs-service.loadJobFromCurrentTimeIntervalInMinutes")
     long loadJobFromCurrentTimeIntervalInMinutes;
 
+    /**
+     * The number of jobs fetched from the repository at a time while loading the current chunk, the next page is
+     * only fetched once the jobs of the previous one were scheduled.
+     */
+    @ConfigProperty(name = "kogito.jobs-service.loadJobPageSize", defaultValue = "1000")
+    int loadJobPageSize;
+
+    /**
+     * Fire the due jobs straight from the repository instead of keeping the jobs of the current chunk in the in-memory
+     * scheduler, the due jobs are claimed in batches every {@link #claimIntervalMillis}.
+     */
+    @ConfigProperty(name = "kogito.jobs-service.fireFromStore", defaultValue = "false")
+    boolean fireFromStore;
+
+    @ConfigProperty(name = "kogito.jobs-service.claimIntervalMillis", defaultValue = "1000")
+    long claimIntervalMillis;
+
+    @ConfigProperty(name = "kogito.jobs-service.claimBatchSize", defaultValue = "100")
+    int claimBatchSize;
+
+    /**
+     * The time after which a claimed job whose claim was not refreshed, e.g. the instance firing it went down, is released
+     * to be claimed again. The instance firing a job refreshes its claim every third of this time.
+     */
+    @ConfigProperty(name = "kogito.jobs-service.claimTimeoutInMinutes", defaultValue = "5")
+    long claimTimeoutInMinutes;
+
+    /**
+     * The time after which the claim of a job whose execution was not handled yet stops being refreshed, so it is
+     * released and fired again once {@link #claimTimeoutInMinutes} elapses.
+     */
+    @ConfigProperty(name = "kogito.jobs-service.claimExecutionTimeoutInMinutes", defaultValue = "30")
+    long claimExecutionTimeoutInMinutes;
+
     @Inject
     TimerDelegateJobScheduler scheduler;
 
     @Inject
     ReactiveJobRepository repository;
 
+    @Inject
+    JobServiceShardManager shardManager;
+
+    @Inject
+    JobServiceMetrics metrics;
+
     @Inject
     Vertx vertx;
     private AtomicBoolean enabled = new AtomicBoolean(false);
 
+    private final AtomicBoolean claiming = new AtomicBoolean(false);
+
     void onStartup(@Observes @Priority(Interceptor.Priority.PLATFORM_AFTER) StartupEvent startupEvent) {
         if (loadJobIntervalInMinutes > schedulerChunkInMinutes) {
             LOGGER.warn("The loadJobIntervalInMinutes ({}) cannot be greater than schedulerChunkInMinutes ({}), " +
@@ -89,23 +140,60 @@ public class JobSchedulerManager {
         vertx.runOnContext(this::loadJobDetails);
         //periodic execution
         vertx.setPeriodic(TimeUnit.MINUTES.toMillis(loadJobIntervalInMinutes), id -> loadJobDetails());
+        if (fireFromStore) {
+            vertx.setPeriodic(claimIntervalMillis, id -> claimDueJobs());
+            vertx.setPeriodic(Math.max(1, TimeUnit.MINUTES.toMillis(claimTimeoutInMinutes) / 3), id -> refreshClaims());
+        }
     }
 
     protected void onMessagingStatusChange(@Observes MessagingChangeEvent event) {
         this.enabled.set(event.isEnabled());
     }
 
+    protected void onShardAssignmentChange(@Observes ShardAssignmentChangeEvent event) {
+        //the jobs of the newly acquired shards are loaded right away, the ones of the lost shards are skipped on firing
+        if (!event.getAcquired().isEmpty()) {
+            vertx.runOnContext(this::loadJobDetails);
+        }
+    }
+
+    protected void onShardJobScheduled(@Observes ShardJobScheduledEvent event) {
+        //a job of the current chunk was persisted through an instance that does not own its shard
+        vertx.runOnContext(() -> scheduleNotifiedJob(event.getJobId()));
+    }
+
+    void scheduleNotifiedJob(String jobId) {
+        if (!enabled.get() || fireFromStore || !shardManager.isOwned(jobId) || scheduler.scheduled(jobId).isPresent()) {
+            return;
+        }
+        ReactiveStreams.fromCompletionStageNullable(repository.get(jobId))
+                .filter(j -> JobStatus.SCHEDULED.equals(j.getStatus()))
+                .flatMapRsPublisher(j -> ErrorHandling.skipErrorPublisher(scheduler::schedule, j))
+                .forEach(j -> LOGGER.debug("Scheduled notified job {}", j))
+                .run()
+                .whenComplete((v, t) -> Optional.ofNullable(t)
+                        .ifPresent(ex -> LOGGER.error("Error scheduling notified job {}", jobId, ex)));
+    }
+
     //Runs periodically loading the jobs from the repository in chunks
     void loadJobDetails() {
         if (!enabled.get()) {
             LOGGER.info("Skip loading scheduled jobs");
             return;
         }
+        if (fireFromStore) {
+            releaseExpiredClaims();
+        }
+        final long start = System.nanoTime();
+        final AtomicLong loaded = new AtomicLong();
         loadJobsInCurrentChunk()
+                .peek(j -> loaded.incrementAndGet())
+                .filter(j -> shardManager.isOwned(j.getId()))//only the jobs of the shards owned by this instance
                 .filter(j -> !scheduler.scheduled(j.getId()).isPresent())//not consider already scheduled jobs
                 .flatMapRsPublisher(t -> ErrorHandling.skipErrorPublisher(scheduler::schedule, t))
                 .forEach(a -> LOGGER.debug("Loaded and scheduled job {}", a))
                 .run()
+                .whenComplete((v, t) -> metrics.recordChunkLoad(start, loaded.get()))
                 .whenComplete((v, t) -> Optional.ofNullable(t)
                         .map(ex -> {
                             LOGGER.error("Error Loading scheduled jobs!", ex);
@@ -118,8 +206,62 @@ public class JobSchedulerManager {
     }
 
     private PublisherBuilder<JobDetails> loadJobsInCurrentChunk() {
-        return repository.findByStatusBetweenDatesOrderByPriority(DateUtil.now().minusMinutes(loadJobFromCurrentTimeIntervalInMinutes),
+        return repository.findByStatusBetweenDatesOrderByFireTime(DateUtil.now().minusMinutes(loadJobFromCurrentTimeIntervalInMinutes),
                 DateUtil.now().plusMinutes(schedulerChunkInMinutes),
-                JobStatus.SCHEDULED, JobStatus.RETRY);
+                loadJobPageSize,
+                //when firing from the store only the retries are kept in the in-memory scheduler
+                fireFromStore ? new JobStatus[] { JobStatus.RETRY } : new JobStatus[] { JobStatus.SCHEDULED, JobStatus.RETRY });
+    }
+
+    //Runs periodically claiming and firing the due jobs from the repository, one statement per batch
+    void claimDueJobs() {
+        if (!enabled.get() || !claiming.compareAndSet(false, true)) {
+            return;
+        }
+        claimNextBatch()
+                .whenComplete((count, ex) -> {
+                    claiming.set(false);
+                    if (ex != null) {
+                        LOGGER.error("Error claiming due jobs!", ex);
+                    } else if (count > 0) {
+                        LOGGER.debug("Claimed and fired {} jobs", count);
+                    }
+                });
+    }
+
+    private CompletionStage<Integer> claimNextBatch() {
+        return repository.claim(DateUtil.now().minusMinutes(loadJobFromCurrentTimeIntervalInMinutes), DateUtil.now(), claimBatchSize)
+                .thenCompose(jobs -> {
+                    jobs.forEach(this::fire);
+                    //a full batch means there might be more due jobs
+                    return jobs.size() < claimBatchSize
+                            ? CompletableFuture.completedFuture(jobs.size())
+                            : claimNextBatch().thenApply(count -> count + jobs.size());
+                });
+    }
+
+    private void fire(JobDetails job) {
+        try {
+            scheduler.fire(job);
+        } catch (Exception e) {
+            LOGGER.error("Error firing claimed job {}", job.getId(), e);
+        }
+    }
+
+    //Runs periodically refreshing the claims of the jobs this instance is firing, so they are not released meanwhile
+    void refreshClaims() {
+        final List<String> ids = scheduler.firingClaims(DateUtil.now().minusMinutes(claimExecutionTimeoutInMinutes));
+        if (ids.isEmpty()) {
+            return;
+        }
+        repository.refreshClaims(ids)
+                .whenComplete((count, ex) -> Optional.ofNullable(ex)
+                        .ifPresent(e -> LOGGER.error("Error refreshing claims!", e)));
+    }
+
+    private void releaseExpiredClaims() {
+        repository.releaseExpiredClaims(DateUtil.now().minusMinutes(claimTimeoutInMinutes))
+                .whenComplete((count, ex) -> Optional.ofNullable(ex)
+                        .ifPresent(e -> LOGGER.error("Error releasing expired claims!", e)));
     }
 }
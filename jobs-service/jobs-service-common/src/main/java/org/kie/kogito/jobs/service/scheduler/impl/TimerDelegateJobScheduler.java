@@ -15,9 +15,14 @@
  */
 package org.kie.kogito.jobs.service.scheduler.impl;
 
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -29,6 +34,10 @@ import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
 import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
 import org.kie.kogito.jobs.service.executor.JobExecutorResolver;
 import org.kie.kogito.jobs.service.job.DelegateJob;
+import org.kie.kogito.jobs.service.job.ShardAwareJob;
+import org.kie.kogito.jobs.service.management.JobServiceShardManager;
+import org.kie.kogito.jobs.service.management.JobServiceShardNotifier;
+import org.kie.kogito.jobs.service.metrics.JobServiceMetrics;
 import org.kie.kogito.jobs.service.model.JobDetails;
 import org.kie.kogito.jobs.service.model.JobDetailsContext;
 import org.kie.kogito.jobs.service.model.JobExecutionResponse;
@@ -37,7 +46,9 @@ import org.kie.kogito.jobs.service.repository.ReactiveJobRepository;
 import org.kie.kogito.jobs.service.scheduler.BaseTimerJobScheduler;
 import org.kie.kogito.jobs.service.stream.AvailableStreams;
 import org.kie.kogito.jobs.service.stream.JobStreams;
+import org.kie.kogito.jobs.service.utils.DateUtil;
 import org.kie.kogito.jobs.service.utils.ErrorHandling;
+import org.kie.kogito.timer.Job;
 import org.kie.kogito.timer.Trigger;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
@@ -57,6 +68,14 @@ public class TimerDelegateJobScheduler extends BaseTimerJobScheduler {
 
     private JobStreams jobStreams;
 
+    private ReactiveJobRepository jobRepository;
+
+    private JobServiceShardManager shardManager;
+
+    private JobServiceShardNotifier shardNotifier;
+
+    private final Map<String, ZonedDateTime> firingClaims = new ConcurrentHashMap<>();
+
     protected TimerDelegateJobScheduler() {
     }
 
@@ -66,12 +85,34 @@ public class TimerDelegateJobScheduler extends BaseTimerJobScheduler {
             @ConfigProperty(name = "kogito.jobs-service.maxIntervalLimitToRetryMillis") long maxIntervalLimitToRetryMillis,
             @ConfigProperty(name = "kogito.jobs-service.schedulerChunkInMinutes") long schedulerChunkInMinutes,
             @ConfigProperty(name = "kogito.jobs-service.forceExecuteExpiredJobs") boolean forceExecuteExpiredJobs,
+            @ConfigProperty(name = "kogito.jobs-service.fireFromStore", defaultValue = "false") boolean fireFromStore,
             JobExecutorResolver jobExecutorResolver, VertxTimerServiceScheduler delegate,
-            JobStreams jobStreams) {
+            JobStreams jobStreams, JobServiceShardManager shardManager, JobServiceShardNotifier shardNotifier,
+            JobServiceMetrics metrics) {
         super(jobRepository, backoffRetryMillis, maxIntervalLimitToRetryMillis, schedulerChunkInMinutes, forceExecuteExpiredJobs);
         this.jobExecutorResolver = jobExecutorResolver;
         this.delegate = delegate;
         this.jobStreams = jobStreams;
+        this.jobRepository = jobRepository;
+        this.shardManager = shardManager;
+        this.shardNotifier = shardNotifier;
+        setFireFromStore(fireFromStore);
+        setMetrics(metrics);
+    }
+
+    @Override
+    protected boolean isOwned(JobDetails job) {
+        return shardManager.isOwned(job.getId());
+    }
+
+    @Override
+    protected CompletionStage<JobDetails> notifyOwner(JobDetails job) {
+        return shardNotifier.notifyScheduled(job.getId())
+                //not fatal, the owner schedules the job on its next periodic load anyway
+                .onFailure().invoke(e -> LOGGER.warn("Error notifying the owner of the job {}", job.getId(), e))
+                .onFailure().recoverWithNull()
+                .replaceWith(job)
+                .subscribeAsCompletionStage();
     }
 
     @Override
@@ -79,8 +120,37 @@ public class TimerDelegateJobScheduler extends BaseTimerJobScheduler {
         LOGGER.debug("Job Scheduling {}", job);
         return ReactiveStreams
                 .of(job)
-                .map(j -> delegate.scheduleJob(new DelegateJob(jobExecutorResolver, jobStreams), new JobDetailsContext(j),
-                        trigger.orElse(j.getTrigger())));
+                .map(j -> {
+                    final Trigger effectiveTrigger = trigger.orElse(j.getTrigger());
+                    return delegate.scheduleJob(createJob(effectiveTrigger), new JobDetailsContext(j), effectiveTrigger);
+                });
+    }
+
+    /**
+     * Fires a job claimed from the repository right away, the claim already guarantees it is fired by one instance.
+     */
+    public void fire(JobDetails job) {
+        LOGGER.debug("Firing claimed job {}", job);
+        firingClaims.put(job.getId(), DateUtil.now());
+        new DelegateJob(jobExecutorResolver, jobStreams, getMetrics(), job.getTrigger().hasNextFireTime()).execute(new JobDetailsContext(job));
+    }
+
+    /**
+     * The ids of the claimed jobs this instance is firing, their claims are refreshed until the execution is handled.
+     * The executions started before the given date are considered lost and their claims are left to expire.
+     */
+    public List<String> firingClaims(ZonedDateTime startedAfter) {
+        firingClaims.values().removeIf(started -> started.isBefore(startedAfter));
+        return new ArrayList<>(firingClaims.keySet());
+    }
+
+    private Job<JobDetailsContext> createJob(Trigger trigger) {
+        final DelegateJob job = new DelegateJob(jobExecutorResolver, jobStreams, getMetrics(), trigger.hasNextFireTime());
+        if (!shardManager.isEnabled()) {
+            return job;
+        }
+        //the shards might be reassigned and the job cancelled through another instance after it was scheduled
+        return new ShardAwareJob(job, shardManager, jobRepository, this::unregisterScheduledJob);
     }
 
     @Override
@@ -89,6 +159,8 @@ public class TimerDelegateJobScheduler extends BaseTimerJobScheduler {
                 .of(scheduledJob)
                 .map(JobDetails::getScheduledId)
                 .filter(Objects::nonNull)
+                //in the partitioned mode the job might have been scheduled by another instance
+                .filter(scheduledId -> !shardManager.isEnabled() || scheduled(scheduledJob.getId()).isPresent())
                 .map(scheduledId -> {
                     ManageableJobHandle handle = new ManageableJobHandle(scheduledId);
                     handle.setCancel(delegate.removeJob(handle));
@@ -106,6 +178,7 @@ public class TimerDelegateJobScheduler extends BaseTimerJobScheduler {
         return ErrorHandling.skipErrorPublisherBuilder(this::handleJobExecutionError, response)
                 .findFirst()
                 .run()
+                .whenComplete((r, t) -> firingClaims.remove(response.getJobId()))
                 .thenApply(Optional::isPresent)
                 .exceptionally(e -> {
                     LOGGER.error("Error handling error {}", response, e);
@@ -120,6 +193,7 @@ public class TimerDelegateJobScheduler extends BaseTimerJobScheduler {
         return ErrorHandling.skipErrorPublisherBuilder(this::handleJobExecutionSuccess, response)
                 .findFirst()
                 .run()
+                .whenComplete((r, t) -> firingClaims.remove(response.getJobId()))
                 .thenApply(Optional::isPresent)
                 .exceptionally(e -> {
                     LOGGER.error("Error handling error {}", response, e);
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs.service.scheduler.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.kie.kogito.jobs.service.model.ManageableJobHandle;
+import org.kie.kogito.jobs.service.utils.DateUtil;
+import org.kie.kogito.timer.Trigger;
+import org.kie.kogito.timer.impl.TimerJobInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.quarkus.arc.AlternativePriority;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.vertx.mutiny.core.Vertx;
+
+/**
+ * {@link VertxTimerServiceScheduler} that keeps the scheduled jobs in a hierarchical timing wheel instead of creating
+ * one Vert.x timer per job. A single Vert.x periodic timer ticks every {@code kogito.jobs-service.timingWheel.tickMillis} and sweeps the due slot
+ * of the lowest level, cascading the entries of the upper levels down as time advances.
+ * <p>
+ * Enabled with {@code kogito.jobs-service.timerService=timing-wheel}.
+ */
+@AlternativePriority(1)
+@ApplicationScoped
+@IfBuildProperty(name = "kogito.jobs-service.timerService", stringValue = "timing-wheel")
+public class TimingWheelTimerServiceScheduler extends VertxTimerServiceScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimingWheelTimerServiceScheduler.class);
+
+    private final long tickMillis;
+
+    private final int wheelSize;
+
+    private final Bucket[][] wheels;
+
+    private final long[] spans;
+
+    private final Map<Long, TimerEntry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong idGenerator = new AtomicLong();
+
+    private long currentTick;
+
+    private Long periodicId;
+
+    @Inject
+    public TimingWheelTimerServiceScheduler(Vertx vertx,
+            @ConfigProperty(name = "kogito.jobs-service.timingWheel.tickMillis", defaultValue = "10") long tickMillis,
+            @ConfigProperty(name = "kogito.jobs-service.timingWheel.wheelSize", defaultValue = "512") int wheelSize,
+            @ConfigProperty(name = "kogito.jobs-service.timingWheel.levels", defaultValue = "3") int levels) {
+        super(vertx);
+        if (tickMillis <= 0 || wheelSize <= 1 || levels <= 0) {
+            throw new IllegalArgumentException("Invalid timing wheel configuration: tickMillis=" + tickMillis +
+                    ", wheelSize=" + wheelSize + ", levels=" + levels);
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.wheels = new Bucket[levels][wheelSize];
+        for (Bucket[] wheel : wheels) {
+            for (int i = 0; i < wheelSize; i++) {
+                wheel[i] = new Bucket();
+            }
+        }
+        this.spans = new long[levels + 1];
+        spans[0] = 1;
+        for (int i = 1; i <= levels; i++) {
+            spans[i] = Math.multiplyExact(spans[i - 1], wheelSize);
+        }
+        this.currentTick = toTick(getCurrentTime());
+    }
+
+    @Override
+    public void internalSchedule(TimerJobInstance timerJobInstance) {
+        final Trigger trigger = timerJobInstance.getTrigger();
+        if (trigger.hasNextFireTime() == null) {
+            return;
+        }
+        final ManageableJobHandle handle = (ManageableJobHandle) timerJobInstance.getJobHandle();
+        final long expirationTick = Math.floorDiv(trigger.hasNextFireTime().getTime() + tickMillis - 1, tickMillis);
+        final TimerEntry entry = new TimerEntry(idGenerator.incrementAndGet(), expirationTick, timerJobInstance);
+        handle.setId(entry.id);
+        handle.setScheduledTime(DateUtil.now());
+        entries.put(entry.id, entry);
+        boolean due;
+        synchronized (this) {
+            due = !insert(entry);
+            startTicking();
+        }
+        if (due) {
+            vertx.runOnContext(() -> fire(entry));
+        }
+    }
+
+    @Override
+    public boolean removeJob(ManageableJobHandle jobHandle) {
+        final TimerEntry entry = entries.remove(jobHandle.getId());
+        if (entry == null) {
+            return false;
+        }
+        synchronized (this) {
+            entry.unlink();
+        }
+        return true;
+    }
+
+    @Override
+    public void shutdown() {
+        synchronized (this) {
+            if (periodicId != null) {
+                vertx.cancelTimer(periodicId);
+                periodicId = null;
+            }
+        }
+        super.shutdown();
+    }
+
+    /**
+     * Number of jobs currently waiting in the wheel.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void startTicking() {
+        if (periodicId == null) {
+            periodicId = vertx.setPeriodic(tickMillis, id -> advance(toTick(getCurrentTime())));
+        }
+    }
+
+    /**
+     * Moves the wheel up to the given tick, firing every entry that became due in the meantime.
+     */
+    void advance(long targetTick) {
+        final List<TimerEntry> due = new ArrayList<>();
+        synchronized (this) {
+            while (currentTick < targetTick) {
+                currentTick++;
+                for (int level = wheels.length - 1; level >= 0; level--) {
+                    //upper levels first, so re-inserted entries land in lower slots that are still going to be swept
+                    if (currentTick % span(level) == 0) {
+                        sweep(level, due);
+                    }
+                }
+            }
+        }
+        due.forEach(this::fire);
+    }
+
+    private void sweep(int level, List<TimerEntry> due) {
+        final List<TimerEntry> swept = new ArrayList<>();
+        wheels[level][slot(currentTick, level)].drainTo(swept);
+        swept.stream().filter(e -> !insert(e)).forEach(due::add);
+    }
+
+    /**
+     * Places the entry in the wheel level that covers its expiration.
+     *
+     * @return false if the entry is already due and must be fired right away.
+     */
+    private boolean insert(TimerEntry entry) {
+        final long delta = entry.expirationTick - currentTick;
+        if (delta <= 0) {
+            return false;
+        }
+        for (int level = 0; level < wheels.length; level++) {
+            if (delta < span(level + 1)) {
+                wheels[level][slot(entry.expirationTick, level)].add(entry);
+                return true;
+            }
+        }
+        //beyond the wheel range, park it in the last slot to be swept of the top level, it is re-inserted on cascade
+        final int top = wheels.length - 1;
+        wheels[top][slot(currentTick - span(top), top)].add(entry);
+        return true;
+    }
+
+    private void fire(TimerEntry entry) {
+        if (entries.remove(entry.id) == null) {
+            //cancelled in the meantime
+            return;
+        }
+        try {
+            entry.jobInstance.getJob().execute(entry.jobInstance.getJobContext());
+        } catch (Exception e) {
+            LOGGER.error("Error executing timer {}", entry.id, e);
+        }
+    }
+
+    private long span(int level) {
+        return spans[level];
+    }
+
+    private int slot(long tick, int level) {
+        return (int) Math.floorMod(tick / span(level), (long) wheelSize);
+    }
+
+    private long toTick(long timeMillis) {
+        return Math.floorDiv(timeMillis, tickMillis);
+    }
+
+    private static class Bucket {
+
+        private TimerEntry head;
+
+        void add(TimerEntry entry) {
+            entry.bucket = this;
+            entry.prev = null;
+            entry.next = head;
+            if (head != null) {
+                head.prev = entry;
+            }
+            head = entry;
+        }
+
+        void drainTo(List<TimerEntry> target) {
+            TimerEntry entry = head;
+            head = null;
+            while (entry != null) {
+                final TimerEntry next = entry.next;
+                entry.bucket = null;
+                entry.prev = null;
+                entry.next = null;
+                target.add(entry);
+                entry = next;
+            }
+        }
+    }
+
+    private static class TimerEntry {
+
+        private final long id;
+        private final long expirationTick;
+        private final TimerJobInstance jobInstance;
+        private Bucket bucket;
+        private TimerEntry prev;
+        private TimerEntry next;
+
+        TimerEntry(long id, long expirationTick, TimerJobInstance jobInstance) {
+            this.id = id;
+            this.expirationTick = expirationTick;
+            this.jobInstance = jobInstance;
+        }
+
+        void unlink() {
+            if (bucket == null) {
+                return;
+            }
+            if (prev != null) {
+                prev.next = next;
+            } else {
+                bucket.head = next;
+            }
+            if (next != null) {
+                next.prev = prev;
+            }
+            bucket = null;
+            prev = null;
+            next = null;
+        }
+    }
+}
@@ -16,9 +16,17 @@
 
 package org.kie.kogito.jobs.service.stream;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.reactive.messaging.Emitter;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.kie.kogito.jobs.service.adapter.ScheduledJobAdapter;
@@ -31,6 +39,7 @@ import org.slf4j.LoggerFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.smallrye.reactive.messaging.providers.locals.ContextAwareMessage;
+import io.vertx.core.Vertx;
 
 public abstract class AbstractJobStreams {
 
@@ -44,6 +53,24 @@ public abstract class AbstractJobStreams {
 
     protected String url;
 
+    /**
+     * Max number of status changes buffered before they are published, 1 disables the batching and every status
+     * change is published right away.
+     */
+    private int batchSize = 1;
+
+    /**
+     * Max time in millis a status change waits in the buffer before it is published.
+     */
+    private long batchWindowMillis;
+
+    private Vertx vertx;
+
+    //latest status change of every job waiting to be published, successive changes of the same job are collapsed
+    private Map<String, JobDetails> pending = new LinkedHashMap<>();
+
+    private boolean flushScheduled;
+
     protected AbstractJobStreams() {
     }
 
@@ -54,22 +81,71 @@ public abstract class AbstractJobStreams {
         this.url = url;
     }
 
+    @Inject
+    public void configureBatching(@ConfigProperty(name = "kogito.jobs-service.events.batchSize", defaultValue = "1") int batchSize,
+            @ConfigProperty(name = "kogito.jobs-service.events.batchWindowMillis", defaultValue = "100") long batchWindowMillis,
+            Vertx vertx) {
+        this.batchSize = Math.max(1, batchSize);
+        this.batchWindowMillis = Math.max(1, batchWindowMillis);
+        this.vertx = vertx;
+    }
+
     protected void jobStatusChange(JobDetails job) {
-        if (enabled) {
-            try {
-                JobDataEvent event = JobDataEvent
-                        .builder()
-                        .source(url + RestApiConstants.JOBS_PATH)
-                        .data(ScheduledJobAdapter.of(job))//this should support jobs crated with V1 and V2
-                        .build();
-                String json = objectMapper.writeValueAsString(event);
-                emitter.send(decorate(ContextAwareMessage.of(json)
-                        .withAck(() -> onAck(job))
-                        .withNack(reason -> onNack(reason, job))));
-            } catch (Exception e) {
-                String msg = String.format("An unexpected error was produced while processing a Job status change for the job: %s", job);
-                LOGGER.error(msg, e);
-            }
+        if (enabled && batchSize > 1) {
+            enqueue(job);
+        } else if (enabled) {
+            publish(job);
+        }
+    }
+
+    private JobDataEvent toEvent(JobDetails job) {
+        return JobDataEvent
+                .builder()
+                .source(url + RestApiConstants.JOBS_PATH)
+                .data(ScheduledJobAdapter.of(job))//this should support jobs crated with V1 and V2
+                .build();
+    }
+
+    private synchronized void enqueue(JobDetails job) {
+        pending.put(job.getId(), job);
+        if (pending.size() >= batchSize) {
+            publishPending();
+        } else if (!flushScheduled) {
+            flushScheduled = true;
+            vertx.setTimer(batchWindowMillis, id -> flush());
+        }
+    }
+
+    /**
+     * Publishes the buffered status changes right away.
+     */
+    @PreDestroy
+    public synchronized void flush() {
+        flushScheduled = false;
+        publishPending();
+    }
+
+    //called holding the lock, so the batches reach the emitter in the same order they were drained
+    private void publishPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        final List<JobDetails> jobs = new ArrayList<>(pending.values());
+        pending = new LinkedHashMap<>();
+        LOGGER.debug("Publishing a batch of {} job status changes", jobs.size());
+        jobs.forEach(this::publish);
+    }
+
+    private void publish(JobDetails job) {
+        try {
+            JobDataEvent event = toEvent(job);
+            String json = objectMapper.writeValueAsString(event);
+            emitter.send(decorate(ContextAwareMessage.of(json)
+                    .withAck(() -> onAck(job))
+                    .withNack(reason -> onNack(reason, job))));
+        } catch (Exception e) {
+            String msg = String.format("An unexpected error was produced while processing a Job status change for the job: %s", job);
+            LOGGER.error(msg, e);
         }
     }
 
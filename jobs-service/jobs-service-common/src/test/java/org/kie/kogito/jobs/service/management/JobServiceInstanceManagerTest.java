@@ -117,7 +117,7 @@ public class JobServiceInstanceManagerTest {
     @Test
     void tryBecomeLeaderFail() {
         JobServiceManagementInfo info = new JobServiceManagementInfo("id", "token", OffsetDateTime.now());
-        JobServiceManagementInfo info2 = new JobServiceManagementInfo("id2", "token2", OffsetDateTime.now());
+        JobServiceManagementInfo info2 = new JobServiceManagementInfo("id", "token2", OffsetDateTime.now());
         repository.set(info).await().indefinitely();
         ArgumentCaptor<Function<JobServiceManagementInfo, JobServiceManagementInfo>> updateFunction = ArgumentCaptor.forClass(Function.class);
 
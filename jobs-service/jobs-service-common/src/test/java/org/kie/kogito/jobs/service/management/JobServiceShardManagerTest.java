@@ -0,0 +1,156 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs.service.management;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.enterprise.event.Event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.jobs.service.repository.JobServiceManagementRepository;
+import org.kie.kogito.jobs.service.repository.impl.DefaultJobServiceManagementRepository;
+import org.kie.kogito.jobs.service.utils.DateUtil;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.given;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class JobServiceShardManagerTest {
+
+    private static final int SHARDS = 16;
+
+    private JobServiceManagementRepository repository;
+
+    private JobServiceShardManager instance1;
+
+    private JobServiceShardManager instance2;
+
+    private JobServiceShardManager instance3;
+
+    @BeforeEach
+    void setUp() {
+        repository = new DefaultJobServiceManagementRepository();
+        instance1 = create();
+        instance2 = create();
+        instance3 = create();
+    }
+
+    @Test
+    void testFairAndDisjointAssignment() {
+        rebalance(instance1, instance2, instance3);
+
+        assertAssignment(instance1, instance2, instance3);
+        //no instance owns more than its fair share, ceil(shards / instances)
+        Arrays.asList(instance1, instance2, instance3)
+                .forEach(i -> assertThat(i.getOwnedShards().size()).isLessThanOrEqualTo((SHARDS + 2) / 3));
+        verify(instance1.shardAssignmentChangeEvent, atLeastOnce()).fire(any(ShardAssignmentChangeEvent.class));
+    }
+
+    @Test
+    void testTakeOverShardsOfExpiredInstance() {
+        rebalance(instance1, instance2, instance3);
+        Set<Integer> shardsOfInstance3 = new HashSet<>(instance3.getOwnedShards());
+        assertThat(shardsOfInstance3).isNotEmpty();
+
+        //instance3 stops heartbeating, its leases are taken over once expired
+        given().await()
+                .atMost(5, TimeUnit.SECONDS)
+                .pollInterval(200, TimeUnit.MILLISECONDS)
+                .untilAsserted(() -> {
+                    rebalance(instance1, instance2);
+                    assertAssignment(instance1, instance2);
+                });
+        assertThat(instance1.getOwnedShards()).hasSize(SHARDS / 2);
+        assertThat(instance2.getOwnedShards()).hasSize(SHARDS / 2);
+    }
+
+    @Test
+    void testReleaseShards() {
+        rebalance(instance1, instance2);
+        instance2.release().await().indefinitely();
+        assertThat(instance2.getOwnedShards()).isEmpty();
+
+        rebalance(instance1);
+        assertAssignment(instance1);
+    }
+
+    @Test
+    void testLeaseOfALiveInstanceIsNotTaken() {
+        rebalance(instance1);
+        String shardId = "test-shard-0";
+        OffsetDateTime expiration = DateUtil.now().minusSeconds(1).toOffsetDateTime();
+
+        //instance2 decided the shard was free on a stale view, the atomic acquire refuses it
+        assertThat(repository.tryAcquire(shardId, instance2.getToken(), expiration).await().indefinitely()).isNull();
+        assertThat(repository.tryAcquire(shardId, instance1.getToken(), expiration).await().indefinitely()).isNotNull();
+    }
+
+    @Test
+    void testIsOwned() {
+        rebalance(instance1, instance2);
+        String jobId = "job-id";
+        int shard = JobServiceShardManager.shardOf(jobId, SHARDS);
+        assertThat(instance1.isOwned(jobId)).isEqualTo(instance1.getOwnedShards().contains(shard));
+        assertThat(instance2.isOwned(jobId)).isEqualTo(instance2.getOwnedShards().contains(shard));
+        assertThat(instance1.isOwned(jobId)).isNotEqualTo(instance2.isOwned(jobId));
+    }
+
+    @Test
+    void testIsOwnedDisabled() {
+        JobServiceShardManager disabled = create();
+        disabled.enabled = false;
+        assertThat(disabled.isOwned("job-id")).isTrue();
+    }
+
+    private void rebalance(JobServiceShardManager... instances) {
+        //a few rounds so every instance observes the others and the assignment converges
+        IntStream.range(0, 4).forEach(round -> Arrays.stream(instances).forEach(i -> i.rebalance().await().indefinitely()));
+    }
+
+    private void assertAssignment(JobServiceShardManager... instances) {
+        List<Integer> owned = Arrays.stream(instances)
+                .flatMap(i -> i.getOwnedShards().stream())
+                .collect(Collectors.toList());
+        //every shard is owned by exactly one instance
+        assertThat(owned).doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(IntStream.range(0, SHARDS).boxed().collect(Collectors.toList()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private JobServiceShardManager create() {
+        JobServiceShardManager manager = new JobServiceShardManager();
+        manager.enabled = true;
+        manager.shards = SHARDS;
+        manager.heartBeatIntervalInSeconds = 1;
+        manager.heartbeatExpirationInSeconds = 1;
+        manager.managementId = "test";
+        manager.repository = repository;
+        manager.messagingChangeEvent = mock(Event.class);
+        manager.shardAssignmentChangeEvent = mock(Event.class);
+        return manager;
+    }
+}
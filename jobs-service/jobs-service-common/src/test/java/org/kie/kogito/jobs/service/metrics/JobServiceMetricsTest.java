@@ -0,0 +1,177 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs.service.metrics;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kie.kogito.job.recipient.common.http.HTTPRequestExecutor;
+import org.kie.kogito.job.recipient.common.http.HTTPRequestExecutorConfig;
+import org.kie.kogito.job.recipient.common.http.HostRequestLimiter;
+import org.kie.kogito.jobs.service.api.recipient.http.HttpRecipient;
+import org.kie.kogito.jobs.service.executor.JobExecutor;
+import org.kie.kogito.jobs.service.executor.JobExecutorResolver;
+import org.kie.kogito.jobs.service.job.DelegateJob;
+import org.kie.kogito.jobs.service.model.JobDetails;
+import org.kie.kogito.jobs.service.model.JobDetailsContext;
+import org.kie.kogito.jobs.service.model.JobExecutionResponse;
+import org.kie.kogito.jobs.service.model.JobStatus;
+import org.kie.kogito.jobs.service.repository.ReactiveJobRepository;
+import org.kie.kogito.jobs.service.stream.JobStreams;
+import org.kie.kogito.jobs.service.utils.DateUtil;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.given;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class JobServiceMetricsTest {
+
+    private static final String JOB_ID = "JOB_ID";
+
+    private SimpleMeterRegistry registry;
+
+    private JobServiceMetrics tested;
+
+    @Mock
+    private JobExecutorResolver jobExecutorResolver;
+
+    @Mock
+    private JobExecutor jobExecutor;
+
+    @Mock
+    private JobStreams jobStreams;
+
+    @Mock
+    private ReactiveJobRepository repository;
+
+    @Mock
+    private HTTPRequestExecutor<?> httpRequestExecutor;
+
+    @Captor
+    private ArgumentCaptor<Consumer<HostRequestLimiter>> hostListenerCaptor;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        tested = new JobServiceMetrics(registry);
+    }
+
+    @Test
+    void testDelegateJobExecution() {
+        JobDetails job = JobDetails.builder().id(JOB_ID).build();
+        doReturn(jobExecutor).when(jobExecutorResolver).get(job);
+        doReturn(HttpRecipient.class).when(jobExecutor).type();
+        doReturn(Uni.createFrom().item(JobExecutionResponse.builder().jobId(JOB_ID).build())).when(jobExecutor).execute(job);
+
+        Date expectedFireTime = Date.from(DateUtil.now().minusSeconds(2).toInstant());
+        new DelegateJob(jobExecutorResolver, jobStreams, tested, expectedFireTime).execute(new JobDetailsContext(job));
+
+        given().await()
+                .atMost(2, TimeUnit.SECONDS)
+                .untilAsserted(() -> verify(jobStreams).publishJobSuccess(any()));
+        assertThat(registry.get(JobServiceMetrics.FIRE_LAG).timer().count()).isEqualTo(1);
+        assertThat(registry.get(JobServiceMetrics.FIRE_LAG).timer().totalTime(TimeUnit.SECONDS)).isGreaterThanOrEqualTo(2);
+        assertThat(registry.get(JobServiceMetrics.EXECUTION)
+                .tag(JobServiceMetrics.RECIPIENT_TAG, HttpRecipient.class.getSimpleName())
+                .tag(JobServiceMetrics.OUTCOME_TAG, JobServiceMetrics.SUCCESS)
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testNoopIsShared() {
+        assertThat(JobServiceMetrics.noop()).isSameAs(JobServiceMetrics.noop());
+    }
+
+    @Test
+    void testRetriesAndErrors() {
+        tested.incrementRetries();
+        tested.incrementRetries();
+        tested.incrementErrors();
+        assertThat(registry.get(JobServiceMetrics.RETRIES).counter().count()).isEqualTo(2);
+        assertThat(registry.get(JobServiceMetrics.ERRORS).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testChunkLoadAndScheduledJobs() {
+        tested.recordChunkLoad(System.nanoTime(), 10);
+        assertThat(registry.get(JobServiceMetrics.CHUNK_LOAD).timer().count()).isEqualTo(1);
+        assertThat(registry.get(JobServiceMetrics.CHUNK_LOAD_JOBS).counter().count()).isEqualTo(10);
+
+        Map<String, Object> schedulerControl = new HashMap<>();
+        tested.registerScheduledJobs(schedulerControl);
+        schedulerControl.put(JOB_ID, DateUtil.now());
+        assertThat(registry.get(JobServiceMetrics.SCHEDULED_JOBS).gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void testRepositoryLatencies() {
+        MeteredJobRepository metered = new MeteredJobRepository();
+        metered.delegate = repository;
+        metered.metrics = tested;
+        JobDetails job = JobDetails.builder().id(JOB_ID).build();
+        doReturn(CompletableFuture.completedFuture(job)).when(repository).get(JOB_ID);
+        doReturn(ReactiveStreams.of(job)).when(repository).findByStatus(JobStatus.SCHEDULED);
+
+        assertThat(metered.get(JOB_ID).toCompletableFuture().join()).isEqualTo(job);
+        assertThat(metered.findByStatus(JobStatus.SCHEDULED).toList().run().toCompletableFuture().join()).containsExactly(job);
+
+        assertThat(registry.get(JobServiceMetrics.REPOSITORY)
+                .tag(JobServiceMetrics.METHOD_TAG, "get")
+                .tag(JobServiceMetrics.OUTCOME_TAG, JobServiceMetrics.SUCCESS)
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.get(JobServiceMetrics.REPOSITORY)
+                .tag(JobServiceMetrics.METHOD_TAG, "findByStatus")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testHttpRequestExecutorMetrics() {
+        tested.bindHttpRequestExecutor(HttpRecipient.class.getSimpleName(), httpRequestExecutor);
+        verify(httpRequestExecutor).addHostListener(hostListenerCaptor.capture());
+        HostRequestLimiter limiter = new HostRequestLimiter("localhost:8080", null, HTTPRequestExecutorConfig.builder().build());
+        hostListenerCaptor.getValue().accept(limiter);
+
+        assertThat(registry.get(JobServiceMetrics.HTTP_IN_FLIGHT).tag(JobServiceMetrics.HOST_TAG, "localhost:8080").gauge().value()).isZero();
+        assertThat(registry.get(JobServiceMetrics.HTTP_QUEUED).tag(JobServiceMetrics.HOST_TAG, "localhost:8080").gauge().value()).isZero();
+        assertThat(registry.get(JobServiceMetrics.HTTP_CIRCUIT_OPEN).tag(JobServiceMetrics.HOST_TAG, "localhost:8080").gauge().value()).isZero();
+        assertThat(registry.get(JobServiceMetrics.HTTP_REJECTED).tag(JobServiceMetrics.HOST_TAG, "localhost:8080").functionCounter().count()).isZero();
+    }
+
+    @Test
+    void testFireLagNotNegative() {
+        tested.recordFireLag(Duration.ofSeconds(-1));
+        assertThat(registry.get(JobServiceMetrics.FIRE_LAG).timer().totalTime(TimeUnit.MILLISECONDS)).isZero();
+    }
+}
@@ -15,6 +15,8 @@
  */
 package org.kie.kogito.jobs.service.repository.impl;
 
+import java.time.ZonedDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
@@ -100,6 +102,40 @@ public abstract class BaseJobRepositoryTest {
         assertThat(notFound).isNull();
     }
 
+    @Test
+    void testSaveAllAndDeleteAll() throws ExecutionException, InterruptedException {
+        List<JobDetails> jobs = IntStream.rangeClosed(1, 5).boxed()
+                .map(i -> JobDetails.builder()
+                        .id(UUID.randomUUID().toString())
+                        .status(JobStatus.SCHEDULED)
+                        .priority(i)
+                        .trigger(new PointInTimeTrigger(DateUtil.now().plusMinutes(i).toInstant().toEpochMilli(), null, null))
+                        .build())
+                .collect(Collectors.toList());
+
+        List<JobDetails> saved = tested().saveAll(jobs).toCompletableFuture().get();
+        assertThat(saved).hasSize(jobs.size());
+        for (JobDetails j : jobs) {
+            assertThat(tested().get(j.getId()).toCompletableFuture().get()).isEqualTo(j);
+        }
+
+        //saving again the same jobs updates them
+        List<JobDetails> updated = jobs.stream()
+                .map(j -> JobDetails.builder().of(j).status(JobStatus.RETRY).build())
+                .collect(Collectors.toList());
+        tested().saveAll(updated).toCompletableFuture().get();
+        for (JobDetails j : updated) {
+            assertThat(tested().get(j.getId()).toCompletableFuture().get().getStatus()).isEqualTo(JobStatus.RETRY);
+        }
+
+        List<JobDetails> deleted = tested().deleteAll(updated).toCompletableFuture().get();
+        assertThat(deleted).hasSize(jobs.size());
+        for (JobDetails j : jobs) {
+            assertThat(tested().exists(j.getId()).toCompletableFuture().get()).isFalse();
+        }
+        assertThat(tested().exists(ID).toCompletableFuture().get()).isTrue();
+    }
+
     @Test
     void testFindAll() throws ExecutionException, InterruptedException {
         List<JobDetails> jobs = tested().findAll().toList().run().toCompletableFuture().get();
@@ -155,6 +191,104 @@ public abstract class BaseJobRepositoryTest {
         assertThat(fetchedNotFound.size()).isZero();
     }
 
+    @Test
+    void testFindByStatusBetweenDatesOrderByFireTime() throws ExecutionException, InterruptedException {
+        final ZonedDateTime baseTime = DateUtil.now().plusMinutes(1);
+        //jobs sharing the same fire time must be paginated by id
+        List<JobDetails> jobs = IntStream.rangeClosed(1, 10).boxed()
+                .map(id -> JobDetails.builder()
+                        .status(JobStatus.SCHEDULED)
+                        .id("job-" + id)
+                        .priority(id)
+                        .trigger(new PointInTimeTrigger(baseTime.plusMinutes(id / 2).toInstant().toEpochMilli(), null, null))
+                        .build())
+                .collect(Collectors.toList());
+        tested().saveAll(jobs).toCompletableFuture().get();
+
+        final List<JobDetails> fetched = tested().findByStatusBetweenDatesOrderByFireTime(baseTime,
+                baseTime.plusMinutes(4),
+                3,
+                JobStatus.SCHEDULED)
+                .toList()
+                .run()
+                .toCompletableFuture()
+                .get();
+
+        assertThat(fetched).extracting(JobDetails::getId)
+                .containsExactly("job-1", "job-2", "job-3", "job-4", "job-5", "job-6", "job-7", "job-8", "job-9");
+
+        List<JobDetails> fetchedNotFound = tested().findByStatusBetweenDatesOrderByFireTime(baseTime,
+                baseTime.plusMinutes(4),
+                3,
+                JobStatus.CANCELED)
+                .toList()
+                .run()
+                .toCompletableFuture()
+                .get();
+
+        assertThat(fetchedNotFound).isEmpty();
+    }
+
+    @Test
+    void testClaimAndReleaseExpiredClaims() throws ExecutionException, InterruptedException {
+        final ZonedDateTime baseTime = DateUtil.now().plusDays(2);
+        List<JobDetails> jobs = IntStream.rangeClosed(1, 5).boxed()
+                .map(id -> JobDetails.builder()
+                        .status(id == 5 ? JobStatus.RETRY : JobStatus.SCHEDULED)
+                        .id("claim-job-" + id)
+                        .priority(id)
+                        .trigger(new PointInTimeTrigger(baseTime.plusMinutes(id).toInstant().toEpochMilli(), null, null))
+                        .build())
+                .collect(Collectors.toList());
+        tested().saveAll(jobs).toCompletableFuture().get();
+
+        List<JobDetails> claimed = tested().claim(baseTime, baseTime.plusMinutes(10), 3).toCompletableFuture().get();
+        assertThat(claimed).extracting(JobDetails::getId).containsExactly("claim-job-1", "claim-job-2", "claim-job-3");
+        assertThat(claimed).extracting(JobDetails::getStatus).containsOnly(JobStatus.CLAIMED);
+        assertThat(tested().get("claim-job-1").toCompletableFuture().get().getStatus()).isEqualTo(JobStatus.CLAIMED);
+
+        //claimed jobs are not claimed again and the ones in other status are not claimed at all
+        claimed = tested().claim(baseTime, baseTime.plusMinutes(10), 3).toCompletableFuture().get();
+        assertThat(claimed).extracting(JobDetails::getId).containsExactly("claim-job-4");
+
+        Long released = tested().releaseExpiredClaims(DateUtil.now().plusMinutes(1)).toCompletableFuture().get();
+        assertThat(released).isEqualTo(4L);
+        assertThat(tested().get("claim-job-1").toCompletableFuture().get().getStatus()).isEqualTo(JobStatus.SCHEDULED);
+        assertThat(tested().get("claim-job-5").toCompletableFuture().get().getStatus()).isEqualTo(JobStatus.RETRY);
+
+        tested().deleteAll(jobs).toCompletableFuture().get();
+    }
+
+    @Test
+    void testSaveIfNotClaimedAndRefreshClaims() throws ExecutionException, InterruptedException {
+        final ZonedDateTime baseTime = DateUtil.now().plusDays(3);
+        List<JobDetails> jobs = IntStream.rangeClosed(1, 2).boxed()
+                .map(id -> JobDetails.builder()
+                        .status(JobStatus.SCHEDULED)
+                        .id("claimed-save-job-" + id)
+                        .trigger(new PointInTimeTrigger(baseTime.plusMinutes(id).toInstant().toEpochMilli(), null, null))
+                        .build())
+                .collect(Collectors.toList());
+        tested().saveAll(jobs).toCompletableFuture().get();
+        List<JobDetails> claimed = tested().claim(baseTime, baseTime.plusMinutes(1), 1).toCompletableFuture().get();
+        assertThat(claimed).extracting(JobDetails::getId).containsExactly("claimed-save-job-1");
+
+        //a claimed job is not put back to be claimed again
+        JobDetails rescheduled = JobDetails.builder().of(jobs.get(0)).priority(10).build();
+        assertThat(tested().saveIfNotClaimed(rescheduled).toCompletableFuture().get()).isNull();
+        assertThat(tested().get("claimed-save-job-1").toCompletableFuture().get().getStatus()).isEqualTo(JobStatus.CLAIMED);
+
+        JobDetails saved = tested().saveIfNotClaimed(JobDetails.builder().of(jobs.get(1)).priority(10).build()).toCompletableFuture().get();
+        assertThat(saved.getPriority()).isEqualTo(10);
+
+        //only the claimed jobs are refreshed
+        Long refreshed = tested().refreshClaims(Arrays.asList("claimed-save-job-1", "claimed-save-job-2")).toCompletableFuture().get();
+        assertThat(refreshed).isEqualTo(1L);
+        assertThat(tested().get("claimed-save-job-1").toCompletableFuture().get().getStatus()).isEqualTo(JobStatus.CLAIMED);
+
+        tested().deleteAll(jobs).toCompletableFuture().get();
+    }
+
     @Test
     void testMergeCallbackEndpoint() throws Exception {
         String id = UUID.randomUUID().toString();
@@ -15,12 +15,26 @@
  */
 package org.kie.kogito.jobs.service.repository.impl;
 
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.jobs.service.model.JobDetails;
+import org.kie.kogito.jobs.service.model.JobStatus;
 import org.kie.kogito.jobs.service.repository.ReactiveJobRepository;
+import org.kie.kogito.jobs.service.utils.DateUtil;
+import org.kie.kogito.timer.impl.PointInTimeTrigger;
 
 import io.vertx.core.Vertx;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 class InMemoryJobRepositoryTest extends BaseJobRepositoryTest {
 
     private InMemoryJobRepository tested;
@@ -41,4 +55,94 @@ class InMemoryJobRepositoryTest extends BaseJobRepositoryTest {
     public ReactiveJobRepository tested() {
         return tested;
     }
+
+    @Test
+    void testCoalescedSaves() throws Exception {
+        tested.configureSaveBatching(10, 50);
+        List<JobDetails> jobs = IntStream.range(0, 25).boxed()
+                .map(i -> JobDetails.builder()
+                        .id(UUID.randomUUID().toString())
+                        .trigger(new PointInTimeTrigger(System.currentTimeMillis(), null, null))
+                        .build())
+                .collect(Collectors.toList());
+
+        List<CompletableFuture<JobDetails>> saves = jobs.stream()
+                .map(j -> tested.save(j).toCompletableFuture())
+                .collect(Collectors.toList());
+        CompletableFuture.allOf(saves.toArray(new CompletableFuture[0])).get();
+
+        for (int i = 0; i < jobs.size(); i++) {
+            assertThat(saves.get(i).get()).isEqualTo(jobs.get(i));
+            assertThat(tested.exists(jobs.get(i).getId()).toCompletableFuture().get()).isTrue();
+        }
+    }
+
+    @Test
+    void testCoalescedSavesOfTheSameJob() throws Exception {
+        tested.configureSaveBatching(10, 50);
+        JobDetails job = JobDetails.builder()
+                .id("coalesced")
+                .status(JobStatus.SCHEDULED)
+                .trigger(new PointInTimeTrigger(System.currentTimeMillis(), null, null))
+                .build();
+        List<CompletableFuture<JobDetails>> saves = IntStream.range(0, 3).boxed()
+                .map(i -> tested.save(JobDetails.builder().of(job).priority(i).build()).toCompletableFuture())
+                .collect(Collectors.toList());
+        CompletableFuture.allOf(saves.toArray(new CompletableFuture[0])).get();
+
+        assertThat(tested.get("coalesced").toCompletableFuture().get().getPriority()).isEqualTo(2);
+        for (CompletableFuture<JobDetails> save : saves) {
+            assertThat(save.get().getPriority()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void testIndexesFollowUpdates() throws Exception {
+        final ZonedDateTime fireTime = DateUtil.now().plusMinutes(1);
+        PointInTimeTrigger trigger = new PointInTimeTrigger(fireTime.toInstant().toEpochMilli(), null, null);
+        JobDetails job = JobDetails.builder().id("indexed").status(JobStatus.SCHEDULED).priority(1).trigger(trigger).build();
+        tested.save(job).toCompletableFuture().get();
+        assertThat(page(fireTime, JobStatus.SCHEDULED)).containsExactly(job);
+
+        //changing the trigger of the saved instance in place must not leave a stale index entry
+        trigger.nextFireTime();
+        JobDetails executed = JobDetails.builder().of(job)
+                .status(JobStatus.EXECUTED)
+                .trigger(new PointInTimeTrigger(fireTime.toInstant().toEpochMilli(), null, null))
+                .build();
+        tested.save(executed).toCompletableFuture().get();
+        assertThat(page(fireTime, JobStatus.SCHEDULED)).isEmpty();
+        assertThat(page(fireTime, JobStatus.EXECUTED)).containsExactly(executed);
+
+        tested.delete("indexed").toCompletableFuture().get();
+        assertThat(page(fireTime, JobStatus.EXECUTED)).isEmpty();
+    }
+
+    @Test
+    void testFindOnlyInDueWindow() throws Exception {
+        final ZonedDateTime baseTime = DateUtil.now().plusMinutes(1);
+        List<JobDetails> jobs = IntStream.range(0, 10000).boxed()
+                .map(i -> JobDetails.builder()
+                        .id("window-" + i)
+                        .status(i % 2 == 0 ? JobStatus.SCHEDULED : JobStatus.RETRY)
+                        .priority(i)
+                        .trigger(new PointInTimeTrigger(baseTime.plusSeconds(i).toInstant().toEpochMilli(), null, null))
+                        .build())
+                .collect(Collectors.toList());
+        tested.saveAll(jobs).toCompletableFuture().get();
+
+        List<JobDetails> fetched = tested.findByStatusBetweenDatesOrderByPriority(baseTime.plusSeconds(10), baseTime.plusSeconds(20),
+                JobStatus.SCHEDULED)
+                .toList().run().toCompletableFuture().get();
+        assertThat(fetched).extracting(JobDetails::getId)
+                .containsExactly("window-18", "window-16", "window-14", "window-12");
+
+        List<JobDetails> page = tested.findPageByStatusBetweenDatesOrderByFireTime(baseTime.plusSeconds(10), "window-10",
+                baseTime.plusSeconds(20), 3, JobStatus.SCHEDULED, JobStatus.RETRY).toCompletableFuture().get();
+        assertThat(page).extracting(JobDetails::getId).containsExactly("window-11", "window-12", "window-13");
+    }
+
+    private List<JobDetails> page(ZonedDateTime fireTime, JobStatus status) throws Exception {
+        return tested.findPageByStatusBetweenDatesOrderByFireTime(fireTime, null, fireTime, 10, status).toCompletableFuture().get();
+    }
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs.service.repository.marshaller;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.jobs.service.api.recipient.http.HttpRecipient;
+import org.kie.kogito.jobs.service.model.Recipient;
+import org.kie.kogito.jobs.service.model.RecipientInstance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BinaryRecipientMarshallerTest {
+
+    static boolean gadgetInitialized;
+
+    BinaryRecipientMarshaller marshaller = new BinaryRecipientMarshaller();
+
+    @Test
+    void marshallAndUnmarshall() {
+        Recipient recipient = new RecipientInstance(HttpRecipient.builder().forStringPayload().url("test").build());
+        Recipient result = marshaller.unmarshall(marshaller.marshall(recipient));
+        assertEquals(recipient.getRecipient(), result.getRecipient());
+    }
+
+    @Test
+    void marshallNull() {
+        assertNull(marshaller.marshall(null));
+    }
+
+    @Test
+    void unmarshallNull() {
+        assertNull(marshaller.unmarshall(null));
+        assertNull(marshaller.unmarshall(new byte[0]));
+    }
+
+    @Test
+    void unmarshallUnsupportedVersion() {
+        byte[] bytes = marshaller.marshall(new RecipientInstance(HttpRecipient.builder().forStringPayload().url("test").build()));
+        bytes[0] = BinaryRecipientMarshaller.VERSION + 1;
+        assertThrows(IllegalArgumentException.class, () -> marshaller.unmarshall(bytes));
+    }
+
+    @Test
+    void unmarshallNotARecipientType() {
+        byte[] bytes = binaryRecipient(Gadget.class.getName(), "{}");
+        assertThrows(IllegalArgumentException.class, () -> marshaller.unmarshall(bytes));
+        assertFalse(gadgetInitialized);
+    }
+
+    @Test
+    void unmarshallUnknownType() {
+        byte[] bytes = binaryRecipient("org.kie.kogito.Unknown", "{}");
+        assertThrows(IllegalArgumentException.class, () -> marshaller.unmarshall(bytes));
+    }
+
+    private static byte[] binaryRecipient(String classType, String json) {
+        byte[] classTypeBytes = classType.getBytes(StandardCharsets.UTF_8);
+        byte[] jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(1 + Short.BYTES + classTypeBytes.length + jsonBytes.length)
+                .put(BinaryRecipientMarshaller.VERSION)
+                .putShort((short) classTypeBytes.length)
+                .put(classTypeBytes)
+                .put(jsonBytes)
+                .array();
+    }
+
+    public static class Gadget {
+
+        static {
+            gadgetInitialized = true;
+        }
+    }
+}
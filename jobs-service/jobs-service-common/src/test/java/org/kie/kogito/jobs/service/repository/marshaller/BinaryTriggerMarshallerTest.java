@@ -0,0 +1,111 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs.service.repository.marshaller;
+
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.timer.Trigger;
+import org.kie.kogito.timer.impl.IntervalTrigger;
+import org.kie.kogito.timer.impl.PointInTimeTrigger;
+import org.kie.kogito.timer.impl.SimpleTimerTrigger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryTriggerMarshallerTest {
+
+    BinaryTriggerMarshaller marshaller = new BinaryTriggerMarshaller();
+
+    @Test
+    void marshallIntervalTrigger() {
+        Random random = new Random();
+        IntervalTrigger trigger = new IntervalTrigger();
+        trigger.setStartTime(new Date());
+        trigger.setEndTime(null);
+        trigger.setRepeatLimit(random.nextInt());
+        trigger.setRepeatCount(random.nextInt());
+        trigger.setNextFireTime(new Date());
+        trigger.setPeriod(random.nextLong());
+
+        Trigger result = marshaller.unmarshall(marshaller.marshall(trigger));
+
+        assertThat(result).isExactlyInstanceOf(IntervalTrigger.class).hasToString(trigger.toString());
+    }
+
+    @Test
+    void marshallPointInTimeTrigger() {
+        Date time = new Date();
+        PointInTimeTrigger trigger = new PointInTimeTrigger(time.getTime(), null, null);
+
+        Trigger result = marshaller.unmarshall(marshaller.marshall(trigger));
+
+        assertThat(result).isExactlyInstanceOf(PointInTimeTrigger.class);
+        assertThat(result.hasNextFireTime()).isEqualTo(time);
+    }
+
+    @Test
+    void marshallSimpleTimerTrigger() {
+        Date startTime = new Date();
+        Date endTime = new Date(startTime.getTime() + 10000);
+        SimpleTimerTrigger trigger = new SimpleTimerTrigger(startTime, 4, ChronoUnit.HOURS, 3, endTime, "+02:00");
+
+        Trigger result = marshaller.unmarshall(marshaller.marshall(trigger));
+
+        assertThat(result).isExactlyInstanceOf(SimpleTimerTrigger.class);
+        SimpleTimerTrigger simpleTimerTrigger = (SimpleTimerTrigger) result;
+        assertThat(simpleTimerTrigger.getStartTime()).isEqualTo(startTime);
+        assertThat(simpleTimerTrigger.getPeriod()).isEqualTo(4);
+        assertThat(simpleTimerTrigger.getPeriodUnit()).isEqualTo(ChronoUnit.HOURS);
+        assertThat(simpleTimerTrigger.getRepeatCount()).isEqualTo(3);
+        assertThat(simpleTimerTrigger.getEndTime()).isEqualTo(endTime);
+        assertThat(simpleTimerTrigger.getZoneId()).isEqualTo("+02:00");
+        assertThat(simpleTimerTrigger.getNextFireTime()).isEqualTo(startTime);
+        assertThat(simpleTimerTrigger.getCurrentRepeatCount()).isZero();
+        assertThat(simpleTimerTrigger.isEndTimeReached()).isFalse();
+    }
+
+    @Test
+    void marshallIsSmallerThanJson() {
+        Date startTime = new Date();
+        SimpleTimerTrigger trigger = new SimpleTimerTrigger(startTime, 4, ChronoUnit.HOURS, 3, new Date(startTime.getTime() + 10000), "+02:00");
+
+        byte[] binary = marshaller.marshall(trigger);
+        byte[] json = new TriggerMarshaller().marshall(trigger).toBuffer().getBytes();
+
+        assertThat(binary.length).isLessThan(json.length / 2);
+    }
+
+    @Test
+    void marshallNull() {
+        assertThat(marshaller.marshall(null)).isNull();
+    }
+
+    @Test
+    void unmarshallNull() {
+        assertThat(marshaller.unmarshall(null)).isNull();
+        assertThat(marshaller.unmarshall(new byte[0])).isNull();
+    }
+
+    @Test
+    void unmarshallUnsupportedVersion() {
+        byte[] bytes = marshaller.marshall(new PointInTimeTrigger(new Date().getTime(), null, null));
+        bytes[0] = BinaryTriggerMarshaller.VERSION + 1;
+        assertThatThrownBy(() -> marshaller.unmarshall(bytes)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
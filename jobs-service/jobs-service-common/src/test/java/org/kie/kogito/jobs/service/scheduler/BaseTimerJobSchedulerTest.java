@@ -29,6 +29,8 @@ import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
 import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.kie.kogito.jobs.service.exception.InvalidScheduleTimeException;
+import org.kie.kogito.jobs.service.exception.JobClaimedException;
 import org.kie.kogito.jobs.service.executor.JobExecutor;
 import org.kie.kogito.jobs.service.model.JobDetails;
 import org.kie.kogito.jobs.service.model.JobExecutionResponse;
@@ -329,6 +331,68 @@ public abstract class BaseTimerJobSchedulerTest {
         assertThat(current.getScheduledId()).isNull();
     }
 
+    @Test
+    void testScheduleFireFromStore() {
+        tested().setFireFromStore(true);
+        when(jobRepository.saveIfNotClaimed(any(JobDetails.class))).thenAnswer(a -> CompletableFuture.completedFuture(a.getArgument(0)));
+
+        subscribeOn(tested().schedule(scheduledJob));
+
+        //the job is only persisted to be claimed once it is due
+        verify(jobRepository, never()).exists(any());
+        verify(tested(), never()).doSchedule(eq(scheduledJob), delayCaptor.capture());
+        verify(jobRepository).saveIfNotClaimed(scheduleCaptor.capture());
+        JobDetails current = scheduleCaptor.getValue();
+        assertThat(current.getId()).isEqualTo(JOB_ID);
+        assertThat(current.getStatus()).isEqualTo(SCHEDULED);
+        assertThat(current.getScheduledId()).isNull();
+    }
+
+    @Test
+    void testScheduleFireFromStoreClaimedJob() {
+        tested().setFireFromStore(true);
+        when(jobRepository.saveIfNotClaimed(any(JobDetails.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        Throwable error = Multi.createFrom().publisher(tested().schedule(scheduledJob))
+                .toUni()
+                .onItemOrFailure().transform((j, t) -> t)
+                .await().indefinitely();
+
+        assertThat(error).isInstanceOf(JobClaimedException.class);
+        verify(jobRepository, never()).save(any(JobDetails.class));
+    }
+
+    @Test
+    void testScheduleFireFromStoreExpiredJob() {
+        tested().setFireFromStore(true);
+        scheduledJob = JobDetails.builder()
+                .of(scheduledJob)
+                .trigger(new PointInTimeTrigger(DateUtil.now().minusMinutes(1).toInstant().toEpochMilli(), null, null))
+                .build();
+
+        Throwable error = Multi.createFrom().publisher(tested().schedule(scheduledJob))
+                .toUni()
+                .onItemOrFailure().transform((j, t) -> t)
+                .await().indefinitely();
+
+        assertThat(error).isInstanceOf(InvalidScheduleTimeException.class);
+        verify(jobRepository, never()).saveIfNotClaimed(any(JobDetails.class));
+    }
+
+    @Test
+    void testRescheduleClaimedJob() {
+        when(jobRepository.get(JOB_ID)).thenReturn(CompletableFuture.completedFuture(
+                JobDetails.builder().of(scheduledJob).status(JobStatus.CLAIMED).build()));
+
+        Throwable error = Multi.createFrom().publisher(tested().reschedule(JOB_ID, trigger).buildRs())
+                .toUni()
+                .onItemOrFailure().transform((j, t) -> t)
+                .await().indefinitely();
+
+        assertThat(error).isInstanceOf(JobClaimedException.class);
+        verify(jobRepository, never()).merge(any(), any());
+    }
+
     @Test
     void testScheduleInCurrentChunk() {
         when(jobRepository.exists(any())).thenReturn(CompletableFuture.completedFuture(Boolean.FALSE));
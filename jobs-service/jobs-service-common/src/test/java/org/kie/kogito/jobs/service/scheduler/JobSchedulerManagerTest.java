@@ -16,14 +16,19 @@
 package org.kie.kogito.jobs.service.scheduler;
 
 import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.kie.kogito.jobs.service.management.JobServiceShardManager;
+import org.kie.kogito.jobs.service.metrics.JobServiceMetrics;
 import org.kie.kogito.jobs.service.management.MessagingChangeEvent;
 import org.kie.kogito.jobs.service.model.JobDetails;
 import org.kie.kogito.jobs.service.model.JobStatus;
@@ -43,9 +48,11 @@ import io.vertx.mutiny.core.Vertx;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -60,6 +67,12 @@ class JobSchedulerManagerTest {
     @Mock
     ReactiveJobRepository repository;
 
+    @Mock
+    JobServiceShardManager shardManager;
+
+    @Mock
+    JobServiceMetrics metrics;
+
     @Mock
     Vertx vertx;
 
@@ -83,8 +96,9 @@ class JobSchedulerManagerTest {
                 .trigger(new PointInTimeTrigger(System.currentTimeMillis(), null, null))
                 .build();
 
-        lenient().when(repository.findByStatusBetweenDatesOrderByPriority(any(ZonedDateTime.class),
+        lenient().when(repository.findByStatusBetweenDatesOrderByFireTime(any(ZonedDateTime.class),
                 any(ZonedDateTime.class),
+                anyInt(),
                 any(JobStatus.class),
                 any(JobStatus.class)))
                 .thenReturn(ReactiveStreams.of(scheduledJob));
@@ -92,6 +106,7 @@ class JobSchedulerManagerTest {
                 .thenReturn(Optional.empty());
         lenient().when(scheduler.schedule(scheduledJob))
                 .thenReturn(ReactiveStreams.of(scheduledJob).buildRs());
+        lenient().when(shardManager.isOwned(any())).thenReturn(true);
         tested.onMessagingStatusChange(new MessagingChangeEvent(true));
     }
 
@@ -125,4 +140,81 @@ class JobSchedulerManagerTest {
         tested.loadJobDetails();
         verify(scheduler, never()).schedule(scheduledJob);
     }
+
+    @Test
+    void testLoadJobDetailsNotOwned() {
+        when(shardManager.isOwned(JOB_ID)).thenReturn(false);
+
+        tested.loadJobDetails();
+        verify(scheduler, never()).schedule(scheduledJob);
+    }
+
+    @Test
+    void testScheduleNotifiedJob() {
+        JobDetails job = JobDetails.builder().of(scheduledJob).status(JobStatus.SCHEDULED).build();
+        when(repository.get(JOB_ID)).thenReturn(CompletableFuture.completedFuture(job));
+        when(scheduler.schedule(job)).thenReturn(ReactiveStreams.of(job).buildRs());
+
+        tested.scheduleNotifiedJob(JOB_ID);
+        verify(scheduler).schedule(job);
+    }
+
+    @Test
+    void testScheduleNotifiedJobNotOwned() {
+        when(shardManager.isOwned(JOB_ID)).thenReturn(false);
+
+        tested.scheduleNotifiedJob(JOB_ID);
+        verify(repository, never()).get(JOB_ID);
+        verify(scheduler, never()).schedule(any(JobDetails.class));
+    }
+
+    @Test
+    void testScheduleNotifiedJobAlreadyScheduled() {
+        when(scheduler.scheduled(JOB_ID)).thenReturn(Optional.of(DateUtil.now()));
+
+        tested.scheduleNotifiedJob(JOB_ID);
+        verify(repository, never()).get(JOB_ID);
+    }
+
+    @Test
+    void testClaimDueJobs() {
+        tested.fireFromStore = true;
+        tested.claimBatchSize = 2;
+        JobDetails otherJob = JobDetails.builder().of(scheduledJob).id(UUID.randomUUID().toString()).build();
+        //a full batch is followed by a new claim until there are no more due jobs
+        when(repository.claim(any(ZonedDateTime.class), any(ZonedDateTime.class), eq(2)))
+                .thenReturn(CompletableFuture.completedFuture(Arrays.asList(scheduledJob, otherJob)))
+                .thenReturn(CompletableFuture.completedFuture(Collections.emptyList()));
+
+        tested.claimDueJobs();
+        verify(scheduler).fire(scheduledJob);
+        verify(scheduler).fire(otherJob);
+        verify(repository, times(2)).claim(any(ZonedDateTime.class), any(ZonedDateTime.class), eq(2));
+    }
+
+    @Test
+    void testRefreshClaims() {
+        when(scheduler.firingClaims(any(ZonedDateTime.class))).thenReturn(Collections.singletonList(JOB_ID));
+        when(repository.refreshClaims(Collections.singletonList(JOB_ID))).thenReturn(CompletableFuture.completedFuture(1L));
+
+        tested.refreshClaims();
+        verify(repository).refreshClaims(Collections.singletonList(JOB_ID));
+    }
+
+    @Test
+    void testRefreshClaimsNothingFiring() {
+        when(scheduler.firingClaims(any(ZonedDateTime.class))).thenReturn(Collections.emptyList());
+
+        tested.refreshClaims();
+        verify(repository, never()).refreshClaims(any());
+    }
+
+    @Test
+    void testClaimDueJobsDisabled() {
+        tested.fireFromStore = true;
+        tested.onMessagingStatusChange(new MessagingChangeEvent(false));
+
+        tested.claimDueJobs();
+        verify(repository, never()).claim(any(ZonedDateTime.class), any(ZonedDateTime.class), anyInt());
+    }
 }
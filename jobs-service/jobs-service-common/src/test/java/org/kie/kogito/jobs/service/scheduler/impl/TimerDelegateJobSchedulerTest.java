@@ -17,19 +17,25 @@ package org.kie.kogito.jobs.service.scheduler.impl;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
 import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.kie.kogito.jobs.service.executor.JobExecutorResolver;
 import org.kie.kogito.jobs.service.job.DelegateJob;
+import org.kie.kogito.jobs.service.management.JobServiceShardManager;
+import org.kie.kogito.jobs.service.management.JobServiceShardNotifier;
+import org.kie.kogito.jobs.service.metrics.JobServiceMetrics;
 import org.kie.kogito.jobs.service.model.JobDetails;
 import org.kie.kogito.jobs.service.model.JobDetailsContext;
 import org.kie.kogito.jobs.service.model.JobExecutionResponse;
 import org.kie.kogito.jobs.service.model.ManageableJobHandle;
 import org.kie.kogito.jobs.service.scheduler.BaseTimerJobScheduler;
 import org.kie.kogito.jobs.service.scheduler.BaseTimerJobSchedulerTest;
+import org.kie.kogito.jobs.service.stream.JobStreams;
 import org.kie.kogito.jobs.service.utils.DateUtil;
 import org.kie.kogito.timer.Job;
 import org.kie.kogito.timer.JobContext;
@@ -41,6 +47,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.reactivestreams.Publisher;
 
 import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -49,6 +56,7 @@ import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class TimerDelegateJobSchedulerTest extends BaseTimerJobSchedulerTest {
@@ -60,12 +68,29 @@ class TimerDelegateJobSchedulerTest extends BaseTimerJobSchedulerTest {
     @Mock
     private VertxTimerServiceScheduler timer;
 
+    @Mock
+    private JobServiceShardManager shardManager;
+
+    @Mock
+    private JobServiceShardNotifier shardNotifier;
+
+    @Mock
+    private JobExecutorResolver jobExecutorResolver;
+
+    @Mock
+    private JobStreams jobStreams;
+
+    @Mock
+    private JobServiceMetrics metrics;
+
     @BeforeEach
     public void setUp() {
         super.setUp();
         ManageableJobHandle handle = new ManageableJobHandle(SCHEDULED_ID);
         handle.setScheduledTime(DateUtil.now());
         lenient().when(timer.scheduleJob(any(Job.class), any(JobContext.class), any(Trigger.class))).thenReturn(handle);
+        lenient().when(shardManager.isOwned(any())).thenReturn(true);
+        lenient().when(jobExecutorResolver.get(any())).thenReturn(jobExecutor);
     }
 
     @Override
@@ -95,6 +120,51 @@ class TimerDelegateJobSchedulerTest extends BaseTimerJobSchedulerTest {
         verify(timer, never()).removeJob(any(ManageableJobHandle.class));
     }
 
+    @Test
+    void testScheduleNotOwnedJobNotifiesTheOwner() {
+        when(shardManager.isOwned(JOB_ID)).thenReturn(false);
+        when(jobRepository.exists(JOB_ID)).thenReturn(CompletableFuture.completedFuture(false));
+        when(shardNotifier.notifyScheduled(JOB_ID)).thenReturn(Uni.createFrom().voidItem());
+
+        Multi.createFrom().publisher(tested.schedule(scheduledJob)).subscribe().with(dummyCallback(), dummyCallback());
+
+        verify(jobRepository).save(any(JobDetails.class));
+        verify(shardNotifier).notifyScheduled(JOB_ID);
+        verify(timer, never()).scheduleJob(any(Job.class), any(JobContext.class), any(Trigger.class));
+    }
+
+    @Test
+    void testScheduleNotOwnedJobNotificationFailure() {
+        when(shardManager.isOwned(JOB_ID)).thenReturn(false);
+        when(jobRepository.exists(JOB_ID)).thenReturn(CompletableFuture.completedFuture(false));
+        when(shardNotifier.notifyScheduled(JOB_ID)).thenReturn(Uni.createFrom().failure(new RuntimeException("unreachable")));
+
+        JobDetails saved = Multi.createFrom().publisher(tested.schedule(scheduledJob)).toUni().await().indefinitely();
+
+        assertThat(saved.getId()).isEqualTo(JOB_ID);
+        verify(timer, never()).scheduleJob(any(Job.class), any(JobContext.class), any(Trigger.class));
+    }
+
+    @Test
+    void testFiringClaims() {
+        tested.fire(scheduledJob);
+        assertThat(tested.firingClaims(DateUtil.now().minusMinutes(1))).containsExactly(JOB_ID);
+
+        //the executions started before the given date are not refreshed anymore
+        assertThat(tested.firingClaims(DateUtil.now().plusMinutes(1))).isEmpty();
+    }
+
+    @Test
+    void testFiringClaimsRemovedOnceHandled() {
+        tested.fire(scheduledJob);
+        JobExecutionResponse response = JobExecutionResponse.builder().jobId(JOB_ID).now().build();
+        doReturn(ReactiveStreams.of(JobDetails.builder().build()))
+                .when(tested).handleJobExecutionSuccess(response);
+
+        tested.jobSuccessProcessor(response).toCompletableFuture().join();
+        assertThat(tested.firingClaims(DateUtil.now().minusMinutes(1))).isEmpty();
+    }
+
     @Test
     void testJobSuccessProcessor() {
         JobExecutionResponse response = getJobResponse();
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs.service.scheduler.impl;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kie.kogito.jobs.service.model.JobDetails;
+import org.kie.kogito.jobs.service.model.JobDetailsContext;
+import org.kie.kogito.jobs.service.model.ManageableJobHandle;
+import org.kie.kogito.jobs.service.utils.DateUtil;
+import org.kie.kogito.timer.Job;
+import org.kie.kogito.timer.JobContext;
+import org.kie.kogito.timer.impl.PointInTimeTrigger;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.vertx.mutiny.core.Vertx;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.given;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TimingWheelTimerServiceSchedulerTest {
+
+    //small wheel (4 slots, 2 levels of 10ms ticks = 160ms range) to exercise cascading and out of range jobs
+    private static final long TICK = 10;
+    private static final int WHEEL_SIZE = 4;
+    private static final int LEVELS = 2;
+
+    private TimingWheelTimerServiceScheduler tested;
+
+    private Vertx vertx;
+
+    @Mock
+    private Job job;
+
+    @BeforeEach
+    void setUp() {
+        vertx = Vertx.vertx();
+        tested = new TimingWheelTimerServiceScheduler(vertx, TICK, WHEEL_SIZE, LEVELS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tested.shutdown();
+    }
+
+    @Test
+    void testScheduleJobInLowerLevel() {
+        ManageableJobHandle handle = schedule(DateUtil.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(30)));
+        assertThat(handle.getId()).isPositive();
+        assertThat(handle.getScheduledTime()).isNotNull();
+        assertFired(1);
+    }
+
+    @Test
+    void testScheduleJobInUpperLevel() {
+        schedule(DateUtil.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(120)));
+        assertFired(1);
+    }
+
+    @Test
+    void testScheduleJobOutOfWheelRange() {
+        ZonedDateTime time = DateUtil.now().plusSeconds(1);
+        schedule(time);
+        verify(job, never()).execute(any());
+        given().await()
+                .atMost(3, TimeUnit.SECONDS)
+                .untilAsserted(() -> verify(job).execute(any()));
+        assertThat(DateUtil.now()).isAfterOrEqualTo(time);
+    }
+
+    @Test
+    void testScheduleExpiredJob() {
+        schedule(DateUtil.now().minusMinutes(1));
+        assertFired(1);
+    }
+
+    @Test
+    void testScheduleManyJobs() {
+        ZonedDateTime time = DateUtil.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        for (int i = 0; i < 1000; i++) {
+            schedule(time.plusNanos(TimeUnit.MILLISECONDS.toNanos(i % 300)));
+        }
+        assertFired(1000);
+    }
+
+    @Test
+    void testRemoveScheduleJob() {
+        ManageableJobHandle handle = schedule(DateUtil.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(100)));
+        assertThat(tested.size()).isEqualTo(1);
+        assertThat(tested.removeJob(handle)).isTrue();
+        assertThat(tested.removeJob(handle)).isFalse();
+        assertThat(tested.size()).isZero();
+        given().await()
+                .pollDelay(300, TimeUnit.MILLISECONDS)
+                .atMost(1, TimeUnit.SECONDS)
+                .untilAsserted(() -> verify(job, never()).execute(any()));
+    }
+
+    private void assertFired(int count) {
+        given().await()
+                .atMost(2, TimeUnit.SECONDS)
+                .untilAsserted(() -> verify(job, times(count)).execute(any()));
+        assertThat(tested.size()).isZero();
+    }
+
+    private ManageableJobHandle schedule(ZonedDateTime time) {
+        PointInTimeTrigger trigger = new PointInTimeTrigger(time.toInstant().toEpochMilli(), null, null);
+        JobContext context = new JobDetailsContext(JobDetails.builder().build());
+        return tested.scheduleJob(job, context, trigger);
+    }
+}
@@ -17,6 +17,7 @@
 package org.kie.kogito.jobs.service.stream;
 
 import java.time.ZonedDateTime;
+import java.util.List;
 
 import org.eclipse.microprofile.reactive.messaging.Emitter;
 import org.eclipse.microprofile.reactive.messaging.Message;
@@ -26,6 +27,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.kie.kogito.jobs.service.api.recipient.http.HttpRecipient;
 import org.kie.kogito.jobs.service.events.JobDataEvent;
+import org.kie.kogito.jobs.service.json.JacksonConfiguration;
 import org.kie.kogito.jobs.service.model.JobDetails;
 import org.kie.kogito.jobs.service.model.JobStatus;
 import org.kie.kogito.jobs.service.model.Recipient;
@@ -38,14 +40,21 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -77,6 +86,12 @@ abstract class AbstractJobStreamsTest<T extends AbstractJobStreams> {
     @Mock
     Emitter<String> emitter;
 
+    @Mock
+    Vertx vertx;
+
+    @Captor
+    ArgumentCaptor<Handler<Long>> timerCaptor;
+
     T jobStreams;
 
     @BeforeEach
@@ -150,11 +165,84 @@ abstract class AbstractJobStreamsTest<T extends AbstractJobStreams> {
         verify(jobStreams, never()).onNack(any(), any());
     }
 
+    @Test
+    void jobStatusChangeCoalesced() throws Exception {
+        enableBatching(3);
+        jobStreams.jobStatusChange(mockJobDetails(JOB_ID, JobStatus.SCHEDULED));
+        jobStreams.jobStatusChange(mockJobDetails(JOB_ID, JobStatus.EXECUTED));
+        jobStreams.jobStatusChange(mockJobDetails("JOB_ID_2", JobStatus.SCHEDULED));
+        verify(emitter, never()).send(any(Message.class));
+
+        //the buffer is full, the latest status of each job is published
+        jobStreams.jobStatusChange(mockJobDetails("JOB_ID_3", JobStatus.CANCELED));
+        verify(emitter, times(3)).send(messageCaptor.capture());
+        List<Message<String>> messages = messageCaptor.getAllValues();
+        assertPublishedStatus(messages.get(0).getPayload(), JOB_ID, JobStatus.EXECUTED);
+        assertPublishedStatus(messages.get(1).getPayload(), "JOB_ID_2", JobStatus.SCHEDULED);
+        assertPublishedStatus(messages.get(2).getPayload(), "JOB_ID_3", JobStatus.CANCELED);
+        assertExpectedMetadata(messages.get(0));
+
+        messages.get(0).ack();
+        verify(jobStreams).onAck(mockJobDetails(JOB_ID, JobStatus.EXECUTED));
+    }
+
+    @Test
+    void jobStatusChangeFlushedOnTimer() throws Exception {
+        enableBatching(10);
+        jobStreams.jobStatusChange(mockJobDetails(JOB_ID, JobStatus.SCHEDULED));
+        jobStreams.jobStatusChange(mockJobDetails(JOB_ID, JobStatus.SCHEDULED));
+        verify(vertx).setTimer(anyLong(), timerCaptor.capture());
+        verify(emitter, never()).send(any(Message.class));
+
+        timerCaptor.getValue().handle(1L);
+        verify(emitter).send(messageCaptor.capture());
+        assertPublishedStatus(messageCaptor.getValue().getPayload(), JOB_ID, JobStatus.SCHEDULED);
+    }
+
+    @Test
+    void jobStatusChangeBatchPublishedHoldingTheLock() throws Exception {
+        enableBatching(2);
+        //a batch drained by a flush cannot be overtaken by the one drained by a concurrent enqueue
+        doAnswer(invocation -> {
+            assertThat(Thread.holdsLock(jobStreams)).isTrue();
+            return null;
+        }).when(emitter).send(any(Message.class));
+
+        jobStreams.jobStatusChange(mockJobDetails(JOB_ID, JobStatus.SCHEDULED));
+        jobStreams.flush();
+        jobStreams.jobStatusChange(mockJobDetails("JOB_ID_2", JobStatus.SCHEDULED));
+        jobStreams.jobStatusChange(mockJobDetails("JOB_ID_3", JobStatus.SCHEDULED));
+
+        verify(emitter, times(3)).send(messageCaptor.capture());
+        List<Message<String>> messages = messageCaptor.getAllValues();
+        assertPublishedStatus(messages.get(0).getPayload(), JOB_ID, JobStatus.SCHEDULED);
+        assertPublishedStatus(messages.get(1).getPayload(), "JOB_ID_2", JobStatus.SCHEDULED);
+        assertPublishedStatus(messages.get(2).getPayload(), "JOB_ID_3", JobStatus.SCHEDULED);
+    }
+
+    private void enableBatching(int batchSize) {
+        ObjectMapper mapper = new ObjectMapper();
+        new JacksonConfiguration().customizer().customize(mapper);
+        jobStreams.objectMapper = mapper;
+        jobStreams.configureBatching(batchSize, 60000, vertx);
+    }
+
+    private void assertPublishedStatus(String payload, String jobId, JobStatus status) throws Exception {
+        JsonNode event = jobStreams.objectMapper.readTree(payload);
+        assertThat(event.get("type").asText()).isEqualTo(JobDataEvent.JOB_EVENT_TYPE);
+        assertThat(event.get("data").get("id").asText()).isEqualTo(jobId);
+        assertThat(event.get("data").get("status").asText()).isEqualTo(status.name());
+    }
+
     private JobDetails mockJobDetails() {
+        return mockJobDetails(JOB_ID, STATUS);
+    }
+
+    private JobDetails mockJobDetails(String id, JobStatus status) {
         return JobDetails.builder()
-                .id(JOB_ID)
+                .id(id)
                 .correlationId(CORRELATION_ID)
-                .status(STATUS)
+                .status(status)
                 .lastUpdate(LAST_UPDATE)
                 .retries(RETRIES)
                 .priority(PRIORITY)
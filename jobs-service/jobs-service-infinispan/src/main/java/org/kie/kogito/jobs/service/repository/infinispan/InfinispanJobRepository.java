@@ -17,7 +17,11 @@ package org.kie.kogito.jobs.service.repository.infinispan;
 
 import java.time.ZonedDateTime;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -72,6 +76,14 @@ public class InfinispanJobRepository extends BaseReactiveJobRepository implement
                 .thenApply(j -> job);
     }
 
+    @Override
+    public CompletionStage<List<JobDetails>> doSaveAll(List<JobDetails> jobs) {
+        return runAsync(() -> {
+            cache.putAll(jobs.stream().collect(Collectors.toMap(JobDetails::getId, Function.identity())));
+            return jobs;
+        });
+    }
+
     @Override
     public CompletionStage<JobDetails> get(String id) {
         return runAsync(() -> cache.get(id));
@@ -89,6 +101,16 @@ public class InfinispanJobRepository extends BaseReactiveJobRepository implement
                 .remove(id));
     }
 
+    @Override
+    public CompletionStage<Long> doDeleteAll(List<String> ids) {
+        //there is no bulk remove, the removals are pipelined instead of waiting one after the other
+        List<CompletableFuture<JobDetails>> removals = ids.stream()
+                .map(id -> cache.withFlags(Flag.FORCE_RETURN_VALUE).removeAsync(id))
+                .collect(Collectors.toList());
+        return CompletableFuture.allOf(removals.toArray(new CompletableFuture[0]))
+                .thenApply(v -> removals.stream().map(CompletableFuture::join).filter(Objects::nonNull).count());
+    }
+
     @Override
     public PublisherBuilder<JobDetails> findAll() {
         Query<JobDetails> query = queryFactory.<JobDetails> create("from job.service.JobDetails");
@@ -117,6 +139,27 @@ public class InfinispanJobRepository extends BaseReactiveJobRepository implement
         return ReactiveStreams.fromIterable(query.execute().list());
     }
 
+    @Override
+    public CompletionStage<List<JobDetails>> findPageByStatusBetweenDatesOrderByFireTime(ZonedDateTime afterFireTime, String afterId,
+            ZonedDateTime to, int pageSize, JobStatus... status) {
+        final String keysetQuery = afterId == null
+                ? "j.trigger.nextFireTime >= :after "
+                : "(j.trigger.nextFireTime > :after or (j.trigger.nextFireTime = :after and j.id > :afterId)) ";
+        Query<JobDetails> query = queryFactory.create("from job.service.JobDetails j " +
+                "where " +
+                keysetQuery +
+                "and j.trigger.nextFireTime <= :to " +
+                "and j.status in (" + createStatusQuery(status) + ") " +
+                "order by j.trigger.nextFireTime asc, j.id asc");
+        query.setParameter("after", afterFireTime.toInstant().toEpochMilli());
+        query.setParameter("to", to.toInstant().toEpochMilli());
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+        }
+        query.maxResults(pageSize);
+        return runAsync(() -> query.execute().list());
+    }
+
     //building the query sentence for the status IN (not supported to use array in setParameter on the query)
     private String createStatusQuery(JobStatus[] status) {
         return Arrays.stream(status)
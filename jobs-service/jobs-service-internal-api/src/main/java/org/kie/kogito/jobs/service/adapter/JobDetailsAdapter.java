@@ -58,6 +58,7 @@ public class JobDetailsAdapter {
                 case EXECUTED:
                     return Job.State.EXECUTED;
                 case SCHEDULED:
+                case CLAIMED:
                     return Job.State.SCHEDULED;
                 case RETRY:
                     return Job.State.RETRY;
@@ -20,5 +20,6 @@ public enum JobStatus {
     EXECUTED, //final
     SCHEDULED, //active
     RETRY, //active
+    CLAIMED, //active, claimed by an instance to be fired
     CANCELED//final
 }
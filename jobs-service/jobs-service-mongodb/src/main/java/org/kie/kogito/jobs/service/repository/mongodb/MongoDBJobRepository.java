@@ -17,6 +17,8 @@
 package org.kie.kogito.jobs.service.repository.mongodb;
 
 import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -24,6 +26,7 @@ import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.bson.json.JsonWriterSettings;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
@@ -33,13 +36,21 @@ import org.kie.kogito.jobs.service.repository.ReactiveJobRepository;
 import org.kie.kogito.jobs.service.repository.impl.BaseReactiveJobRepository;
 import org.kie.kogito.jobs.service.repository.marshaller.JobDetailsMarshaller;
 import org.kie.kogito.jobs.service.stream.JobStreams;
+import org.kie.kogito.jobs.service.utils.DateUtil;
 
+import com.mongodb.MongoServerException;
 import com.mongodb.client.model.FindOneAndReplaceOptions;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
 
 import io.quarkus.mongodb.FindOptions;
 import io.quarkus.mongodb.reactive.ReactiveMongoClient;
 import io.quarkus.mongodb.reactive.ReactiveMongoCollection;
 import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.infrastructure.Infrastructure;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
@@ -47,11 +58,17 @@ import io.vertx.core.json.JsonObject;
 import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
 import static com.mongodb.client.model.Filters.gt;
+import static com.mongodb.client.model.Filters.gte;
 import static com.mongodb.client.model.Filters.in;
 import static com.mongodb.client.model.Filters.lt;
+import static com.mongodb.client.model.Filters.lte;
+import static com.mongodb.client.model.Filters.ne;
+import static com.mongodb.client.model.Filters.or;
 import static com.mongodb.client.model.Indexes.ascending;
 import static com.mongodb.client.model.ReturnDocument.AFTER;
 import static com.mongodb.client.model.Sorts.descending;
+import static com.mongodb.client.model.Updates.combine;
+import static com.mongodb.client.model.Updates.set;
 import static java.util.Arrays.stream;
 import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.counting;
@@ -72,6 +89,10 @@ public class MongoDBJobRepository extends BaseReactiveJobRepository implements R
 
     static final String FIRE_TIME_COLUMN = "trigger.nextFireTime";
 
+    static final String LAST_UPDATE_COLUMN = "lastUpdate";
+
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
     private static final JsonWriterSettings jsonWriterSettings = JsonWriterSettings.builder()
             .int64Converter((value, writer) -> writer.writeNumber(value.toString())).build();
 
@@ -94,6 +115,7 @@ public class MongoDBJobRepository extends BaseReactiveJobRepository implements R
 
     void onStart(@Observes StartupEvent ev) {
         this.collection.createIndex(ascending(STATUS_COLUMN, FIRE_TIME_COLUMN)).await().indefinitely();
+        this.collection.createIndex(ascending(FIRE_TIME_COLUMN, ID)).await().indefinitely();
     }
 
     @Override
@@ -109,6 +131,43 @@ public class MongoDBJobRepository extends BaseReactiveJobRepository implements R
                 .toCompletionStage();
     }
 
+    @Override
+    public CompletionStage<JobDetails> doSaveIfNotClaimed(JobDetails job) {
+        //the upsert of a claimed job does not match the filter and fails with a duplicate key, so it is not saved
+        return collection.findOneAndReplace(
+                and(eq(ID, job.getId()), ne(STATUS_COLUMN, JobStatus.CLAIMED.name())),
+                jsonToDocument(jobDetailsMarshaller.marshall(job)),
+                new FindOneAndReplaceOptions().upsert(true).returnDocument(AFTER))
+                .map(document -> documentToJson(document))
+                .map(jobDetailsMarshaller::unmarshall)
+                .onFailure(MongoDBJobRepository::isDuplicateKey).recoverWithNull()
+                .emitOn(Infrastructure.getDefaultExecutor())
+                .convert()
+                .toCompletionStage();
+    }
+
+    private static boolean isDuplicateKey(Throwable error) {
+        return error instanceof MongoServerException && ((MongoServerException) error).getCode() == DUPLICATE_KEY_ERROR;
+    }
+
+    @Override
+    public CompletionStage<List<JobDetails>> doSaveAll(List<JobDetails> jobs) {
+        if (jobs.isEmpty()) {
+            return CompletableFuture.completedFuture(jobs);
+        }
+        List<ReplaceOneModel<Document>> writes = jobs.stream()
+                .map(job -> new ReplaceOneModel<>(
+                        eq(ID, job.getId()),
+                        jsonToDocument(jobDetailsMarshaller.marshall(job)),
+                        new ReplaceOptions().upsert(true)))
+                .collect(toList());
+        return collection.bulkWrite(writes)
+                .map(result -> jobs)
+                .emitOn(Infrastructure.getDefaultExecutor())
+                .convert()
+                .toCompletionStage();
+    }
+
     @Override
     public CompletionStage<JobDetails> get(String id) {
         return collection.find(eq(ID, id))
@@ -140,6 +199,15 @@ public class MongoDBJobRepository extends BaseReactiveJobRepository implements R
                 .toCompletionStage();
     }
 
+    @Override
+    public CompletionStage<Long> doDeleteAll(List<String> ids) {
+        return collection.deleteMany(in(ID, ids))
+                .map(DeleteResult::getDeletedCount)
+                .emitOn(Infrastructure.getDefaultExecutor())
+                .convert()
+                .toCompletionStage();
+    }
+
     @Override
     public PublisherBuilder<JobDetails> findAll() {
         return fromPublisher(collection.find()
@@ -166,6 +234,73 @@ public class MongoDBJobRepository extends BaseReactiveJobRepository implements R
                         .toPublisher());
     }
 
+    @Override
+    public CompletionStage<List<JobDetails>> findPageByStatusBetweenDatesOrderByFireTime(ZonedDateTime afterFireTime, String afterId,
+            ZonedDateTime to, int pageSize, JobStatus... status) {
+        final long after = afterFireTime.toInstant().toEpochMilli();
+        final Bson keyset = afterId == null
+                ? gte(FIRE_TIME_COLUMN, after)
+                : or(gt(FIRE_TIME_COLUMN, after), and(eq(FIRE_TIME_COLUMN, after), gt(ID, afterId)));
+        return collection.find(
+                and(
+                        in(STATUS_COLUMN, stream(status).map(Enum::name).collect(toList())),
+                        keyset,
+                        lte(FIRE_TIME_COLUMN, to.toInstant().toEpochMilli())),
+                new FindOptions().sort(ascending(FIRE_TIME_COLUMN, ID)).limit(pageSize))
+                .map(document -> documentToJson(document))
+                .map(jobDetailsMarshaller::unmarshall)
+                .collect().asList()
+                .emitOn(Infrastructure.getDefaultExecutor())
+                .convert()
+                .toCompletionStage();
+    }
+
+    @Override
+    public CompletionStage<List<JobDetails>> claim(ZonedDateTime from, ZonedDateTime to, int limit) {
+        //each job is claimed with a conditional update on its status, the ones claimed concurrently are skipped
+        return Multi.createFrom().completionStage(findPageByStatusBetweenDatesOrderByFireTime(from, null, to, limit, JobStatus.SCHEDULED))
+                .onItem().<JobDetails> disjoint()
+                .onItem().transformToUniAndConcatenate(job -> collection.findOneAndUpdate(
+                        and(eq(ID, job.getId()), eq(STATUS_COLUMN, JobStatus.SCHEDULED.name())),
+                        statusUpdate(JobStatus.CLAIMED),
+                        new FindOneAndUpdateOptions().returnDocument(AFTER)))
+                .map(document -> documentToJson(document))
+                .map(jobDetailsMarshaller::unmarshall)
+                .collect().asList()
+                .emitOn(Infrastructure.getDefaultExecutor())
+                .convert()
+                .toCompletionStage();
+    }
+
+    @Override
+    public CompletionStage<Long> releaseExpiredClaims(ZonedDateTime claimedBefore) {
+        return collection.updateMany(
+                and(eq(STATUS_COLUMN, JobStatus.CLAIMED.name()), lt(LAST_UPDATE_COLUMN, claimedBefore.toInstant().toEpochMilli())),
+                statusUpdate(JobStatus.SCHEDULED))
+                .map(UpdateResult::getModifiedCount)
+                .emitOn(Infrastructure.getDefaultExecutor())
+                .convert()
+                .toCompletionStage();
+    }
+
+    @Override
+    public CompletionStage<Long> refreshClaims(List<String> ids) {
+        if (ids.isEmpty()) {
+            return CompletableFuture.completedFuture(0L);
+        }
+        return collection.updateMany(
+                and(in(ID, ids), eq(STATUS_COLUMN, JobStatus.CLAIMED.name())),
+                set(LAST_UPDATE_COLUMN, DateUtil.now().toInstant().toEpochMilli()))
+                .map(UpdateResult::getModifiedCount)
+                .emitOn(Infrastructure.getDefaultExecutor())
+                .convert()
+                .toCompletionStage();
+    }
+
+    private static Bson statusUpdate(JobStatus status) {
+        return combine(set(STATUS_COLUMN, status.name()), set(LAST_UPDATE_COLUMN, DateUtil.now().toInstant().toEpochMilli()));
+    }
+
     static JsonObject documentToJson(Document document) {
         return ofNullable(document).map(doc -> new JsonObject(doc.toJson(jsonWriterSettings))).orElse(null);
     }
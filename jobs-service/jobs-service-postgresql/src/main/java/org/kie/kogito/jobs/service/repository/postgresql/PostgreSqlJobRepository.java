@@ -18,21 +18,29 @@ package org.kie.kogito.jobs.service.repository.postgresql;
 
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
 import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
 import org.kie.kogito.jobs.service.model.JobDetails;
 import org.kie.kogito.jobs.service.model.JobStatus;
 import org.kie.kogito.jobs.service.repository.ReactiveJobRepository;
 import org.kie.kogito.jobs.service.repository.impl.BaseReactiveJobRepository;
+import org.kie.kogito.jobs.service.repository.marshaller.BinaryRecipientMarshaller;
+import org.kie.kogito.jobs.service.repository.marshaller.BinaryTriggerMarshaller;
 import org.kie.kogito.jobs.service.repository.marshaller.RecipientMarshaller;
 import org.kie.kogito.jobs.service.repository.marshaller.TriggerMarshaller;
 import org.kie.kogito.jobs.service.stream.JobStreams;
@@ -40,7 +48,9 @@ import org.kie.kogito.jobs.service.utils.DateUtil;
 import org.kie.kogito.timer.Trigger;
 
 import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.mutiny.pgclient.PgPool;
 import io.vertx.mutiny.sqlclient.Row;
@@ -55,10 +65,41 @@ public class PostgreSqlJobRepository extends BaseReactiveJobRepository implement
 
     public static final Integer MAX_ITEMS_QUERY = 10000;
 
+    /**
+     * Max number of rows per multi-row statement, it keeps the bind parameters far below the protocol limit.
+     */
+    static final int MAX_ITEMS_BATCH = 1000;
+
+    private static final int UPSERT_PARAMETERS = 14;
+
     private static final String JOB_DETAILS_TABLE = "job_details";
 
     private static final String JOB_DETAILS_COLUMNS = "id, correlation_id, status, last_update, retries, " +
-            "execution_counter, scheduled_id, priority, recipient, trigger, fire_time, execution_timeout, execution_timeout_unit";
+            "execution_counter, scheduled_id, priority, recipient, trigger, fire_time, execution_timeout, execution_timeout_unit, " +
+            "recipient_bin, trigger_bin";
+
+    /**
+     * Columns read in the JSON format, the binary columns are only returned for the rows without JSON data.
+     */
+    private static final String JSON_READ_COLUMNS = "id, correlation_id, status, last_update, retries, " +
+            "execution_counter, scheduled_id, priority, recipient, trigger, fire_time, execution_timeout, execution_timeout_unit, " +
+            "CASE WHEN recipient IS NULL THEN recipient_bin END AS recipient_bin, CASE WHEN trigger IS NULL THEN trigger_bin END AS trigger_bin";
+
+    /**
+     * Columns read in the binary format, the JSON columns are only returned for the rows without binary data.
+     */
+    private static final String BINARY_READ_COLUMNS = "id, correlation_id, status, last_update, retries, " +
+            "execution_counter, scheduled_id, priority, CASE WHEN recipient_bin IS NULL THEN recipient END AS recipient, " +
+            "CASE WHEN trigger_bin IS NULL THEN trigger END AS trigger, fire_time, execution_timeout, execution_timeout_unit, " +
+            "recipient_bin, trigger_bin";
+
+    private static final String UPSERT = "INSERT INTO " + JOB_DETAILS_TABLE + " (" + JOB_DETAILS_COLUMNS +
+            ") VALUES ($1, $2, $3, now(), $4, $5, $6, $7, $8, $9, $10, $11, $12, $13, $14) " +
+            "ON CONFLICT (id) DO " +
+            "UPDATE SET correlation_id = $2, status = $3, last_update = now(), retries = $4, " +
+            "execution_counter = $5, scheduled_id = $6, priority = $7, " +
+            "recipient = $8, trigger = $9, fire_time = $10, execution_timeout = $11, execution_timeout_unit = $12, " +
+            "recipient_bin = $13, trigger_bin = $14 ";
 
     private PgPool client;
 
@@ -66,51 +107,133 @@ public class PostgreSqlJobRepository extends BaseReactiveJobRepository implement
 
     private final RecipientMarshaller recipientMarshaller;
 
+    private final BinaryTriggerMarshaller binaryTriggerMarshaller;
+
+    private final BinaryRecipientMarshaller binaryRecipientMarshaller;
+
+    /**
+     * Whether the trigger and recipient are written in the compact binary format (trigger_bin and recipient_bin
+     * columns) instead of the JSONB columns. Each row is read in the format it has, so the flag can be switched on
+     * and off on existing data.
+     */
+    private final boolean binaryMarshalling;
+
+    private final String readColumns;
+
     PostgreSqlJobRepository() {
         this(null, null, null, null, null);
     }
 
-    @Inject
     public PostgreSqlJobRepository(Vertx vertx, JobStreams jobStreams, PgPool client,
             TriggerMarshaller triggerMarshaller, RecipientMarshaller recipientMarshaller) {
+        this(vertx, jobStreams, client, triggerMarshaller, recipientMarshaller, new BinaryTriggerMarshaller(),
+                new BinaryRecipientMarshaller(), false);
+    }
+
+    @Inject
+    public PostgreSqlJobRepository(Vertx vertx, JobStreams jobStreams, PgPool client,
+            TriggerMarshaller triggerMarshaller, RecipientMarshaller recipientMarshaller,
+            BinaryTriggerMarshaller binaryTriggerMarshaller, BinaryRecipientMarshaller binaryRecipientMarshaller,
+            @ConfigProperty(name = "kogito.jobs-service.repository.binaryMarshalling", defaultValue = "false") boolean binaryMarshalling) {
         super(vertx, jobStreams);
         this.client = client;
         this.triggerMarshaller = triggerMarshaller;
         this.recipientMarshaller = recipientMarshaller;
+        this.binaryTriggerMarshaller = binaryTriggerMarshaller;
+        this.binaryRecipientMarshaller = binaryRecipientMarshaller;
+        this.binaryMarshalling = binaryMarshalling;
+        this.readColumns = binaryMarshalling ? BINARY_READ_COLUMNS : JSON_READ_COLUMNS;
     }
 
     @Override
     public CompletionStage<JobDetails> doSave(JobDetails job) {
-        return client.preparedQuery("INSERT INTO " + JOB_DETAILS_TABLE + " (" + JOB_DETAILS_COLUMNS +
-                ") VALUES ($1, $2, $3, now(), $4, $5, $6, $7, $8, $9, $10, $11, $12) " +
-                "ON CONFLICT (id) DO " +
-                "UPDATE SET correlation_id = $2, status = $3, last_update = now(), retries = $4, " +
-                "execution_counter = $5, scheduled_id = $6, priority = $7, " +
-                "recipient = $8, trigger = $9, fire_time = $10, execution_timeout = $11, execution_timeout_unit = $12 " +
-                "RETURNING " + JOB_DETAILS_COLUMNS)
-                .execute(Tuple.tuple(Stream.of(
-                        job.getId(),
-                        job.getCorrelationId(),
-                        Optional.ofNullable(job.getStatus()).map(Enum::name).orElse(null),
-                        job.getRetries(),
-                        job.getExecutionCounter(),
-                        job.getScheduledId(),
-                        job.getPriority(),
-                        recipientMarshaller.marshall(job.getRecipient()),
-                        triggerMarshaller.marshall(job.getTrigger()),
-                        Optional.ofNullable(job.getTrigger()).map(Trigger::hasNextFireTime).map(DateUtil::dateToOffsetDateTime).orElse(null),
-                        job.getExecutionTimeout(),
-                        Optional.ofNullable(job.getExecutionTimeoutUnit()).map(Enum::name).orElse(null))
-                        .collect(toList())))
+        return upsert(UPSERT + "RETURNING " + readColumns, parameters(job));
+    }
+
+    @Override
+    public CompletionStage<JobDetails> doSaveIfNotClaimed(JobDetails job) {
+        //the conflicting row is locked by the upsert, so a concurrent claim either happens before and the row is not
+        //updated, no row is returned, or after and it claims the saved job
+        final List<Object> parameters = new ArrayList<>(parameters(job));
+        parameters.add(JobStatus.CLAIMED.name());
+        return upsert(UPSERT + "WHERE " + JOB_DETAILS_TABLE + ".status IS DISTINCT FROM $15 RETURNING " + readColumns, parameters);
+    }
+
+    private CompletionStage<JobDetails> upsert(String sql, List<Object> parameters) {
+        return client.preparedQuery(sql)
+                .execute(Tuple.tuple(parameters))
                 .onItem().transform(RowSet::iterator)
                 .onItem().transform(iterator -> iterator.hasNext() ? from(iterator.next()) : null)
                 .convert()
                 .toCompletableFuture();
     }
 
+    @Override
+    public CompletionStage<List<JobDetails>> doSaveAll(List<JobDetails> jobs) {
+        //a multi-row upsert fails when it affects the same row twice
+        return Multi.createFrom().iterable(partition(lastById(jobs), MAX_ITEMS_BATCH))
+                .onItem().transformToUniAndConcatenate(this::doSaveBatch)
+                .collect().<List<JobDetails>> in(ArrayList::new, List::addAll)
+                .convert()
+                .toCompletableFuture();
+    }
+
+    //one multi-row upsert per batch, the ids are unique so no row is affected twice
+    private Uni<List<JobDetails>> doSaveBatch(List<JobDetails> batch) {
+        final String values = IntStream.range(0, batch.size())
+                .map(i -> i * UPSERT_PARAMETERS)
+                .mapToObj(i -> String.format("($%d, $%d, $%d, now(), $%d, $%d, $%d, $%d, $%d, $%d, $%d, $%d, $%d, $%d, $%d)",
+                        i + 1, i + 2, i + 3, i + 4, i + 5, i + 6, i + 7, i + 8, i + 9, i + 10, i + 11, i + 12, i + 13, i + 14))
+                .collect(Collectors.joining(", "));
+        return client.preparedQuery("INSERT INTO " + JOB_DETAILS_TABLE + " (" + JOB_DETAILS_COLUMNS + ") VALUES " + values +
+                " ON CONFLICT (id) DO " +
+                "UPDATE SET correlation_id = EXCLUDED.correlation_id, status = EXCLUDED.status, last_update = now(), " +
+                "retries = EXCLUDED.retries, execution_counter = EXCLUDED.execution_counter, scheduled_id = EXCLUDED.scheduled_id, " +
+                "priority = EXCLUDED.priority, recipient = EXCLUDED.recipient, trigger = EXCLUDED.trigger, " +
+                "fire_time = EXCLUDED.fire_time, execution_timeout = EXCLUDED.execution_timeout, " +
+                "execution_timeout_unit = EXCLUDED.execution_timeout_unit, recipient_bin = EXCLUDED.recipient_bin, " +
+                "trigger_bin = EXCLUDED.trigger_bin " +
+                "RETURNING " + readColumns)
+                .execute(Tuple.tuple(batch.stream().flatMap(job -> parameters(job).stream()).collect(toList())))
+                .onItem().transform(rowSet -> {
+                    List<JobDetails> saved = new ArrayList<>(rowSet.rowCount());
+                    rowSet.forEach(row -> saved.add(from(row)));
+                    return saved;
+                });
+    }
+
+    private List<Object> parameters(JobDetails job) {
+        return Stream.of(
+                job.getId(),
+                job.getCorrelationId(),
+                Optional.ofNullable(job.getStatus()).map(Enum::name).orElse(null),
+                job.getRetries(),
+                job.getExecutionCounter(),
+                job.getScheduledId(),
+                job.getPriority(),
+                binaryMarshalling ? null : recipientMarshaller.marshall(job.getRecipient()),
+                binaryMarshalling ? null : triggerMarshaller.marshall(job.getTrigger()),
+                Optional.ofNullable(job.getTrigger()).map(Trigger::hasNextFireTime).map(DateUtil::dateToOffsetDateTime).orElse(null),
+                job.getExecutionTimeout(),
+                Optional.ofNullable(job.getExecutionTimeoutUnit()).map(Enum::name).orElse(null),
+                binaryMarshalling ? toBuffer(binaryRecipientMarshaller.marshall(job.getRecipient())) : null,
+                binaryMarshalling ? toBuffer(binaryTriggerMarshaller.marshall(job.getTrigger())) : null)
+                .collect(toList());
+    }
+
+    private static Buffer toBuffer(byte[] bytes) {
+        return Optional.ofNullable(bytes).map(Buffer::buffer).orElse(null);
+    }
+
+    static <T> List<List<T>> partition(List<T> list, int size) {
+        return IntStream.range(0, (list.size() + size - 1) / size)
+                .mapToObj(i -> list.subList(i * size, Math.min(list.size(), (i + 1) * size)))
+                .collect(toList());
+    }
+
     @Override
     public CompletionStage<JobDetails> get(String id) {
-        return client.preparedQuery("SELECT " + JOB_DETAILS_COLUMNS + " FROM " + JOB_DETAILS_TABLE + " WHERE id = $1").execute(Tuple.of(id))
+        return client.preparedQuery("SELECT " + readColumns + " FROM " + JOB_DETAILS_TABLE + " WHERE id = $1").execute(Tuple.of(id))
                 .onItem().transform(RowSet::iterator)
                 .onItem().transform(iterator -> iterator.hasNext() ? from(iterator.next()) : null)
                 .convert()
@@ -127,19 +250,28 @@ public class PostgreSqlJobRepository extends BaseReactiveJobRepository implement
 
     @Override
     public CompletionStage<JobDetails> delete(String id) {
-        return client.preparedQuery("DELETE FROM " + JOB_DETAILS_TABLE + " WHERE id = $1 RETURNING " + JOB_DETAILS_COLUMNS).execute(Tuple.of(id))
+        return client.preparedQuery("DELETE FROM " + JOB_DETAILS_TABLE + " WHERE id = $1 RETURNING " + readColumns).execute(Tuple.of(id))
                 .onItem().transform(RowSet::iterator)
                 .onItem().transform(iterator -> iterator.hasNext() ? from(iterator.next()) : null)
                 .convert()
                 .toCompletableFuture();
     }
 
+    @Override
+    public CompletionStage<Long> doDeleteAll(List<String> ids) {
+        return client.preparedQuery("DELETE FROM " + JOB_DETAILS_TABLE + " WHERE id = ANY($1)")
+                .execute(Tuple.of(ids.toArray(new String[0])))
+                .onItem().transform(rowSet -> (long) rowSet.rowCount())
+                .convert()
+                .toCompletableFuture();
+    }
+
     @Override
     public PublisherBuilder<JobDetails> findByStatus(JobStatus... status) {
         String statusQuery = createStatusQuery(status);
         String query = " WHERE " + statusQuery;
         return ReactiveStreams.fromPublisher(
-                client.preparedQuery("SELECT " + JOB_DETAILS_COLUMNS + " FROM " + JOB_DETAILS_TABLE + query + " ORDER BY priority DESC LIMIT $1").execute(Tuple.of(MAX_ITEMS_QUERY))
+                client.preparedQuery("SELECT " + readColumns + " FROM " + JOB_DETAILS_TABLE + query + " ORDER BY priority DESC LIMIT $1").execute(Tuple.of(MAX_ITEMS_QUERY))
                         .onItem().transformToMulti(rowSet -> Multi.createFrom().iterable(rowSet))
                         .onItem().transform(this::from));
     }
@@ -147,7 +279,7 @@ public class PostgreSqlJobRepository extends BaseReactiveJobRepository implement
     @Override
     public PublisherBuilder<JobDetails> findAll() {
         return ReactiveStreams.fromPublisher(
-                client.preparedQuery("SELECT " + JOB_DETAILS_COLUMNS + " FROM " + JOB_DETAILS_TABLE + " LIMIT $1").execute(Tuple.of(MAX_ITEMS_QUERY))
+                client.preparedQuery("SELECT " + readColumns + " FROM " + JOB_DETAILS_TABLE + " LIMIT $1").execute(Tuple.of(MAX_ITEMS_QUERY))
                         .onItem().transformToMulti(rowSet -> Multi.createFrom().iterable(rowSet))
                         .onItem().transform(this::from));
     }
@@ -159,12 +291,73 @@ public class PostgreSqlJobRepository extends BaseReactiveJobRepository implement
         String query = " WHERE " + statusQuery + " AND " + timeQuery;
 
         return ReactiveStreams.fromPublisher(
-                client.preparedQuery("SELECT " + JOB_DETAILS_COLUMNS + " FROM " + JOB_DETAILS_TABLE + query + " ORDER BY priority DESC LIMIT $1")
+                client.preparedQuery("SELECT " + readColumns + " FROM " + JOB_DETAILS_TABLE + query + " ORDER BY priority DESC LIMIT $1")
                         .execute(Tuple.of(MAX_ITEMS_QUERY, from.toOffsetDateTime(), to.toOffsetDateTime()))
                         .onItem().transformToMulti(rowSet -> Multi.createFrom().iterable(rowSet))
                         .onItem().transform(this::from));
     }
 
+    @Override
+    public CompletionStage<List<JobDetails>> findPageByStatusBetweenDatesOrderByFireTime(ZonedDateTime afterFireTime, String afterId,
+            ZonedDateTime to, int pageSize, JobStatus... status) {
+        //the row comparison on (fire_time, id) is resolved with the job_details_fire_time_id_idx index
+        final String keysetQuery = afterId == null ? "fire_time >= $2" : "(fire_time, id) > ($2, $4)";
+        final String query = " WHERE " + createStatusQuery(status) + " AND " + keysetQuery + " AND fire_time <= $3";
+        final Tuple parameters = Tuple.of(pageSize, afterFireTime.toOffsetDateTime(), to.toOffsetDateTime());
+        if (afterId != null) {
+            parameters.addString(afterId);
+        }
+        return client.preparedQuery("SELECT " + readColumns + " FROM " + JOB_DETAILS_TABLE + query + " ORDER BY fire_time, id LIMIT $1")
+                .execute(parameters)
+                .onItem().transform(rowSet -> {
+                    List<JobDetails> page = new ArrayList<>(rowSet.rowCount());
+                    rowSet.forEach(row -> page.add(from(row)));
+                    return page;
+                })
+                .convert()
+                .toCompletableFuture();
+    }
+
+    @Override
+    public CompletionStage<List<JobDetails>> claim(ZonedDateTime from, ZonedDateTime to, int limit) {
+        //the rows locked by a concurrent claim are skipped instead of waiting for them, so each job is claimed once
+        return client.preparedQuery("UPDATE " + JOB_DETAILS_TABLE + " SET status = $1, last_update = now() " +
+                "WHERE id IN (SELECT id FROM " + JOB_DETAILS_TABLE +
+                " WHERE status = $2 AND fire_time >= $3 AND fire_time <= $4 ORDER BY fire_time, id LIMIT $5 FOR UPDATE SKIP LOCKED) " +
+                "RETURNING " + readColumns)
+                .execute(Tuple.of(JobStatus.CLAIMED.name(), JobStatus.SCHEDULED.name(), from.toOffsetDateTime(), to.toOffsetDateTime(), limit))
+                .onItem().transform(rowSet -> {
+                    List<JobDetails> claimed = new ArrayList<>(rowSet.rowCount());
+                    rowSet.forEach(row -> claimed.add(from(row)));
+                    //RETURNING does not keep the order of the sub-select
+                    claimed.sort(Comparator.comparing((JobDetails j) -> j.getTrigger().hasNextFireTime()).thenComparing(JobDetails::getId));
+                    return claimed;
+                })
+                .convert()
+                .toCompletableFuture();
+    }
+
+    @Override
+    public CompletionStage<Long> releaseExpiredClaims(ZonedDateTime claimedBefore) {
+        return client.preparedQuery("UPDATE " + JOB_DETAILS_TABLE + " SET status = $1, last_update = now() WHERE status = $2 AND last_update < $3")
+                .execute(Tuple.of(JobStatus.SCHEDULED.name(), JobStatus.CLAIMED.name(), claimedBefore.toOffsetDateTime()))
+                .onItem().transform(rowSet -> (long) rowSet.rowCount())
+                .convert()
+                .toCompletableFuture();
+    }
+
+    @Override
+    public CompletionStage<Long> refreshClaims(List<String> ids) {
+        if (ids.isEmpty()) {
+            return CompletableFuture.completedFuture(0L);
+        }
+        return client.preparedQuery("UPDATE " + JOB_DETAILS_TABLE + " SET last_update = now() WHERE status = $1 AND id = ANY($2)")
+                .execute(Tuple.of(JobStatus.CLAIMED.name(), ids.toArray(new String[0])))
+                .onItem().transform(rowSet -> (long) rowSet.rowCount())
+                .convert()
+                .toCompletableFuture();
+    }
+
     static String createStatusQuery(JobStatus... status) {
         return Arrays.stream(status).map(JobStatus::name)
                 .collect(Collectors.joining("', '", "status IN ('", "')"));
@@ -184,8 +377,12 @@ public class PostgreSqlJobRepository extends BaseReactiveJobRepository implement
                 .executionCounter(row.getInteger("execution_counter"))
                 .scheduledId(row.getString("scheduled_id"))
                 .priority(row.getInteger("priority"))
-                .recipient(recipientMarshaller.unmarshall(row.get(JsonObject.class, "recipient")))
-                .trigger(triggerMarshaller.unmarshall(row.get(JsonObject.class, "trigger")))
+                .recipient(Optional.ofNullable(row.getBuffer("recipient_bin"))
+                        .map(b -> binaryRecipientMarshaller.unmarshall(b.getBytes()))
+                        .orElseGet(() -> recipientMarshaller.unmarshall(row.get(JsonObject.class, "recipient"))))
+                .trigger(Optional.ofNullable(row.getBuffer("trigger_bin"))
+                        .map(b -> binaryTriggerMarshaller.unmarshall(b.getBytes()))
+                        .orElseGet(() -> triggerMarshaller.unmarshall(row.get(JsonObject.class, "trigger"))))
                 .executionTimeout(row.getLong("execution_timeout"))
                 .executionTimeoutUnit(Optional.ofNullable(row.getString("execution_timeout_unit")).map(ChronoUnit::valueOf).orElse(null))
                 .build();
@@ -15,6 +15,9 @@
  */
 package org.kie.kogito.jobs.service.repository.postgresql;
 
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -96,4 +99,41 @@ public class PostgreSqlJobServiceManagementRepository implements JobServiceManag
                 .onItem().transform(iterator -> iterator.hasNext() ? from(iterator.next()) : null)
                 .onItem().invoke(r -> LOGGER.debug("Heartbeat {}", r)));
     }
+
+    /**
+     * The row is created first, so the conditional update always has a row to lock: when several instances compete for
+     * the same lease the update of the first one blocks the others, which then re-evaluate the condition against the
+     * committed row and update nothing.
+     */
+    @Override
+    public Uni<JobServiceManagementInfo> tryAcquire(String id, String token, OffsetDateTime expiredBefore) {
+        return client.withTransaction(conn -> conn
+                .preparedQuery("INSERT INTO job_service_management (id, token, last_heartbeat) VALUES ($1, NULL, NULL) ON CONFLICT (id) DO NOTHING")
+                .execute(Tuple.of(id))
+                .chain(r -> conn.preparedQuery("UPDATE job_service_management SET token = $2, last_heartbeat = now() " +
+                        "WHERE id = $1 AND (token IS NULL OR token = $2 OR last_heartbeat IS NULL OR last_heartbeat < $3) " +
+                        "RETURNING id, token, last_heartbeat")
+                        .execute(Tuple.of(id, token, expiredBefore)))
+                .onItem().transform(RowSet::iterator)
+                .onItem().transform(iterator -> iterator.hasNext() ? from(iterator.next()) : null)
+                .onItem().invoke(r -> LOGGER.debug("Lease {} acquired by {}: {}", id, token, r)));
+    }
+
+    @Override
+    public Uni<List<JobServiceManagementInfo>> findByIdPrefix(String prefix) {
+        return client.preparedQuery("SELECT id, token, last_heartbeat FROM job_service_management WHERE id LIKE $1")
+                .execute(Tuple.of(prefix.replace("%", "\\%").replace("_", "\\_") + "%"))
+                .onItem().transform(rowSet -> {
+                    List<JobServiceManagementInfo> result = new ArrayList<>(rowSet.rowCount());
+                    rowSet.forEach(row -> result.add(from(row)));
+                    return result;
+                });
+    }
+
+    @Override
+    public Uni<Void> delete(String id) {
+        return client.preparedQuery("DELETE FROM job_service_management WHERE id = $1")
+                .execute(Tuple.of(id))
+                .replaceWithVoid();
+    }
 }
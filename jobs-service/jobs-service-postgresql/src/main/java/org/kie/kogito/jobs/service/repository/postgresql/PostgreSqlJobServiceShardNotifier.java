@@ -0,0 +1,121 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs.service.repository.postgresql;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.kie.kogito.jobs.service.management.JobServiceShardManager;
+import org.kie.kogito.jobs.service.management.JobServiceShardNotifier;
+import org.kie.kogito.jobs.service.management.ShardJobScheduledEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.pgclient.PgPool;
+import io.vertx.mutiny.pgclient.pubsub.PgSubscriber;
+import io.vertx.mutiny.sqlclient.Tuple;
+import io.vertx.pgclient.PgConnectOptions;
+
+/**
+ * Notifies the owner of the shard through PostgreSQL NOTIFY, every instance of the partitioned mode LISTENs on the
+ * {@link #CHANNEL} with a dedicated connection, the pooled ones cannot be used to receive notifications.
+ */
+@ApplicationScoped
+public class PostgreSqlJobServiceShardNotifier implements JobServiceShardNotifier {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PostgreSqlJobServiceShardNotifier.class);
+
+    static final String CHANNEL = "kogito_jobs_service_scheduled";
+
+    private static final String REACTIVE_URL_PREFIX = "vertx-reactive:";
+
+    private static final long RECONNECT_INTERVAL_MILLIS = 1000;
+
+    @ConfigProperty(name = "quarkus.datasource.reactive.url")
+    Optional<String> url;
+
+    @ConfigProperty(name = "quarkus.datasource.username")
+    Optional<String> username;
+
+    @ConfigProperty(name = "quarkus.datasource.password")
+    Optional<String> password;
+
+    private final PgPool client;
+
+    private final Vertx vertx;
+
+    private final JobServiceShardManager shardManager;
+
+    private final Event<ShardJobScheduledEvent> scheduledEvent;
+
+    private PgSubscriber subscriber;
+
+    @Inject
+    public PostgreSqlJobServiceShardNotifier(PgPool client, Vertx vertx, JobServiceShardManager shardManager,
+            Event<ShardJobScheduledEvent> scheduledEvent) {
+        this.client = client;
+        this.vertx = vertx;
+        this.shardManager = shardManager;
+        this.scheduledEvent = scheduledEvent;
+    }
+
+    void startup(@Observes StartupEvent event) {
+        if (!shardManager.isEnabled()) {
+            return;
+        }
+        if (!url.isPresent()) {
+            LOGGER.warn("No reactive datasource url, the jobs scheduled through other instances are loaded periodically");
+            return;
+        }
+        final PgConnectOptions options = PgConnectOptions.fromUri(url.get().replace(REACTIVE_URL_PREFIX, ""));
+        username.ifPresent(options::setUser);
+        password.ifPresent(options::setPassword);
+        subscriber = PgSubscriber.subscriber(vertx, options)
+                .reconnectPolicy(retries -> RECONNECT_INTERVAL_MILLIS);
+        subscriber.channel(CHANNEL).handler(this::onNotification);
+        subscriber.connect().subscribe().with(v -> LOGGER.info("Listening to the jobs scheduled through other instances"),
+                ex -> LOGGER.error("Error listening to the jobs scheduled through other instances", ex));
+    }
+
+    void onShutdown(@Observes ShutdownEvent event) {
+        if (Objects.nonNull(subscriber)) {
+            subscriber.closeAndAwait();
+        }
+    }
+
+    void onNotification(String jobId) {
+        LOGGER.debug("Job {} scheduled through another instance", jobId);
+        scheduledEvent.fire(new ShardJobScheduledEvent(jobId));
+    }
+
+    @Override
+    public Uni<Void> notifyScheduled(String jobId) {
+        //NOTIFY is delivered on commit, the job was already persisted in a previous statement
+        return client.preparedQuery("SELECT pg_notify($1, $2)")
+                .execute(Tuple.of(CHANNEL, jobId))
+                .replaceWithVoid();
+    }
+}
@@ -0,0 +1,4 @@
+DROP INDEX job_details_fire_time_idx;
+
+CREATE INDEX job_details_fire_time_id_idx
+    ON job_details (fire_time, id);
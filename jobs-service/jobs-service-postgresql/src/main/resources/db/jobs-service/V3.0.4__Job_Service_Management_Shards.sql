@@ -0,0 +1,5 @@
+ALTER TABLE job_service_management
+    ALTER COLUMN id TYPE VARCHAR(100);
+
+ALTER TABLE job_service_management
+    DROP CONSTRAINT IF EXISTS job_service_management_token_key;
@@ -0,0 +1,5 @@
+ALTER TABLE job_details
+    ADD COLUMN recipient_bin BYTEA;
+
+ALTER TABLE job_details
+    ADD COLUMN trigger_bin BYTEA;
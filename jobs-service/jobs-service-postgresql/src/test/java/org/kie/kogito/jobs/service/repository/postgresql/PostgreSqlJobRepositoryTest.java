@@ -33,6 +33,8 @@ import org.kie.kogito.jobs.service.model.JobDetails;
 import org.kie.kogito.jobs.service.model.JobStatus;
 import org.kie.kogito.jobs.service.model.Recipient;
 import org.kie.kogito.jobs.service.model.RecipientInstance;
+import org.kie.kogito.jobs.service.repository.marshaller.BinaryRecipientMarshaller;
+import org.kie.kogito.jobs.service.repository.marshaller.BinaryTriggerMarshaller;
 import org.kie.kogito.jobs.service.repository.marshaller.RecipientMarshaller;
 import org.kie.kogito.jobs.service.repository.marshaller.TriggerMarshaller;
 import org.kie.kogito.jobs.service.utils.DateUtil;
@@ -46,6 +48,7 @@ import io.smallrye.mutiny.groups.MultiOnItem;
 import io.smallrye.mutiny.groups.UniConvert;
 import io.smallrye.mutiny.groups.UniOnItem;
 import io.vertx.core.json.JsonObject;
+import io.vertx.mutiny.core.buffer.Buffer;
 import io.vertx.mutiny.pgclient.PgPool;
 import io.vertx.mutiny.sqlclient.PreparedQuery;
 import io.vertx.mutiny.sqlclient.Row;
@@ -53,8 +56,11 @@ import io.vertx.mutiny.sqlclient.RowSet;
 import io.vertx.mutiny.sqlclient.Tuple;
 
 import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
@@ -150,11 +156,12 @@ class PostgreSqlJobRepositoryTest {
         verify(query, times(1)).execute(parameterCaptor.capture());
 
         String query = "INSERT INTO " + JOB_DETAILS + " (id, correlation_id, status, last_update, retries, execution_counter, scheduled_id, " +
-                "priority, recipient, trigger, fire_time, execution_timeout, execution_timeout_unit) VALUES ($1, $2, $3, now(), $4, $5, $6, $7, $8, $9, $10, $11, $12) " +
+                "priority, recipient, trigger, fire_time, execution_timeout, execution_timeout_unit, recipient_bin, trigger_bin) VALUES ($1, $2, $3, now(), $4, $5, $6, $7, $8, $9, $10, $11, $12, $13, $14) " +
                 "ON CONFLICT (id) DO UPDATE SET correlation_id = $2, status = $3, last_update = now(), retries = $4, " +
                 "execution_counter = $5, scheduled_id = $6, priority = $7, " +
-                "recipient = $8, trigger = $9, fire_time = $10, execution_timeout = $11, execution_timeout_unit = $12 RETURNING id, correlation_id, status, last_update, retries, " +
-                "execution_counter, scheduled_id, priority, recipient, trigger, fire_time, execution_timeout, execution_timeout_unit";
+                "recipient = $8, trigger = $9, fire_time = $10, execution_timeout = $11, execution_timeout_unit = $12, recipient_bin = $13, trigger_bin = $14 RETURNING id, correlation_id, status, last_update, retries, " +
+                "execution_counter, scheduled_id, priority, recipient, trigger, fire_time, execution_timeout, execution_timeout_unit, " +
+                "CASE WHEN recipient IS NULL THEN recipient_bin END AS recipient_bin, CASE WHEN trigger IS NULL THEN trigger_bin END AS trigger_bin";
 
         Tuple parameter = Tuple.tuple(Stream.of(
                 job.getId(),
@@ -197,7 +204,8 @@ class PostgreSqlJobRepositoryTest {
         verify(query, times(1)).execute(parameterCaptor.capture());
 
         String query = "SELECT id, correlation_id, status, last_update, retries, execution_counter, scheduled_id, " +
-                "priority, recipient, trigger, fire_time, execution_timeout, execution_timeout_unit FROM " + JOB_DETAILS + " WHERE id = $1";
+                "priority, recipient, trigger, fire_time, execution_timeout, execution_timeout_unit, " +
+                "CASE WHEN recipient IS NULL THEN recipient_bin END AS recipient_bin, CASE WHEN trigger IS NULL THEN trigger_bin END AS trigger_bin FROM " + JOB_DETAILS + " WHERE id = $1";
         String parameter = "test";
 
         assertEquals(query, queryCaptor.getValue());
@@ -233,7 +241,8 @@ class PostgreSqlJobRepositoryTest {
 
         String query = "DELETE FROM " + JOB_DETAILS + " WHERE id = $1 " +
                 "RETURNING id, correlation_id, status, last_update, retries, " +
-                "execution_counter, scheduled_id, priority, recipient, trigger, fire_time, execution_timeout, execution_timeout_unit";
+                "execution_counter, scheduled_id, priority, recipient, trigger, fire_time, execution_timeout, execution_timeout_unit, " +
+                "CASE WHEN recipient IS NULL THEN recipient_bin END AS recipient_bin, CASE WHEN trigger IS NULL THEN trigger_bin END AS trigger_bin";
         String parameter = "test";
 
         assertEquals(query, queryCaptor.getValue());
@@ -249,7 +258,8 @@ class PostgreSqlJobRepositoryTest {
         verify(client, times(1)).preparedQuery(queryCaptor.capture());
 
         String query = "SELECT id, correlation_id, status, last_update, retries, " +
-                "execution_counter, scheduled_id, priority, recipient, trigger, fire_time, execution_timeout, execution_timeout_unit FROM " + JOB_DETAILS + " LIMIT $1";
+                "execution_counter, scheduled_id, priority, recipient, trigger, fire_time, execution_timeout, execution_timeout_unit, " +
+                "CASE WHEN recipient IS NULL THEN recipient_bin END AS recipient_bin, CASE WHEN trigger IS NULL THEN trigger_bin END AS trigger_bin FROM " + JOB_DETAILS + " LIMIT $1";
 
         assertEquals(query, queryCaptor.getValue());
     }
@@ -266,7 +276,8 @@ class PostgreSqlJobRepositoryTest {
         verify(client, times(1)).preparedQuery(queryCaptor.capture());
 
         String query = "SELECT id, correlation_id, status, last_update, retries, execution_counter, scheduled_id, " +
-                "priority, recipient, trigger, fire_time, execution_timeout, execution_timeout_unit FROM " + JOB_DETAILS + " " +
+                "priority, recipient, trigger, fire_time, execution_timeout, execution_timeout_unit, " +
+                "CASE WHEN recipient IS NULL THEN recipient_bin END AS recipient_bin, CASE WHEN trigger IS NULL THEN trigger_bin END AS trigger_bin FROM " + JOB_DETAILS + " " +
                 "WHERE status IN ('SCHEDULED', 'RETRY') AND fire_time BETWEEN $2 AND $3 ORDER BY priority DESC LIMIT $1";
 
         assertEquals(query, queryCaptor.getValue());
@@ -284,7 +295,8 @@ class PostgreSqlJobRepositoryTest {
         verify(client, times(1)).preparedQuery(queryCaptor.capture());
 
         String query = "SELECT id, correlation_id, status, last_update, retries, execution_counter, scheduled_id, " +
-                "priority, recipient, trigger, fire_time, execution_timeout, execution_timeout_unit FROM " + JOB_DETAILS + " " +
+                "priority, recipient, trigger, fire_time, execution_timeout, execution_timeout_unit, " +
+                "CASE WHEN recipient IS NULL THEN recipient_bin END AS recipient_bin, CASE WHEN trigger IS NULL THEN trigger_bin END AS trigger_bin FROM " + JOB_DETAILS + " " +
                 "WHERE status IN ('SCHEDULED') AND fire_time BETWEEN $2 AND $3 ORDER BY priority DESC LIMIT $1";
 
         assertEquals(query, queryCaptor.getValue());
@@ -340,4 +352,53 @@ class PostgreSqlJobRepositoryTest {
 
         assertEquals(expected, jobDetails);
     }
+
+    @Test
+    void binaryMarshalling() {
+        PointInTimeTrigger trigger = new PointInTimeTrigger(fireTime.toInstant().toEpochMilli(), null, null);
+        Recipient recipient = new RecipientInstance(HttpRecipient.builder().forStringPayload().url(URL).payload(HttpRecipientStringPayloadData.from(PAYLOAD_TEST)).build());
+        TriggerMarshaller triggerMarshaller = new TriggerMarshaller();
+        RecipientMarshaller recipientMarshaller = new RecipientMarshaller();
+        BinaryTriggerMarshaller binaryTriggerMarshaller = new BinaryTriggerMarshaller();
+        BinaryRecipientMarshaller binaryRecipientMarshaller = new BinaryRecipientMarshaller();
+        repository = new PostgreSqlJobRepository(null, null, client, triggerMarshaller, recipientMarshaller,
+                binaryTriggerMarshaller, binaryRecipientMarshaller, true);
+
+        repository.doSave(JobDetails.builder().id("test").recipient(recipient).trigger(trigger).build());
+
+        ArgumentCaptor<String> queryCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Tuple> parameterCaptor = ArgumentCaptor.forClass(Tuple.class);
+        verify(client, times(1)).preparedQuery(queryCaptor.capture());
+        verify(query, times(1)).execute(parameterCaptor.capture());
+        //the JSON columns are only returned for the rows without binary data
+        assertTrue(queryCaptor.getValue().endsWith("RETURNING id, correlation_id, status, last_update, retries, execution_counter, scheduled_id, " +
+                "priority, CASE WHEN recipient_bin IS NULL THEN recipient END AS recipient, CASE WHEN trigger_bin IS NULL THEN trigger END AS trigger, " +
+                "fire_time, execution_timeout, execution_timeout_unit, recipient_bin, trigger_bin"));
+        Tuple parameters = parameterCaptor.getValue();
+        assertNull(parameters.getValue(7));
+        assertNull(parameters.getValue(8));
+        assertArrayEquals(binaryRecipientMarshaller.marshall(recipient), parameters.getBuffer(12).getBytes());
+        assertArrayEquals(binaryTriggerMarshaller.marshall(trigger), parameters.getBuffer(13).getBytes());
+
+        Row row = mock(Row.class);
+        when(row.getString("id")).thenReturn("test");
+        when(row.getBuffer("recipient_bin")).thenReturn(Buffer.buffer(binaryRecipientMarshaller.marshall(recipient)));
+        when(row.getBuffer("trigger_bin")).thenReturn(Buffer.buffer(binaryTriggerMarshaller.marshall(trigger)));
+
+        JobDetails jobDetails = repository.from(row);
+
+        assertEquals(recipient, jobDetails.getRecipient());
+        assertEquals(trigger.hasNextFireTime(), jobDetails.getTrigger().hasNextFireTime());
+
+        //rows written before the flag was switched on are read from the JSON columns
+        Row jsonRow = mock(Row.class);
+        when(jsonRow.getString("id")).thenReturn("test");
+        when(jsonRow.get(JsonObject.class, "recipient")).thenReturn(recipientMarshaller.marshall(recipient));
+        when(jsonRow.get(JsonObject.class, "trigger")).thenReturn(triggerMarshaller.marshall(trigger));
+
+        JobDetails jsonJobDetails = repository.from(jsonRow);
+
+        assertEquals(recipient, jsonJobDetails.getRecipient());
+        assertEquals(trigger.hasNextFireTime(), jsonJobDetails.getTrigger().hasNextFireTime());
+    }
 }
@@ -16,6 +16,7 @@
 package org.kie.kogito.jobs.service.repository.postgresql;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.inject.Inject;
@@ -29,6 +30,7 @@ import org.kie.kogito.testcontainers.quarkus.PostgreSqlQuarkusTestResource;
 
 import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.mutiny.Multi;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -101,4 +103,52 @@ class PostgreSqlJobServiceManagementRepositoryIT {
         JobServiceManagementInfo updated = tested.heartbeat(new JobServiceManagementInfo(id, "differentToken", null)).await().indefinitely();
         assertThat(updated).isNull();
     }
+
+    @Test
+    void testFindByIdPrefixAndDelete() {
+        create("shards-test-shard-0", "token5");
+        create("shards-test-shard-1", "token5");
+        create("shards_test-shard-2", "token6");
+
+        List<JobServiceManagementInfo> found = tested.findByIdPrefix("shards-test-").await().indefinitely();
+        assertThat(found).extracting(JobServiceManagementInfo::getId)
+                .containsExactlyInAnyOrder("shards-test-shard-0", "shards-test-shard-1");
+
+        tested.delete("shards-test-shard-0").await().indefinitely();
+        found = tested.findByIdPrefix("shards-test-").await().indefinitely();
+        assertThat(found).extracting(JobServiceManagementInfo::getId).containsExactly("shards-test-shard-1");
+    }
+
+    @Test
+    void testTryAcquire() {
+        String id = "acquire-test-shard-0";
+        OffsetDateTime expiration = DateUtil.now().minusSeconds(10).toOffsetDateTime();
+
+        JobServiceManagementInfo acquired = tested.tryAcquire(id, "token7", expiration).await().indefinitely();
+        assertThat(acquired.getToken()).isEqualTo("token7");
+        assertThat(acquired.getLastHeartbeat()).isNotNull();
+
+        //held by a live instance
+        assertThat(tested.tryAcquire(id, "token8", expiration).await().indefinitely()).isNull();
+        //renewed by the owner
+        assertThat(tested.tryAcquire(id, "token7", expiration).await().indefinitely().getToken()).isEqualTo("token7");
+        //expired
+        OffsetDateTime future = DateUtil.now().plusSeconds(10).toOffsetDateTime();
+        assertThat(tested.tryAcquire(id, "token8", future).await().indefinitely().getToken()).isEqualTo("token8");
+    }
+
+    @Test
+    void testTryAcquireConcurrently() {
+        String id = "acquire-test-shard-1";
+        OffsetDateTime expiration = DateUtil.now().minusSeconds(10).toOffsetDateTime();
+
+        List<JobServiceManagementInfo> acquired = Multi.createFrom().range(0, 10)
+                .onItem().transformToUni(i -> tested.tryAcquire(id, "token-" + i, expiration)).merge()
+                .collect().asList()
+                .await().indefinitely();
+
+        assertThat(acquired).hasSize(1);
+        assertThat(tested.findByIdPrefix(id).await().indefinitely()).extracting(JobServiceManagementInfo::getToken)
+                .containsExactly(acquired.get(0).getToken());
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs.service.repository.postgresql;
+
+import java.util.Optional;
+
+import javax.enterprise.event.Event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.jobs.service.management.JobServiceShardManager;
+import org.kie.kogito.jobs.service.management.ShardJobScheduledEvent;
+import org.mockito.ArgumentCaptor;
+
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.pgclient.PgPool;
+import io.vertx.mutiny.sqlclient.PreparedQuery;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.Tuple;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings({ "unchecked", "rawtypes" })
+class PostgreSqlJobServiceShardNotifierTest {
+
+    private static final String JOB_ID = "job";
+
+    PostgreSqlJobServiceShardNotifier notifier;
+
+    PgPool client;
+
+    Vertx vertx;
+
+    JobServiceShardManager shardManager;
+
+    Event<ShardJobScheduledEvent> scheduledEvent;
+
+    @BeforeEach
+    void setUp() {
+        client = mock(PgPool.class);
+        vertx = mock(Vertx.class);
+        shardManager = mock(JobServiceShardManager.class);
+        scheduledEvent = mock(Event.class);
+        notifier = new PostgreSqlJobServiceShardNotifier(client, vertx, shardManager, scheduledEvent);
+        notifier.url = Optional.of("postgresql://localhost:5432/kogito");
+        notifier.username = Optional.empty();
+        notifier.password = Optional.empty();
+    }
+
+    @Test
+    void notifyScheduled() {
+        PreparedQuery<RowSet<Row>> query = mock(PreparedQuery.class);
+        when(client.preparedQuery("SELECT pg_notify($1, $2)")).thenReturn(query);
+        when(query.execute(any(Tuple.class))).thenReturn(Uni.createFrom().item(mock(RowSet.class)));
+
+        notifier.notifyScheduled(JOB_ID).await().indefinitely();
+
+        ArgumentCaptor<Tuple> parameters = ArgumentCaptor.forClass(Tuple.class);
+        verify(query).execute(parameters.capture());
+        assertThat(parameters.getValue().getString(0)).isEqualTo(PostgreSqlJobServiceShardNotifier.CHANNEL);
+        assertThat(parameters.getValue().getString(1)).isEqualTo(JOB_ID);
+    }
+
+    @Test
+    void onNotification() {
+        notifier.onNotification(JOB_ID);
+
+        ArgumentCaptor<ShardJobScheduledEvent> event = ArgumentCaptor.forClass(ShardJobScheduledEvent.class);
+        verify(scheduledEvent).fire(event.capture());
+        assertThat(event.getValue().getJobId()).isEqualTo(JOB_ID);
+    }
+
+    @Test
+    void startupNotPartitioned() {
+        when(shardManager.isEnabled()).thenReturn(false);
+
+        notifier.startup(mock(StartupEvent.class));
+
+        verifyNoInteractions(vertx);
+    }
+}
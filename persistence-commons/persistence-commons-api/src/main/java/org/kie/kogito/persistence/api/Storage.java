@@ -15,7 +15,10 @@
  */
 package org.kie.kogito.persistence.api;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.BinaryOperator;
 
 import org.kie.kogito.persistence.api.query.Query;
 
@@ -62,6 +65,52 @@ public interface Storage<K, V> {
      */
     V put(K key, V value);
 
+    /**
+     * Gets the elements of the given keys, the keys that are not present in the storage are not included in the result.
+     * The default implementation gets the elements one by one, storages supporting bulk reads should override it.
+     *
+     * @param keys The keys.
+     * @return The elements by key.
+     */
+    default Map<K, V> getAll(Collection<K> keys) {
+        Map<K, V> result = new LinkedHashMap<>();
+        keys.forEach(key -> {
+            V value = get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Puts all the given elements, replacing the ones already present in the storage with the same key.
+     * The default implementation puts the elements one by one, storages supporting bulk writes should override it.
+     *
+     * @param entries The elements by key.
+     */
+    default void putAll(Map<K, V> entries) {
+        entries.forEach(this::put);
+    }
+
+    /**
+     * Puts an element with a key, combining it with the element already present in the storage with the same key, if any,
+     * in the same way as {@link Map#merge(Object, Object, java.util.function.BiFunction)}.
+     * The default implementation reads the present element and puts the combined one, storages able to combine the
+     * elements atomically or in place should override it.
+     *
+     * @param key The key.
+     * @param value The value to put if there is no element with the same key.
+     * @param remappingFunction Computes the value to put from the present element and the given value.
+     * @return The value put in the storage.
+     */
+    default V merge(K key, V value, BinaryOperator<V> remappingFunction) {
+        V previous = get(key);
+        V merged = previous == null ? value : remappingFunction.apply(previous, value);
+        put(key, merged);
+        return merged;
+    }
+
     /**
      * Removes an element by key. If the element is not present in the storage, then `null` is returned.
      *
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.persistence.api.listener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.operators.multi.processors.UnicastProcessor;
+import io.smallrye.mutiny.subscription.Cancellable;
+
+/**
+ * Shares the object listeners of the storages between their subscribers. The first subscription to a key opens the
+ * underlying change stream or listener, the following ones join the same hot stream, and it is closed when the last
+ * subscriber leaves. Every subscriber reads the shared stream through its own bounded buffer, so a subscriber that does
+ * not keep up loses items according to the {@link OverflowStrategy} instead of slowing down the others.
+ */
+public class ListenerBroadcaster {
+
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+
+    private final Map<String, Multi<?>> listeners = new ConcurrentHashMap<>();
+
+    private final int bufferSize;
+
+    private final OverflowStrategy overflowStrategy;
+
+    public ListenerBroadcaster() {
+        this(DEFAULT_BUFFER_SIZE, OverflowStrategy.LATEST);
+    }
+
+    public ListenerBroadcaster(int bufferSize, OverflowStrategy overflowStrategy) {
+        this.bufferSize = bufferSize;
+        this.overflowStrategy = overflowStrategy;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Multi<T> listen(String key, Supplier<Multi<T>> listener) {
+        Multi<T> shared = (Multi<T>) listeners.computeIfAbsent(key, k -> Multi.createFrom().deferred(listener::get)
+                .broadcast().withCancellationAfterLastSubscriberDeparture().toAllSubscribers());
+        return Multi.createFrom().deferred(() -> {
+            UnicastProcessor<T> buffer = UnicastProcessor.create(new OverflowQueue<>(bufferSize, overflowStrategy), null);
+            Cancellable subscription = shared.subscribe().with(buffer::onNext, buffer::onError, buffer::onComplete);
+            return buffer.onTermination().invoke(subscription::cancel);
+        });
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.persistence.api.listener;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Bounded queue that never rejects an item, it applies the {@link OverflowStrategy} instead when it is full.
+ */
+class OverflowQueue<T> extends AbstractQueue<T> {
+
+    private final ArrayBlockingQueue<T> delegate;
+
+    private final OverflowStrategy strategy;
+
+    OverflowQueue(int capacity, OverflowStrategy strategy) {
+        this.delegate = new ArrayBlockingQueue<>(capacity);
+        this.strategy = strategy;
+    }
+
+    @Override
+    public boolean offer(T item) {
+        if (strategy == OverflowStrategy.LATEST) {
+            while (!delegate.offer(item)) {
+                delegate.poll();
+            }
+        } else {
+            delegate.offer(item);
+        }
+        return true;
+    }
+
+    @Override
+    public T poll() {
+        return delegate.poll();
+    }
+
+    @Override
+    public T peek() {
+        return delegate.peek();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return delegate.iterator();
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.persistence.api.listener;
+
+/**
+ * What a listener subscriber loses once its buffer is full.
+ */
+public enum OverflowStrategy {
+
+    /**
+     * The new items are discarded until the subscriber makes room in its buffer.
+     */
+    DROP,
+
+    /**
+     * The oldest buffered items are discarded, so the subscriber always gets the latest ones.
+     */
+    LATEST
+}
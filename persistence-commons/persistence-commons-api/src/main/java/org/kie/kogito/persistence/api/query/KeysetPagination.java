@@ -0,0 +1,109 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.api.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.and;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.equalTo;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.greaterThan;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.isNull;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.lessThan;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.notNull;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.or;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.orderBy;
+
+/**
+ * Helpers to implement {@link Query#after(String)} with the filters every storage already supports: the query is
+ * sorted by its sort attributes followed by the id, and the entries after the cursor are the ones whose sort values
+ * come after the values of the cursor entry, {@code a > va or (a = va and b > vb) or ...}.
+ */
+public final class KeysetPagination {
+
+    public static final String ID = "id";
+
+    private KeysetPagination() {
+    }
+
+    /**
+     * Adds the id as the last sort attribute, unless it is already sorted by it, so that the order is total.
+     */
+    public static List<AttributeSort> sortWithTieBreaker(List<AttributeSort> sortBy, String idAttribute) {
+        List<AttributeSort> sort = new ArrayList<>();
+        if (sortBy != null) {
+            for (AttributeSort attributeSort : sortBy) {
+                sort.add(attributeSort);
+                if (idAttribute.equals(attributeSort.getAttribute())) {
+                    return sort;
+                }
+            }
+        }
+        sort.add(orderBy(idAttribute, SortDirection.ASC));
+        return sort;
+    }
+
+    /**
+     * Builds the filter of the entries after the cursor.
+     *
+     * @param sortBy the sort of the query, including the tie breaker
+     * @param cursor the values of the sort attributes of the cursor entry
+     * @param nullsLargest whether the storage sorts the null values after the rest in ascending order
+     */
+    public static AttributeFilter<?> after(List<AttributeSort> sortBy, Map<String, Object> cursor, boolean nullsLargest) {
+        List<AttributeFilter<?>> alternatives = new ArrayList<>();
+        List<AttributeFilter<?>> equalities = new ArrayList<>();
+        for (int i = 0; i < sortBy.size(); i++) {
+            AttributeSort sort = sortBy.get(i);
+            Object value = cursor.get(sort.getAttribute());
+            //the tie breaker is unique and never null
+            AttributeFilter<?> beyond = i == sortBy.size() - 1 ? beyond(sort, value) : beyond(sort, value, nullsLargest);
+            if (beyond != null) {
+                if (equalities.isEmpty()) {
+                    alternatives.add(beyond);
+                } else {
+                    List<AttributeFilter<?>> conditions = new ArrayList<>(equalities);
+                    conditions.add(beyond);
+                    alternatives.add(and(conditions));
+                }
+            }
+            equalities.add(Objects.isNull(value) ? isNull(sort.getAttribute()) : equalTo(sort.getAttribute(), value));
+        }
+        return alternatives.size() == 1 ? alternatives.get(0) : or(alternatives);
+    }
+
+    // The values of the attribute that come after the cursor value in the sort direction, null if there are none
+    private static AttributeFilter<?> beyond(AttributeSort sort, Object value, boolean nullsLargest) {
+        boolean nullsAfter = (sort.getSort() == SortDirection.ASC) == nullsLargest;
+        if (Objects.isNull(value)) {
+            return nullsAfter ? null : notNull(sort.getAttribute());
+        }
+        AttributeFilter<?> beyond = beyond(sort, value);
+        List<AttributeFilter<?>> alternatives = new ArrayList<>();
+        alternatives.add(beyond);
+        if (nullsAfter) {
+            alternatives.add(isNull(sort.getAttribute()));
+            return or(alternatives);
+        }
+        return beyond;
+    }
+
+    private static AttributeFilter<?> beyond(AttributeSort sort, Object value) {
+        return sort.getSort() == SortDirection.ASC ? greaterThan(sort.getAttribute(), value) : lessThan(sort.getAttribute(), value);
+    }
+}
@@ -16,6 +16,9 @@
 package org.kie.kogito.persistence.api.query;
 
 import java.util.List;
+import java.util.Map;
+
+import io.smallrye.mutiny.Multi;
 
 public interface Query<T> {
 
@@ -23,9 +26,35 @@ public interface Query<T> {
 
     Query<T> offset(Integer offset);
 
+    /**
+     * Keyset pagination, only the entries that come after the entry with the given id in the sort order of the query
+     * are returned. The id is added as the last sort attribute to break the ties, so the cursor of the next page is
+     * the id of the last entry of the current one. The result is empty if the entry of the cursor does not exist.
+     */
+    Query<T> after(String cursor);
+
     Query<T> filter(List<AttributeFilter<?>> filters);
 
     Query<T> sort(List<AttributeSort> sortBy);
 
     List<T> execute();
+
+    /**
+     * Streams the result of the query, the entries are fetched from the storage in batches as they are requested
+     * instead of being loaded all at once, so results of any size can be consumed with bounded memory. Fetching is
+     * blocking, subscribe on a worker thread.
+     */
+    Multi<T> stream();
+
+    /**
+     * Counts the entries that match the filters of the query, the pagination and the sort are ignored.
+     */
+    long count();
+
+    /**
+     * Counts the entries that match the filters of the query grouped by the values of the given attributes, the
+     * pagination and the sort are ignored. Each key holds the values of the attributes in the given order, a missing
+     * attribute is grouped as a null value.
+     */
+    Map<List<Object>, Long> countBy(List<String> attributes);
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.persistence.api.listener;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.operators.multi.processors.BroadcastProcessor;
+import io.smallrye.mutiny.subscription.Cancellable;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ListenerBroadcasterTest {
+
+    private final BroadcastProcessor<Integer> source = BroadcastProcessor.create();
+
+    private final AtomicInteger opened = new AtomicInteger();
+
+    private final AtomicInteger closed = new AtomicInteger();
+
+    private Multi<Integer> open() {
+        opened.incrementAndGet();
+        return source.onCancellation().invoke(closed::incrementAndGet);
+    }
+
+    @Test
+    void testListenerIsSharedBySubscribers() {
+        ListenerBroadcaster broadcaster = new ListenerBroadcaster();
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        List<Cancellable> subscriptions = IntStream.range(0, 1000)
+                .mapToObj(i -> broadcaster.listen("created", this::open).subscribe().with(received::add))
+                .collect(toList());
+
+        source.onNext(1);
+
+        assertThat(received).hasSize(1000).containsOnly(1);
+        assertThat(opened).hasValue(1);
+
+        subscriptions.forEach(Cancellable::cancel);
+        assertThat(closed).hasValue(1);
+
+        broadcaster.listen("created", this::open).subscribe().with(received::add);
+        assertThat(opened).hasValue(2);
+    }
+
+    @Test
+    void testListenersAreSharedByKey() {
+        ListenerBroadcaster broadcaster = new ListenerBroadcaster();
+        broadcaster.listen("created", this::open).subscribe().with(i -> {
+        });
+        broadcaster.listen("updated", this::open).subscribe().with(i -> {
+        });
+
+        assertThat(opened).hasValue(2);
+    }
+
+    @Test
+    void testLatestStrategyKeepsTheNewestItems() {
+        assertThat(receivedBySlowSubscriber(OverflowStrategy.LATEST)).containsExactly(8, 9, 10);
+    }
+
+    @Test
+    void testDropStrategyKeepsTheOldestItems() {
+        assertThat(receivedBySlowSubscriber(OverflowStrategy.DROP)).containsExactly(1, 2, 3);
+    }
+
+    private List<Integer> receivedBySlowSubscriber(OverflowStrategy strategy) {
+        ListenerBroadcaster broadcaster = new ListenerBroadcaster(3, strategy);
+        AtomicReference<Subscription> slowSubscription = new AtomicReference<>();
+        List<Integer> slow = new CopyOnWriteArrayList<>();
+        broadcaster.listen("created", this::open).subscribe().with(slowSubscription::set, slow::add, f -> {
+        }, () -> {
+        });
+        List<Integer> fast = new CopyOnWriteArrayList<>();
+        broadcaster.listen("created", this::open).subscribe().with(fast::add);
+
+        IntStream.rangeClosed(1, 10).forEach(source::onNext);
+        assertThat(fast).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+        assertThat(slow).isEmpty();
+
+        slowSubscription.get().request(10);
+        return slow;
+    }
+}
@@ -16,11 +16,17 @@
 
 package org.kie.kogito.persistence.infinispan.cache;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.function.BinaryOperator;
 
+import org.infinispan.client.hotrod.Flag;
+import org.infinispan.client.hotrod.MetadataValue;
 import org.infinispan.client.hotrod.RemoteCache;
 import org.kie.kogito.persistence.api.Storage;
+import org.kie.kogito.persistence.api.listener.ListenerBroadcaster;
 import org.kie.kogito.persistence.api.query.Query;
 import org.kie.kogito.persistence.infinispan.listener.CacheObjectCreatedListener;
 import org.kie.kogito.persistence.infinispan.listener.CacheObjectRemovedListener;
@@ -38,10 +44,16 @@ public class InfinispanStorage<K, V> implements Storage<K, V> {
 
     private RemoteCache<K, V> delegate;
     private String rootType;
+    private ListenerBroadcaster broadcaster;
 
     public InfinispanStorage(RemoteCache<K, V> delegate, String rootType) {
+        this(delegate, rootType, new ListenerBroadcaster());
+    }
+
+    public InfinispanStorage(RemoteCache<K, V> delegate, String rootType, ListenerBroadcaster broadcaster) {
         this.delegate = delegate;
         this.rootType = rootType;
+        this.broadcaster = broadcaster;
     }
 
     public V get(Object key) {
@@ -70,34 +82,73 @@ public class InfinispanStorage<K, V> implements Storage<K, V> {
         return delegate.put(key, value);
     }
 
+    @Override
+    public Map<K, V> getAll(Collection<K> keys) {
+        return delegate.getAll(new HashSet<>(keys));
+    }
+
+    @Override
+    public void putAll(Map<K, V> entries) {
+        delegate.putAll(entries);
+    }
+
+    @Override
+    public V merge(K key, V value, BinaryOperator<V> remappingFunction) {
+        //optimistic merge, the conditional writes fail and are retried if the entry was modified by another client
+        while (true) {
+            MetadataValue<V> previous = delegate.getWithMetadata(key);
+            if (previous == null) {
+                if (delegate.withFlags(Flag.FORCE_RETURN_VALUE).putIfAbsent(key, value) == null) {
+                    return value;
+                }
+            } else {
+                V merged = remappingFunction.apply(previous.getValue(), value);
+                if (delegate.replaceWithVersion(key, merged, previous.getVersion())) {
+                    return merged;
+                }
+            }
+        }
+    }
+
     @Override
     public Multi<V> objectCreatedListener() {
-        LOGGER.debug("Adding new object created listener into Cache: {}", delegate.getName());
-        UnicastProcessor<V> processor = UnicastProcessor.create();
-        CacheObjectCreatedListener<K, V> listener = new CacheObjectCreatedListener<>(delegate, v -> processor.onNext(v));
-        return processor
-                .onSubscribe().invoke(s -> delegate.addClientListener(listener))
-                .onTermination().invoke(() -> delegate.removeClientListener(listener));
+        return broadcaster.listen(listenerKey("created"), () -> {
+            LOGGER.debug("Adding new object created listener into Cache: {}", delegate.getName());
+            UnicastProcessor<V> processor = UnicastProcessor.create();
+            CacheObjectCreatedListener<K, V> listener = new CacheObjectCreatedListener<>(delegate, v -> processor.onNext(v));
+            return processor
+                    .onSubscribe().invoke(s -> delegate.addClientListener(listener))
+                    .onTermination().invoke(() -> delegate.removeClientListener(listener));
+        });
     }
 
     @Override
     public Multi<V> objectUpdatedListener() {
-        LOGGER.debug("Adding new object updated listener into Cache: {}", delegate.getName());
-        UnicastProcessor<V> processor = UnicastProcessor.create();
-        CacheObjectUpdatedListener<K, V> listener = new CacheObjectUpdatedListener<>(delegate, v -> processor.onNext(v));
-        return processor
-                .onSubscribe().invoke(s -> delegate.addClientListener(listener))
-                .onTermination().invoke(() -> delegate.removeClientListener(listener));
+        return broadcaster.listen(listenerKey("updated"), () -> {
+            LOGGER.debug("Adding new object updated listener into Cache: {}", delegate.getName());
+            UnicastProcessor<V> processor = UnicastProcessor.create();
+            CacheObjectUpdatedListener<K, V> listener = new CacheObjectUpdatedListener<>(delegate, v -> processor.onNext(v));
+            return processor
+                    .onSubscribe().invoke(s -> delegate.addClientListener(listener))
+                    .onTermination().invoke(() -> delegate.removeClientListener(listener));
+        });
     }
 
     @Override
     public Multi<K> objectRemovedListener() {
-        LOGGER.debug("Adding new object removed listener into Cache: {}", delegate.getName());
-        UnicastProcessor<K> processor = UnicastProcessor.create();
-        CacheObjectRemovedListener<K> listener = new CacheObjectRemovedListener<>(v -> processor.onNext(v));
-        return processor
-                .onSubscribe().invoke(s -> delegate.addClientListener(listener))
-                .onTermination().invoke(() -> delegate.removeClientListener(listener));
+        return broadcaster.listen(listenerKey("removed"), () -> {
+            LOGGER.debug("Adding new object removed listener into Cache: {}", delegate.getName());
+            UnicastProcessor<K> processor = UnicastProcessor.create();
+            CacheObjectRemovedListener<K> listener = new CacheObjectRemovedListener<>(v -> processor.onNext(v));
+            return processor
+                    .onSubscribe().invoke(s -> delegate.addClientListener(listener))
+                    .onTermination().invoke(() -> delegate.removeClientListener(listener));
+        });
+    }
+
+    private String listenerKey(String event) {
+        //a single client listener per cache, representation and event, so each event value is fetched once
+        return delegate.getName() + ":" + rootType + ":" + event;
     }
 
     public RemoteCache<K, V> getDelegate() {
@@ -30,6 +30,8 @@ import org.infinispan.client.hotrod.RemoteCacheManagerAdmin;
 import org.infinispan.commons.dataconversion.MediaType;
 import org.kie.kogito.persistence.api.Storage;
 import org.kie.kogito.persistence.api.StorageService;
+import org.kie.kogito.persistence.api.listener.ListenerBroadcaster;
+import org.kie.kogito.persistence.api.listener.OverflowStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,9 +58,18 @@ public class InfinispanStorageService implements StorageService {
     @Inject
     RemoteCacheManager manager;
 
+    @ConfigProperty(name = "kogito.apps.persistence.listener.buffer-size", defaultValue = "256")
+    int listenerBufferSize;
+
+    @ConfigProperty(name = "kogito.apps.persistence.listener.overflow-strategy", defaultValue = "LATEST")
+    OverflowStrategy listenerOverflowStrategy;
+
+    ListenerBroadcaster broadcaster;
+
     @PostConstruct
     public void init() {
         jsonDataFormat = DataFormat.builder().valueType(MediaType.APPLICATION_JSON).valueMarshaller(marshaller).build();
+        broadcaster = new ListenerBroadcaster(listenerBufferSize, listenerOverflowStrategy);
         manager.start();
     }
 
@@ -98,16 +109,16 @@ public class InfinispanStorageService implements StorageService {
 
     @Override
     public Storage<String, String> getCache(String name) {
-        return new InfinispanStorage<>(getOrCreateCache(name), String.class.getName());
+        return new InfinispanStorage<>(getOrCreateCache(name), String.class.getName(), broadcaster);
     }
 
     @Override
     public <T> Storage<String, T> getCache(String name, Class<T> type) {
-        return new InfinispanStorage<>(getOrCreateCache(name), type.getName());
+        return new InfinispanStorage<>(getOrCreateCache(name), type.getName(), broadcaster);
     }
 
     @Override
     public <T> Storage<String, T> getCache(String name, Class<T> type, String rootType) {
-        return new InfinispanStorage<>(getOrCreateCache(name).withDataFormat(jsonDataFormat), rootType);
+        return new InfinispanStorage<>(getOrCreateCache(name).withDataFormat(jsonDataFormat), rootType, broadcaster);
     }
 }
\ No newline at end of file
@@ -15,20 +15,32 @@
  */
 package org.kie.kogito.persistence.infinispan.query;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 import org.infinispan.client.hotrod.RemoteCache;
 import org.infinispan.client.hotrod.Search;
+import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.query.dsl.QueryFactory;
 import org.kie.kogito.persistence.api.query.AttributeFilter;
 import org.kie.kogito.persistence.api.query.AttributeSort;
+import org.kie.kogito.persistence.api.query.KeysetPagination;
 import org.kie.kogito.persistence.api.query.Query;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.smallrye.mutiny.Multi;
+
 import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.joining;
+import static org.kie.kogito.persistence.api.query.KeysetPagination.ID;
+import static org.kie.kogito.persistence.api.query.KeysetPagination.sortWithTieBreaker;
 
 public class InfinispanQuery<T> implements Query<T> {
 
@@ -36,10 +48,12 @@ public class InfinispanQuery<T> implements Query<T> {
     private static final String AND = " and ";
     private static final String OR = " or ";
     private static final String ATTRIBUTE_VALUE = "o.%s = %s";
+    private static final String COUNT = "SELECT %sCOUNT(o.id) FROM %s o";
 
     private QueryFactory qf;
     private Integer limit;
     private Integer offset;
+    private String after;
     private List<AttributeFilter<?>> filters;
     private List<AttributeSort> sortBy;
     private String rootType;
@@ -69,6 +83,12 @@ public class InfinispanQuery<T> implements Query<T> {
         return this;
     }
 
+    @Override
+    public Query<T> after(String cursor) {
+        this.after = cursor;
+        return this;
+    }
+
     @Override
     public Query<T> filter(List<AttributeFilter<?>> filters) {
         this.filters = filters;
@@ -83,14 +103,61 @@ public class InfinispanQuery<T> implements Query<T> {
 
     @Override
     public List<T> execute() {
-        StringBuilder queryString = new StringBuilder("FROM " + rootType + " o");
-        if (filters != null && !filters.isEmpty()) {
-            queryString.append(" WHERE ");
-            queryString.append(filters.stream().map(filterStringFunction()).collect(joining(AND)));
+        return createQuery().map(query -> query.execute().list()).orElse(emptyList());
+    }
+
+    @Override
+    public Multi<T> stream() {
+        return Multi.createFrom().deferred(() -> createQuery()
+                //the iterator fetches the entries from the server in batches as they are requested
+                .map(query -> Multi.createFrom().resource(query::iterator, iterator -> Multi.createFrom().iterable(() -> iterator))
+                        .withFinalizer(CloseableIterator::close))
+                .orElseGet(() -> Multi.createFrom().empty()));
+    }
+
+    @Override
+    public long count() {
+        String queryString = format(COUNT, "", rootType) + getWhere(filters);
+        LOGGER.debug("Executing Infinispan query: {}", queryString);
+        List<Object[]> result = qf.<Object[]> create(queryString).execute().list();
+        return ((Number) result.get(0)[0]).longValue();
+    }
+
+    @Override
+    public Map<List<Object>, Long> countBy(List<String> attributes) {
+        if (attributes.isEmpty()) {
+            return Map.of(emptyList(), count());
         }
-        if (sortBy != null && !sortBy.isEmpty()) {
+        String groups = attributes.stream().map(attribute -> "o." + attribute).collect(joining(", "));
+        String queryString = format(COUNT, groups + ", ", rootType) + getWhere(filters) + " GROUP BY " + groups;
+        LOGGER.debug("Executing Infinispan query: {}", queryString);
+        Map<List<Object>, Long> counts = new HashMap<>();
+        for (Object[] row : qf.<Object[]> create(queryString).execute().list()) {
+            counts.put(new ArrayList<>(asList(row).subList(0, attributes.size())), ((Number) row[attributes.size()]).longValue());
+        }
+        return counts;
+    }
+
+    /**
+     * Builds the Ickle query, empty if the result is known to be empty.
+     */
+    private Optional<org.infinispan.query.dsl.Query<T>> createQuery() {
+        List<AttributeFilter<?>> queryFilters = filters;
+        List<AttributeSort> querySort = sortBy;
+        if (after != null) {
+            querySort = sortWithTieBreaker(sortBy, ID);
+            Optional<Map<String, Object>> cursor = getCursorValues(querySort);
+            if (cursor.isEmpty()) {
+                return Optional.empty();
+            }
+            queryFilters = filters == null ? new ArrayList<>() : new ArrayList<>(filters);
+            //missing values are sorted last in ascending order
+            queryFilters.add(KeysetPagination.after(querySort, cursor.get(), true));
+        }
+        StringBuilder queryString = new StringBuilder("FROM " + rootType + " o").append(getWhere(queryFilters));
+        if (querySort != null && !querySort.isEmpty()) {
             queryString.append(" ORDER BY ");
-            queryString.append(sortBy.stream().map(f -> "o." + f.getAttribute() + " " + f.getSort().name()).collect(joining(", ")));
+            queryString.append(querySort.stream().map(f -> "o." + f.getAttribute() + " " + f.getSort().name()).collect(joining(", ")));
         }
         LOGGER.debug("Executing Infinispan query: {}", queryString);
         org.infinispan.query.dsl.Query<T> query = qf.create(queryString.toString());
@@ -100,7 +167,32 @@ public class InfinispanQuery<T> implements Query<T> {
         if (offset != null) {
             query.startOffset(offset);
         }
-        return query.execute().list();
+        return Optional.of(query);
+    }
+
+    /**
+     * Gets the values of the sort attributes of the entry the keyset pagination starts after, empty if it does not exist.
+     */
+    private Optional<Map<String, Object>> getCursorValues(List<AttributeSort> querySort) {
+        String queryString = querySort.stream().map(f -> "o." + f.getAttribute()).collect(joining(", ", "SELECT ", " FROM " + rootType + " o"))
+                + " WHERE " + format(ATTRIBUTE_VALUE, ID, getValueForQueryString().apply(after));
+        LOGGER.debug("Executing Infinispan query: {}", queryString);
+        List<Object[]> result = qf.<Object[]> create(queryString).maxResults(1).execute().list();
+        if (result == null || result.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < querySort.size(); i++) {
+            values.put(querySort.get(i).getAttribute(), result.get(0)[i]);
+        }
+        return Optional.of(values);
+    }
+
+    private String getWhere(List<AttributeFilter<?>> queryFilters) {
+        if (queryFilters == null || queryFilters.isEmpty()) {
+            return "";
+        }
+        return queryFilters.stream().map(filterStringFunction()).collect(joining(AND, " WHERE ", ""));
     }
 
     private Function<AttributeFilter<?>, String> filterStringFunction() {
@@ -85,6 +85,14 @@ class InfinispanStorageIT {
         assertThat(cache.get(key)).isEqualTo(value);
     }
 
+    @Test
+    void testMerge() {
+        String key = "testMerge";
+        assertThat(storage.merge(key, "a", String::concat)).isEqualTo("a");
+        assertThat(storage.merge(key, "b", String::concat)).isEqualTo("ab");
+        assertThat(cache.get(key)).isEqualTo("ab");
+    }
+
     @Test
     void testClear() {
         String key = "testClear";
@@ -18,6 +18,7 @@ package org.kie.kogito.persistence.infinispan.query;
 import java.util.List;
 import java.util.stream.Stream;
 
+import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.query.dsl.Query;
 import org.infinispan.query.dsl.QueryFactory;
 import org.infinispan.query.dsl.QueryResult;
@@ -33,6 +34,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.kie.kogito.persistence.api.query.QueryFilterFactory.and;
 import static org.kie.kogito.persistence.api.query.QueryFilterFactory.between;
 import static org.kie.kogito.persistence.api.query.QueryFilterFactory.contains;
@@ -53,6 +57,8 @@ import static org.kie.kogito.persistence.api.query.QueryFilterFactory.orderBy;
 import static org.kie.kogito.persistence.api.query.SortDirection.ASC;
 import static org.kie.kogito.persistence.api.query.SortDirection.DESC;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -132,7 +138,7 @@ class InfinispanQueryTest {
     @BeforeEach
     public void setup() {
         when(factory.create(any())).thenReturn(mockQuery);
-        when(mockQuery.execute()).thenReturn(queryResult);
+        lenient().when(mockQuery.execute()).thenReturn(queryResult);
     }
 
     @Test
@@ -182,6 +188,74 @@ class InfinispanQueryTest {
         verify(queryResult).list();
     }
 
+    @Test
+    void testStream() {
+        CloseableIterator iterator = mock(CloseableIterator.class);
+        when(iterator.hasNext()).thenReturn(true, true, false);
+        when(iterator.next()).thenReturn("a", "b");
+        when(mockQuery.iterator()).thenReturn(iterator);
+        InfinispanQuery<Object> query = new InfinispanQuery<>(factory, rootType);
+        query.filter(singletonList(equalTo("state", 1)));
+
+        assertThat(query.stream().collect().asList().await().indefinitely()).containsExactly("a", "b");
+
+        verify(factory).create("FROM org.kie.kogito.index.model.ProcessInstance o WHERE o.state = 1");
+        verify(iterator).close();
+    }
+
+    @Test
+    void testCount() {
+        when(queryResult.list()).thenReturn(singletonList(new Object[] { 5L }));
+        InfinispanQuery<Object> query = new InfinispanQuery<>(factory, rootType);
+        query.filter(singletonList(equalTo("state", 1)));
+        query.limit(1);
+
+        assertThat(query.count()).isEqualTo(5L);
+
+        verify(factory).create("SELECT COUNT(o.id) FROM org.kie.kogito.index.model.ProcessInstance o WHERE o.state = 1");
+    }
+
+    @Test
+    void testCountBy() {
+        when(queryResult.list()).thenReturn(asList(new Object[] { "travels", 1, 3L }, new Object[] { "travels", null, 1L }));
+        InfinispanQuery<Object> query = new InfinispanQuery<>(factory, rootType);
+        query.filter(singletonList(equalTo("processId", "travels")));
+
+        assertThat(query.countBy(asList("processId", "state"))).containsOnly(entry(asList("travels", 1), 3L), entry(asList("travels", null), 1L));
+
+        verify(factory).create("SELECT o.processId, o.state, COUNT(o.id) FROM org.kie.kogito.index.model.ProcessInstance o WHERE o.processId = 'travels'"
+                + " GROUP BY o.processId, o.state");
+    }
+
+    @Test
+    void testAfter() {
+        when(mockQuery.maxResults(1)).thenReturn(mockQuery);
+        when(queryResult.list()).thenReturn(singletonList(new Object[] { "test", null, "a1" }), emptyList());
+        InfinispanQuery query = new InfinispanQuery(factory, rootType);
+        query.sort(asList(orderBy("name", DESC), orderBy("date", ASC)));
+        query.filter(singletonList(equalTo("state", 1)));
+        query.after("a1");
+
+        assertThat(query.execute()).isEmpty();
+
+        verify(factory).create("SELECT o.name, o.date, o.id FROM org.kie.kogito.index.model.ProcessInstance o WHERE o.id = 'a1'");
+        verify(factory).create("FROM org.kie.kogito.index.model.ProcessInstance o WHERE o.state = 1 and (o.name < 'test' or (o.name = 'test' and o.date is null and o.id > 'a1'))"
+                + " ORDER BY o.name DESC, o.date ASC, o.id ASC");
+    }
+
+    @Test
+    void testAfterUnknownCursor() {
+        when(mockQuery.maxResults(1)).thenReturn(mockQuery);
+        when(queryResult.list()).thenReturn(emptyList());
+        InfinispanQuery query = new InfinispanQuery(factory, rootType);
+        query.after("a1");
+
+        assertThat(query.execute()).isEmpty();
+
+        verify(factory).create("SELECT o.id FROM org.kie.kogito.index.model.ProcessInstance o WHERE o.id = 'a1'");
+        verify(queryResult).list();
+    }
+
     @ParameterizedTest
     @MethodSource("provideFilters")
     void assertQueryFilters(List<AttributeFilter<?>> filters, String queryString) {
@@ -16,13 +16,18 @@
 
 package org.kie.kogito.persistence.mongodb.query;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.kie.kogito.persistence.api.query.AttributeFilter;
 import org.kie.kogito.persistence.api.query.AttributeSort;
+import org.kie.kogito.persistence.api.query.KeysetPagination;
 import org.kie.kogito.persistence.api.query.Query;
 import org.kie.kogito.persistence.api.query.SortDirection;
 import org.kie.kogito.persistence.mongodb.model.MongoEntityMapper;
@@ -33,18 +38,34 @@ import com.mongodb.ExplainVerbosity;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
 
+import io.smallrye.mutiny.Multi;
+
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Projections.include;
 import static com.mongodb.client.model.Sorts.ascending;
 import static com.mongodb.client.model.Sorts.descending;
 import static com.mongodb.client.model.Sorts.orderBy;
 import static java.util.stream.Collectors.toList;
+import static org.kie.kogito.persistence.api.query.KeysetPagination.ID;
+import static org.kie.kogito.persistence.api.query.KeysetPagination.sortWithTieBreaker;
+import static org.kie.kogito.persistence.mongodb.model.ModelUtils.MONGO_ID;
 
 public class MongoQuery<V, E> implements Query<V> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MongoQuery.class);
 
+    private static final int BATCH_SIZE = 500;
+
+    private static final String GROUP = "g";
+
+    private static final String COUNT = "count";
+
     Integer limit;
     Integer offset;
+    String after;
     List<AttributeFilter<?>> filters;
     List<AttributeSort> sortBy;
 
@@ -69,6 +90,12 @@ public class MongoQuery<V, E> implements Query<V> {
         return this;
     }
 
+    @Override
+    public Query<V> after(String cursor) {
+        this.after = cursor;
+        return this;
+    }
+
     @Override
     public Query<V> filter(List<AttributeFilter<?>> filters) {
         this.filters = filters;
@@ -83,9 +110,78 @@ public class MongoQuery<V, E> implements Query<V> {
 
     @Override
     public List<V> execute() {
-        MongoCollection<E> collection = this.mongoCollection;
+        List<V> list = new LinkedList<>();
+        Optional<FindIterable<E>> find = this.createFind();
+        if (find.isEmpty()) {
+            return list;
+        }
+        try (MongoCursor<E> cursor = find.get().iterator()) {
+            while (cursor.hasNext()) {
+                E e = cursor.next();
+                list.add(mongoEntityMapper.mapToModel(e));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public Multi<V> stream() {
+        return Multi.createFrom().deferred(() -> this.createFind()
+                //the cursor fetches the documents in batches from the server as they are requested
+                .map(find -> Multi.createFrom().resource(() -> find.batchSize(BATCH_SIZE).iterator(),
+                        cursor -> Multi.createFrom().iterable(() -> cursor))
+                        .withFinalizer(MongoCursor::close)
+                        .onItem().transform(mongoEntityMapper::mapToModel))
+                .orElseGet(() -> Multi.createFrom().empty()));
+    }
+
+    @Override
+    public long count() {
         Optional<Bson> query = QueryUtils.generateQuery(this.filters, mongoEntityMapper::convertToMongoAttribute);
-        Optional<Bson> sort = this.generateSort();
+        return query.map(this.mongoCollection::countDocuments).orElseGet(this.mongoCollection::countDocuments);
+    }
+
+    @Override
+    public Map<List<Object>, Long> countBy(List<String> attributes) {
+        Document groups = new Document();
+        for (int i = 0; i < attributes.size(); i++) {
+            groups.append(GROUP + i, "$" + mongoEntityMapper.convertToMongoAttribute(attributes.get(i)));
+        }
+        List<Bson> pipeline = new ArrayList<>();
+        QueryUtils.generateQuery(this.filters, mongoEntityMapper::convertToMongoAttribute).map(Aggregates::match).ifPresent(pipeline::add);
+        pipeline.add(Aggregates.group(groups, Accumulators.sum(COUNT, 1)));
+
+        Map<List<Object>, Long> counts = new HashMap<>();
+        for (Document result : this.mongoCollection.withDocumentClass(Document.class).aggregate(pipeline)) {
+            Document group = result.get(MONGO_ID, Document.class);
+            List<Object> values = new ArrayList<>(attributes.size());
+            for (int i = 0; i < attributes.size(); i++) {
+                values.add(group.get(GROUP + i));
+            }
+            counts.put(values, ((Number) result.get(COUNT)).longValue());
+        }
+        return counts;
+    }
+
+    /**
+     * Builds the find operation of the query, empty if the result is known to be empty.
+     */
+    private Optional<FindIterable<E>> createFind() {
+        MongoCollection<E> collection = this.mongoCollection;
+        List<AttributeFilter<?>> queryFilters = this.filters;
+        List<AttributeSort> querySort = this.sortBy;
+        if (this.after != null) {
+            querySort = sortWithTieBreaker(this.sortBy, ID);
+            Optional<Map<String, Object>> cursor = this.getCursorValues(querySort);
+            if (cursor.isEmpty()) {
+                return Optional.empty();
+            }
+            queryFilters = this.filters == null ? new ArrayList<>() : new ArrayList<>(this.filters);
+            //missing and null values come first in the ascending order of MongoDB
+            queryFilters.add(KeysetPagination.after(querySort, cursor.get(), false));
+        }
+        Optional<Bson> query = QueryUtils.generateQuery(queryFilters, mongoEntityMapper::convertToMongoAttribute);
+        Optional<Bson> sort = this.generateSort(querySort);
 
         FindIterable<E> find = query.map(collection::find).orElseGet(collection::find);
         find = sort.map(find::sort).orElse(find);
@@ -96,18 +192,40 @@ public class MongoQuery<V, E> implements Query<V> {
             LOGGER.debug("-------------- Executing MongoDb query with { \"queryPlanner\": \"{}\"",
                     find.explain(ExplainVerbosity.QUERY_PLANNER).toBsonDocument().get("queryPlanner"));
         }
-        List<V> list = new LinkedList<>();
-        try (MongoCursor<E> cursor = find.iterator()) {
-            while (cursor.hasNext()) {
-                E e = cursor.next();
-                list.add(mongoEntityMapper.mapToModel(e));
+        return Optional.of(find);
+    }
+
+    /**
+     * Gets the stored values of the sort attributes of the document the keyset pagination starts after, empty if it
+     * does not exist.
+     */
+    private Optional<Map<String, Object>> getCursorValues(List<AttributeSort> querySort) {
+        List<String> attributes = querySort.stream().map(sb -> mongoEntityMapper.convertToMongoAttribute(sb.getAttribute())).collect(toList());
+        Document document = this.mongoCollection.withDocumentClass(Document.class)
+                .find(eq(MONGO_ID, this.after)).projection(include(attributes)).first();
+        if (document == null) {
+            return Optional.empty();
+        }
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < querySort.size(); i++) {
+            values.put(querySort.get(i).getAttribute(), getValue(document, attributes.get(i)));
+        }
+        return Optional.of(values);
+    }
+
+    private static Object getValue(Document document, String attribute) {
+        Object value = document;
+        for (String field : attribute.split("\\.")) {
+            if (!(value instanceof Document)) {
+                return null;
             }
+            value = ((Document) value).get(field);
         }
-        return list;
+        return value;
     }
 
-    private Optional<Bson> generateSort() {
-        return Optional.ofNullable(this.sortBy).map(sbList -> orderBy(sbList.stream().map(
+    private Optional<Bson> generateSort(List<AttributeSort> querySort) {
+        return Optional.ofNullable(querySort).map(sbList -> orderBy(sbList.stream().map(
                 sb -> SortDirection.ASC.equals(sb.getSort()) ? ascending(mongoEntityMapper.convertToMongoAttribute(sb.getAttribute()))
                         : descending(mongoEntityMapper.convertToMongoAttribute(sb.getAttribute())))
                 .collect(toList())));
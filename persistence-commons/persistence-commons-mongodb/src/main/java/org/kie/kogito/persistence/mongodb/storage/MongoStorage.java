@@ -16,17 +16,20 @@
 
 package org.kie.kogito.persistence.mongodb.storage;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
 import org.bson.Document;
 import org.kie.kogito.persistence.api.Storage;
+import org.kie.kogito.persistence.api.listener.ListenerBroadcaster;
 import org.kie.kogito.persistence.api.query.Query;
 import org.kie.kogito.persistence.mongodb.model.MongoEntityMapper;
 import org.kie.kogito.persistence.mongodb.query.MongoQuery;
 
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.ReplaceOneModel;
 import com.mongodb.client.model.ReplaceOptions;
 
 import io.smallrye.mutiny.Multi;
@@ -34,6 +37,7 @@ import io.smallrye.mutiny.Multi;
 import static com.mongodb.client.model.Filters.eq;
 import static com.mongodb.client.model.Filters.in;
 import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
 import static org.kie.kogito.persistence.mongodb.model.ModelUtils.MONGO_ID;
 import static org.kie.kogito.persistence.mongodb.storage.StorageUtils.watchCollectionEntries;
 import static org.kie.kogito.persistence.mongodb.storage.StorageUtils.watchCollectionKeys;
@@ -48,25 +52,38 @@ public class MongoStorage<V, E> implements Storage<String, V> {
 
     String rootType;
 
+    ListenerBroadcaster broadcaster;
+
     public MongoStorage(MongoCollection<E> mongoCollection, String rootType, MongoEntityMapper<V, E> mapper) {
+        this(mongoCollection, rootType, mapper, new ListenerBroadcaster());
+    }
+
+    public MongoStorage(MongoCollection<E> mongoCollection, String rootType, MongoEntityMapper<V, E> mapper, ListenerBroadcaster broadcaster) {
         this.mongoCollection = mongoCollection;
         this.rootType = rootType;
         this.mapper = mapper;
+        this.broadcaster = broadcaster;
     }
 
     @Override
     public Multi<V> objectCreatedListener() {
-        return watchCollectionEntries(this.mongoCollection, eq(OPERATION_TYPE, "insert"), this.mapper);
+        return broadcaster.listen(listenerKey("created"), () -> watchCollectionEntries(this.mongoCollection, eq(OPERATION_TYPE, "insert"), this.mapper));
     }
 
     @Override
     public Multi<V> objectUpdatedListener() {
-        return watchCollectionEntries(this.mongoCollection, in(OPERATION_TYPE, asList("update", "replace")), this.mapper);
+        return broadcaster.listen(listenerKey("updated"),
+                () -> watchCollectionEntries(this.mongoCollection, in(OPERATION_TYPE, asList("update", "replace")), this.mapper));
     }
 
     @Override
     public Multi<String> objectRemovedListener() {
-        return watchCollectionKeys(this.mongoCollection, eq(OPERATION_TYPE, "delete"));
+        return broadcaster.listen(listenerKey("removed"), () -> watchCollectionKeys(this.mongoCollection, eq(OPERATION_TYPE, "delete")));
+    }
+
+    private String listenerKey(String event) {
+        //one change stream per collection and event, whatever the number of storages created for the collection
+        return mongoCollection.getNamespace().getFullName() + ":" + event;
     }
 
     @Override
@@ -102,6 +119,19 @@ public class MongoStorage<V, E> implements Storage<String, V> {
         return Objects.nonNull(v) ? oldValue : null;
     }
 
+    @Override
+    public void putAll(Map<String, V> entries) {
+        //single round trip, the upserts of new documents are still reported as inserts by the change streams
+        List<ReplaceOneModel<E>> writes = entries.entrySet().stream()
+                .filter(e -> Objects.nonNull(e.getValue()))
+                .map(e -> new ReplaceOneModel<>(new Document(MONGO_ID, e.getKey()), mapper.mapToEntity(e.getKey(), e.getValue()),
+                        new ReplaceOptions().upsert(true)))
+                .collect(toList());
+        if (!writes.isEmpty()) {
+            this.mongoCollection.bulkWrite(writes);
+        }
+    }
+
     @Override
     public void clear() {
         this.mongoCollection.deleteMany(new Document());
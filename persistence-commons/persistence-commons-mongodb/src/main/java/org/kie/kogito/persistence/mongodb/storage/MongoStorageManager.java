@@ -16,11 +16,15 @@
 
 package org.kie.kogito.persistence.mongodb.storage;
 
+import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.kie.kogito.persistence.api.Storage;
 import org.kie.kogito.persistence.api.StorageService;
+import org.kie.kogito.persistence.api.listener.ListenerBroadcaster;
+import org.kie.kogito.persistence.api.listener.OverflowStrategy;
 import org.kie.kogito.persistence.mongodb.client.MongoClientManager;
 
 import io.quarkus.arc.properties.IfBuildProperty;
@@ -38,24 +42,41 @@ public class MongoStorageManager implements StorageService {
     @Inject
     MongoModelService mongoModelService;
 
+    @ConfigProperty(name = "kogito.apps.persistence.listener.buffer-size", defaultValue = "256")
+    int listenerBufferSize;
+
+    @ConfigProperty(name = "kogito.apps.persistence.listener.overflow-strategy", defaultValue = "LATEST")
+    OverflowStrategy listenerOverflowStrategy;
+
+    private ListenerBroadcaster broadcaster;
+
+    @PostConstruct
+    void init() {
+        broadcaster = new ListenerBroadcaster(listenerBufferSize, listenerOverflowStrategy);
+    }
+
+    protected ListenerBroadcaster getBroadcaster() {
+        return broadcaster;
+    }
+
     @Override
     public Storage<String, String> getCache(String name) {
         return new MongoStorage<>(
                 mongoClientManager.getCollection(name, mongoModelService.getEntityMapper(name).getEntityClass()),
-                String.class.getName(), mongoModelService.getEntityMapper(name));
+                String.class.getName(), mongoModelService.getEntityMapper(name), broadcaster);
     }
 
     @Override
     public <T> Storage<String, T> getCache(String name, Class<T> type) {
         return new MongoStorage<>(
                 mongoClientManager.getCollection(name, mongoModelService.getEntityMapper(name).getEntityClass()),
-                type.getName(), mongoModelService.getEntityMapper(name));
+                type.getName(), mongoModelService.getEntityMapper(name), broadcaster);
     }
 
     @Override
     public <T> Storage<String, T> getCache(String name, Class<T> type, String rootType) {
         return new MongoStorage<>(
                 mongoClientManager.getCollection(name, mongoModelService.getEntityMapper(name).getEntityClass()),
-                rootType, mongoModelService.getEntityMapper(name));
+                rootType, mongoModelService.getEntityMapper(name), broadcaster);
     }
 }
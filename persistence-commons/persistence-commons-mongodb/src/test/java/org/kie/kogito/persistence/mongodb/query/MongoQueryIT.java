@@ -16,7 +16,9 @@
 
 package org.kie.kogito.persistence.mongodb.query;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import javax.inject.Inject;
 
@@ -79,4 +81,60 @@ class MongoQueryIT {
         assertEquals(1, results.size());
         assertEquals("5", results.get(0));
     }
+
+    @Test
+    void testExecuteAfter() {
+        collection.insertOne(new Document(MONGO_ID, "1").append(TEST_ATTRIBUTE, "b"));
+        collection.insertOne(new Document(MONGO_ID, "2").append(TEST_ATTRIBUTE, "a"));
+        collection.insertOne(new Document(MONGO_ID, "3").append(TEST_ATTRIBUTE, "b"));
+        collection.insertOne(new Document(MONGO_ID, "4").append(TEST_ATTRIBUTE, "c"));
+        collection.insertOne(new Document(MONGO_ID, "5"));
+
+        mongoQuery.limit(2);
+        mongoQuery.sort(List.of(orderBy(TEST_ATTRIBUTE, ASC)));
+
+        //missing values first, then a, b (id 1), b (id 3) and c
+        mongoQuery.after("5");
+        assertEquals(List.of("a", "b"), mongoQuery.execute());
+        mongoQuery.after("1");
+        assertEquals(List.of("b", "c"), mongoQuery.execute());
+        mongoQuery.after("4");
+        assertEquals(List.of(), mongoQuery.execute());
+        mongoQuery.after("6");
+        assertEquals(List.of(), mongoQuery.execute());
+    }
+
+    @Test
+    void testStream() {
+        for (int i = 0; i < 1200; i++) {
+            collection.insertOne(new Document(MONGO_ID, String.valueOf(i)).append(TEST_ATTRIBUTE, String.format("%04d", i)));
+        }
+
+        mongoQuery.sort(List.of(orderBy(TEST_ATTRIBUTE, ASC)));
+        mongoQuery.filter(List.of(QueryFilterFactory.greaterThanEqual(TEST_ATTRIBUTE, "0100")));
+
+        List<String> results = mongoQuery.stream().collect().asList().await().indefinitely();
+        assertEquals(1100, results.size());
+        assertEquals("0100", results.get(0));
+        assertEquals("1199", results.get(1099));
+
+        mongoQuery.after("unknown");
+        assertEquals(List.of(), mongoQuery.stream().collect().asList().await().indefinitely());
+    }
+
+    @Test
+    void testCount() {
+        collection.insertOne(new Document(MONGO_ID, "1").append(TEST_ATTRIBUTE, "a"));
+        collection.insertOne(new Document(MONGO_ID, "2").append(TEST_ATTRIBUTE, "b"));
+        collection.insertOne(new Document(MONGO_ID, "3").append(TEST_ATTRIBUTE, "b"));
+        collection.insertOne(new Document(MONGO_ID, "4"));
+
+        assertEquals(4, mongoQuery.count());
+        assertEquals(Map.of(List.of("a"), 1L, List.of("b"), 2L, Collections.singletonList(null), 1L), mongoQuery.countBy(List.of(TEST_ATTRIBUTE)));
+
+        mongoQuery.filter(List.of(QueryFilterFactory.in(TEST_ATTRIBUTE, List.of("a", "b"))));
+        mongoQuery.limit(1);
+        assertEquals(3, mongoQuery.count());
+        assertEquals(Map.of(List.of("a"), 1L, List.of("b"), 2L), mongoQuery.countBy(List.of(TEST_ATTRIBUTE)));
+    }
 }
@@ -15,35 +15,60 @@
  */
 package org.kie.kogito.persistence.oracle;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.transaction.TransactionManager;
 
 import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
 import org.kie.kogito.persistence.api.query.AttributeFilter;
 import org.kie.kogito.persistence.api.query.AttributeSort;
 import org.kie.kogito.persistence.api.query.FilterCondition;
 import org.kie.kogito.persistence.api.query.Query;
+import org.kie.kogito.persistence.api.query.SortDirection;
 import org.kie.kogito.persistence.oracle.model.CacheEntityRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.vladmihalcea.hibernate.type.json.JsonBlobType;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import io.smallrye.mutiny.Multi;
 
 import static java.lang.String.format;
+import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.joining;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public class OracleQuery<T> implements Query<T> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(OracleQuery.class);
     private static final String AND = " AND ";
     private static final String OR = " OR ";
+    private static final String PARAMETER = "?%d";
+    private static final int MAX_CACHED_QUERIES = 1024;
+    private static final int FETCH_SIZE = 500;
+
+    //SQL generated for each query shape, the filter values are bound as parameters so the statements can be reused
+    private static final Map<String, String> QUERIES = new ConcurrentHashMap<>();
+
     private static final String ATTRIBUTE_ACCESSOR = "json_value(json_value, '$.%s')";
 
+    private static final String CURSOR_VALUE = "cursor_%d";
+
+    //the values of the groups are selected as JSON, wrapped in an array as scalars are not JSON documents, to keep their type
+    private static final String GROUP_ACCESSOR = "json_query(json_value, '$.%s' WITH WRAPPER)";
+
     private final String name;
     private final CacheEntityRepository repository;
     private final ObjectMapper objectMapper;
@@ -51,10 +76,13 @@ public class OracleQuery<T> implements Query<T> {
 
     private Integer limit;
     private Integer offset;
+    private String after;
     private List<AttributeFilter<?>> filters;
     private List<AttributeSort> sortBy;
     private Map<String, JsonField> fields;
 
+    TransactionManager transactionManager = ReadOnlyTransaction.transactionManager();
+
     private static final class JsonField {
 
         String name;
@@ -89,6 +117,12 @@ public class OracleQuery<T> implements Query<T> {
         return this;
     }
 
+    @Override
+    public Query<T> after(String cursor) {
+        this.after = cursor;
+        return this;
+    }
+
     @Override
     public Query<T> filter(List<AttributeFilter<?>> filters) {
         this.filters = filters;
@@ -103,61 +137,289 @@ public class OracleQuery<T> implements Query<T> {
 
     @Override
     public List<T> execute() {
+        List<?> results = createQuery().getResultList();
+
+        ObjectReader reader = objectMapper.readerFor(type);
+        return results.stream().map(r -> read(reader, r)).collect(Collectors.toList());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Multi<T> stream() {
+        return Multi.createFrom().deferred(() -> {
+            ObjectReader reader = objectMapper.readerFor(type);
+            //the rows are read through a forward only cursor, fetching a batch of rows on each round trip
+            return ReadOnlyTransaction.stream(transactionManager, repository.getEntityManager(),
+                    session -> (Stream<Object>) createQuery().setHint(HINT_FETCH_SIZE, FETCH_SIZE).getResultStream())
+                    .onItem().transform(r -> read(reader, r));
+        });
+    }
+
+    @Override
+    public long count() {
+        List<Object> parameters = new ArrayList<>();
+        String queryString = getQueryString(parameters, emptyList());
+        return ((Number) createNativeQuery(queryString, parameters).getSingleResult()).longValue();
+    }
+
+    @Override
+    public Map<List<Object>, Long> countBy(List<String> attributes) {
+        if (attributes.isEmpty()) {
+            return Map.of(emptyList(), count());
+        }
+        List<Object> parameters = new ArrayList<>();
+        String queryString = getQueryString(parameters, attributes);
+        Map<List<Object>, Long> counts = new HashMap<>();
+        for (Object result : createNativeQuery(queryString, parameters).getResultList()) {
+            Object[] row = (Object[]) result;
+            List<Object> values = new ArrayList<>(attributes.size());
+            for (int i = 0; i < attributes.size(); i++) {
+                values.add(readGroupValue((String) row[i]));
+            }
+            counts.put(values, ((Number) row[attributes.size()]).longValue());
+        }
+        return counts;
+    }
+
+    private javax.persistence.Query createQuery() {
+        List<Object> parameters = new ArrayList<>();
+        String queryString = getQueryString(parameters);
+        javax.persistence.Query query = createNativeQuery(queryString, parameters)
+                .unwrap(NativeQuery.class)
+                //the JSON bytes are decoded straight into the target type by the application mapper
+                .addScalar("json_value", StandardBasicTypes.MATERIALIZED_BLOB);
+
+        if (limit != null) {
+            query.setMaxResults(limit);
+        }
+        if (offset != null) {
+            query.setFirstResult(offset);
+        }
+        return query;
+    }
+
+    private javax.persistence.Query createNativeQuery(String queryString, List<Object> parameters) {
+        LOGGER.debug("Executing Oracle query: {} with parameters {}", queryString, parameters);
+        javax.persistence.Query query = repository.getEntityManager().createNativeQuery(queryString);
+        for (int i = 0; i < parameters.size(); i++) {
+            query.setParameter(i + 1, parameters.get(i));
+        }
+        return query;
+    }
+
+    /**
+     * Reads the value of a group, selected as a wrapped JSON array so that numbers and booleans keep their type.
+     */
+    private Object readGroupValue(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            List<?> values = objectMapper.readValue(json, List.class);
+            return values.isEmpty() ? null : values.get(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private T read(ObjectReader reader, Object row) {
+        if (row == null) {
+            return null;
+        }
+        try {
+            return reader.<T> readValue((byte[]) row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gets the SQL of the query, collecting the values to bind to its parameters. The SQL only depends on the shape of
+     * the query, so it is generated once for each shape and then taken from the cache.
+     */
+    String getQueryString(List<Object> parameters) {
+        return getQueryString(parameters, null);
+    }
+
+    /**
+     * Same as {@link #getQueryString(List)}, counting the entries grouped by the given attributes instead of
+     * retrieving them if not null.
+     */
+    String getQueryString(List<Object> parameters, List<String> groupBy) {
+        fields = getFields();
+        parameters.add(name);
+        StringBuilder shape = new StringBuilder();
+        if (groupBy != null) {
+            shape.append("count:").append(String.join(",", groupBy));
+        }
+        if (filters != null) {
+            filters.forEach(filter -> bindFilter(filter, shape, parameters));
+        }
+        if (groupBy == null && after != null) {
+            shape.append("|after");
+            parameters.add(after);
+        }
+        if (groupBy == null && sortBy != null) {
+            sortBy.forEach(sort -> shape.append("|sort:").append(sort.getAttribute()).append(':').append(sort.getSort())
+                    .append(':').append(isNumeric(fields.get(sort.getAttribute()))));
+        }
+        String key = shape.toString();
+        String queryString = QUERIES.get(key);
+        if (queryString == null) {
+            queryString = buildQueryString(groupBy);
+            if (QUERIES.size() >= MAX_CACHED_QUERIES) {
+                QUERIES.clear();
+            }
+            QUERIES.put(key, queryString);
+        }
+        return queryString;
+    }
+
+    private Map<String, JsonField> getFields() {
         //Get type information from filters/sorting to cast JSON document fields in query
-        fields = addFilters(new HashMap<>(), filters);
+        Map<String, JsonField> queryFields = addFilters(new HashMap<>(), filters);
         if (sortBy != null && !sortBy.isEmpty()) {
-            sortBy.stream().filter(sortBy -> !fields.containsKey(sortBy.getAttribute()))
-                    .forEach(sortBy -> fields.put(sortBy.getAttribute(),
+            sortBy.stream().filter(sortBy -> !queryFields.containsKey(sortBy.getAttribute()))
+                    .forEach(sortBy -> queryFields.put(sortBy.getAttribute(),
                             new JsonField(sortBy.getAttribute())));
         }
+        return queryFields;
+    }
 
+    private String buildQueryString(List<String> groupBy) {
         // Build the query to retrieve the filtered data from the temporary table above.
-        StringBuilder queryString = new StringBuilder("SELECT key, name, json_value FROM kogito_data_cache ")
-                .append(" WHERE name = '")
-                .append(name)
-                .append("'");
+        // The first parameter is the name of the cache, the filter values follow in the order they are bound and the
+        // cursor of the keyset pagination is the last one
+        int[] parameter = { 1 };
+        StringBuilder where = new StringBuilder(" WHERE name = ")
+                .append(format(PARAMETER, parameter[0]++));
         if (filters != null && !filters.isEmpty()) {
-            queryString.append(" AND ");
-            queryString.append(filters.stream()
-                    .map(filter -> new StringBuilder()
-                            .append(filterStringFunction(filter)))
+            where.append(" AND ");
+            where.append(filters.stream()
+                    .map(filter -> filterStringFunction(filter, parameter))
                     .collect(joining(AND)));
         }
 
-        // Sorting
-        if (sortBy != null && !sortBy.isEmpty()) {
-            queryString.append(" ORDER BY ");
-            queryString.append(sortBy.stream().map(f -> {
-                final JsonField field = fields.get(f.getAttribute());
-                return cast(field, format(ATTRIBUTE_ACCESSOR, f.getAttribute())).append(" ").append(f.getSort().name());
-            }).collect(joining(", ")));
+        if (groupBy != null) {
+            //the aggregations ignore the pagination and the sort
+            String groups = groupBy.stream().map(attribute -> format(GROUP_ACCESSOR, attribute)).collect(joining(", "));
+            return groupBy.isEmpty() ? "SELECT COUNT(*) FROM kogito_data_cache" + where
+                    : format("SELECT %1$s, COUNT(*) FROM kogito_data_cache%2$s GROUP BY %1$s", groups, where);
         }
 
-        LOGGER.debug("Executing Oracle query: {}", queryString);
-        javax.persistence.Query query = repository.getEntityManager()
-                .createNativeQuery(queryString.toString())
-                .unwrap(NativeQuery.class)
-                .addScalar("json_value", new JsonBlobType(type));
+        StringBuilder queryString = new StringBuilder("SELECT key, name, json_value FROM kogito_data_cache ");
+        if (after != null) {
+            queryString.append(getCursor(format(PARAMETER, parameter[0]++)));
+            where.append(AND).append(getKeysetCondition());
+        }
+        queryString.append(where);
 
-        if (limit != null) {
-            query.setMaxResults(limit);
+        // Sorting, the key breaks the ties of the keyset pagination
+        List<String> orderBy = new ArrayList<>();
+        if (sortBy != null) {
+            sortBy.forEach(f -> {
+                final JsonField field = fields.get(f.getAttribute());
+                orderBy.add(cast(field, format(ATTRIBUTE_ACCESSOR, f.getAttribute())).append(" ").append(f.getSort().name()).toString());
+            });
         }
-        if (offset != null) {
-            query.setFirstResult(offset);
+        if (after != null) {
+            orderBy.add("key ASC");
         }
+        if (!orderBy.isEmpty()) {
+            queryString.append(" ORDER BY ");
+            queryString.append(String.join(", ", orderBy));
+        }
+        return queryString.toString();
+    }
 
-        List<?> results = query.getResultList();
-
-        return results.stream().map(r -> {
-            if (r == null) {
-                return null;
+    /**
+     * Gets the entry of the keyset pagination cursor with the values of the sort attributes, joined as a single row so
+     * they can be compared with the ones of each entry.
+     */
+    private String getCursor(String cursorParameter) {
+        StringBuilder cursor = new StringBuilder(", (SELECT key AS cursor_key");
+        if (sortBy != null) {
+            for (int i = 0; i < sortBy.size(); i++) {
+                cursor.append(", ").append(format(ATTRIBUTE_ACCESSOR, sortBy.get(i).getAttribute())).append(" AS ").append(format(CURSOR_VALUE, i));
             }
-            try {
-                return objectMapper.readValue(objectMapper.writeValueAsString(r), type);
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException(e);
+        }
+        return cursor.append(" FROM kogito_data_cache WHERE name = ?1 AND key = ").append(cursorParameter).append(") c ").toString();
+    }
+
+    /**
+     * Gets the condition of the entries after the cursor, {@code a > ca OR (a = ca AND b > cb) OR ... OR (... AND key > ckey)},
+     * taking into account that Oracle sorts the null values last in ascending order.
+     */
+    private String getKeysetCondition() {
+        List<String> alternatives = new ArrayList<>();
+        List<String> equalities = new ArrayList<>();
+        if (sortBy != null) {
+            for (int i = 0; i < sortBy.size(); i++) {
+                AttributeSort f = sortBy.get(i);
+                final JsonField field = fields.get(f.getAttribute());
+                String value = cast(field, format(ATTRIBUTE_ACCESSOR, f.getAttribute())).toString().trim();
+                String cursor = cast(field, "c." + format(CURSOR_VALUE, i)).toString().trim();
+                String beyond = f.getSort() == SortDirection.ASC ? format("(%1$s > %2$s OR (%1$s IS NULL AND %2$s IS NOT NULL))", value, cursor)
+                        : format("(%1$s < %2$s OR (%1$s IS NOT NULL AND %2$s IS NULL))", value, cursor);
+                alternatives.add(conjunction(equalities, beyond));
+                equalities.add(format("(%1$s = %2$s OR (%1$s IS NULL AND %2$s IS NULL))", value, cursor));
             }
-        }).collect(Collectors.toList());
+        }
+        alternatives.add(conjunction(equalities, "key > c.cursor_key"));
+        return alternatives.stream().collect(joining(OR, "(", ")"));
+    }
+
+    private static String conjunction(List<String> conditions, String condition) {
+        if (conditions.isEmpty()) {
+            return condition;
+        }
+        List<String> all = new ArrayList<>(conditions);
+        all.add(condition);
+        return all.stream().collect(joining(AND, "(", ")"));
+    }
+
+    /**
+     * Adds the shape of the filter to the cache key and its values to the parameters, following the same order
+     * {@link #filterStringFunction(AttributeFilter, int[])} uses to number the parameters.
+     */
+    @SuppressWarnings("unchecked")
+    private void bindFilter(AttributeFilter<?> filter, StringBuilder shape, List<Object> parameters) {
+        JsonField field = fields.get(filter.getAttribute());
+        shape.append('|').append(filter.getCondition()).append(':').append(filter.getAttribute()).append(':').append(isNumeric(field));
+        switch (filter.getCondition()) {
+            case CONTAINS:
+            case EQUAL:
+            case GT:
+            case GTE:
+            case LT:
+            case LTE:
+                parameters.add(getParameterValue(field, filter.getValue()));
+                break;
+            case LIKE:
+                parameters.add(getParameterValue(field, filter.getValue().toString().replace('*', '%')));
+                break;
+            case CONTAINS_ALL:
+            case CONTAINS_ANY:
+            case IN:
+            case BETWEEN:
+                List<Object> values = (List<Object>) filter.getValue();
+                shape.append(':').append(values.size());
+                values.forEach(value -> parameters.add(getParameterValue(field, value)));
+                break;
+            case OR:
+            case AND:
+                shape.append('(');
+                ((List<AttributeFilter<?>>) filter.getValue()).forEach(child -> bindFilter(child, shape, parameters));
+                shape.append(')');
+                break;
+            case NOT:
+                shape.append('(');
+                bindFilter((AttributeFilter<?>) filter.getValue(), shape, parameters);
+                shape.append(')');
+                break;
+            default:
+                break;
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -212,37 +474,36 @@ public class OracleQuery<T> implements Query<T> {
     }
 
     @SuppressWarnings("unchecked")
-    private String filterStringFunction(AttributeFilter<?> filter) {
+    private String filterStringFunction(AttributeFilter<?> filter, int[] parameter) {
         JsonField field = fields.get(filter.getAttribute());
         switch (filter.getCondition()) {
             case CONTAINS:
                 return cast(field, format(ATTRIBUTE_ACCESSOR, filter.getAttribute()))
-                        .append(format("= %s", getValueForQueryString(filter.getValue())))
+                        .append(format("= %s", format(PARAMETER, parameter[0]++)))
                         .toString();
             case CONTAINS_ALL:
                 return (String) ((List) filter.getValue())
                         .stream()
                         .map(o -> cast(field, format(ATTRIBUTE_ACCESSOR, filter.getAttribute()))
-                                .append(format("= %s", getValueForQueryString(o))))
+                                .append(format("= %s", format(PARAMETER, parameter[0]++))))
                         .collect(joining(AND));
             case CONTAINS_ANY:
                 return (String) ((List) filter.getValue())
                         .stream()
                         .map(o -> cast(field, format(ATTRIBUTE_ACCESSOR, filter.getAttribute()))
-                                .append(format("= %s", getValueForQueryString(o))))
+                                .append(format("= %s", format(PARAMETER, parameter[0]++))))
                         .collect(joining(OR));
             case LIKE:
                 return cast(field, format(ATTRIBUTE_ACCESSOR, filter.getAttribute()))
-                        .append(format("LIKE %s", getValueForQueryString(filter.getValue())))
-                        .toString()
-                        .replaceAll("\\*", "%");
+                        .append(format("LIKE %s", format(PARAMETER, parameter[0]++)))
+                        .toString();
             case EQUAL:
                 return cast(field, format(ATTRIBUTE_ACCESSOR, filter.getAttribute()))
-                        .append(format("= %s", getValueForQueryString(filter.getValue())))
+                        .append(format("= %s", format(PARAMETER, parameter[0]++)))
                         .toString();
             case IN:
                 return cast(field, format(ATTRIBUTE_ACCESSOR, filter.getAttribute()))
-                        .append(format("IN (%s)", ((List) filter.getValue()).stream().map(OracleQuery::getValueForQueryString).collect(joining(", "))))
+                        .append(format("IN (%s)", ((List) filter.getValue()).stream().map(o -> format(PARAMETER, parameter[0]++)).collect(joining(", "))))
                         .toString();
             case IS_NULL:
                 return cast(field, format(ATTRIBUTE_ACCESSOR, filter.getAttribute()))
@@ -253,32 +514,31 @@ public class OracleQuery<T> implements Query<T> {
                         .append("IS NOT NULL")
                         .toString();
             case BETWEEN:
-                List<Object> value = (List<Object>) filter.getValue();
                 return cast(field, format(ATTRIBUTE_ACCESSOR, filter.getAttribute()))
-                        .append(format("BETWEEN %s AND %s", getValueForQueryString(value.get(0)), getValueForQueryString(value.get(1))))
+                        .append(format("BETWEEN %s AND %s", format(PARAMETER, parameter[0]++), format(PARAMETER, parameter[0]++)))
                         .toString();
             case GT:
                 return cast(field, format(ATTRIBUTE_ACCESSOR, filter.getAttribute()))
-                        .append(format("> %s", getValueForQueryString(filter.getValue())))
+                        .append(format("> %s", format(PARAMETER, parameter[0]++)))
                         .toString();
             case GTE:
                 return cast(field, format(ATTRIBUTE_ACCESSOR, filter.getAttribute()))
-                        .append(format(">= %s", getValueForQueryString(filter.getValue())))
+                        .append(format(">= %s", format(PARAMETER, parameter[0]++)))
                         .toString();
             case LT:
                 return cast(field, format(ATTRIBUTE_ACCESSOR, filter.getAttribute()))
-                        .append(format("< %s", getValueForQueryString(filter.getValue())))
+                        .append(format("< %s", format(PARAMETER, parameter[0]++)))
                         .toString();
             case LTE:
                 return cast(field, format(ATTRIBUTE_ACCESSOR, filter.getAttribute()))
-                        .append(format("<= %s", getValueForQueryString(filter.getValue())))
+                        .append(format("<= %s", format(PARAMETER, parameter[0]++)))
                         .toString();
             case OR:
-                return getRecursiveString(filter, OR);
+                return getRecursiveString(filter, OR, parameter);
             case AND:
-                return getRecursiveString(filter, AND);
+                return getRecursiveString(filter, AND, parameter);
             case NOT:
-                return format("not %s", filterStringFunction((AttributeFilter<?>) filter.getValue()));
+                return format("not %s", filterStringFunction((AttributeFilter<?>) filter.getValue(), parameter));
             default:
                 return null;
         }
@@ -287,8 +547,7 @@ public class OracleQuery<T> implements Query<T> {
     // Text values extracted from the JSON structure may need casting into primitive types
     private static StringBuilder cast(JsonField field, String accessor) {
         StringBuilder cast = new StringBuilder();
-        Object value = field.value;
-        if (value instanceof Number) {
+        if (isNumeric(field)) {
             cast.append("to_number(").append(accessor).append(") ");
         } else {
             cast.append(accessor).append(" ");
@@ -296,15 +555,23 @@ public class OracleQuery<T> implements Query<T> {
         return cast;
     }
 
-    private static String getValueForQueryString(Object value) {
-        return value instanceof String ? "'" + value + "'" : value.toString();
+    private static boolean isNumeric(JsonField field) {
+        return field != null && field.value instanceof Number;
+    }
+
+    // The values compared with numeric fields are bound as numbers, the rest as the text extracted from the JSON
+    private static Object getParameterValue(JsonField field, Object value) {
+        if (isNumeric(field)) {
+            return value instanceof Number ? value : new BigDecimal(value.toString());
+        }
+        return value.toString();
     }
 
     @SuppressWarnings("unchecked")
-    private String getRecursiveString(AttributeFilter<?> filter, String joining) {
+    private String getRecursiveString(AttributeFilter<?> filter, String joining, int[] parameter) {
         return ((List<AttributeFilter<?>>) filter.getValue())
                 .stream()
-                .map(this::filterStringFunction)
+                .map(child -> filterStringFunction(child, parameter))
                 .collect(joining(joining, "(", ")"));
     }
 }
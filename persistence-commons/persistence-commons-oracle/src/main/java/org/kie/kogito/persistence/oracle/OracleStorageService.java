@@ -21,6 +21,7 @@ import javax.inject.Inject;
 
 import org.kie.kogito.persistence.api.Storage;
 import org.kie.kogito.persistence.api.StorageService;
+import org.kie.kogito.persistence.oracle.index.OracleIndexManager;
 import org.kie.kogito.persistence.oracle.model.CacheEntityRepository;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -40,6 +41,9 @@ public class OracleStorageService implements StorageService {
     @Inject
     ObjectMapper mapper;
 
+    @Inject
+    OracleIndexManager indexManager;
+
     @Override
     public Storage<String, String> getCache(String name) {
         return new OracleStorage<>(name, repository, mapper, String.class);
@@ -52,6 +56,7 @@ public class OracleStorageService implements StorageService {
 
     @Override
     public <T> Storage<String, T> getCache(String name, Class<T> type, String rootType) {
+        indexManager.onCacheCreated(name, rootType);
         return new OracleStorage<>(name, repository, mapper, type, rootType);
     }
 }
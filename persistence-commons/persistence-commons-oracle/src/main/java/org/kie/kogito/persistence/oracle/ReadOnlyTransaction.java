@@ -0,0 +1,140 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.oracle;
+
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.transaction.InvalidTransactionException;
+import javax.transaction.NotSupportedException;
+import javax.transaction.SystemException;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import io.smallrye.mutiny.Multi;
+
+/**
+ * Streams the results of a query in a read-only transaction, so the rows are read from a consistent snapshot while the
+ * cursor fetches them in batches of the given fetch size, and no connection is left in auto-commit mode for the whole
+ * duration of a stream.
+ * <p>
+ * The items of a stream are emitted on the threads requesting them, so the transaction cannot stay bound to the thread
+ * that began it: it is suspended once the query is executed, and resumed to be rolled back when the stream terminates.
+ */
+public final class ReadOnlyTransaction {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReadOnlyTransaction.class);
+
+    static final String SET_READ_ONLY = "SET TRANSACTION READ ONLY";
+
+    static final String TIMEOUT_PROPERTY = "kogito.apps.persistence.stream.transaction-timeout";
+
+    //a stream lasts as long as its consumer takes to read it, which can be far longer than a request
+    private static final int DEFAULT_TIMEOUT_IN_SECONDS = 3600;
+
+    private ReadOnlyTransaction() {
+    }
+
+    /**
+     * Gets the transaction manager of the application, null when not running in one.
+     */
+    public static TransactionManager transactionManager() {
+        ArcContainer container = Arc.container();
+        return container == null ? null : container.instance(TransactionManager.class).get();
+    }
+
+    /**
+     * Streams the results opened with the given function, within a read-only transaction if there is a transaction
+     * manager. The function receives the session of the transaction, the one the results must be read with.
+     */
+    public static <T> Multi<T> stream(TransactionManager transactionManager, EntityManager entityManager, Function<EntityManager, Stream<T>> results) {
+        if (transactionManager == null) {
+            return Multi.createFrom().resource(() -> results.apply(entityManager), stream -> Multi.createFrom().<T> iterable(stream::iterator))
+                    .withFinalizer(Stream::close);
+        }
+        return Multi.createFrom().resource(() -> open(transactionManager, entityManager, results),
+                streaming -> Multi.createFrom().<T> iterable(streaming.results::iterator))
+                .withFinalizer(Streaming::close);
+    }
+
+    private static <T> Streaming<T> open(TransactionManager transactionManager, EntityManager entityManager, Function<EntityManager, Stream<T>> results) {
+        try {
+            transactionManager.setTransactionTimeout(ConfigProvider.getConfig().getOptionalValue(TIMEOUT_PROPERTY, Integer.class).orElse(DEFAULT_TIMEOUT_IN_SECONDS));
+            transactionManager.begin();
+            transactionManager.setTransactionTimeout(0);
+        } catch (NotSupportedException | SystemException e) {
+            throw new IllegalStateException("Unable to begin the transaction of a stream", e);
+        }
+        try {
+            EntityManager session = entityManager.unwrap(Session.class);
+            session.createNativeQuery(SET_READ_ONLY).executeUpdate();
+            Stream<T> stream = results.apply(session);
+            return new Streaming<>(transactionManager, transactionManager.suspend(), stream);
+        } catch (SystemException | RuntimeException e) {
+            rollback(transactionManager);
+            throw e instanceof RuntimeException ? (RuntimeException) e : new IllegalStateException(e);
+        }
+    }
+
+    private static void rollback(TransactionManager transactionManager) {
+        try {
+            transactionManager.rollback();
+        } catch (SystemException | RuntimeException e) {
+            LOGGER.warn("Unable to roll back the transaction of a stream", e);
+        }
+    }
+
+    private static final class Streaming<T> {
+
+        private final TransactionManager transactionManager;
+
+        private final Transaction transaction;
+
+        private final Stream<T> results;
+
+        private Streaming(TransactionManager transactionManager, Transaction transaction, Stream<T> results) {
+            this.transactionManager = transactionManager;
+            this.transaction = transaction;
+            this.results = results;
+        }
+
+        void close() {
+            try {
+                results.close();
+            } finally {
+                try {
+                    //the stream can terminate on a thread running in a transaction of its own
+                    Transaction current = transactionManager.suspend();
+                    transactionManager.resume(transaction);
+                    rollback(transactionManager);
+                    if (current != null) {
+                        transactionManager.resume(current);
+                    }
+                } catch (InvalidTransactionException | SystemException | RuntimeException e) {
+                    LOGGER.warn("Unable to roll back the transaction of a stream", e);
+                }
+            }
+        }
+    }
+}
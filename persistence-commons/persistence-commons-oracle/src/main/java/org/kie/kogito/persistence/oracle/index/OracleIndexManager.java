@@ -0,0 +1,172 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.oracle.index;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.kie.kogito.persistence.api.schema.EntityIndexDescriptor;
+import org.kie.kogito.persistence.api.schema.IndexDescriptor;
+import org.kie.kogito.persistence.api.schema.SchemaRegisteredEvent;
+import org.kie.kogito.persistence.oracle.model.CacheEntityRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Creates the indexes of the {@code kogito_data_cache} table from the {@link EntityIndexDescriptor}s of the registered
+ * schemas. Oracle has no partial indexes, so every index descriptor of a type bound to a cache gets a function based
+ * index on the cache name and the attributes of the descriptor. The indexes are named after their columns and shared by
+ * all the caches of the table, an index is dropped once no registered type describes it anymore.
+ */
+@ApplicationScoped
+public class OracleIndexManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OracleIndexManager.class);
+
+    static final String INDEX_PREFIX = "KDC_";
+
+    private static final String ATTRIBUTE_ACCESSOR = "json_value(json_value, '$.%s')";
+
+    private static final String CREATE_INDEX = "CREATE INDEX %s ON kogito_data_cache %s";
+
+    private static final String LIST_INDEXES = "SELECT index_name FROM user_indexes WHERE table_name = 'KOGITO_DATA_CACHE' AND index_name LIKE ?1";
+
+    private static final String DROP_INDEX = "DROP INDEX %s";
+
+    Map<String, EntityIndexDescriptor> indexes = new ConcurrentHashMap<>();
+
+    Map<String, String> cacheIndexMapping = new ConcurrentHashMap<>();
+
+    @Inject
+    CacheEntityRepository repository;
+
+    @ConfigProperty(name = "kogito.apps.persistence.indexing", defaultValue = "true")
+    Boolean indexEnabled;
+
+    public void onSchemaRegisteredEvent(@Observes SchemaRegisteredEvent event) {
+        event.getSchemaDescriptor().getEntityIndexDescriptors().forEach((type, index) -> {
+            EntityIndexDescriptor previous = indexes.put(type, index);
+            if (indexEnabled && cacheIndexMapping.containsValue(type)) {
+                updateIndexes(previous, index);
+            }
+        });
+    }
+
+    /**
+     * Binds the cache to the type of its entries, creating the indexes of the type the first time.
+     */
+    public void onCacheCreated(String cache, String type) {
+        if (!indexEnabled || Objects.isNull(type)) {
+            return;
+        }
+        String indexType = cacheIndexMapping.put(cache, type);
+        if (!type.equals(indexType)) {
+            updateIndexes(null, indexes.get(type));
+        }
+    }
+
+    void updateIndexes(EntityIndexDescriptor previous, EntityIndexDescriptor index) {
+        if (index == null) {
+            return;
+        }
+        try {
+            updateTable(previous == null ? Set.of() : createIndexStatements(previous).keySet(), createIndexStatements(index));
+        } catch (RuntimeException e) {
+            //the queries still work without the indexes, only slower
+            LOGGER.warn("Unable to update the indexes of {}", index.getName(), e);
+        }
+    }
+
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    void updateTable(Set<String> previousIndexes, Map<String, String> statements) {
+        EntityManager em = repository.getEntityManager();
+        @SuppressWarnings("unchecked")
+        List<String> indexesExists = ((List<Object>) em.createNativeQuery(LIST_INDEXES)
+                .setParameter(1, INDEX_PREFIX + "%")
+                .getResultList()).stream().map(Object::toString).collect(toList());
+
+        Set<String> indexesInUse = getIndexesInUse();
+        previousIndexes.stream()
+                .filter(ind -> !statements.containsKey(ind) && !indexesInUse.contains(ind) && indexesExists.contains(ind))
+                .forEach(ind -> em.createNativeQuery(format(DROP_INDEX, ind)).executeUpdate());
+
+        statements.entrySet().stream().filter(entry -> !indexesExists.contains(entry.getKey()))
+                .forEach(entry -> {
+                    LOGGER.debug("Creating index {}", entry.getKey());
+                    em.createNativeQuery(entry.getValue()).executeUpdate();
+                });
+    }
+
+    Set<String> getIndexesInUse() {
+        Set<String> indexesInUse = new HashSet<>();
+        cacheIndexMapping.values().stream().distinct().map(indexes::get).filter(Objects::nonNull)
+                .forEach(index -> indexesInUse.addAll(createIndexStatements(index).keySet()));
+        return indexesInUse;
+    }
+
+    /**
+     * Gets the DDL of the indexes of the type by index name.
+     */
+    Map<String, String> createIndexStatements(EntityIndexDescriptor index) {
+        Map<String, String> statements = new LinkedHashMap<>();
+        index.getIndexDescriptors().stream()
+                .filter(indexDescriptor -> !indexDescriptor.getIndexAttributes().isEmpty())
+                .forEach(indexDescriptor -> {
+                    String columns = getIndexColumns(indexDescriptor);
+                    String indexName = INDEX_PREFIX + hash(columns);
+                    statements.put(indexName, format(CREATE_INDEX, indexName, columns));
+                });
+        return statements;
+    }
+
+    private static String getIndexColumns(IndexDescriptor indexDescriptor) {
+        //same expression OracleQuery filters and sorts with, so the optimizer can match it
+        return indexDescriptor.getIndexAttributes().stream()
+                .map(attribute -> format(ATTRIBUTE_ACCESSOR, attribute.replace("'", "''")))
+                .collect(joining(", ", "(name, ", ")"));
+    }
+
+    //index names are limited to 30 characters in older releases, so a digest of the columns is used instead
+    private static String hash(String value) {
+        return UUID.nameUUIDFromBytes(value.getBytes(StandardCharsets.UTF_8)).toString().replace("-", "").substring(0, 16).toUpperCase();
+    }
+
+    Map<String, EntityIndexDescriptor> getIndexes() {
+        return indexes;
+    }
+
+    Map<String, String> getCacheIndexMapping() {
+        return cacheIndexMapping;
+    }
+}
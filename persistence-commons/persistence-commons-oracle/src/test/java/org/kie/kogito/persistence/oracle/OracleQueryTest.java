@@ -0,0 +1,114 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.oracle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.persistence.api.query.AttributeFilter;
+import org.kie.kogito.persistence.api.query.SortDirection;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.equalTo;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.greaterThan;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.in;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.like;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.not;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.or;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.orderBy;
+
+class OracleQueryTest {
+
+    @Test
+    void testValuesAreBound() {
+        List<Object> parameters = new ArrayList<>();
+        String queryString = query(asList(equalTo("processId", "travels"), in("state", asList("1", "2")), greaterThan("age", 18)))
+                .getQueryString(parameters);
+
+        assertThat(queryString).isEqualTo("SELECT key, name, json_value FROM kogito_data_cache  WHERE name = ?1 AND json_value(json_value, '$.processId') = ?2 AND json_value(json_value, '$.state') IN (?3, ?4) AND to_number(json_value(json_value, '$.age')) > ?5");
+        assertThat(parameters).containsExactly("processes", "travels", "1", "2", 18);
+    }
+
+    @Test
+    void testNestedValuesAreBound() {
+        List<Object> parameters = new ArrayList<>();
+        String queryString = query(singletonList(or(asList(like("processId", "trav*"), not(equalTo("state", "1"))))))
+                .getQueryString(parameters);
+
+        assertThat(queryString).isEqualTo("SELECT key, name, json_value FROM kogito_data_cache  WHERE name = ?1 AND (json_value(json_value, '$.processId') LIKE ?2 OR not json_value(json_value, '$.state') = ?3)");
+        assertThat(parameters).containsExactly("processes", "trav%", "1");
+    }
+
+    @Test
+    void testAfterCursor() {
+        List<Object> parameters = new ArrayList<>();
+        OracleQuery<Object> query = query(singletonList(greaterThan("age", 18)));
+        query.sort(singletonList(orderBy("age", SortDirection.ASC)));
+        query.after("k1");
+        String queryString = query.getQueryString(parameters);
+
+        String value = "to_number(json_value(json_value, '$.age'))";
+        String cursor = "to_number(c.cursor_0)";
+        assertThat(queryString).isEqualTo("SELECT key, name, json_value FROM kogito_data_cache , (SELECT key AS cursor_key, json_value(json_value, '$.age') AS cursor_0"
+                + " FROM kogito_data_cache WHERE name = ?1 AND key = ?3) c  WHERE name = ?1 AND " + value + " > ?2"
+                + " AND ((" + value + " > " + cursor + " OR (" + value + " IS NULL AND " + cursor + " IS NOT NULL))"
+                + " OR ((" + value + " = " + cursor + " OR (" + value + " IS NULL AND " + cursor + " IS NULL)) AND key > c.cursor_key))"
+                + " ORDER BY " + value + " ASC, key ASC");
+        assertThat(parameters).containsExactly("processes", 18, "k1");
+    }
+
+    @Test
+    void testCountQueryStrings() {
+        OracleQuery<Object> query = query(singletonList(equalTo("processId", "travels")));
+        query.sort(singletonList(orderBy("age", SortDirection.ASC)));
+        query.after("k1");
+
+        List<Object> parameters = new ArrayList<>();
+        assertThat(query.getQueryString(parameters, emptyList()))
+                .isEqualTo("SELECT COUNT(*) FROM kogito_data_cache WHERE name = ?1 AND json_value(json_value, '$.processId') = ?2");
+        assertThat(parameters).containsExactly("processes", "travels");
+
+        parameters.clear();
+        String groups = "json_query(json_value, '$.processId' WITH WRAPPER), json_query(json_value, '$.state' WITH WRAPPER)";
+        assertThat(query.getQueryString(parameters, asList("processId", "state")))
+                .isEqualTo("SELECT " + groups + ", COUNT(*) FROM kogito_data_cache WHERE name = ?1 AND json_value(json_value, '$.processId') = ?2 GROUP BY " + groups);
+        assertThat(parameters).containsExactly("processes", "travels");
+    }
+
+    @Test
+    void testQueryStringReusedForSameShape() {
+        List<Object> parameters1 = new ArrayList<>();
+        List<Object> parameters2 = new ArrayList<>();
+        List<Object> parameters3 = new ArrayList<>();
+        String queryString1 = query(asList(equalTo("processId", "travels"), in("state", asList("1", "2")))).getQueryString(parameters1);
+        String queryString2 = query(asList(equalTo("processId", "hotels"), in("state", asList("3", "4")))).getQueryString(parameters2);
+        String queryString3 = query(asList(equalTo("processId", "hotels"), in("state", asList("3", "4", "5")))).getQueryString(parameters3);
+
+        assertThat(queryString2).isSameAs(queryString1);
+        assertThat(parameters2).containsExactly("processes", "hotels", "3", "4");
+        assertThat(queryString3).isNotEqualTo(queryString1);
+    }
+
+    private static OracleQuery<Object> query(List<AttributeFilter<?>> filters) {
+        OracleQuery<Object> query = new OracleQuery<>("processes", null, null, Object.class);
+        query.filter(filters);
+        return query;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.oracle.index;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.persistence.api.schema.EntityIndexDescriptor;
+import org.kie.kogito.persistence.api.schema.IndexDescriptor;
+import org.kie.kogito.persistence.api.schema.SchemaDescriptor;
+import org.kie.kogito.persistence.api.schema.SchemaRegisteredEvent;
+import org.kie.kogito.persistence.api.schema.SchemaType;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+class OracleIndexManagerTest {
+
+    private static final String TYPE = "org.acme.travels.Travels";
+
+    private static final EntityIndexDescriptor INDEX = new EntityIndexDescriptor(TYPE,
+            asList(new IndexDescriptor("flight", singletonList("flightNumber")), new IndexDescriptor("trip", asList("country", "city"))),
+            emptyList());
+
+    private OracleIndexManager indexManager;
+
+    @BeforeEach
+    void setUp() {
+        indexManager = spy(new OracleIndexManager());
+        indexManager.indexEnabled = true;
+        doNothing().when(indexManager).updateTable(any(), anyMap());
+    }
+
+    @Test
+    void testCreateIndexStatements() {
+        Map<String, String> statements = indexManager.createIndexStatements(INDEX);
+
+        assertThat(statements).hasSize(2);
+        assertThat(statements.keySet()).allMatch(name -> name.startsWith(OracleIndexManager.INDEX_PREFIX) && name.length() <= 30);
+        assertThat(statements.values()).containsExactly(
+                "CREATE INDEX " + statements.keySet().toArray()[0] + " ON kogito_data_cache (name, json_value(json_value, '$.flightNumber'))",
+                "CREATE INDEX " + statements.keySet().toArray()[1] + " ON kogito_data_cache (name, json_value(json_value, '$.country'), json_value(json_value, '$.city'))");
+        assertThat(indexManager.createIndexStatements(new EntityIndexDescriptor("org.acme.Other", singletonList(new IndexDescriptor("other", singletonList("flightNumber"))), emptyList())))
+                .containsOnlyKeys(statements.keySet().iterator().next());
+    }
+
+    @Test
+    void testIndexesUpdatedForBoundTypes() {
+        indexManager.onSchemaRegisteredEvent(event(INDEX));
+        verify(indexManager, never()).updateTable(any(), anyMap());
+
+        indexManager.onCacheCreated("travels", TYPE);
+        indexManager.onCacheCreated("travels", TYPE);
+        verify(indexManager).updateTable(Set.of(), indexManager.createIndexStatements(INDEX));
+
+        EntityIndexDescriptor updated = new EntityIndexDescriptor(TYPE, singletonList(new IndexDescriptor("flight", singletonList("flightNumber"))), emptyList());
+        indexManager.onSchemaRegisteredEvent(event(updated));
+        verify(indexManager).updateTable(indexManager.createIndexStatements(INDEX).keySet(), indexManager.createIndexStatements(updated));
+        assertThat(indexManager.getIndexesInUse()).isEqualTo(indexManager.createIndexStatements(updated).keySet());
+    }
+
+    @Test
+    void testIndexingDisabled() {
+        indexManager.indexEnabled = false;
+        indexManager.onSchemaRegisteredEvent(event(INDEX));
+        indexManager.onCacheCreated("travels", TYPE);
+
+        verify(indexManager, never()).updateTable(any(), anyMap());
+        assertThat(indexManager.getIndexes()).containsKey(TYPE);
+    }
+
+    private static SchemaRegisteredEvent event(EntityIndexDescriptor index) {
+        return new SchemaRegisteredEvent(new SchemaDescriptor("travels.proto", "", singletonMap(TYPE, index), null), new SchemaType("proto"));
+    }
+}
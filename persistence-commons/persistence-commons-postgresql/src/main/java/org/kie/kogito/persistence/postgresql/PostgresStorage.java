@@ -22,6 +22,8 @@ import java.util.function.Function;
 
 import org.kie.kogito.persistence.api.Storage;
 import org.kie.kogito.persistence.api.query.Query;
+import org.kie.kogito.persistence.postgresql.listener.ChangeEvent;
+import org.kie.kogito.persistence.postgresql.listener.PostgresChangeFeed;
 import org.kie.kogito.persistence.postgresql.model.CacheEntity;
 import org.kie.kogito.persistence.postgresql.model.CacheEntityRepository;
 import org.kie.kogito.persistence.postgresql.model.CacheId;
@@ -43,32 +45,52 @@ public class PostgresStorage<V> implements Storage<String, V> {
     private Class<V> type;
     private ObjectMapper mapper;
     private String rootType;
+    private PostgresChangeFeed changeFeed;
 
     public PostgresStorage(String cacheName, CacheEntityRepository repository, ObjectMapper mapper, Class<V> type) {
         this(cacheName, repository, mapper, type, type.getCanonicalName());
     }
 
     public PostgresStorage(String cacheName, CacheEntityRepository repository, ObjectMapper mapper, Class<V> type, String rootType) {
+        this(cacheName, repository, mapper, type, rootType, null);
+    }
+
+    public PostgresStorage(String cacheName, CacheEntityRepository repository, ObjectMapper mapper, Class<V> type, String rootType,
+            PostgresChangeFeed changeFeed) {
         this.repository = repository;
         this.cacheName = cacheName;
         this.type = type;
         this.mapper = mapper;
         this.rootType = rootType;
+        this.changeFeed = changeFeed;
     }
 
     @Override
     public Multi<V> objectCreatedListener() {
-        throw new UnsupportedOperationException(LISTENER_NOT_AVAILABLE_IN_POSTGRES_SQL);
+        return changeFeed().changes(cacheName, ChangeEvent.Type.CREATED, this::get);
     }
 
     @Override
     public Multi<V> objectUpdatedListener() {
-        throw new UnsupportedOperationException(LISTENER_NOT_AVAILABLE_IN_POSTGRES_SQL);
+        return changeFeed().changes(cacheName, ChangeEvent.Type.UPDATED, this::get);
     }
 
     @Override
     public Multi<String> objectRemovedListener() {
-        throw new UnsupportedOperationException(LISTENER_NOT_AVAILABLE_IN_POSTGRES_SQL);
+        return changeFeed().changes(cacheName, ChangeEvent.Type.REMOVED, Function.identity());
+    }
+
+    private PostgresChangeFeed changeFeed() {
+        if (changeFeed == null) {
+            throw new UnsupportedOperationException(LISTENER_NOT_AVAILABLE_IN_POSTGRES_SQL);
+        }
+        return changeFeed;
+    }
+
+    private void publish(String key, ChangeEvent.Type changeType) {
+        if (changeFeed != null) {
+            changeFeed.publish(repository.getEntityManager(), cacheName, key, changeType);
+        }
     }
 
     @Override
@@ -114,6 +136,7 @@ public class PostgresStorage<V> implements Storage<String, V> {
         }
         entity.setValue(json);
         repository.persist(entity);
+        publish(key, byId.isPresent() ? ChangeEvent.Type.UPDATED : ChangeEvent.Type.CREATED);
         return value;
     }
 
@@ -122,6 +145,7 @@ public class PostgresStorage<V> implements Storage<String, V> {
         V value = get(key);
         if (value != null) {
             repository.deleteById(new CacheId(cacheName, key));
+            publish(key, ChangeEvent.Type.REMOVED);
         }
         return value;
     }
@@ -21,6 +21,8 @@ import javax.inject.Inject;
 
 import org.kie.kogito.persistence.api.Storage;
 import org.kie.kogito.persistence.api.StorageService;
+import org.kie.kogito.persistence.postgresql.index.PostgresIndexManager;
+import org.kie.kogito.persistence.postgresql.listener.PostgresChangeFeed;
 import org.kie.kogito.persistence.postgresql.model.CacheEntityRepository;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -40,18 +42,25 @@ public class PostgresStorageService implements StorageService {
     @Inject
     protected ObjectMapper mapper;
 
+    @Inject
+    protected PostgresIndexManager indexManager;
+
+    @Inject
+    protected PostgresChangeFeed changeFeed;
+
     @Override
     public Storage<String, String> getCache(String name) {
-        return new PostgresStorage<>(name, repository, mapper, String.class);
+        return new PostgresStorage<>(name, repository, mapper, String.class, String.class.getCanonicalName(), changeFeed);
     }
 
     @Override
     public <T> Storage<String, T> getCache(String name, Class<T> type) {
-        return new PostgresStorage<>(name, repository, mapper, type);
+        return new PostgresStorage<>(name, repository, mapper, type, type.getCanonicalName(), changeFeed);
     }
 
     @Override
     public <T> Storage<String, T> getCache(String name, Class<T> type, String rootType) {
-        return new PostgresStorage<>(name, repository, mapper, type, rootType);
+        indexManager.onCacheCreated(name, rootType);
+        return new PostgresStorage<>(name, repository, mapper, type, rootType, changeFeed);
     }
 }
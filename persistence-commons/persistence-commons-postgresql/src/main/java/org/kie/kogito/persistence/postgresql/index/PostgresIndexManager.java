@@ -0,0 +1,214 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.postgresql.index;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.sql.DataSource;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.kie.kogito.persistence.api.schema.EntityIndexDescriptor;
+import org.kie.kogito.persistence.api.schema.IndexDescriptor;
+import org.kie.kogito.persistence.api.schema.SchemaRegisteredEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Creates the indexes of the {@code kogito_data_cache} table from the {@link EntityIndexDescriptor}s of the registered
+ * schemas. Every cache bound to an indexed type gets a partial expression index for each of the index descriptors of the
+ * type, plus a {@code jsonb_path_ops} GIN index used by the containment filters of {@code PostgresQuery}. The indexes of
+ * a cache are named after it, so the ones no longer described by the schema are dropped when it is registered again.
+ * <p>
+ * The indexes are built with {@code CREATE INDEX CONCURRENTLY}, so the writes to the table are not blocked meanwhile.
+ * That cannot run inside a transaction, so the DDL is executed on a connection of its own in auto-commit mode, one
+ * statement at a time, on a background thread instead of the thread creating the cache. An index left invalid by a
+ * failed build is dropped and built again on the next update.
+ */
+@ApplicationScoped
+public class PostgresIndexManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PostgresIndexManager.class);
+
+    static final String INDEX_PREFIX = "kdc_";
+
+    static final String GIN_INDEX = "gin";
+
+    private static final String ATTRIBUTE_ACCESSOR = "(json_value->>'%s')";
+
+    //the predicate is the same literal PostgresQuery filters the cache with, so the planner can match it
+    private static final String CREATE_INDEX = "CREATE INDEX CONCURRENTLY IF NOT EXISTS %s ON kogito_data_cache %s WHERE name = '%s'";
+
+    private static final String LIST_INDEXES = "SELECT c.relname, i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+            "JOIN pg_class t ON t.oid = i.indrelid WHERE t.relname = 'kogito_data_cache' AND c.relname LIKE ?";
+
+    private static final String DROP_INDEX = "DROP INDEX CONCURRENTLY IF EXISTS %s";
+
+    Map<String, EntityIndexDescriptor> indexes = new ConcurrentHashMap<>();
+
+    Map<String, String> cacheIndexMapping = new ConcurrentHashMap<>();
+
+    //a single thread, the DDL of the caches is applied one statement at a time
+    ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "kogito-postgresql-index-manager");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Inject
+    DataSource dataSource;
+
+    @ConfigProperty(name = "kogito.apps.persistence.indexing", defaultValue = "true")
+    Boolean indexEnabled;
+
+    public void onSchemaRegisteredEvent(@Observes SchemaRegisteredEvent event) {
+        Map<String, EntityIndexDescriptor> descriptors = event.getSchemaDescriptor().getEntityIndexDescriptors();
+        indexes.putAll(descriptors);
+        if (indexEnabled) {
+            cacheIndexMapping.forEach((cache, type) -> {
+                if (descriptors.containsKey(type)) {
+                    updateIndexes(cache, descriptors.get(type));
+                }
+            });
+        }
+    }
+
+    /**
+     * Binds the cache to the type of its entries, scheduling the creation of the indexes of the type the first time.
+     */
+    public void onCacheCreated(String cache, String type) {
+        if (!indexEnabled || Objects.isNull(type)) {
+            return;
+        }
+        String indexType = cacheIndexMapping.put(cache, type);
+        if (!type.equals(indexType)) {
+            updateIndexes(cache, indexes.get(type));
+        }
+    }
+
+    void updateIndexes(String cache, EntityIndexDescriptor index) {
+        if (index == null) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                updateTable(cache, index);
+            } catch (SQLException | RuntimeException e) {
+                //the queries still work without the indexes, only slower
+                LOGGER.warn("Unable to update the indexes of cache {}", cache, e);
+            }
+        });
+    }
+
+    void updateTable(String cache, EntityIndexDescriptor index) throws SQLException {
+        Map<String, String> statements = createIndexStatements(cache, index);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            //index name to whether the index is valid
+            Map<String, Boolean> existing = new LinkedHashMap<>();
+            try (PreparedStatement statement = connection.prepareStatement(LIST_INDEXES)) {
+                statement.setString(1, getIndexPrefix(cache) + "%");
+                try (ResultSet result = statement.executeQuery()) {
+                    while (result.next()) {
+                        existing.put(result.getString(1), result.getBoolean(2));
+                    }
+                }
+            }
+            try (Statement statement = connection.createStatement()) {
+                for (Map.Entry<String, Boolean> entry : existing.entrySet()) {
+                    if (!statements.containsKey(entry.getKey()) || !entry.getValue()) {
+                        LOGGER.debug("Dropping index {} of cache {}", entry.getKey(), cache);
+                        statement.execute(format(DROP_INDEX, entry.getKey()));
+                    }
+                }
+                for (Map.Entry<String, String> entry : statements.entrySet()) {
+                    if (!Boolean.TRUE.equals(existing.get(entry.getKey()))) {
+                        LOGGER.debug("Creating index {} of cache {}", entry.getKey(), cache);
+                        statement.execute(entry.getValue());
+                    }
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Gets the DDL of the indexes of the cache by index name.
+     */
+    Map<String, String> createIndexStatements(String cache, EntityIndexDescriptor index) {
+        String prefix = getIndexPrefix(cache);
+        String cacheName = escape(cache);
+        Map<String, String> statements = new LinkedHashMap<>();
+        statements.put(prefix + GIN_INDEX, format(CREATE_INDEX, prefix + GIN_INDEX, "USING gin (json_value jsonb_path_ops)", cacheName));
+        index.getIndexDescriptors().stream()
+                .filter(indexDescriptor -> !indexDescriptor.getIndexAttributes().isEmpty())
+                .forEach(indexDescriptor -> {
+                    String indexName = prefix + hash(indexDescriptor.getName());
+                    statements.put(indexName, format(CREATE_INDEX, indexName, getIndexColumns(indexDescriptor), cacheName));
+                });
+        return statements;
+    }
+
+    private static String getIndexColumns(IndexDescriptor indexDescriptor) {
+        //same expression PostgresQuery filters and sorts with, so the planner can match it
+        return indexDescriptor.getIndexAttributes().stream()
+                .map(attribute -> "(" + format(ATTRIBUTE_ACCESSOR, escape(attribute)) + ")")
+                .collect(joining(", ", "(", ")"));
+    }
+
+    static String getIndexPrefix(String cache) {
+        return INDEX_PREFIX + hash(cache) + "_";
+    }
+
+    //index names are limited to 63 characters, so a digest of the names is used instead
+    private static String hash(String value) {
+        return UUID.nameUUIDFromBytes(value.getBytes(StandardCharsets.UTF_8)).toString().replace("-", "").substring(0, 12);
+    }
+
+    private static String escape(String value) {
+        return value.replace("'", "''");
+    }
+
+    Map<String, EntityIndexDescriptor> getIndexes() {
+        return indexes;
+    }
+
+    Map<String, String> getCacheIndexMapping() {
+        return cacheIndexMapping;
+    }
+}
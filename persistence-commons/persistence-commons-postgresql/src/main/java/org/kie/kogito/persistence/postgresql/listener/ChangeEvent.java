@@ -0,0 +1,71 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.persistence.postgresql.listener;
+
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Payload of the notifications published on the change feed channel. It only carries the coordinates of the changed
+ * entry, the value is read back by the listeners, so the payload stays well below the notification size limit.
+ */
+public class ChangeEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        REMOVED
+    }
+
+    private final String cache;
+    private final String key;
+    private final Type type;
+
+    @JsonCreator
+    public ChangeEvent(@JsonProperty("cache") String cache, @JsonProperty("key") String key, @JsonProperty("type") Type type) {
+        this.cache = cache;
+        this.key = key;
+        this.type = type;
+    }
+
+    public String getCache() {
+        return cache;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    boolean matches(String cache, Type type) {
+        return this.type == type && Objects.equals(this.cache, cache);
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeEvent{" +
+                "cache='" + cache + '\'' +
+                ", key='" + key + '\'' +
+                ", type=" + type +
+                '}';
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.persistence.postgresql.listener;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.control.ActivateRequestContext;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+import org.kie.kogito.persistence.api.listener.ListenerBroadcaster;
+import org.kie.kogito.persistence.api.listener.OverflowStrategy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.smallrye.mutiny.operators.multi.processors.BroadcastProcessor;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Change feed of the PostgreSQL storages built on {@code LISTEN/NOTIFY}. The storages publish a {@link ChangeEvent} with
+ * {@code pg_notify} in the transaction of every write, so the event is only delivered once it commits, to every service
+ * instance sharing the database. A single connection taken from the data source listens on the channel, it is opened
+ * when the first subscription arrives and reopened after a failure; the notifications sent while it is being reopened
+ * are lost.
+ * <p>
+ * The subscriptions to the same cache and change type share one stream through a {@link ListenerBroadcaster}, so the
+ * value of a changed entry is read once whatever the number of subscribers.
+ */
+@ApplicationScoped
+public class PostgresChangeFeed {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PostgresChangeFeed.class);
+
+    static final String LISTEN = "LISTEN %s";
+
+    static final String NOTIFY = "SELECT pg_notify(?, ?)";
+
+    static final String NOTIFY_ALL = "SELECT pg_notify(?, payload) FROM unnest(?) AS payload";
+
+    private final BroadcastProcessor<ChangeEvent> processor = BroadcastProcessor.create();
+
+    private ListenerBroadcaster broadcaster;
+
+    private volatile boolean running;
+
+    private Thread listener;
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    ObjectMapper mapper;
+
+    @ConfigProperty(name = "kogito.apps.persistence.postgresql.listener.channel", defaultValue = "kogito_data_changes")
+    String channel;
+
+    @ConfigProperty(name = "kogito.apps.persistence.listener.buffer-size", defaultValue = "256")
+    int bufferSize;
+
+    @ConfigProperty(name = "kogito.apps.persistence.listener.overflow-strategy", defaultValue = "LATEST")
+    OverflowStrategy overflowStrategy;
+
+    @ConfigProperty(name = "kogito.apps.persistence.postgresql.listener.poll-timeout", defaultValue = "1000")
+    int pollTimeout;
+
+    @ConfigProperty(name = "kogito.apps.persistence.postgresql.listener.reconnect-delay", defaultValue = "5000")
+    long reconnectDelay;
+
+    @PostConstruct
+    void init() {
+        broadcaster = new ListenerBroadcaster(bufferSize, overflowStrategy);
+    }
+
+    /**
+     * Publishes a change of the given entry in the current transaction of the entity manager.
+     */
+    public void publish(EntityManager entityManager, String cache, String key, ChangeEvent.Type type) {
+        String payload = payload(cache, key, type);
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(NOTIFY)) {
+                statement.setString(1, channel);
+                statement.setString(2, payload);
+                statement.execute();
+            }
+        });
+    }
+
+    /**
+     * Publishes the changes of several entries in the current transaction of the entity manager, with a single
+     * statement.
+     */
+    public void publishAll(EntityManager entityManager, String cache, Map<String, ChangeEvent.Type> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        List<String> payloads = changes.entrySet().stream().map(change -> payload(cache, change.getKey(), change.getValue())).collect(toList());
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(NOTIFY_ALL)) {
+                statement.setString(1, channel);
+                statement.setArray(2, connection.createArrayOf("text", payloads.toArray()));
+                statement.execute();
+            }
+        });
+    }
+
+    private String payload(String cache, String key, ChangeEvent.Type type) {
+        try {
+            return mapper.writeValueAsString(new ChangeEvent(cache, key, type));
+        } catch (JsonProcessingException ex) {
+            throw new RuntimeException(format("Failed to serialize the change of the entry %s of the cache %s", key, cache), ex);
+        }
+    }
+
+    /**
+     * Streams the changes of the given type to the entries of a cache, the loader reads the value published for a key,
+     * a {@code null} value skips the change.
+     */
+    public <T> Multi<T> changes(String cache, ChangeEvent.Type type, Function<String, T> loader) {
+        return broadcaster.listen(cache + ':' + type, () -> Multi.createFrom().deferred(() -> {
+            start();
+            return processor;
+        }).onOverflow().buffer(bufferSize)
+                .select().where(event -> event.matches(cache, type))
+                .emitOn(Infrastructure.getDefaultWorkerPool())
+                .onItem().transformToIterable(event -> load(loader, event.getKey())));
+    }
+
+    @ActivateRequestContext
+    <T> List<T> load(Function<String, T> loader, String key) {
+        try {
+            T value = loader.apply(key);
+            return value == null ? Collections.emptyList() : Collections.singletonList(value);
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Failed to read the changed entry {}, the change is skipped", key, ex);
+            return Collections.emptyList();
+        }
+    }
+
+    synchronized void start() {
+        if (!running) {
+            running = true;
+            listener = new Thread(this::listen, "kogito-postgresql-change-feed");
+            listener.setDaemon(true);
+            listener.start();
+        }
+    }
+
+    @PreDestroy
+    synchronized void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(format(LISTEN, channel));
+                }
+                LOGGER.debug("Listening to the changes published on channel {}", channel);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeout);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException ex) {
+                if (running) {
+                    LOGGER.warn("Change feed connection failed, reconnecting in {} ms", reconnectDelay, ex);
+                    pause();
+                }
+            }
+        }
+    }
+
+    void dispatch(String payload) {
+        try {
+            processor.onNext(mapper.readValue(payload, ChangeEvent.class));
+        } catch (JsonProcessingException ex) {
+            LOGGER.warn("Ignoring malformed change notification {}", payload, ex);
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(reconnectDelay);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.postgresql;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.persistence.api.query.AttributeFilter;
+import org.kie.kogito.persistence.api.query.SortDirection;
+import org.kie.kogito.persistence.postgresql.model.CacheEntityRepository;
+import org.mockito.InOrder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.equalTo;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.greaterThan;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.in;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.like;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.not;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.or;
+import static org.kie.kogito.persistence.api.query.QueryFilterFactory.orderBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PostgresQueryTest {
+
+    @Test
+    void testValuesAreBound() {
+        List<Object> parameters = new ArrayList<>();
+        String queryString = query(asList(equalTo("processId", "travels"), in("state", asList("1", "2")), greaterThan("age", 18)))
+                .getQueryString(parameters);
+
+        assertThat(queryString).isEqualTo("SELECT * FROM kogito_data_cache WHERE name = 'processes' AND json_value @> cast(?1 as jsonb) AND (json_value @> cast(?2 as jsonb) OR json_value @> cast(?3 as jsonb)) AND ((json_value->>'age'))\\:\\:numeric > ?4");
+        assertThat(parameters).containsExactly("{\"processId\":\"travels\"}", "{\"state\":\"1\"}", "{\"state\":\"2\"}", 18);
+    }
+
+    @Test
+    void testNestedValuesAreBound() {
+        List<Object> parameters = new ArrayList<>();
+        String queryString = query(singletonList(or(asList(like("processId", "trav*"), not(equalTo("state", "1"))))))
+                .getQueryString(parameters);
+
+        assertThat(queryString).isEqualTo("SELECT * FROM kogito_data_cache WHERE name = 'processes' AND ((json_value->>'processId') LIKE ?1 OR not json_value @> cast(?2 as jsonb))");
+        assertThat(parameters).containsExactly("trav%", "{\"state\":\"1\"}");
+    }
+
+    @Test
+    void testQueryStringReusedForSameShape() {
+        List<Object> parameters1 = new ArrayList<>();
+        List<Object> parameters2 = new ArrayList<>();
+        List<Object> parameters3 = new ArrayList<>();
+        String queryString1 = query(asList(equalTo("processId", "travels"), in("state", asList("1", "2")))).getQueryString(parameters1);
+        String queryString2 = query(asList(equalTo("processId", "hotels"), in("state", asList("3", "4")))).getQueryString(parameters2);
+        String queryString3 = query(asList(equalTo("processId", "hotels"), in("state", asList("3", "4", "5")))).getQueryString(parameters3);
+
+        assertThat(queryString2).isSameAs(queryString1);
+        assertThat(parameters2).containsExactly("{\"processId\":\"hotels\"}", "{\"state\":\"3\"}", "{\"state\":\"4\"}");
+        assertThat(queryString3).isNotEqualTo(queryString1);
+    }
+
+    @Test
+    void testCacheNameIsALiteral() {
+        List<Object> parameters = new ArrayList<>();
+        PostgresQuery<Object> query = new PostgresQuery<>("o'travels", null, null, Object.class);
+        query.filter(singletonList(equalTo("processId", "travels")));
+
+        //same predicate as the partial indexes of the cache
+        assertThat(query.getQueryString(parameters)).isEqualTo("SELECT * FROM kogito_data_cache WHERE name = 'o''travels' AND json_value @> cast(?1 as jsonb)")
+                .isNotEqualTo(query(singletonList(equalTo("processId", "travels"))).getQueryString(new ArrayList<>()));
+        assertThat(parameters).containsExactly("{\"processId\":\"travels\"}");
+    }
+
+    @Test
+    void testEqualToNumberOrBooleanValues() {
+        List<Object> parameters = new ArrayList<>();
+        String queryString = query(asList(equalTo("approved", true), in("priority", asList(1, 2)))).getQueryString(parameters);
+
+        assertThat(queryString).isEqualTo("SELECT * FROM kogito_data_cache WHERE name = 'processes' AND json_value @> cast(?1 as jsonb) AND (json_value->>'priority') IN (?2, ?3)");
+        assertThat(parameters).containsExactly("{\"approved\":true}", "1", "2");
+    }
+
+    @Test
+    void testAfterCursor() {
+        List<Object> parameters = new ArrayList<>();
+        PostgresQuery<Object> query = query(singletonList(equalTo("processId", "travels")));
+        query.sort(singletonList(orderBy("name", SortDirection.DESC)));
+        query.after("k1");
+        String queryString = query.getQueryString(parameters);
+
+        assertThat(queryString).isEqualTo("SELECT * FROM kogito_data_cache, (SELECT key AS cursor_key, json_value AS cursor_value FROM kogito_data_cache WHERE name = 'processes' AND key = ?2) c"
+                + " WHERE name = 'processes' AND json_value @> cast(?1 as jsonb)"
+                + " AND (((json_value->>'name') < (c.cursor_value->>'name') OR ((json_value->>'name') IS NOT NULL AND (c.cursor_value->>'name') IS NULL))"
+                + " OR ((json_value->>'name') IS NOT DISTINCT FROM (c.cursor_value->>'name') AND key > c.cursor_key))"
+                + " ORDER BY (json_value->>'name') DESC, key ASC");
+        assertThat(parameters).containsExactly("{\"processId\":\"travels\"}", "k1");
+    }
+
+    @Test
+    void testAfterCursorWithoutSort() {
+        List<Object> parameters = new ArrayList<>();
+        PostgresQuery<Object> query = query(null);
+        query.after("k1");
+
+        assertThat(query.getQueryString(parameters)).isEqualTo("SELECT * FROM kogito_data_cache, (SELECT key AS cursor_key, json_value AS cursor_value FROM kogito_data_cache"
+                + " WHERE name = 'processes' AND key = ?1) c WHERE name = 'processes' AND (key > c.cursor_key) ORDER BY key ASC");
+        assertThat(parameters).containsExactly("k1");
+    }
+
+    @Test
+    void testCountQueryStrings() {
+        PostgresQuery<Object> query = query(singletonList(equalTo("processId", "travels")));
+        query.sort(singletonList(orderBy("name", SortDirection.DESC)));
+        query.after("k1");
+
+        List<Object> parameters = new ArrayList<>();
+        assertThat(query.getQueryString(parameters, emptyList()))
+                .isEqualTo("SELECT COUNT(*) FROM kogito_data_cache WHERE name = 'processes' AND json_value @> cast(?1 as jsonb)");
+        assertThat(parameters).containsExactly("{\"processId\":\"travels\"}");
+
+        parameters.clear();
+        String groups = "CAST(json_value->'processId' AS text), CAST(json_value->'state' AS text)";
+        assertThat(query.getQueryString(parameters, asList("processId", "state")))
+                .isEqualTo("SELECT " + groups + ", COUNT(*) FROM kogito_data_cache WHERE name = 'processes' AND json_value @> cast(?1 as jsonb) GROUP BY " + groups);
+        assertThat(parameters).containsExactly("{\"processId\":\"travels\"}");
+    }
+
+    @Test
+    void testCountByReadsTypedGroupValues() {
+        Query query = mock(Query.class);
+        when(query.getResultList()).thenReturn(asList(new Object[] { "\"travels\"", "1", 3L }, new Object[] { "\"travels\"", null, BigInteger.ONE }));
+
+        Map<List<Object>, Long> counts = new PostgresQuery<>("processes", repository(query), new ObjectMapper(), Object.class)
+                .countBy(asList("processId", "state"));
+
+        assertThat(counts).containsOnly(entry(asList("travels", 1), 3L), entry(asList("travels", null), 1L));
+    }
+
+    @Test
+    void testExecuteDecodesRowsIntoType() {
+        List<ProcessInstanceModel> results = execute(ProcessInstanceModel.class, rows(10000));
+
+        assertThat(results).hasSize(10000);
+        assertThat(results.get(9999).getId()).isEqualTo("9999");
+        assertThat(results.get(9999).getProcessId()).isEqualTo("travels");
+        assertThat(results.get(9999).getState()).isEqualTo(1);
+    }
+
+    @Test
+    void testExecuteDecodesRowsIntoJsonTree() {
+        List<String> rows = rows(2);
+        rows.add(null);
+        List<ObjectNode> results = execute(ObjectNode.class, rows);
+
+        assertThat(results).hasSize(3);
+        assertThat(results.get(1).get("id").asText()).isEqualTo("1");
+        assertThat(results.get(2)).isNull();
+    }
+
+    @Test
+    void testStreamFetchesRowsLazily() {
+        AtomicBoolean closed = new AtomicBoolean();
+        AtomicInteger fetched = new AtomicInteger();
+        Stream<String> rows = rows(10000).stream().peek(r -> fetched.incrementAndGet()).onClose(() -> closed.set(true));
+        Query query = mockQuery();
+        when(query.setHint(anyString(), any())).thenReturn(query);
+        when(query.getResultStream()).thenReturn(rows);
+
+        List<ProcessInstanceModel> results = new PostgresQuery<>("processes", repository(query), new ObjectMapper().findAndRegisterModules(), ProcessInstanceModel.class)
+                .stream().select().first(10).collect().asList().await().indefinitely();
+
+        assertThat(results).hasSize(10);
+        assertThat(results.get(9).getId()).isEqualTo("9");
+        assertThat(fetched.get()).isLessThan(100);
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamFetchesRowsInPagesWithinReadOnlyTransaction() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        AtomicInteger fetched = new AtomicInteger();
+        AtomicInteger fetchedWhenSuspended = new AtomicInteger(-1);
+        Stream<String> rows = rows(10000).stream().peek(r -> fetched.incrementAndGet()).onClose(() -> closed.set(true));
+        Query query = mockQuery();
+        when(query.setHint(anyString(), any())).thenReturn(query);
+        when(query.getResultStream()).thenReturn(rows);
+        CacheEntityRepository repository = repository(query);
+        Session session = mock(Session.class);
+        NativeQuery<Object> readOnly = mock(NativeQuery.class);
+        when(repository.getEntityManager().unwrap(Session.class)).thenReturn(session);
+        when(session.createNativeQuery(ReadOnlyTransaction.SET_READ_ONLY)).thenReturn(readOnly);
+        TransactionManager transactionManager = mock(TransactionManager.class);
+        Transaction transaction = mock(Transaction.class);
+        when(transactionManager.suspend()).thenAnswer(invocation -> {
+            fetchedWhenSuspended.set(fetched.get());
+            return transaction;
+        }).thenReturn(null);
+
+        PostgresQuery<ProcessInstanceModel> postgresQuery = new PostgresQuery<>("processes", repository, new ObjectMapper().findAndRegisterModules(), ProcessInstanceModel.class);
+        postgresQuery.transactionManager = transactionManager;
+        List<ProcessInstanceModel> results = postgresQuery.stream().select().first(10).collect().asList().await().indefinitely();
+
+        assertThat(results).hasSize(10);
+        assertThat(fetchedWhenSuspended.get()).isZero();
+        assertThat(fetched.get()).isLessThan(100);
+        assertThat(closed).isTrue();
+        InOrder inOrder = inOrder(transactionManager, readOnly, query);
+        inOrder.verify(transactionManager).begin();
+        inOrder.verify(readOnly).executeUpdate();
+        inOrder.verify(query).setHint(HINT_FETCH_SIZE, 500);
+        inOrder.verify(query).getResultStream();
+        inOrder.verify(transactionManager, times(2)).suspend();
+        inOrder.verify(transactionManager).resume(transaction);
+        inOrder.verify(transactionManager).rollback();
+        verify(transactionManager, never()).commit();
+    }
+
+    private static <T> List<T> execute(Class<T> type, List<String> rows) {
+        Query query = mockQuery();
+        when(query.getResultList()).thenReturn(rows);
+
+        return new PostgresQuery<>("processes", repository(query), new ObjectMapper().findAndRegisterModules(), type).execute();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Query mockQuery() {
+        Query query = mock(Query.class);
+        NativeQuery<Object> nativeQuery = mock(NativeQuery.class);
+        when(query.unwrap(NativeQuery.class)).thenReturn(nativeQuery);
+        when(nativeQuery.addScalar(anyString(), any())).thenReturn(nativeQuery);
+        return query;
+    }
+
+    private static CacheEntityRepository repository(Query query) {
+        CacheEntityRepository repository = mock(CacheEntityRepository.class);
+        EntityManager em = mock(EntityManager.class);
+        when(repository.getEntityManager()).thenReturn(em);
+        when(em.createNativeQuery(anyString())).thenReturn(query);
+        return repository;
+    }
+
+    private static List<String> rows(int size) {
+        return IntStream.range(0, size)
+                .mapToObj(i -> "{\"id\":\"" + i + "\",\"processId\":\"travels\",\"state\":1,\"roles\":[\"admin\"]}")
+                .collect(Collectors.toList());
+    }
+
+    private static PostgresQuery<Object> query(List<AttributeFilter<?>> filters) {
+        PostgresQuery<Object> query = new PostgresQuery<>("processes", null, null, Object.class);
+        query.filter(filters);
+        return query;
+    }
+}
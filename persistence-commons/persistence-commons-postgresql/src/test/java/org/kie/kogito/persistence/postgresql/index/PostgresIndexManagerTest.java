@@ -0,0 +1,151 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.postgresql.index;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.persistence.api.schema.EntityIndexDescriptor;
+import org.kie.kogito.persistence.api.schema.IndexDescriptor;
+import org.kie.kogito.persistence.api.schema.SchemaDescriptor;
+import org.kie.kogito.persistence.api.schema.SchemaRegisteredEvent;
+import org.kie.kogito.persistence.api.schema.SchemaType;
+import org.mockito.InOrder;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PostgresIndexManagerTest {
+
+    private static final String TYPE = "org.acme.travels.Travels";
+
+    private static final EntityIndexDescriptor INDEX = new EntityIndexDescriptor(TYPE,
+            asList(new IndexDescriptor("flight", singletonList("flightNumber")), new IndexDescriptor("trip", asList("country", "city")),
+                    new IndexDescriptor("empty", emptyList())),
+            emptyList());
+
+    private PostgresIndexManager indexManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        indexManager = spy(new PostgresIndexManager());
+        indexManager.indexEnabled = true;
+        doNothing().when(indexManager).updateTable(anyString(), any());
+    }
+
+    @Test
+    void testCreateIndexStatements() {
+        String prefix = PostgresIndexManager.getIndexPrefix("travels");
+        Map<String, String> statements = indexManager.createIndexStatements("travels", INDEX);
+
+        assertThat(prefix).startsWith(PostgresIndexManager.INDEX_PREFIX).hasSizeLessThan(63);
+        assertThat(statements).hasSize(3);
+        assertThat(statements.get(prefix + PostgresIndexManager.GIN_INDEX))
+                .isEqualTo("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + prefix + "gin ON kogito_data_cache USING gin (json_value jsonb_path_ops) WHERE name = 'travels'");
+        assertThat(statements.values()).contains(
+                "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + statements.keySet().toArray()[1] + " ON kogito_data_cache (((json_value->>'flightNumber'))) WHERE name = 'travels'",
+                "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + statements.keySet().toArray()[2]
+                        + " ON kogito_data_cache (((json_value->>'country')), ((json_value->>'city'))) WHERE name = 'travels'");
+        assertThat(statements.keySet()).allMatch(name -> name.startsWith(prefix));
+        assertThat(PostgresIndexManager.getIndexPrefix("visas")).isNotEqualTo(prefix);
+    }
+
+    @Test
+    void testCacheNameIsEscaped() {
+        assertThat(indexManager.createIndexStatements("o'travels", INDEX).values()).allMatch(ddl -> ddl.endsWith("WHERE name = 'o''travels'"));
+    }
+
+    @Test
+    void testIndexesCreatedOnceForCache() throws Exception {
+        indexManager.onSchemaRegisteredEvent(new SchemaRegisteredEvent(new SchemaDescriptor("travels.proto", "", singletonMap(TYPE, INDEX), null), new SchemaType("proto")));
+        verify(indexManager, never()).updateTable(anyString(), any());
+
+        indexManager.onCacheCreated("travels", TYPE);
+        indexManager.onCacheCreated("travels", TYPE);
+        //built in the background, off the thread creating the cache
+        verify(indexManager, timeout(1000)).updateTable("travels", INDEX);
+        assertThat(indexManager.getCacheIndexMapping()).containsEntry("travels", TYPE);
+
+        EntityIndexDescriptor updated = new EntityIndexDescriptor(TYPE, singletonList(new IndexDescriptor("flight", singletonList("flightNumber"))), emptyList());
+        indexManager.onSchemaRegisteredEvent(new SchemaRegisteredEvent(new SchemaDescriptor("travels.proto", "", singletonMap(TYPE, updated), null), new SchemaType("proto")));
+        verify(indexManager, timeout(1000)).updateTable("travels", updated);
+    }
+
+    @Test
+    void testIndexingDisabled() throws Exception {
+        indexManager.indexEnabled = false;
+        indexManager.onSchemaRegisteredEvent(new SchemaRegisteredEvent(new SchemaDescriptor("travels.proto", "", singletonMap(TYPE, INDEX), null), new SchemaType("proto")));
+        indexManager.onCacheCreated("travels", TYPE);
+
+        verify(indexManager, never()).updateTable(anyString(), any());
+        assertThat(indexManager.getIndexes()).containsKey(TYPE);
+    }
+
+    @Test
+    void testUpdateTableOutsideTransaction() throws Exception {
+        String prefix = PostgresIndexManager.getIndexPrefix("travels");
+        Map<String, String> statements = indexManager.createIndexStatements("travels", INDEX);
+        String invalid = (String) statements.keySet().toArray()[1];
+        String valid = (String) statements.keySet().toArray()[2];
+        ResultSet result = mock(ResultSet.class);
+        when(result.next()).thenReturn(true, true, true, false);
+        when(result.getString(1)).thenReturn(prefix + "stale", invalid, valid);
+        when(result.getBoolean(2)).thenReturn(true, false, true);
+        PreparedStatement list = mock(PreparedStatement.class);
+        when(list.executeQuery()).thenReturn(result);
+        Statement ddl = mock(Statement.class);
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(list);
+        when(connection.createStatement()).thenReturn(ddl);
+        indexManager.dataSource = mock(DataSource.class);
+        when(indexManager.dataSource.getConnection()).thenReturn(connection);
+        doCallRealMethod().when(indexManager).updateTable(anyString(), any());
+
+        indexManager.updateTable("travels", INDEX);
+
+        verify(connection).setAutoCommit(true);
+        verify(list).setString(1, prefix + "%");
+        InOrder inOrder = inOrder(ddl);
+        //the stale index and the one left invalid by a failed build are dropped, the missing ones are built
+        inOrder.verify(ddl).execute("DROP INDEX CONCURRENTLY IF EXISTS " + prefix + "stale");
+        inOrder.verify(ddl).execute("DROP INDEX CONCURRENTLY IF EXISTS " + invalid);
+        inOrder.verify(ddl).execute(statements.get(prefix + PostgresIndexManager.GIN_INDEX));
+        inOrder.verify(ddl).execute(statements.get(invalid));
+        verify(ddl, never()).execute(statements.get(valid));
+        verify(connection).close();
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.persistence.postgresql.listener;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+
+import org.hibernate.Session;
+import org.hibernate.jdbc.Work;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.persistence.api.listener.OverflowStrategy;
+import org.mockito.ArgumentCaptor;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.reactivestreams.Subscription;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PostgresChangeFeedTest {
+
+    private static final int SUBSCRIBERS = 5000;
+
+    private final BlockingQueue<PGNotification> notifications = new LinkedBlockingQueue<>();
+
+    private PostgresChangeFeed feed;
+
+    private DataSource dataSource;
+
+    private Statement statement;
+
+    @BeforeEach
+    void setup() throws Exception {
+        PGConnection pgConnection = mock(PGConnection.class);
+        when(pgConnection.getNotifications(anyInt())).thenAnswer(invocation -> {
+            PGNotification notification = notifications.poll(invocation.getArgument(0), MILLISECONDS);
+            return notification == null ? null : new PGNotification[] { notification };
+        });
+        statement = mock(Statement.class);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+
+        feed = new PostgresChangeFeed();
+        feed.dataSource = dataSource;
+        feed.mapper = new ObjectMapper();
+        feed.channel = "kogito_data_changes";
+        feed.bufferSize = 16;
+        feed.overflowStrategy = OverflowStrategy.LATEST;
+        feed.pollTimeout = 10;
+        feed.reconnectDelay = 10;
+        feed.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.stop();
+    }
+
+    @Test
+    void testChangesAreFannedOutFromASingleConnection() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        Function<String, String> loader = key -> {
+            reads.incrementAndGet();
+            return "value-" + key;
+        };
+        CountDownLatch received = new CountDownLatch(SUBSCRIBERS);
+        List<List<String>> items = IntStream.range(0, SUBSCRIBERS).mapToObj(i -> {
+            List<String> subscriberItems = new CopyOnWriteArrayList<>();
+            feed.changes("processes", ChangeEvent.Type.CREATED, loader).subscribe().with(item -> {
+                subscriberItems.add(item);
+                received.countDown();
+            });
+            return subscriberItems;
+        }).collect(toList());
+
+        notifications.add(notification("processes", "1", ChangeEvent.Type.UPDATED));
+        notifications.add(notification("jobs", "2", ChangeEvent.Type.CREATED));
+        notifications.add(notification("processes", "3", ChangeEvent.Type.CREATED));
+
+        assertThat(received.await(10, SECONDS)).isTrue();
+        assertThat(items).allSatisfy(subscriberItems -> assertThat(subscriberItems).containsExactly("value-3"));
+        assertThat(reads).hasValue(1);
+        verify(dataSource, times(1)).getConnection();
+        verify(statement).execute("LISTEN kogito_data_changes");
+    }
+
+    @Test
+    void testSlowSubscriberDoesNotHoldTheOthers() throws Exception {
+        int changes = feed.bufferSize + 4;
+        AtomicReference<Subscription> slowSubscription = new AtomicReference<>();
+        List<String> slowItems = new CopyOnWriteArrayList<>();
+        CountDownLatch slowReceived = new CountDownLatch(feed.bufferSize);
+        feed.changes("processes", ChangeEvent.Type.REMOVED, Function.identity()).subscribe().with(slowSubscription::set, item -> {
+            slowItems.add(item);
+            slowReceived.countDown();
+        }, failure -> {
+        }, () -> {
+        });
+        CountDownLatch received = new CountDownLatch(changes);
+        feed.changes("processes", ChangeEvent.Type.REMOVED, Function.identity()).subscribe().with(item -> received.countDown());
+
+        IntStream.range(0, changes).forEach(i -> notifications.add(notification("processes", String.valueOf(i), ChangeEvent.Type.REMOVED)));
+
+        assertThat(received.await(10, SECONDS)).isTrue();
+        assertThat(slowItems).isEmpty();
+        slowSubscription.get().request(changes);
+        assertThat(slowReceived.await(10, SECONDS)).isTrue();
+        assertThat(slowItems).containsExactlyElementsOf(IntStream.range(4, changes).mapToObj(String::valueOf).collect(toList()));
+    }
+
+    @Test
+    void testMalformedNotificationsAreSkipped() throws Exception {
+        CompletableFuture<String> removed = new CompletableFuture<>();
+        feed.changes("processes", ChangeEvent.Type.REMOVED, Function.identity()).subscribe().with(removed::complete);
+
+        PGNotification malformed = mock(PGNotification.class);
+        when(malformed.getParameter()).thenReturn("processes:1");
+        notifications.add(malformed);
+        notifications.add(notification("processes", "2", ChangeEvent.Type.REMOVED));
+
+        assertThat(removed.get(10, SECONDS)).isEqualTo("2");
+    }
+
+    @Test
+    void testPublishNotifiesInTheCurrentTransaction() throws Exception {
+        Session session = mock(Session.class);
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(PostgresChangeFeed.NOTIFY)).thenReturn(preparedStatement);
+
+        feed.publish(entityManager, "processes", "1", ChangeEvent.Type.UPDATED);
+
+        ArgumentCaptor<Work> work = ArgumentCaptor.forClass(Work.class);
+        verify(session).doWork(work.capture());
+        work.getValue().execute(connection);
+        verify(preparedStatement).setString(1, "kogito_data_changes");
+        verify(preparedStatement).setString(2, "{\"cache\":\"processes\",\"key\":\"1\",\"type\":\"UPDATED\"}");
+        verify(preparedStatement).execute();
+    }
+
+    @Test
+    void testPublishAllNotifiesWithASingleStatement() throws Exception {
+        Session session = mock(Session.class);
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        Connection connection = mock(Connection.class);
+        Array payloads = mock(Array.class);
+        when(connection.prepareStatement(PostgresChangeFeed.NOTIFY_ALL)).thenReturn(preparedStatement);
+        when(connection.createArrayOf(eq("text"), any())).thenReturn(payloads);
+        Map<String, ChangeEvent.Type> changes = new LinkedHashMap<>();
+        changes.put("1", ChangeEvent.Type.CREATED);
+        changes.put("2", ChangeEvent.Type.UPDATED);
+
+        feed.publishAll(entityManager, "processes", changes);
+
+        ArgumentCaptor<Work> work = ArgumentCaptor.forClass(Work.class);
+        verify(session).doWork(work.capture());
+        work.getValue().execute(connection);
+        verify(connection).createArrayOf("text", new Object[] {
+                "{\"cache\":\"processes\",\"key\":\"1\",\"type\":\"CREATED\"}",
+                "{\"cache\":\"processes\",\"key\":\"2\",\"type\":\"UPDATED\"}" });
+        verify(preparedStatement).setString(1, "kogito_data_changes");
+        verify(preparedStatement).setArray(2, payloads);
+        verify(preparedStatement, times(1)).execute();
+    }
+
+    private PGNotification notification(String cache, String key, ChangeEvent.Type type) {
+        PGNotification notification = mock(PGNotification.class);
+        try {
+            when(notification.getParameter()).thenReturn(feed.mapper.writeValueAsString(new ChangeEvent(cache, key, type)));
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+        return notification;
+    }
+}
@@ -17,7 +17,12 @@
 package org.kie.kogito.persistence.redis;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.kie.kogito.persistence.api.query.AttributeFilter;
@@ -28,16 +33,26 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.redisearch.Client;
+import io.redisearch.Document;
 import io.redisearch.SearchResult;
+import io.redisearch.aggregation.AggregationBuilder;
+import io.redisearch.aggregation.reducers.Reducers;
+import io.smallrye.mutiny.Multi;
 
+import static java.util.Collections.singletonList;
 import static org.kie.kogito.persistence.redis.Constants.RAW_OBJECT_FIELD;
 
 public class RedisQuery<V> implements Query<V> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RedisQuery.class);
 
+    private static final int PAGE_SIZE = 500;
+
+    private static final String COUNT = "count";
+
     Integer limit;
     Integer offset;
+    String after;
     List<AttributeFilter<?>> filters;
     AttributeSort sortBy;
     String indexName;
@@ -64,6 +79,18 @@ public class RedisQuery<V> implements Query<V> {
         return this;
     }
 
+    /**
+     * RediSearch can neither combine the range filters with OR nor sort or range over the document ids used to break
+     * the ties, so the keyset pagination cannot be pushed to the index. Instead, the result is scanned page by page in
+     * the sort order of the query until the document of the cursor is found, and the documents after it are returned.
+     * The cost grows with the position of the cursor in the result, and the ties keep the order RediSearch returns them in.
+     */
+    @Override
+    public Query<V> after(String cursor) {
+        this.after = cursor;
+        return this;
+    }
+
     @Override
     public Query<V> filter(List<AttributeFilter<?>> filters) {
         this.filters = filters;
@@ -83,25 +110,109 @@ public class RedisQuery<V> implements Query<V> {
 
     @Override
     public List<V> execute() {
-        io.redisearch.Query query = new io.redisearch.Query(RedisQueryFactory.buildQueryBody(indexName, filters));
+        if (after != null) {
+            return stream().collect().asList().await().indefinitely();
+        }
+        io.redisearch.Query query = buildQuery();
 
         setQueryLimitAndOffset(query);
 
+        return search(query);
+    }
+
+    @Override
+    public Multi<V> stream() {
+        Multi<Document> documents = after == null ? documents(offset == null ? 0 : offset, limit) : documentsAfterCursor();
+        return documents.onItem().transform(this::read);
+    }
+
+    private Multi<Document> documentsAfterCursor() {
+        return Multi.createFrom().deferred(() -> {
+            if (redisClient.getDocument(after) == null) {
+                return Multi.createFrom().empty();
+            }
+            final AtomicBoolean found = new AtomicBoolean();
+            Multi<Document> documents = documents(0, null).select().where(document -> {
+                if (found.get()) {
+                    return true;
+                }
+                found.set(after.equals(document.getId()));
+                return false;
+            });
+            if (offset != null) {
+                documents = documents.skip().first(offset);
+            }
+            return limit == null ? documents : documents.select().first(limit);
+        });
+    }
+
+    //the result is fetched page by page, the pages are requested as the previous one is consumed
+    private Multi<Document> documents(int start, Integer maxDocuments) {
+        final AtomicInteger position = new AtomicInteger(start);
+        return Multi.createBy().repeating().supplier(() -> {
+            int size = maxDocuments == null ? PAGE_SIZE : Math.min(PAGE_SIZE, start + maxDocuments - position.get());
+            if (size <= 0) {
+                return Collections.<Document> emptyList();
+            }
+            io.redisearch.Query query = buildQuery();
+            query.limit(position.get(), size);
+            List<Document> page = redisClient.search(query).docs;
+            position.addAndGet(page.size());
+            return page;
+        }).until(List::isEmpty)
+                .onItem().transformToIterable(page -> page);
+    }
+
+    @Override
+    public long count() {
+        io.redisearch.Query query = buildQuery();
+        query.limit(0, 0);
+        return redisClient.search(query).totalResults;
+    }
+
+    @Override
+    public Map<List<Object>, Long> countBy(List<String> attributes) {
+        if (attributes.isEmpty()) {
+            return Map.of(Collections.emptyList(), count());
+        }
+        List<String> fields = attributes.stream().map(attribute -> "@" + attribute).collect(Collectors.toList());
+        AggregationBuilder aggregation = new AggregationBuilder(RedisQueryFactory.buildAggregationQueryBody(indexName, filters))
+                .load(fields.toArray(new String[0]))
+                .groupBy(fields, singletonList(Reducers.count().as(COUNT)));
+
+        // RediSearch returns the grouped values as text
+        Map<List<Object>, Long> counts = new HashMap<>();
+        for (Map<String, Object> row : redisClient.aggregate(aggregation).getResults()) {
+            List<Object> values = attributes.stream().map(row::get).collect(Collectors.toList());
+            counts.put(values, Long.valueOf(row.get(COUNT).toString()));
+        }
+        return counts;
+    }
+
+    private io.redisearch.Query buildQuery() {
+        io.redisearch.Query query = new io.redisearch.Query(RedisQueryFactory.buildQueryBody(indexName, filters));
+
         if (sortBy != null) {
             query.setSortBy(sortBy.getAttribute(), SortDirection.ASC.equals(sortBy.getSort()));
         }
 
         RedisQueryFactory.addFilters(query, filters);
+        return query;
+    }
+
+    private List<V> search(io.redisearch.Query query) {
         SearchResult search = redisClient.search(query);
         LOGGER.debug(String.format("%d documets have been found for the query.", search.totalResults));
 
-        return search.docs.stream().map(x -> {
-            try {
-                return JsonUtils.getMapper().readValue((String) x.get(RAW_OBJECT_FIELD), type);
-            } catch (IOException e) {
-                throw new RuntimeException("Could not deserialize a retrieved object.", e);
-            }
-        }).collect(Collectors.toList());
+        return search.docs.stream().map(this::read).collect(Collectors.toList());
+    }
+
+    private V read(Document document) {
+        try {
+            return JsonUtils.getMapper().readValue((String) document.get(RAW_OBJECT_FIELD), type);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not deserialize a retrieved object.", e);
+        }
     }
 
     private void setQueryLimitAndOffset(io.redisearch.Query query) {
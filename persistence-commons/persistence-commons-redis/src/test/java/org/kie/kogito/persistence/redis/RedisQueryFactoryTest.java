@@ -111,6 +111,19 @@ public class RedisQueryFactoryTest {
         verify(query, times(5)).addFilter(any(Query.Filter.class));
     }
 
+    @Test
+    public void buildAggregationQueryBodyTest() {
+        List<AttributeFilter<?>> filters = new ArrayList<>();
+        filters.add(QueryFilterFactory.equalTo("firstAttribute", "firstValue"));
+        filters.add(QueryFilterFactory.between("betweenAttribute", 0, 1));
+        filters.add(QueryFilterFactory.greaterThan("greaterThanAttribute", 0d));
+        filters.add(QueryFilterFactory.lessThanEqual("lessThanEqualAttribute", 2L));
+        String result = RedisQueryFactory.buildAggregationQueryBody(TEST_INDEX_NAME, filters);
+
+        Assertions.assertEquals("@indexName:myIndexName @firstAttribute:firstValue @betweenAttribute:[0.0 1.0] @greaterThanAttribute:[(0.0 +inf]"
+                + " @lessThanEqualAttribute:[-inf 2.0]", result);
+    }
+
     private void testFilterShouldNotBeSupported(AttributeFilter<?> filter) {
         Assertions.assertThrows(UnsupportedOperationException.class, () -> RedisQueryFactory.addFilters(new Query(""), singletonList(filter)));
     }
@@ -29,9 +29,11 @@ import org.mockito.Mockito;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 
+import io.redisearch.AggregationResult;
 import io.redisearch.Document;
 import io.redisearch.Query;
 import io.redisearch.SearchResult;
+import io.redisearch.aggregation.AggregationBuilder;
 import io.redisearch.client.Client;
 
 import static java.util.Arrays.asList;
@@ -41,6 +43,8 @@ import static org.kie.kogito.persistence.redis.Constants.RAW_OBJECT_FIELD;
 import static org.kie.kogito.persistence.redis.Person.NAME_PROPERTY;
 import static org.kie.kogito.persistence.redis.TestContants.TEST_INDEX_NAME;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class RedisQueryTest {
@@ -51,6 +55,47 @@ public class RedisQueryTest {
         Assertions.assertThrows(UnsupportedOperationException.class, () -> redisQuery.sort(asList(orderBy("first", SortDirection.DESC), orderBy("second", SortDirection.ASC))));
     }
 
+    @Test
+    public void keysetPaginationTest() {
+        Client client = Mockito.mock(Client.class);
+        SearchResult page = new SearchResult(singletonList(0L), false, false, false);
+        asList("a", "b", "c", "d").forEach(name -> page.docs.add(personDocument(name)));
+        SearchResult empty = new SearchResult(singletonList(0L), false, false, false);
+        when(client.search(any(Query.class))).thenReturn(page, empty);
+        when(client.getDocument("b")).thenReturn(personDocument("b"));
+
+        RedisQuery<Person> redisQuery = new RedisQuery<>(client, TEST_INDEX_NAME, Person.class);
+        redisQuery.after("b");
+        redisQuery.limit(1);
+
+        // The documents are scanned until the cursor, the next one is returned
+        List<Person> result = redisQuery.execute();
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals("c", result.get(0).getName());
+    }
+
+    @Test
+    public void keysetPaginationMissingCursorTest() {
+        Client client = Mockito.mock(Client.class);
+
+        RedisQuery<Person> redisQuery = new RedisQuery<>(client, TEST_INDEX_NAME, Person.class);
+        redisQuery.after("missing");
+
+        Assertions.assertTrue(redisQuery.execute().isEmpty());
+        verify(client, times(0)).search(any(Query.class));
+    }
+
+    private static Document personDocument(String name) {
+        Person person = new Person(name, 20);
+        Map<String, Object> map = JsonUtils.getMapper().convertValue(person, Map.class);
+        try {
+            map.put(RAW_OBJECT_FIELD, JsonUtils.getMapper().writeValueAsString(person));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        return new Document(name, map);
+    }
+
     @Test
     public void executeTest() throws JsonProcessingException {
         Client client = Mockito.mock(Client.class);
@@ -80,4 +125,46 @@ public class RedisQueryTest {
         Assertions.assertEquals("pippo", result.get(0).getName());
         Assertions.assertEquals(20, result.get(0).getAge());
     }
+
+    @Test
+    public void streamTest() throws JsonProcessingException {
+        Client client = Mockito.mock(Client.class);
+
+        Person person = new Person("pippo", 20);
+        Map<String, Object> map = JsonUtils.getMapper().convertValue(person, Map.class);
+        map.put(RAW_OBJECT_FIELD, JsonUtils.getMapper().writeValueAsString(person));
+
+        // One page with a single document followed by an empty one
+        SearchResult page = new SearchResult(singletonList(0L), false, false, false);
+        page.docs.add(new Document("pippo", map));
+        SearchResult empty = new SearchResult(singletonList(0L), false, false, false);
+        when(client.search(any(Query.class))).thenReturn(page, empty);
+
+        RedisQuery<Person> redisQuery = new RedisQuery<>(client, TEST_INDEX_NAME, Person.class);
+        List<Person> result = redisQuery.stream().collect().asList().await().indefinitely();
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals("pippo", result.get(0).getName());
+        verify(client, times(2)).search(any(Query.class));
+
+        // The limit is honored without fetching the following pages
+        redisQuery.limit(1);
+        redisQuery.offset(0);
+        when(client.search(any(Query.class))).thenReturn(page);
+        Assertions.assertEquals(1, redisQuery.stream().collect().asList().await().indefinitely().size());
+        verify(client, times(3)).search(any(Query.class));
+    }
+
+    @Test
+    public void countByTest() {
+        Client client = Mockito.mock(Client.class);
+        AggregationResult aggregationResult = Mockito.mock(AggregationResult.class);
+        when(aggregationResult.getResults()).thenReturn(List.of(Map.<String, Object> of(NAME_PROPERTY, "pippo", "count", "2")));
+        when(client.aggregate(any(AggregationBuilder.class))).thenReturn(aggregationResult);
+
+        RedisQuery<Person> redisQuery = new RedisQuery<>(client, TEST_INDEX_NAME, Person.class);
+        redisQuery.filter(new ArrayList<>());
+
+        Assertions.assertEquals(Map.of(List.of("pippo"), 2L), redisQuery.countBy(List.of(NAME_PROPERTY)));
+    }
 }